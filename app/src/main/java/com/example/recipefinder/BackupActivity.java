@@ -0,0 +1,231 @@
+package com.example.recipefinder;
+
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.widget.Button;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.recipefinder.backup.RecipeBackup;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Backs up SavedRecipes to a compressed file chosen through the system file picker, and restores from one.
+// Both directions stream page by page, so memory use does not depend on the size of the collection.
+public class BackupActivity extends AppCompatActivity {
+
+    private static final String TAG = "BackupActivity";
+
+    private Button btnCreateBackup, btnRestoreBackup;
+    private ProgressBar backupProgress;
+    private TextView txtBackupStatus;
+
+    private RecipeRepository repository;
+    private ExecutorService backupExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private ActivityResultLauncher<String> createDocumentLauncher;
+    private ActivityResultLauncher<String[]> openDocumentLauncher;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_backup);
+
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser == null) {
+            Toast.makeText(this, "Please log in to back up your recipes.", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+        repository = RecipeRepository.getInstance(this, currentUser.getUid());
+
+        btnCreateBackup = findViewById(R.id.btnCreateBackup);
+        btnRestoreBackup = findViewById(R.id.btnRestoreBackup);
+        backupProgress = findViewById(R.id.backupProgress);
+        txtBackupStatus = findViewById(R.id.txtBackupStatus);
+
+        backupExecutor = Executors.newSingleThreadExecutor();
+        createDocumentLauncher = registerForActivityResult(
+                new ActivityResultContracts.CreateDocument("application/octet-stream"),
+                uri -> {
+                    if (uri != null) {
+                        startExport(uri);
+                    }
+                });
+        openDocumentLauncher = registerForActivityResult(
+                new ActivityResultContracts.OpenDocument(),
+                uri -> {
+                    if (uri != null) {
+                        startRestore(uri);
+                    }
+                });
+
+        btnCreateBackup.setOnClickListener(v -> {
+            String date = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
+            createDocumentLauncher.launch("recipes-" + date + RecipeBackup.FILE_EXTENSION);
+        });
+        btnRestoreBackup.setOnClickListener(v -> openDocumentLauncher.launch(new String[]{"*/*"}));
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        cancelled.set(true);
+        if (backupExecutor != null) {
+            backupExecutor.shutdown();
+        }
+    }
+
+    private void startExport(Uri uri) {
+        setBusy(true, "Backing up...");
+        // Local edits still waiting in the write-behind queue go up first so the backup includes them
+        repository.flushPendingWrites();
+        backupExecutor.execute(() -> {
+            long written = 0;
+            Exception failure = null;
+            try (OutputStream out = getContentResolver().openOutputStream(uri, "wt")) {
+                if (out == null) {
+                    throw new IOException("Could not open " + uri);
+                }
+                written = RecipeBackup.export(this::fetchPage, out,
+                        done -> postStatus("Backed up " + done + " recipes..."), cancelled);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            final long result = written;
+            final Exception error = failure;
+            mainHandler.post(() -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                if (error != null) {
+                    Log.e(TAG, "Backup failed", error);
+                    setBusy(false, "Backup failed: " + error.getMessage());
+                } else {
+                    Log.d(TAG, "startExport: Wrote " + result + " recipes to " + uri);
+                    setBusy(false, "Backed up " + result + " recipes.");
+                }
+            });
+        });
+    }
+
+    private void startRestore(Uri uri) {
+        setBusy(true, "Restoring...");
+        backupExecutor.execute(() -> {
+            long restored = 0;
+            Exception failure = null;
+            try (InputStream in = getContentResolver().openInputStream(uri)) {
+                if (in == null) {
+                    throw new IOException("Could not open " + uri);
+                }
+                restored = RecipeBackup.restore(in, this::writeChunk,
+                        done -> postStatus("Restored " + done + " recipes..."), cancelled);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            final long result = restored;
+            final Exception error = failure;
+            mainHandler.post(() -> {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+                if (error != null) {
+                    Log.e(TAG, "Restore failed", error);
+                    setBusy(false, "Restore stopped: " + error.getMessage());
+                } else {
+                    Log.d(TAG, "startRestore: Restored " + result + " recipes from " + uri);
+                    setBusy(false, "Restored " + result + " recipes.");
+                }
+            });
+        });
+    }
+
+    // Blocks the backup thread on one page of the server collection
+    private List<RecipeModel> fetchPage(String startAfterDocId, int limit) throws IOException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<RecipeModel>> page = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        repository.fetchRemotePage(startAfterDocId, limit, new RepositoryCallback<List<RecipeModel>>() {
+            @Override
+            public void onSuccess(List<RecipeModel> result) {
+                page.set(result);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+        await(done, error);
+        return page.get();
+    }
+
+    // Restored recipes keep their document IDs, are stored locally and queued for upload
+    private void writeChunk(List<RecipeModel> recipes) throws IOException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        repository.importRecipes(recipes, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+        await(done, error);
+    }
+
+    private static void await(CountDownLatch done, AtomicReference<Exception> error) throws IOException {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Backup interrupted", e);
+        }
+        if (error.get() != null) {
+            throw new IOException(error.get());
+        }
+    }
+
+    private void postStatus(String status) {
+        mainHandler.post(() -> txtBackupStatus.setText(status));
+    }
+
+    private void setBusy(boolean busy, String status) {
+        btnCreateBackup.setEnabled(!busy);
+        btnRestoreBackup.setEnabled(!busy);
+        backupProgress.setVisibility(busy ? View.VISIBLE : View.GONE);
+        txtBackupStatus.setText(status);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.recipefinder;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Html;
+import android.text.SpannableString;
+import android.util.LruCache;
+import android.widget.TextView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parses recipe HTML (summary, ingredients, instructions, notes) off the main thread and keeps the parsed
+ * text in a process-wide LRU cache keyed by (docId, field, content hash). Re-opening a recipe or resuming
+ * RecipeDetailFragment then sets cached text directly without running Html.fromHtml again; an edit
+ * changes the content hash, so stale renderings are never shown.
+ */
+public final class HtmlRenderCache {
+
+    // Budget in characters of parsed text, roughly 2 bytes each plus span overhead
+    private static final int MAX_CACHED_CHARS = 512 * 1024;
+
+    private static final LruCache<String, CharSequence> cache = new LruCache<String, CharSequence>(MAX_CACHED_CHARS) {
+        @Override
+        protected int sizeOf(String key, CharSequence value) {
+            return Math.max(1, value.length());
+        }
+    };
+    private static final ExecutorService parseExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private HtmlRenderCache() {
+    }
+
+    /**
+     * Shows the rendered HTML in the TextView: immediately if it is cached, otherwise after parsing it in the
+     * background. If the view is bound to different content before parsing finishes, the late result is dropped.
+     */
+    public static void bind(TextView textView, String docId, String field, String html) {
+        if (html == null || html.isEmpty()) {
+            textView.setTag(R.id.html_render_key, null);
+            textView.setText("");
+            return;
+        }
+        final String key = docId + "/" + field + "/" + html.hashCode() + "/" + html.length();
+        textView.setTag(R.id.html_render_key, key);
+
+        CharSequence cached = cache.get(key);
+        if (cached != null) {
+            textView.setText(cached);
+            return;
+        }
+
+        parseExecutor.execute(() -> {
+            // SpannableString copy: the result is shared across views and must never be mutated
+            CharSequence parsed = new SpannableString(parse(html));
+            cache.put(key, parsed);
+            mainHandler.post(() -> {
+                if (key.equals(textView.getTag(R.id.html_render_key))) {
+                    textView.setText(parsed);
+                }
+            });
+        });
+    }
+
+    private static CharSequence parse(String html) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return Html.fromHtml(html, Html.FROM_HTML_MODE_COMPACT);
+        } else {
+            return Html.fromHtml(html);
+        }
+    }
+}
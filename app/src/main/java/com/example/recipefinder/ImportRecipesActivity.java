@@ -0,0 +1,274 @@
+package com.example.recipefinder;
+
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.OpenableColumns;
+import android.util.Log;
+import android.view.View;
+import android.widget.Button;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.importer.CountingInputStream;
+import com.example.recipefinder.importer.CsvRecipeReader;
+import com.example.recipefinder.importer.JsonRecipeReader;
+import com.example.recipefinder.importer.RecipeImporter;
+import com.example.recipefinder.importer.RecipeRecordReader;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Bulk import of recipes from a JSON or CSV file picked through the system file chooser.
+// The file is streamed in chunks, so its size is not limited by memory.
+public class ImportRecipesActivity extends AppCompatActivity {
+
+    private static final String TAG = "ImportRecipesActivity";
+    private static final String PREFS_NAME = "recipe_import_checkpoints";
+
+    private Button btnChooseFile;
+    private ProgressBar importProgress;
+    private TextView txtImportStatus;
+
+    private RecipeRepository repository;
+    private ExecutorService importExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private ActivityResultLauncher<String[]> openDocumentLauncher;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_import_recipes);
+
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser == null) {
+            Toast.makeText(this, "Please log in to import recipes.", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+        repository = RecipeRepository.getInstance(this, currentUser.getUid());
+
+        btnChooseFile = findViewById(R.id.btnChooseImportFile);
+        importProgress = findViewById(R.id.importProgress);
+        txtImportStatus = findViewById(R.id.txtImportStatus);
+
+        importExecutor = Executors.newSingleThreadExecutor();
+        openDocumentLauncher = registerForActivityResult(
+                new ActivityResultContracts.OpenDocument(),
+                uri -> {
+                    if (uri != null) {
+                        startImport(uri);
+                    }
+                });
+        btnChooseFile.setOnClickListener(v -> openDocumentLauncher.launch(new String[]{
+                "application/json", "text/csv", "text/comma-separated-values", "text/plain"}));
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Stops after the chunk in flight; the checkpoint lets the next run pick up from there
+        cancelled.set(true);
+        if (importExecutor != null) {
+            importExecutor.shutdown();
+        }
+    }
+
+    private void startImport(Uri uri) {
+        long fileSize = querySize(uri);
+        boolean csv = isCsv(uri);
+        Log.d(TAG, "startImport: " + uri + " (" + (csv ? "CSV" : "JSON") + ", " + fileSize + " bytes)");
+
+        btnChooseFile.setEnabled(false);
+        importProgress.setVisibility(View.VISIBLE);
+        importProgress.setIndeterminate(fileSize <= 0);
+        importProgress.setProgress(0);
+        txtImportStatus.setText("Checking your existing recipes...");
+
+        importExecutor.execute(() -> {
+            RecipeImporter.Stats stats = null;
+            Exception failure = null;
+            try {
+                Set<String> existingKeys = loadExistingKeys();
+                try (InputStream raw = getContentResolver().openInputStream(uri)) {
+                    if (raw == null) {
+                        throw new IOException("Could not open " + uri);
+                    }
+                    CountingInputStream counted = new CountingInputStream(new BufferedInputStream(raw));
+                    Reader reader = new InputStreamReader(counted, StandardCharsets.UTF_8);
+                    try (RecipeRecordReader records = csv ? new CsvRecipeReader(reader) : new JsonRecipeReader(reader)) {
+                        stats = new RecipeImporter().run(records, existingKeys, this::writeChunk,
+                                new PrefsCheckpoint(uri.toString() + "#" + fileSize),
+                                progress -> postProgress(progress, counted.getCount(), fileSize), cancelled);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            final RecipeImporter.Stats result = stats;
+            final Exception error = failure;
+            mainHandler.post(() -> onImportFinished(result, error));
+        });
+    }
+
+    // Dedupe keys of every recipe already stored, streamed from the local store without building a list
+    private Set<String> loadExistingKeys() throws IOException {
+        Set<String> keys = Collections.synchronizedSet(new HashSet<>());
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        repository.forEachLocalRecipe(recipe -> keys.add(RecipeImporter.dedupeKey(recipe)), new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+        await(done, error);
+        Log.d(TAG, "loadExistingKeys: " + keys.size() + " recipes already saved.");
+        return new HashSet<>(keys);
+    }
+
+    // Blocks the import thread until the chunk is committed locally; uploads continue in the background
+    private void writeChunk(List<RecipeModel> recipes) throws IOException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        repository.importRecipes(recipes, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+        await(done, error);
+    }
+
+    private static void await(CountDownLatch done, AtomicReference<Exception> error) throws IOException {
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        }
+        if (error.get() != null) {
+            throw new IOException(error.get());
+        }
+    }
+
+    private void postProgress(RecipeImporter.Stats stats, long bytesRead, long fileSize) {
+        final String status = "Imported " + stats.imported + " recipes (" + stats.duplicates + " already saved)...";
+        final int permille = fileSize > 0 ? (int) Math.min(1000, bytesRead * 1000 / fileSize) : 0;
+        mainHandler.post(() -> {
+            if (fileSize > 0) {
+                importProgress.setProgress(permille);
+            }
+            txtImportStatus.setText(status);
+        });
+    }
+
+    private void onImportFinished(RecipeImporter.Stats stats, Exception error) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        btnChooseFile.setEnabled(true);
+        importProgress.setVisibility(View.GONE);
+        if (error != null) {
+            Log.e(TAG, "Import failed", error);
+            txtImportStatus.setText("Import stopped: " + error.getMessage()
+                    + "\nChoose the same file again to continue where it left off.");
+            return;
+        }
+        Log.d(TAG, "onImportFinished: " + stats);
+        String status = "Imported " + stats.imported + " recipes.";
+        if (stats.duplicates > 0) {
+            status += "\nSkipped " + stats.duplicates + " you already have.";
+        }
+        if (stats.invalid > 0) {
+            status += "\nSkipped " + stats.invalid + " records without a title.";
+        }
+        if (stats.resumedFrom > 0) {
+            status += "\nContinued after " + stats.resumedFrom + " records from an earlier run.";
+        }
+        txtImportStatus.setText(status);
+    }
+
+    private long querySize(Uri uri) {
+        try (Cursor cursor = getContentResolver().query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "querySize: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    private boolean isCsv(Uri uri) {
+        String type = getContentResolver().getType(uri);
+        if (type != null && (type.contains("csv") || type.contains("comma-separated"))) {
+            return true;
+        }
+        String path = uri.getLastPathSegment();
+        return path != null && path.toLowerCase().endsWith(".csv");
+    }
+
+    // Progress for each file (keyed by URI and size) survives the activity and the process
+    private class PrefsCheckpoint implements RecipeImporter.Checkpoint {
+        private final String key;
+        private final SharedPreferences prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+
+        PrefsCheckpoint(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public long load() {
+            return prefs.getLong(key, 0);
+        }
+
+        @Override
+        public void save(long recordsDone) {
+            prefs.edit().putLong(key, recordsDone).apply();
+        }
+
+        @Override
+        public void clear() {
+            prefs.edit().remove(key).apply();
+        }
+    }
+}
@@ -2,76 +2,61 @@ package com.example.recipefinder;
 
 import android.content.Intent;
 import android.os.Bundle;
-import androidx.annotation.NonNull;
+import android.util.Log;
+
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.navigation.NavController;
+import androidx.navigation.fragment.NavHostFragment;
+import androidx.navigation.ui.NavigationUI;
+
+import com.example.recipefinder.ui.SessionViewModel;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
-import android.view.MenuItem;
 
+/**
+ * The only activity after login. Its screens are fragment destinations in res/navigation/mobile_navigation.xml;
+ * the bottom navigation swaps them in place, and each tab keeps its own back stack. Data the screens share
+ * lives in SessionViewModel, which is scoped to this activity and so survives tab switches.
+ *
+ * LoginActivity, RegisterActivity and the full-screen tools (import, backup) remain separate activities.
+ */
 public class MainActivity extends AppCompatActivity {
 
-    private FirebaseAuth mAuth;
+    private static final String TAG = "MainActivity";
+
+    private NavController navController;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        // You can keep a simple layout for MainActivity if needed,
-        // or just have it act as a launcher to MyRecipes after login.
-        // For simplicity, let's keep the current activity_main layout.
-        setContentView(R.layout.activity_main); // Your main layout, even if we don't display a fragment here anymore
-
-        mAuth = FirebaseAuth.getInstance();
 
         // Check if user is logged in
-        FirebaseUser currentUser = mAuth.getCurrentUser();
-        if (currentUser == null) {
+        if (FirebaseAuth.getInstance().getCurrentUser() == null) {
             // No user logged in, redirect to LoginActivity
-            Intent loginIntent = new Intent(MainActivity.this, LoginActivity.class);
-            startActivity(loginIntent);
+            startActivity(new Intent(MainActivity.this, LoginActivity.class));
             finish(); // Finish MainActivity if no user is logged in
             return;
         }
+        // Created here so the repository starts flushing queued writes before the first screen asks for it
+        new ViewModelProvider(this).get(SessionViewModel.class);
 
-        // If user is logged in, immediately redirect to MyRecipes.
-        // We are effectively bypassing MainActivity as a hub and making MyRecipes the primary hub.
-        // The BottomNavigationView setup in MainActivity below will become redundant for initial launch,
-        // but it's crucial for the *other* activities to implement their own.
-        Intent myRecipesIntent = new Intent(MainActivity.this, MyRecipes.class);
-        startActivity(myRecipesIntent);
-        finish(); // Finish MainActivity so the user can't press back to it.
+        setContentView(R.layout.activity_main);
 
-        // --- The following BottomNavigationView logic in MainActivity will now be redundant ---
-        // --- because MainActivity immediately launches MyRecipes and finishes itself. ---
-        // --- This code is effectively never reached for actual navigation from MainActivity. ---
-        // --- You will implement similar logic in MyRecipes, EditRecipeActivity, and ProfileActivity. ---
+        NavHostFragment navHostFragment =
+                (NavHostFragment) getSupportFragmentManager().findFragmentById(R.id.nav_host_fragment);
+        navController = navHostFragment.getNavController();
 
-        /* Original BottomNavigationView code (now largely redundant in MainActivity)
+        // Menu item IDs match the top-level destination IDs, so NavigationUI switches tabs (saving and
+        // restoring each tab's back stack) and highlights the tab of whatever destination is showing
         BottomNavigationView bottomNavigationView = findViewById(R.id.bottom_navigation);
-        bottomNavigationView.setSelectedItemId(R.id.nav_view_recipes); // This selection won't be visible before finish()
-
-        bottomNavigationView.setOnItemSelectedListener(new BottomNavigationView.OnItemSelectedListener() {
-            @Override
-            public boolean onNavigationItemSelected(@NonNull MenuItem item) {
-                int itemId = item.getItemId();
-
-                if (itemId == R.id.nav_view_recipes) {
-                    startActivity(new Intent(MainActivity.this, MyRecipes.class));
-                    return true;
-                } else if (itemId == R.id.nav_add_recipe) {
-                    Intent intent = new Intent(MainActivity.this, EditRecipeActivity.class);
-                    startActivity(intent);
-                    return true;
-                } else if (itemId == R.id.nav_profile) {
-                    startActivity(new Intent(MainActivity.this, ProfileActivity.class));
-                    return true;
-                }
-                return false;
-            }
-        });
-        */
+        NavigationUI.setupWithNavController(bottomNavigationView, navController);
+        navController.addOnDestinationChangedListener((controller, destination, arguments) ->
+                Log.d(TAG, "Showing " + destination.getLabel()));
     }
 
-    // This method `loadFragment` is no longer needed as WelcomeFragment is removed.
-    // public void loadFragment(Fragment fragment) { ... }
-}
\ No newline at end of file
+    @Override
+    public boolean onSupportNavigateUp() {
+        return navController.navigateUp() || super.onSupportNavigateUp();
+    }
+}
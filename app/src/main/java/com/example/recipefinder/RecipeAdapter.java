@@ -6,20 +6,29 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.squareup.picasso.Picasso;
+import com.example.recipefinder.images.RecipeImageLoader;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeViewHolder> {
+// ListAdapter diffs each submitted list on a background thread (AsyncListDiffer),
+// so only rows whose RecipeModel actually changed get rebound.
+public class RecipeAdapter extends ListAdapter<RecipeModel, RecipeAdapter.RecipeViewHolder> {
 
     private Context context;
-    private List<RecipeModel> recipeList;
     private OnItemClickListener listener;
     private boolean isMyRecipesList; // Renamed from isFavoriteList for clarity
 
@@ -27,14 +36,45 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
     public interface OnItemClickListener {
         void onItemClick(RecipeModel recipe);
         void onRecipeLongClick(RecipeModel recipe); // For deletion in My Recipes list
+        void onSelectionChanged(int selectedCount); // Multi-select mode started, changed or ended
     }
 
+    // Partial-bind payload: only the selection checkbox changed
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    // Rows are the same item when they point at the same Firestore document,
+    // and need rebinding only when any field differs (RecipeModel.equals)
+    private static final DiffUtil.ItemCallback<RecipeModel> DIFF_CALLBACK = new DiffUtil.ItemCallback<RecipeModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull RecipeModel oldItem, @NonNull RecipeModel newItem) {
+            return oldItem.getFirebaseDocId() != null
+                    && oldItem.getFirebaseDocId().equals(newItem.getFirebaseDocId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull RecipeModel oldItem, @NonNull RecipeModel newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
+    // Maps firebaseDocId to a collision-free stable row ID for the lifetime of the adapter
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId = 0;
+
+    // Multi-select state, keyed by firebaseDocId so it survives list updates
+    private boolean selectionMode = false;
+    private final Set<String> selectedIds = new LinkedHashSet<>();
+
+    // Tags every thumbnail request from this list, so they can be paused or cancelled together
+    private final Object imageTag = new Object();
+
     // Constructor - updated parameter name
-    public RecipeAdapter(Context context, List<RecipeModel> recipeList, OnItemClickListener listener, boolean isMyRecipesList) {
+    public RecipeAdapter(Context context, OnItemClickListener listener, boolean isMyRecipesList) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.recipeList = recipeList;
         this.listener = listener;
         this.isMyRecipesList = isMyRecipesList; // Updated
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -46,7 +86,7 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
 
     @Override
     public void onBindViewHolder(@NonNull RecipeViewHolder holder, int position) {
-        RecipeModel recipe = recipeList.get(position);
+        RecipeModel recipe = getItem(position);
 
         // Display title: prioritize customTitle for My Recipes list, otherwise use original title
         String displayTitle = recipe.getTitle();
@@ -55,26 +95,14 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
         }
         holder.title.setText(displayTitle);
 
-        // Load image using Picasso into the ImageView
-        String imageUrl = recipe.getImageUrl();
-        if (!TextUtils.isEmpty(imageUrl)) {
-            // Attempt to load the image from the URL
-            Picasso.get()
-                    .load(imageUrl)
-                    .placeholder(R.drawable.ic_placeholder_image) // Show this while loading
-                    .error(R.drawable.ic_error_image)       // Show this if URL is invalid or image fails to load
-                    .into(holder.image);
-        } else {
-            // If no URL or empty URL, set a default local image
-            holder.image.setImageResource(R.drawable.ic_default_recipe_image); // Set a generic default
-        }
+        // Thumbnail decoded at row size; cancels whatever this recycled view was loading before
+        RecipeImageLoader.loadThumbnail(holder.image, recipe.getImageUrl(), imageTag);
 
         // Handle the "Remove" button specifically for the My Recipes list
         if (isMyRecipesList) {
             holder.saveButton.setText("Remove");
             // Set a distinct background color for the "Remove" button
             holder.saveButton.setBackgroundColor(context.getResources().getColor(android.R.color.holo_red_dark));
-            holder.saveButton.setVisibility(View.VISIBLE); // Ensure it's visible
 
             // Set the click listener for the Remove button to trigger a long click action
             holder.saveButton.setOnClickListener(v -> listener.onRecipeLongClick(recipe));
@@ -82,22 +110,120 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
             // If this adapter is ever used for a list that isn't 'My Recipes', hide the button
             holder.saveButton.setVisibility(View.GONE);
         }
-
-        // Set click listener for the entire item (for viewing details/editing)
-        holder.itemView.setOnClickListener(v -> listener.onItemClick(recipe));
-
-        // Set long click listener for the entire item (alternative for deletion in My Recipes)
+        bindSelection(holder, recipe);
+
+        // Set click listener for the entire item: view details, or toggle the row while selecting
+        holder.itemView.setOnClickListener(v -> {
+            if (selectionMode) {
+                toggleSelection(holder);
+            } else {
+                listener.onItemClick(recipe);
+            }
+        });
+
+        // Long-pressing a row in My Recipes starts multi-select with that row selected
         if (isMyRecipesList) {
             holder.itemView.setOnLongClickListener(v -> {
-                listener.onRecipeLongClick(recipe); // Trigger the long click action
+                if (!selectionMode) {
+                    setSelectionMode(true);
+                }
+                toggleSelection(holder);
                 return true; // Consume the long click event
             });
         }
     }
 
     @Override
-    public int getItemCount() {
-        return recipeList.size();
+    public void onBindViewHolder(@NonNull RecipeViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECTION)) {
+            // Selection changes only touch the checkbox and the Remove button, not the image or text
+            bindSelection(holder, getItem(position));
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
+    // The Remove button makes way for the checkbox while selecting
+    private void bindSelection(RecipeViewHolder holder, RecipeModel recipe) {
+        holder.selected.setVisibility(selectionMode ? View.VISIBLE : View.GONE);
+        holder.selected.setChecked(selectedIds.contains(recipe.getFirebaseDocId()));
+        if (isMyRecipesList) {
+            holder.saveButton.setVisibility(selectionMode ? View.GONE : View.VISIBLE);
+        }
+    }
+
+    private void toggleSelection(RecipeViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+        String docId = getItem(position).getFirebaseDocId();
+        if (!selectedIds.remove(docId)) {
+            selectedIds.add(docId);
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
+        listener.onSelectionChanged(selectedIds.size());
+    }
+
+    public boolean isSelectionMode() {
+        return selectionMode;
+    }
+
+    // Entering or leaving multi-select rebinds only the selection state of every row
+    public void setSelectionMode(boolean enabled) {
+        if (selectionMode == enabled) {
+            return;
+        }
+        selectionMode = enabled;
+        if (!enabled) {
+            selectedIds.clear();
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        listener.onSelectionChanged(selectedIds.size());
+    }
+
+    public void selectAll() {
+        for (RecipeModel recipe : getCurrentList()) {
+            selectedIds.add(recipe.getFirebaseDocId());
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        listener.onSelectionChanged(selectedIds.size());
+    }
+
+    // Selected recipes that are still in the list, in list order
+    public List<RecipeModel> getSelectedRecipes() {
+        List<RecipeModel> selected = new ArrayList<>(selectedIds.size());
+        for (RecipeModel recipe : getCurrentList()) {
+            if (selectedIds.contains(recipe.getFirebaseDocId())) {
+                selected.add(recipe);
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecipeViewHolder holder) {
+        super.onViewRecycled(holder);
+        // The row scrolled away; its image is no longer needed
+        RecipeImageLoader.cancel(holder.image);
+    }
+
+    public Object getImageTag() {
+        return imageTag;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String docId = getItem(position).getFirebaseDocId();
+        if (docId == null) {
+            return RecyclerView.NO_ID;
+        }
+        Long stableId = stableIds.get(docId);
+        if (stableId == null) {
+            stableId = nextStableId++;
+            stableIds.put(docId, stableId);
+        }
+        return stableId;
     }
 
     // ViewHolder class
@@ -105,12 +231,14 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
         ImageView image;
         TextView title;
         Button saveButton; // Repurposed for "Remove" in My Recipes list
+        CheckBox selected; // Visible in multi-select mode
 
         public RecipeViewHolder(@NonNull View itemView) {
             super(itemView);
             image = itemView.findViewById(R.id.recipeImage); // Ensure this ID matches your item_recipe.xml
             title = itemView.findViewById(R.id.recipeTitle);
             saveButton = itemView.findViewById(R.id.btnSave);
+            selected = itemView.findViewById(R.id.recipeSelected);
         }
     }
 }
\ No newline at end of file
@@ -1,6 +1,27 @@
 package com.example.recipefinder;
 
+import com.example.recipefinder.ingredients.Diet;
+import com.example.recipefinder.ingredients.DietClassifier;
+import com.example.recipefinder.ingredients.IngredientLine;
+import com.example.recipefinder.ingredients.RecipeTextParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 public class RecipeModel {
+
+    // Document fields holding the structured form, written together
+    public static final List<String> PARSED_FIELDS =
+            Collections.unmodifiableList(Arrays.asList("parsedIngredients", "steps", "dietTags", "parseVersion"));
+
     private String firebaseDocId; // Unique ID from Firestore document
     private int id; // Spoonacular ID (will be 0 or -1 for user-created recipes)
     private String title; // Original Spoonacular title OR user-provided title for custom recipe
@@ -10,6 +31,22 @@ public class RecipeModel {
     private String summary; // User-editable summary
     private String ingredients; // User-editable ingredients string
     private String instructions; // User-editable instructions string
+    private long lastModified; // Client time (ms) of the last edit, used for last-write-wins sync
+    // Server time (ms) the document was first written and last written, set by Firestore; 0 until read back
+    private long createdAt;
+    private long updatedAt;
+    private List<String> tags = new ArrayList<>(); // User-assigned labels, e.g. from bulk tagging in MyRecipesFragment
+
+    // Structured form of ingredients and instructions, derived from them by RecipeTextParser. Null until
+    // loaded from storage or parsed on first use; cleared whenever the raw text changes.
+    private List<IngredientLine> parsedIngredients;
+    private List<String> steps;
+    private int dietFlags = -1; // Diet bitmask from DietClassifier, -1 until loaded or classified
+    private int parseVersion; // RecipeTextParser.VERSION the stored document was parsed with, 0 if never
+
+    // Read from the list's summary document alone: summary, ingredients, instructions and notes are null,
+    // so it can be shown but not saved, exported or cooked from until the whole recipe is loaded
+    private boolean summaryOnly;
 
     // Constructor for loading from Firestore (includes firebaseDocId)
     public RecipeModel(String firebaseDocId, int id, String title, String imageUrl,
@@ -45,6 +82,157 @@ public class RecipeModel {
         // No-argument constructor required for Firebase deserialization
     }
 
+    // Independent copy, so cached or stored instances are never mutated by the screens that display them
+    public RecipeModel copy() {
+        RecipeModel copy = new RecipeModel(firebaseDocId, id, title, imageUrl, customTitle,
+                userNotes, summary, ingredients, instructions);
+        copy.lastModified = lastModified;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.tags = new ArrayList<>(tags);
+        // Parsed lists are unmodifiable, so sharing them is safe
+        copy.parsedIngredients = parsedIngredients;
+        copy.steps = steps;
+        copy.dietFlags = dietFlags;
+        copy.parseVersion = parseVersion;
+        copy.summaryOnly = summaryOnly;
+        return copy;
+    }
+
+    // Document fields as Firestore stores them (same names as the getters), without firebaseDocId
+    public Map<String, Object> toMap() {
+        if (summaryOnly) {
+            // Writing it would blank the recipe's body
+            throw new IllegalStateException("Recipe " + firebaseDocId + " was loaded without its body");
+        }
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+        map.put("title", title);
+        map.put("imageUrl", imageUrl);
+        map.put("customTitle", customTitle);
+        map.put("userNotes", userNotes);
+        map.put("summary", summary);
+        map.put("ingredients", ingredients);
+        map.put("instructions", instructions);
+        map.put("lastModified", lastModified);
+        map.put("tags", new ArrayList<>(tags));
+        // Every write stores the structured form next to the raw text, parsed with the current parser
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (IngredientLine line : getParsedIngredients()) {
+            lines.add(line.toMap());
+        }
+        map.put("parsedIngredients", lines);
+        map.put("steps", new ArrayList<>(getSteps()));
+        map.put("dietTags", Diet.keysOf(getDietFlags()));
+        map.put("parseVersion", RecipeTextParser.VERSION);
+        return map;
+    }
+
+    // Only the named fields, plus lastModified, which every write carries
+    public Map<String, Object> toMap(Collection<String> fields) {
+        Map<String, Object> all = toMap();
+        Map<String, Object> map = new HashMap<>();
+        for (String field : fields) {
+            if (all.containsKey(field)) {
+                map.put(field, all.get(field));
+            }
+        }
+        map.put("lastModified", lastModified);
+        return map;
+    }
+
+    // Names of the document fields that differ between two versions of a recipe, ignoring lastModified
+    public static Set<String> changedFields(RecipeModel before, RecipeModel after) {
+        Map<String, Object> beforeMap = before.toMap();
+        Map<String, Object> afterMap = after.toMap();
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, Object> field : afterMap.entrySet()) {
+            if (!field.getKey().equals("lastModified")
+                    && !Objects.equals(field.getValue(), beforeMap.get(field.getKey()))) {
+                changed.add(field.getKey());
+            }
+        }
+        return changed;
+    }
+
+    // Inverse of toMap(); Firestore hands numbers back as Long, so accept any Number
+    public static RecipeModel fromMap(String firebaseDocId, Map<String, Object> map) {
+        RecipeModel recipe = new RecipeModel();
+        recipe.firebaseDocId = firebaseDocId;
+        Object spoonacularId = map.get("id");
+        recipe.id = spoonacularId instanceof Number ? ((Number) spoonacularId).intValue() : 0;
+        recipe.title = (String) map.get("title");
+        recipe.imageUrl = (String) map.get("imageUrl");
+        recipe.customTitle = (String) map.get("customTitle");
+        recipe.userNotes = (String) map.get("userNotes");
+        recipe.summary = (String) map.get("summary");
+        recipe.ingredients = (String) map.get("ingredients");
+        recipe.instructions = (String) map.get("instructions");
+        Object modified = map.get("lastModified");
+        recipe.lastModified = modified instanceof Number ? ((Number) modified).longValue() : 0L;
+        // Server timestamps, converted to ms by the data source; never in toMap(), since only the server sets them
+        Object created = map.get("createdAt");
+        recipe.createdAt = created instanceof Number ? ((Number) created).longValue() : 0L;
+        Object updated = map.get("updatedAt");
+        recipe.updatedAt = updated instanceof Number ? ((Number) updated).longValue() : 0L;
+        Object tags = map.get("tags");
+        if (tags instanceof List) {
+            for (Object tag : (List<?>) tags) {
+                if (tag instanceof String) {
+                    recipe.tags.add((String) tag);
+                }
+            }
+        }
+        // Documents saved before structured parsing, or by an older parser, keep parseVersion below the current
+        // one and are parsed lazily on first use; the repository then writes the new form back
+        Object version = map.get("parseVersion");
+        recipe.parseVersion = version instanceof Number ? ((Number) version).intValue() : 0;
+        Object lines = map.get("parsedIngredients");
+        Object steps = map.get("steps");
+        if (recipe.parseVersion == RecipeTextParser.VERSION && lines instanceof List && steps instanceof List) {
+            List<IngredientLine> parsed = new ArrayList<>();
+            for (Object line : (List<?>) lines) {
+                if (line instanceof Map) {
+                    parsed.add(IngredientLine.fromMap((Map<?, ?>) line));
+                }
+            }
+            List<String> stepTexts = new ArrayList<>();
+            for (Object step : (List<?>) steps) {
+                if (step instanceof String) {
+                    stepTexts.add((String) step);
+                }
+            }
+            recipe.parsedIngredients = Collections.unmodifiableList(parsed);
+            recipe.steps = Collections.unmodifiableList(stepTexts);
+            Object dietTags = map.get("dietTags");
+            if (dietTags instanceof List) {
+                recipe.dietFlags = Diet.flagsOf((List<?>) dietTags);
+            }
+        }
+        return recipe;
+    }
+
+    /**
+     * A recipe for the list, from the fields of its summary document. Diet tags are kept if they were written by
+     * the current parser; everything else that needs the ingredients waits for the whole recipe.
+     */
+    public static RecipeModel summaryFromMap(String firebaseDocId, Map<String, Object> summaryFields) {
+        RecipeModel recipe = fromMap(firebaseDocId, summaryFields);
+        recipe.summary = null;
+        recipe.ingredients = null;
+        recipe.instructions = null;
+        recipe.userNotes = null;
+        recipe.parsedIngredients = null;
+        recipe.steps = null;
+        recipe.dietFlags = -1;
+        Object dietTags = summaryFields.get("dietTags");
+        if (recipe.parseVersion == RecipeTextParser.VERSION && dietTags instanceof List) {
+            recipe.dietFlags = Diet.flagsOf((List<?>) dietTags);
+        }
+        recipe.summaryOnly = true;
+        return recipe;
+    }
+
     // Getters
     public String getFirebaseDocId() { return firebaseDocId; }
     public int getId() { return id; }
@@ -55,6 +243,53 @@ public class RecipeModel {
     public String getSummary() { return summary; }
     public String getIngredients() { return ingredients; }
     public String getInstructions() { return instructions; }
+    public long getLastModified() { return lastModified; }
+    public long getCreatedAt() { return createdAt; }
+    public long getUpdatedAt() { return updatedAt; }
+    public List<String> getTags() { return tags; }
+    public boolean isSummaryOnly() { return summaryOnly; }
+
+    // Parsed on first use if the recipe was not loaded with a current structured form
+    public List<IngredientLine> getParsedIngredients() {
+        if (parsedIngredients == null) {
+            parsedIngredients = RecipeTextParser.parseIngredients(ingredients);
+        }
+        return parsedIngredients;
+    }
+
+    public List<String> getSteps() {
+        if (steps == null) {
+            steps = RecipeTextParser.parseSteps(instructions);
+        }
+        return steps;
+    }
+
+    // Classified from the parsed ingredients on first use if the recipe was not loaded with current tags
+    public int getDietFlags() {
+        if (dietFlags < 0 && summaryOnly) {
+            return 0; // Without ingredients nothing is known; an empty list would pass for every diet
+        }
+        if (dietFlags < 0) {
+            dietFlags = DietClassifier.classify(getParsedIngredients());
+        }
+        return dietFlags;
+    }
+
+    public int getParseVersion() { return parseVersion; }
+
+    // Parses now if needed and marks the structured form current; the repository calls this on every write,
+    // so each save parses once and stores the result with the document
+    public void parseForSave() {
+        getParsedIngredients();
+        getSteps();
+        getDietFlags();
+        parseVersion = RecipeTextParser.VERSION;
+    }
+
+    // True if the stored document lacks the current structured form and should have it written back
+    public boolean needsParseMigration() {
+        return parseVersion != RecipeTextParser.VERSION;
+    }
 
     // Setters (Firebase needs setters for deserialization AND we need setFirebaseDocId)
     public void setFirebaseDocId(String firebaseDocId) { this.firebaseDocId = firebaseDocId; }
@@ -64,6 +299,55 @@ public class RecipeModel {
     public void setCustomTitle(String customTitle) { this.customTitle = customTitle; }
     public void setUserNotes(String userNotes) { this.userNotes = userNotes; }
     public void setSummary(String summary) { this.summary = summary; }
-    public void setIngredients(String ingredients) { this.ingredients = ingredients; }
-    public void setInstructions(String instructions) { this.instructions = instructions; }
-}
\ No newline at end of file
+    public void setIngredients(String ingredients) { this.ingredients = ingredients; this.parsedIngredients = null; this.dietFlags = -1; }
+    public void setInstructions(String instructions) { this.instructions = instructions; this.steps = null; }
+    public void setLastModified(long lastModified) { this.lastModified = lastModified; }
+    // For local stores; the server sets these on every write
+    public void setServerTimestamps(long createdAt, long updatedAt) { this.createdAt = createdAt; this.updatedAt = updatedAt; }
+    // For local stores that keep the structured form in their own columns
+    public void setParsedForm(List<IngredientLine> parsedIngredients, List<String> steps, int parseVersion) {
+        this.parsedIngredients = parsedIngredients != null ? Collections.unmodifiableList(new ArrayList<>(parsedIngredients)) : null;
+        this.steps = steps != null ? Collections.unmodifiableList(new ArrayList<>(steps)) : null;
+        this.parseVersion = parseVersion;
+    }
+    // For local stores that keep the diet tags in their own column; only meaningful with a current parse
+    public void setDietFlags(int dietFlags) { this.dietFlags = dietFlags; }
+    public void setTags(List<String> tags) { this.tags = tags != null ? new ArrayList<>(tags) : new ArrayList<>(); }
+
+    // Adds the tag unless the recipe already has it; returns true if the recipe changed
+    public boolean addTag(String tag) {
+        if (tags.contains(tag)) {
+            return false;
+        }
+        tags.add(tag);
+        return true;
+    }
+
+    // Content equality, used by RecipeAdapter's DiffUtil callback to decide whether a row needs rebinding.
+    // The parsed form is derived from ingredients and instructions, and the server timestamps only say when
+    // the content was stored, so both are left out.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeModel that = (RecipeModel) o;
+        return id == that.id
+                && lastModified == that.lastModified
+                && summaryOnly == that.summaryOnly
+                && Objects.equals(firebaseDocId, that.firebaseDocId)
+                && Objects.equals(title, that.title)
+                && Objects.equals(imageUrl, that.imageUrl)
+                && Objects.equals(customTitle, that.customTitle)
+                && Objects.equals(userNotes, that.userNotes)
+                && Objects.equals(summary, that.summary)
+                && Objects.equals(ingredients, that.ingredients)
+                && Objects.equals(instructions, that.instructions)
+                && tags.equals(that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(firebaseDocId, id, title, imageUrl, customTitle,
+                userNotes, summary, ingredients, instructions, lastModified, tags, summaryOnly);
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.recipefinder;
+
+import android.util.Log;
+
+import com.example.recipefinder.data.FirestoreDocumentSize;
+import com.example.recipefinder.data.FirestoreRecipeRemoteDataSource;
+import com.example.recipefinder.data.RecipeCatalog;
+import com.example.recipefinder.data.RecipeDocumentLayout;
+import com.example.recipefinder.ingredients.RecipeTextParser;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The saved-recipes list, loaded from the user's catalog (see RecipeCatalog) instead of one summary
+ * document per recipe. A single snapshot listener on Users/{uid}/RecipeCatalog delivers every shard, so
+ * the whole list costs one read per shard (one for most users), and a save or delete anywhere arrives as
+ * a change to the shard that holds it.
+ *
+ * The first time the server has no built marker for a user's catalog (see RecipeCatalog), it is built from
+ * their SavedRecipes summaries, a page per transaction, on top of whatever shards saves have written
+ * meanwhile; from then on FirestoreRecipeRemoteDataSource keeps it in step with every write.
+ */
+public class SavedRecipesCatalog {
+
+    private static final String TAG = "SavedRecipesCatalog";
+    // Recipes the build reads and adds per transaction
+    private static final int BUILD_PAGE_SIZE = 200;
+
+    // Callback for list changes
+    public interface Listener {
+        void onRecipesChanged(List<RecipeModel> recipes);
+        void onCatalogError(Exception e);
+        // The listener was attached and has not delivered its first snapshot yet
+        void onCatalogLoading();
+    }
+
+    private final FirebaseFirestore db;
+    private final String uid;
+    private final CollectionReference shards;
+    private final CollectionReference summaries;
+    private final Listener listener;
+
+    private RecipeCatalog catalog;
+    private ListenerRegistration registration;
+    private boolean loaded = false; // Received at least one snapshot since it was attached
+    private boolean complete = false; // Received a server snapshot of a built catalog since it was attached
+    private boolean building = false;
+
+    public SavedRecipesCatalog(FirebaseFirestore db, String uid, Listener listener) {
+        this.db = db;
+        this.uid = uid;
+        this.shards = db.collection("Users").document(uid).collection(RecipeCatalog.COLLECTION);
+        this.summaries = db.collection("Users").document(uid).collection(RecipeDocumentLayout.SUMMARY_COLLECTION);
+        this.listener = listener;
+        this.catalog = new RecipeCatalog(uid);
+    }
+
+    // Attaches the listener; Firestore resumes it from its local cache, so a restart only reads changed shards
+    public void start() {
+        if (registration != null) {
+            return;
+        }
+        // Metadata changes too, so the switch from a cached snapshot to the server's is seen even when no shard
+        // changed; only the server can tell that the catalog was never built
+        registration = shards.addSnapshotListener(MetadataChanges.INCLUDE, (snapshots, e) -> {
+            if (e != null) {
+                Log.e(TAG, "Snapshot listener ERROR: " + e.getMessage(), e);
+                listener.onCatalogError(e);
+                return;
+            }
+            if (snapshots != null) {
+                applySnapshot(snapshots);
+            }
+        });
+        listener.onCatalogLoading();
+    }
+
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        loaded = false;
+        complete = false;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // True once the list came from the server with the catalog built, so a recipe missing from it no longer
+    // exists; a cached list may be stale, and an unbuilt catalog lists nothing
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private void applySnapshot(QuerySnapshot snapshots) {
+        boolean fromCache = snapshots.getMetadata().isFromCache();
+        boolean built = hasBuiltMarker(snapshots);
+        if (!fromCache && !built) {
+            build();
+        }
+        boolean nowComplete = !complete && !fromCache && built;
+        complete |= nowComplete;
+        if (loaded && snapshots.getDocumentChanges().isEmpty() && !nowComplete) {
+            return; // Metadata only
+        }
+        if (!loaded) {
+            // A freshly attached listener reports every shard as added; start over so shards removed
+            // while it was detached do not linger
+            catalog = new RecipeCatalog(uid);
+        }
+        long changedBytes = 0; // Stored size of the added and modified shards
+        for (DocumentChange change : snapshots.getDocumentChanges()) {
+            DocumentSnapshot doc = change.getDocument();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                catalog.removeShard(doc.getId());
+            } else {
+                catalog.setShard(doc.getId(), doc.get(RecipeCatalog.ENTRIES_FIELD));
+                if (doc.getData() != null) {
+                    changedBytes += FirestoreDocumentSize.of(doc.getReference().getPath(), doc.getData());
+                }
+            }
+        }
+        loaded = true;
+        List<RecipeModel> recipes = catalog.getRecipes();
+        Log.d(TAG, "applySnapshot: " + snapshots.getDocumentChanges().size() + " of " + catalog.getShardCount()
+                + " shards changed, " + changedBytes + " bytes" + (fromCache ? " from cache" : "")
+                + ". Total recipes: " + recipes.size());
+        listener.onRecipesChanged(recipes);
+    }
+
+    private static boolean hasBuiltMarker(QuerySnapshot snapshots) {
+        for (DocumentSnapshot doc : snapshots.getDocuments()) {
+            if (RecipeCatalog.BUILT_MARKER.equals(doc.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // One pass over SavedRecipes, a page at a time, starting over if it was interrupted. Entries saved meanwhile
+    // by FirestoreRecipeRemoteDataSource are kept.
+    private void build() {
+        if (building) {
+            return;
+        }
+        building = true;
+        buildPage(null, 0);
+    }
+
+    private void buildPage(String startAfterDocId, int builtSoFar) {
+        Query query = summaries.orderBy(FieldPath.documentId()).limit(BUILD_PAGE_SIZE);
+        if (startAfterDocId != null) {
+            query = query.startAfter(startAfterDocId);
+        }
+        query.get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    List<String> docIds = new ArrayList<>(docs.size());
+                    for (DocumentSnapshot doc : docs) {
+                        if (doc.getData() != null && !RecipeDocumentLayout.isDeleted(doc.getData())) {
+                            docIds.add(doc.getId());
+                        }
+                    }
+                    boolean lastPage = docs.size() < BUILD_PAGE_SIZE;
+                    String lastDocId = docs.isEmpty() ? null : docs.get(docs.size() - 1).getId();
+                    db.runTransaction(transaction -> addEntries(transaction, docIds, lastPage))
+                            .addOnSuccessListener(added -> {
+                                if (lastPage) {
+                                    building = false;
+                                    Log.d(TAG, "build: " + (builtSoFar + added) + " recipes added.");
+                                } else {
+                                    buildPage(lastDocId, builtSoFar + added);
+                                }
+                            })
+                            .addOnFailureListener(this::buildFailed);
+                })
+                .addOnFailureListener(this::buildFailed);
+    }
+
+    /**
+     * Adds a page of recipes to the catalog as it is on the server: the shards are read in the transaction
+     * and the entries planned against them, so they go where there is room and a recipe already listed at its
+     * current version is left alone. The summaries are read again too, so a recipe deleted since the page was
+     * listed is skipped, and a delete or save that commits before the transaction does makes it start over.
+     * The last page also writes the built marker. Returns how many entries were written.
+     */
+    private int addEntries(Transaction transaction, List<String> docIds, boolean lastPage)
+            throws FirebaseFirestoreException {
+        // Shard IDs count up from 0 with no gaps; reading the first missing one too notices a shard added meanwhile
+        RecipeCatalog current = new RecipeCatalog(uid);
+        for (int id = 0; ; id++) {
+            DocumentSnapshot shard = transaction.get(shards.document(String.valueOf(id)));
+            if (!shard.exists()) {
+                break;
+            }
+            current.setShard(shard.getId(), shard.get(RecipeCatalog.ENTRIES_FIELD));
+        }
+        List<DocumentSnapshot> summaryDocs = new ArrayList<>(docIds.size());
+        for (String docId : docIds) {
+            summaryDocs.add(transaction.get(summaries.document(docId)));
+        }
+        Map<String, Map<String, Object>> entries = new HashMap<>();
+        for (DocumentSnapshot doc : summaryDocs) {
+            Map<String, Object> data = doc.getData();
+            if (data == null || RecipeDocumentLayout.isDeleted(data)) {
+                continue;
+            }
+            Map<String, Object> summary = RecipeDocumentLayout.summaryOf(data);
+            Object modified = summary.get("lastModified");
+            if (current.hasCurrentEntry(doc.getId(), modified instanceof Number ? ((Number) modified).longValue() : 0L)) {
+                continue;
+            }
+            Object version = summary.get("parseVersion");
+            if (!(version instanceof Number) || ((Number) version).intValue() != RecipeTextParser.VERSION) {
+                summary.remove("dietTags"); // Left out until the recipe is saved with current tags
+            }
+            entries.put(doc.getId(), summary);
+        }
+        Map<String, RecipeCatalog.ShardWrite> plan = current.plan(entries, Collections.emptyMap(), Collections.emptyList());
+        for (Map.Entry<String, RecipeCatalog.ShardWrite> shard : plan.entrySet()) {
+            transaction.set(shards.document(shard.getKey()), FirestoreRecipeRemoteDataSource.catalogDataOf(shard.getValue()),
+                    FirestoreRecipeRemoteDataSource.catalogMaskOf(shard.getValue()));
+        }
+        if (lastPage) {
+            transaction.set(shards.document(RecipeCatalog.BUILT_MARKER),
+                    Collections.singletonMap(RecipeCatalog.BUILT_AT_FIELD, FieldValue.serverTimestamp()));
+        }
+        return entries.size();
+    }
+
+    // Tried again the next time the listener finds no catalog on the server
+    private void buildFailed(Exception e) {
+        building = false;
+        Log.e(TAG, "build: " + e.getMessage(), e);
+        listener.onCatalogError(e);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.recipefinder.backup;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Backs up a user's recipes to a RecipeBackupWriter file and restores them from one. Export walks the
+ * collection page by page and restore hands recipes on in chunks, so at most one page or chunk of
+ * recipes is in memory at a time, however large the collection is.
+ */
+public final class RecipeBackup {
+
+    public static final int PAGE_SIZE = 200;
+    public static final int RESTORE_CHUNK_SIZE = 400;
+    public static final String FILE_EXTENSION = RecipeBackupFormat.EXTENSION;
+
+    // Delivers recipes ordered by document ID, starting after startAfterDocId (null for the first page);
+    // a page shorter than limit is the last one
+    public interface PageSource {
+        List<RecipeModel> fetchPage(String startAfterDocId, int limit) throws IOException;
+    }
+
+    // Receives each chunk of restored recipes; returns once they are stored
+    public interface Sink {
+        void write(List<RecipeModel> recipes) throws IOException;
+    }
+
+    public interface ProgressListener {
+        void onProgress(long recipesDone);
+    }
+
+    private RecipeBackup() {
+    }
+
+    // Writes every recipe the source pages through; returns the number written, or -1 if cancelled
+    public static long export(PageSource source, OutputStream target, ProgressListener progress,
+                              AtomicBoolean cancelled) throws IOException {
+        RecipeBackupWriter writer = new RecipeBackupWriter(target);
+        String startAfter = null;
+        while (true) {
+            List<RecipeModel> page = source.fetchPage(startAfter, PAGE_SIZE);
+            for (RecipeModel recipe : page) {
+                writer.write(recipe);
+            }
+            progress.onProgress(writer.getRecordCount());
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            if (cancelled.get()) {
+                // No trailer: a cancelled backup must not read as a complete one
+                return -1;
+            }
+            startAfter = page.get(page.size() - 1).getFirebaseDocId();
+        }
+        writer.finish();
+        return writer.getRecordCount();
+    }
+
+    /**
+     * Restores every recipe in the backup, keeping its document ID so restoring twice overwrites instead of
+     * duplicating. Returns the number restored, or -1 if cancelled between chunks. A damaged file fails with
+     * an IOException after the chunks before the damage were written.
+     */
+    public static long restore(InputStream source, Sink sink, ProgressListener progress,
+                               AtomicBoolean cancelled) throws IOException {
+        long restored = 0;
+        try (RecipeBackupReader reader = new RecipeBackupReader(source)) {
+            List<RecipeModel> chunk = new ArrayList<>(RESTORE_CHUNK_SIZE);
+            RecipeModel recipe;
+            while ((recipe = reader.next()) != null) {
+                chunk.add(recipe);
+                if (chunk.size() == RESTORE_CHUNK_SIZE) {
+                    sink.write(chunk);
+                    restored += chunk.size();
+                    chunk = new ArrayList<>(RESTORE_CHUNK_SIZE);
+                    progress.onProgress(restored);
+                    if (cancelled.get()) {
+                        return -1;
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                sink.write(chunk);
+                restored += chunk.size();
+            }
+        }
+        progress.onProgress(restored);
+        return restored;
+    }
+}
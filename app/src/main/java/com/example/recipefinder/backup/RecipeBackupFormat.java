@@ -0,0 +1,44 @@
+package com.example.recipefinder.backup;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Constants and varint helpers shared by RecipeBackupWriter and RecipeBackupReader
+final class RecipeBackupFormat {
+
+    static final byte[] MAGIC = {'R', 'F', 'B', 'K'};
+    static final int VERSION = 1;
+
+    // Suggested file name extension for backups
+    static final String EXTENSION = ".rfbk";
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    // Larger records can only come from a corrupt file; refuse them instead of allocating
+    static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private RecipeBackupFormat() {
+    }
+
+    // Unsigned LEB128: 7 bits per byte, low bits first
+    static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarint(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in backup file");
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.recipefinder.backup;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a file written by RecipeBackupWriter one recipe at a time. Record bytes go into one buffer that
+ * only grows to the largest record seen. A file that ends before its trailer, or whose trailer count does
+ * not match, fails with an IOException instead of silently restoring part of a collection.
+ */
+public class RecipeBackupReader implements Closeable {
+
+    private final DataInputStream in;
+    private byte[] buffer = new byte[4096];
+    private int position; // Read cursor and end of the current record within buffer
+    private int limit;
+    private long recordCount = 0;
+    private boolean done = false;
+
+    public RecipeBackupReader(InputStream source) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(source, RecipeBackupFormat.BUFFER_SIZE), RecipeBackupFormat.BUFFER_SIZE));
+        try {
+            byte[] magic = new byte[RecipeBackupFormat.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, RecipeBackupFormat.MAGIC)) {
+                throw new IOException("Not a recipe backup file");
+            }
+            int version = in.readUnsignedByte();
+            if (version != RecipeBackupFormat.VERSION) {
+                throw new IOException("Unsupported backup version " + version);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Backup file is empty or truncated", e);
+        }
+    }
+
+    // The next recipe, or null after the last one
+    public RecipeModel next() throws IOException {
+        if (done) {
+            return null;
+        }
+        try {
+            long length = RecipeBackupFormat.readVarint(in);
+            if (length == 0) {
+                long expected = RecipeBackupFormat.readVarint(in);
+                if (expected != recordCount) {
+                    throw new IOException("Backup file has " + recordCount + " records, trailer says " + expected);
+                }
+                done = true;
+                return null;
+            }
+            if (length > RecipeBackupFormat.MAX_RECORD_BYTES) {
+                throw new IOException("Corrupt backup file: record of " + length + " bytes");
+            }
+            int size = (int) length;
+            if (buffer.length < size) {
+                buffer = new byte[Math.max(size, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, size);
+            recordCount++;
+            return decode(size);
+        } catch (EOFException e) {
+            throw new IOException("Backup file is truncated after " + recordCount + " records", e);
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Mirrors RecipeBackupWriter.encode; strings are decoded straight out of the record buffer
+    private RecipeModel decode(int size) throws IOException {
+        position = 0;
+        limit = size;
+        RecipeModel recipe = new RecipeModel();
+        recipe.setId((int) readFixed(4));
+        recipe.setLastModified(readFixed(8));
+        recipe.setFirebaseDocId(readString());
+        recipe.setTitle(readString());
+        recipe.setImageUrl(readString());
+        recipe.setCustomTitle(readString());
+        recipe.setUserNotes(readString());
+        recipe.setSummary(readString());
+        recipe.setIngredients(readString());
+        recipe.setInstructions(readString());
+        long tagCount = readVarint();
+        List<String> tags = new ArrayList<>((int) Math.min(tagCount, 64));
+        for (long i = 0; i < tagCount; i++) {
+            tags.add(readString());
+        }
+        recipe.setTags(tags);
+        return recipe;
+    }
+
+    // Big-endian, as written by DataOutputStream.writeInt/writeLong
+    private long readFixed(int bytes) throws IOException {
+        require(bytes);
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | (buffer[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            int b = buffer[position++] & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in backup record");
+    }
+
+    private String readString() throws IOException {
+        long lengthPlusOne = readVarint();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        long length = lengthPlusOne - 1;
+        require(length);
+        String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+        position += (int) length;
+        return value;
+    }
+
+    private void require(long bytes) throws IOException {
+        if (bytes > limit - position) {
+            throw new IOException("Corrupt backup record " + recordCount + ": field runs past the record");
+        }
+    }
+}
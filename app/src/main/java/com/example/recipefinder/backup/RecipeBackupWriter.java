@@ -0,0 +1,108 @@
+package com.example.recipefinder.backup;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes recipes to a backup file, one length-prefixed record at a time, gzip-compressed:
+ *
+ *   header:  magic "RFBK", format version (byte)
+ *   record:  varint payload length (> 0), payload (see encode)
+ *   trailer: varint 0, record count (varint)
+ *
+ * Each record is encoded into one reused scratch buffer before being written, so memory does not
+ * grow with the number of recipes.
+ */
+public class RecipeBackupWriter implements Closeable {
+
+    private final GZIPOutputStream gzip;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(4096);
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+    private long recordCount = 0;
+    private boolean finished = false;
+
+    public RecipeBackupWriter(OutputStream target) throws IOException {
+        gzip = new GZIPOutputStream(target, RecipeBackupFormat.BUFFER_SIZE) {
+            {
+                // Recipe text is repetitive enough that the fastest level already compresses it well,
+                // at well under half the default level's CPU cost
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+        // Records are written field by field; buffer them so the deflater sees large writes
+        out = new DataOutputStream(new BufferedOutputStream(gzip, RecipeBackupFormat.BUFFER_SIZE));
+        out.write(RecipeBackupFormat.MAGIC);
+        out.writeByte(RecipeBackupFormat.VERSION);
+    }
+
+    public void write(RecipeModel recipe) throws IOException {
+        scratch.reset();
+        encode(recipe, scratchOut);
+        RecipeBackupFormat.writeVarint(out, scratch.size());
+        scratch.writeTo(out);
+        recordCount++;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    // Writes the trailer and the gzip footer; the target stream stays open
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        RecipeBackupFormat.writeVarint(out, 0);
+        RecipeBackupFormat.writeVarint(out, recordCount);
+        out.flush();
+        gzip.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    // Version 1 payload: id, lastModified, then the string fields, then the tags
+    private static void encode(RecipeModel recipe, DataOutputStream payload) throws IOException {
+        payload.writeInt(recipe.getId());
+        payload.writeLong(recipe.getLastModified());
+        writeString(payload, recipe.getFirebaseDocId());
+        writeString(payload, recipe.getTitle());
+        writeString(payload, recipe.getImageUrl());
+        writeString(payload, recipe.getCustomTitle());
+        writeString(payload, recipe.getUserNotes());
+        writeString(payload, recipe.getSummary());
+        writeString(payload, recipe.getIngredients());
+        writeString(payload, recipe.getInstructions());
+        List<String> tags = recipe.getTags();
+        RecipeBackupFormat.writeVarint(payload, tags.size());
+        for (String tag : tags) {
+            writeString(payload, tag);
+        }
+    }
+
+    // Varint of (UTF-8 byte length + 1), 0 for null, then the bytes. Unlike writeUTF there is no 64 KiB limit.
+    private static void writeString(DataOutputStream payload, String value) throws IOException {
+        if (value == null) {
+            RecipeBackupFormat.writeVarint(payload, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        RecipeBackupFormat.writeVarint(payload, bytes.length + 1L);
+        payload.write(bytes);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.recipefinder.data;
+
+// A batch would need more writes than Firestore allows in one commit; sent as smaller batches it can succeed
+public class BatchTooLargeException extends Exception {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
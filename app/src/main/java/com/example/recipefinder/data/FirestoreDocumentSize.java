@@ -0,0 +1,68 @@
+package com.example.recipefinder.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Firestore's documented storage size of a document: its name, plus each field name and value, plus 32 bytes.
+ * The SDK does not report bytes received, so this is what list loads are measured in; the wire encoding is
+ * close to it, and the comparison between layouts is what matters.
+ */
+public final class FirestoreDocumentSize {
+
+    private static final int DOCUMENT_OVERHEAD = 32;
+    private static final int NAME_OVERHEAD = 16;
+
+    private FirestoreDocumentSize() {
+    }
+
+    // path is the document path, e.g. "Users/{uid}/SavedRecipes/{docId}"
+    public static long of(String path, Map<String, Object> fields) {
+        long size = DOCUMENT_OVERHEAD + NAME_OVERHEAD;
+        for (String segment : path.split("/")) {
+            size += stringSize(segment);
+        }
+        return size + mapSize(fields);
+    }
+
+    // The fields alone, without the document overhead; for tracking a document's size as fields change
+    public static long fieldsSize(Map<String, Object> fields) {
+        return mapSize(fields);
+    }
+
+    private static long mapSize(Map<?, ?> map) {
+        long size = 0;
+        for (Map.Entry<?, ?> field : map.entrySet()) {
+            size += stringSize(String.valueOf(field.getKey())) + valueSize(field.getValue());
+        }
+        return size;
+    }
+
+    private static long valueSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof String) {
+            return stringSize((String) value);
+        }
+        if (value instanceof Number) {
+            return 8;
+        }
+        if (value instanceof Map) {
+            return mapSize((Map<?, ?>) value);
+        }
+        if (value instanceof List) {
+            long size = 0;
+            for (Object element : (List<?>) value) {
+                size += valueSize(element);
+            }
+            return size;
+        }
+        return 8; // Timestamps, like numbers, take 8 bytes
+    }
+
+    private static long stringSize(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+}
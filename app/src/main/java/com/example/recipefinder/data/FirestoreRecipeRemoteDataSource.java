@@ -0,0 +1,431 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+// RecipeRemoteDataSource backed by Users/{uid}/SavedRecipes and Users/{uid}/RecipeBodies (see RecipeDocumentLayout),
+// keeping the list catalog in Users/{uid}/RecipeCatalog in step with every batch (see RecipeCatalog)
+public class FirestoreRecipeRemoteDataSource implements RecipeRemoteDataSource {
+
+    // Firestore caps the values of a whereIn filter
+    private static final int WHERE_IN_LIMIT = 10;
+
+    private final FirebaseFirestore db;
+    private final CollectionReference savedRecipes;
+    private final CollectionReference recipeBodies;
+    private final CollectionReference catalogShards;
+    private final RecipeCatalog catalog;
+    // Set from Firestore callbacks, read by commitBatch on the caller's thread
+    private volatile boolean catalogLoaded = false;
+    // Where a batch resumes once the catalog has been read: the thread commitBatch is called on
+    private final Executor executor;
+
+    public FirestoreRecipeRemoteDataSource(FirebaseFirestore db, String uid, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+        this.savedRecipes = db.collection("Users").document(uid).collection(RecipeDocumentLayout.SUMMARY_COLLECTION);
+        this.recipeBodies = db.collection("Users").document(uid).collection(RecipeDocumentLayout.BODY_COLLECTION);
+        this.catalogShards = db.collection("Users").document(uid).collection(RecipeCatalog.COLLECTION);
+        this.catalog = new RecipeCatalog(uid);
+    }
+
+    @Override
+    public String newDocumentId() {
+        return savedRecipes.document().getId();
+    }
+
+    @Override
+    public void fetchAll(RepositoryCallback<List<RecipeModel>> callback) {
+        Task<QuerySnapshot> summaries = savedRecipes.get();
+        Task<QuerySnapshot> bodies = recipeBodies.get();
+        Tasks.whenAllSuccess(summaries, bodies)
+                .addOnSuccessListener(results -> callback.onSuccess(
+                        join(summaries.getResult().getDocuments(), bodiesById(bodies.getResult().getDocuments()))))
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void fetch(String docId, RepositoryCallback<RecipeModel> callback) {
+        Task<DocumentSnapshot> summary = savedRecipes.document(docId).get();
+        Task<DocumentSnapshot> body = recipeBodies.document(docId).get();
+        Tasks.whenAllSuccess(summary, body)
+                .addOnSuccessListener(results -> {
+                    DocumentSnapshot bodyDoc = body.getResult();
+                    callback.onSuccess(toRecipe(summary.getResult(), bodyDoc.exists() ? bodyDoc.getData() : null));
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void fetch(Collection<String> docIds, RepositoryCallback<List<RecipeModel>> callback) {
+        List<Task<QuerySnapshot>> summaries = whereIdIn(savedRecipes, docIds);
+        List<Task<QuerySnapshot>> bodies = whereIdIn(recipeBodies, docIds);
+        List<Task<QuerySnapshot>> all = new ArrayList<>(summaries);
+        all.addAll(bodies);
+        Tasks.whenAllSuccess(all)
+                .addOnSuccessListener(results -> callback.onSuccess(join(documentsOf(summaries), bodiesById(documentsOf(bodies)))))
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void fetchPage(String startAfterDocId, int limit, RepositoryCallback<List<RecipeModel>> callback) {
+        fetchPage(startAfterDocId, limit, new ArrayList<>(), callback);
+    }
+
+    // Deletion records take up room in a query page, so reads on until the page is full or the collection ends
+    private void fetchPage(String startAfterDocId, int limit, List<RecipeModel> page,
+                           RepositoryCallback<List<RecipeModel>> callback) {
+        int wanted = limit - page.size();
+        Query query = savedRecipes.orderBy(FieldPath.documentId()).limit(wanted);
+        if (startAfterDocId != null) {
+            query = query.startAfter(startAfterDocId);
+        }
+        query.get()
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    List<DocumentSnapshot> summaries = queryDocumentSnapshots.getDocuments();
+                    // Bodies for just this page; the result keeps the page's document ID order
+                    List<Task<QuerySnapshot>> bodies = whereIdIn(recipeBodies, liveDocIds(summaries));
+                    Tasks.whenAllSuccess(bodies)
+                            .addOnSuccessListener(results -> {
+                                page.addAll(join(summaries, bodiesById(documentsOf(bodies))));
+                                if (summaries.size() == wanted && page.size() < limit) {
+                                    fetchPage(summaries.get(summaries.size() - 1).getId(), limit, page, callback);
+                                } else {
+                                    callback.onSuccess(page);
+                                }
+                            })
+                            .addOnFailureListener(callback::onError);
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void fetchChangedSince(long updatedSince, RepositoryCallback<Changes> callback) {
+        if (updatedSince == 0) {
+            fetchAllSummaries(callback);
+            return;
+        }
+        // Inclusive, so a write sharing the watermark's millisecond is not skipped; re-reading one is harmless.
+        // Only documents that have an updatedAt match the range; the full fetch also returns older ones.
+        savedRecipes.whereGreaterThanOrEqualTo(RecipeDocumentLayout.UPDATED_AT, new Timestamp(new Date(updatedSince)))
+                .get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> callback.onSuccess(changesOf(snapshot.getDocuments(), updatedSince)))
+                .addOnFailureListener(callback::onError);
+    }
+
+    // Every live recipe, from the catalog once it is built: a few shard reads instead of one per recipe. The
+    // watermark is read first, so a write landing in between is at or after it and is read again next time.
+    private void fetchAllSummaries(RepositoryCallback<Changes> callback) {
+        savedRecipes.orderBy(RecipeDocumentLayout.UPDATED_AT, Query.Direction.DESCENDING).limit(1).get(Source.SERVER)
+                .addOnSuccessListener(executor, newest -> {
+                    long watermark = newest.isEmpty()
+                            ? 0L : timestampMillis(newest.getDocuments().get(0).get(RecipeDocumentLayout.UPDATED_AT));
+                    loadCatalog(() -> {
+                        if (catalog.isBuilt()) {
+                            callback.onSuccess(new Changes(catalogSummaries(), Collections.<String>emptyList(), watermark));
+                            return;
+                        }
+                        savedRecipes.get(Source.SERVER)
+                                .addOnSuccessListener(snapshot -> callback.onSuccess(changesOf(snapshot.getDocuments(), 0)))
+                                .addOnFailureListener(callback::onError);
+                    }, callback::onError);
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    // An entry only partly written stands in with lastModified 0, so the repository fetches the whole recipe
+    private List<RecipeModel> catalogSummaries() {
+        List<RecipeModel> summaries = catalog.getRecipes();
+        Set<String> unreadable = catalog.getDocIds();
+        for (RecipeModel summary : summaries) {
+            unreadable.remove(summary.getFirebaseDocId());
+        }
+        for (String docId : unreadable) {
+            summaries.add(RecipeModel.summaryFromMap(docId, Collections.<String, Object>emptyMap()));
+        }
+        return summaries;
+    }
+
+    private static Changes changesOf(List<DocumentSnapshot> summaryDocs, long updatedSince) {
+        List<RecipeModel> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        long watermark = updatedSince;
+        for (DocumentSnapshot doc : summaryDocs) {
+            Map<String, Object> data = doc.getData();
+            if (data == null) {
+                continue;
+            }
+            watermark = Math.max(watermark, timestampMillis(data.get(RecipeDocumentLayout.UPDATED_AT)));
+            if (RecipeDocumentLayout.isDeleted(data)) {
+                deleted.add(doc.getId());
+            } else {
+                changed.add(RecipeModel.summaryFromMap(doc.getId(), withTimestampMillis(RecipeDocumentLayout.summaryOf(data))));
+            }
+        }
+        return new Changes(changed, deleted, watermark);
+    }
+
+    @Override
+    public void purgeDeletedBefore(long cutoff, RepositoryCallback<Integer> callback) {
+        // Only the expired records are read; needs the (deleted, updatedAt) index in firestore.indexes.json
+        savedRecipes.whereEqualTo(RecipeDocumentLayout.DELETED, true)
+                .whereLessThan(RecipeDocumentLayout.UPDATED_AT, new Timestamp(new Date(cutoff)))
+                .get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    List<Task<Void>> commits = new ArrayList<>();
+                    WriteBatch batch = db.batch();
+                    int inBatch = 0;
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        batch.delete(doc.getReference());
+                        if (++inBatch == MAX_BATCH_WRITES) {
+                            commits.add(batch.commit());
+                            batch = db.batch();
+                            inBatch = 0;
+                        }
+                    }
+                    if (inBatch > 0) {
+                        commits.add(batch.commit());
+                    }
+                    Tasks.whenAll(commits)
+                            .addOnSuccessListener(aVoid -> callback.onSuccess(snapshot.size()))
+                            .addOnFailureListener(callback::onError);
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void commitBatch(List<RecipeModel> saves, Map<String, Map<String, Object>> updates, List<String> deletes,
+                            RepositoryCallback<Void> callback) {
+        int recipeCount = saves.size() + updates.size() + deletes.size();
+        if (recipeCount > MAX_BATCH_RECIPES) {
+            callback.onError(new IllegalArgumentException(
+                    "Batch of " + recipeCount + " recipes exceeds " + MAX_BATCH_RECIPES));
+            return;
+        }
+        if (!catalogLoaded) {
+            // Catalog writes go to the shard that holds each recipe, so the shards are read first. The batch
+            // then goes ahead once against what was read, built or not.
+            loadCatalog(() -> commitLoaded(saves, updates, deletes, callback), callback::onError);
+            return;
+        }
+        commitLoaded(saves, updates, deletes, callback);
+    }
+
+    private void commitLoaded(List<RecipeModel> saves, Map<String, Map<String, Object>> updates, List<String> deletes,
+                              RepositoryCallback<Void> callback) {
+        for (String docId : updates.keySet()) {
+            if (catalog.isBuilt() && !catalog.contains(docId)) {
+                // Deleted, perhaps on another device: an update would land on its deletion record, so the
+                // repository sends the whole recipe instead. Until the catalog is built it may just be unlisted.
+                callback.onError(new MissingDocumentException("Updated recipe " + docId + " is not listed", null));
+                return;
+            }
+        }
+        WriteBatch batch = db.batch();
+        Map<String, Map<String, Object>> savedFields = new HashMap<>();
+        for (RecipeModel recipe : saves) {
+            // A whole-document set also clears body fields a pre-split document still holds inline, and the
+            // deletion record of a recipe saved again
+            Map<String, Object> fields = recipe.toMap();
+            savedFields.put(recipe.getFirebaseDocId(), fields);
+            Map<String, Object> summary = RecipeDocumentLayout.summaryOf(fields);
+            summary.put(RecipeDocumentLayout.CREATED_AT, recipe.getCreatedAt() > 0
+                    ? new Timestamp(new Date(recipe.getCreatedAt())) : FieldValue.serverTimestamp());
+            summary.put(RecipeDocumentLayout.UPDATED_AT, FieldValue.serverTimestamp());
+            batch.set(savedRecipes.document(recipe.getFirebaseDocId()), summary);
+            batch.set(recipeBodies.document(recipe.getFirebaseDocId()), RecipeDocumentLayout.bodyOf(fields));
+        }
+        // Only the changed fields go over the wire. The summary update always carries lastModified, so it is what
+        // fails if the recipe was purged; the body is merged in, creating it for a document not migrated yet.
+        for (Map.Entry<String, Map<String, Object>> update : updates.entrySet()) {
+            Map<String, Object> summary = RecipeDocumentLayout.summaryOf(update.getValue());
+            summary.put(RecipeDocumentLayout.UPDATED_AT, FieldValue.serverTimestamp());
+            batch.update(savedRecipes.document(update.getKey()), summary);
+            Map<String, Object> bodyFields = RecipeDocumentLayout.bodyOf(update.getValue());
+            if (!bodyFields.isEmpty()) {
+                batch.set(recipeBodies.document(update.getKey()), bodyFields, SetOptions.merge());
+            }
+        }
+        // The summary becomes a deletion record, so other devices learn of the delete from fetchChangedSince
+        for (String docId : deletes) {
+            Map<String, Object> tombstone = new HashMap<>();
+            tombstone.put(RecipeDocumentLayout.DELETED, true);
+            tombstone.put(RecipeDocumentLayout.UPDATED_AT, FieldValue.serverTimestamp());
+            batch.set(savedRecipes.document(docId), tombstone);
+            batch.delete(recipeBodies.document(docId));
+        }
+        // The catalog changes commit or fail with the recipes they describe
+        Map<String, RecipeCatalog.ShardWrite> catalogWrites = catalog.plan(savedFields, updates, deletes);
+        if (catalogWrites.size() > MAX_CATALOG_WRITES) {
+            // Nothing was sent, but the in-memory shards already hold the plan; read them again first
+            catalogLoaded = false;
+            callback.onError(new BatchTooLargeException(
+                    "Batch touches " + catalogWrites.size() + " catalog shards, more than " + MAX_CATALOG_WRITES));
+            return;
+        }
+        for (Map.Entry<String, RecipeCatalog.ShardWrite> shard : catalogWrites.entrySet()) {
+            addCatalogWrite(batch, shard.getKey(), shard.getValue());
+        }
+        batch.commit()
+                .addOnSuccessListener(aVoid -> callback.onSuccess(null))
+                .addOnFailureListener(e -> {
+                    // The in-memory shards already hold this batch; read them again before the retry
+                    catalogLoaded = false;
+                    if (e instanceof FirebaseFirestoreException
+                            && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
+                        callback.onError(new MissingDocumentException("Updated recipe no longer exists", e));
+                    } else {
+                        callback.onError(e);
+                    }
+                });
+    }
+
+    // From the server: planning against a stale cached copy would misplace entries. Offline, the batch fails
+    // and the repository retries it later. onLoaded runs on the executor.
+    private void loadCatalog(Runnable onLoaded, OnFailureListener onFailure) {
+        catalogShards.get(Source.SERVER)
+                .addOnSuccessListener(executor, snapshot -> {
+                    catalog.clear();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        if (RecipeCatalog.BUILT_MARKER.equals(doc.getId())) {
+                            catalog.setBuilt(true);
+                        } else {
+                            catalog.setShard(doc.getId(), doc.get(RecipeCatalog.ENTRIES_FIELD));
+                        }
+                    }
+                    // Until SavedRecipesCatalog has built the catalog, every batch reads it again, so that
+                    // the shards the build writes are planned against once it has
+                    catalogLoaded = catalog.isBuilt();
+                    onLoaded.run();
+                })
+                .addOnFailureListener(executor, onFailure);
+    }
+
+    // One set per shard; the field mask limits it to the entries (or, for updates, entry fields) it names
+    private void addCatalogWrite(WriteBatch batch, String shardId, RecipeCatalog.ShardWrite write) {
+        batch.set(catalogShards.document(shardId), catalogDataOf(write), catalogMaskOf(write));
+    }
+
+    // The document data of a shard write, for a set with catalogMaskOf(write); removed entries are deleted
+    public static Map<String, Object> catalogDataOf(RecipeCatalog.ShardWrite write) {
+        Map<String, Object> entries = new HashMap<>();
+        entries.putAll(write.replaced);
+        entries.putAll(write.merged);
+        for (String docId : write.removed) {
+            entries.put(docId, FieldValue.delete());
+        }
+        return Collections.singletonMap(RecipeCatalog.ENTRIES_FIELD, entries);
+    }
+
+    // Limits the set to the entries the write replaces or removes, and to the fields it merges into the others
+    public static SetOptions catalogMaskOf(RecipeCatalog.ShardWrite write) {
+        List<FieldPath> fieldMask = new ArrayList<>();
+        for (String docId : write.replaced.keySet()) {
+            fieldMask.add(FieldPath.of(RecipeCatalog.ENTRIES_FIELD, docId));
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : write.merged.entrySet()) {
+            for (String field : entry.getValue().keySet()) {
+                fieldMask.add(FieldPath.of(RecipeCatalog.ENTRIES_FIELD, entry.getKey(), field));
+            }
+        }
+        for (String docId : write.removed) {
+            fieldMask.add(FieldPath.of(RecipeCatalog.ENTRIES_FIELD, docId));
+        }
+        return SetOptions.mergeFieldPaths(fieldMask);
+    }
+
+    private static List<Task<QuerySnapshot>> whereIdIn(CollectionReference collection, Collection<String> docIds) {
+        List<String> ids = new ArrayList<>(docIds);
+        List<Task<QuerySnapshot>> queries = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += WHERE_IN_LIMIT) {
+            List<String> chunk = ids.subList(start, Math.min(ids.size(), start + WHERE_IN_LIMIT));
+            queries.add(collection.whereIn(FieldPath.documentId(), new ArrayList<>(chunk)).get());
+        }
+        return queries;
+    }
+
+    private static List<String> liveDocIds(List<DocumentSnapshot> summaries) {
+        List<String> docIds = new ArrayList<>(summaries.size());
+        for (DocumentSnapshot doc : summaries) {
+            if (doc.getData() != null && !RecipeDocumentLayout.isDeleted(doc.getData())) {
+                docIds.add(doc.getId());
+            }
+        }
+        return docIds;
+    }
+
+    private static List<DocumentSnapshot> documentsOf(List<Task<QuerySnapshot>> queries) {
+        List<DocumentSnapshot> docs = new ArrayList<>();
+        for (Task<QuerySnapshot> query : queries) {
+            docs.addAll(query.getResult().getDocuments());
+        }
+        return docs;
+    }
+
+    private static Map<String, Map<String, Object>> bodiesById(List<DocumentSnapshot> bodyDocs) {
+        Map<String, Map<String, Object>> bodies = new HashMap<>();
+        for (DocumentSnapshot doc : bodyDocs) {
+            if (doc.getData() != null) {
+                bodies.put(doc.getId(), doc.getData());
+            }
+        }
+        return bodies;
+    }
+
+    // Whole recipes in summary order, without deletion records; a body without its summary is ignored
+    private static List<RecipeModel> join(List<DocumentSnapshot> summaries, Map<String, Map<String, Object>> bodies) {
+        List<RecipeModel> recipes = new ArrayList<>(summaries.size());
+        for (DocumentSnapshot doc : summaries) {
+            RecipeModel recipe = toRecipe(doc, bodies.get(doc.getId()));
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+
+    private static RecipeModel toRecipe(DocumentSnapshot summary, Map<String, Object> body) {
+        Map<String, Object> data = summary.getData();
+        if (!summary.exists() || data == null || RecipeDocumentLayout.isDeleted(data)) {
+            return null;
+        }
+        // Explicit map codec instead of toObject(): no reflection, and benchmarked in :benchmark
+        return RecipeModel.fromMap(summary.getId(), withTimestampMillis(RecipeDocumentLayout.merge(data, body)));
+    }
+
+    // RecipeModel keeps server timestamps as ms; fields is a copy and is changed in place
+    private static Map<String, Object> withTimestampMillis(Map<String, Object> fields) {
+        fields.put(RecipeDocumentLayout.CREATED_AT, timestampMillis(fields.get(RecipeDocumentLayout.CREATED_AT)));
+        fields.put(RecipeDocumentLayout.UPDATED_AT, timestampMillis(fields.get(RecipeDocumentLayout.UPDATED_AT)));
+        return fields;
+    }
+
+    // 0 for a missing timestamp, or one still pending in a local write
+    static long timestampMillis(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toDate().getTime() : 0L;
+    }
+}
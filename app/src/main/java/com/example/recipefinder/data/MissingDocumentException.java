@@ -0,0 +1,9 @@
+package com.example.recipefinder.data;
+
+// A remote write expected a document to exist, but it has been deleted on the server
+public class MissingDocumentException extends Exception {
+
+    public MissingDocumentException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide, size-bounded LRU cache of recipes keyed by Firestore document ID.
+ *
+ * The repository fills it with every recipe it saves or loads whole, so RecipeDetailFragment and EditRecipeFragment
+ * can open a recipe the user just tapped without any network or disk read. The list's summary-only entries only
+ * evict copies they show to be out of date. Entries are replaced on save and
+ * dropped on delete. Values are copied in and out, so callers can never mutate a cached instance.
+ */
+public class RecipeCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static RecipeCache instance;
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, RecipeModel> entries;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    public RecipeCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        // accessOrder = true turns the map into an LRU list: get() moves an entry to the tail
+        this.entries = new LinkedHashMap<String, RecipeModel>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecipeModel> eldest) {
+                return size() > RecipeCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static synchronized RecipeCache getInstance() {
+        if (instance == null) {
+            instance = new RecipeCache(DEFAULT_MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    // Returns a copy of the cached recipe, or null on a miss
+    public synchronized RecipeModel get(String docId) {
+        RecipeModel recipe = docId != null ? entries.get(docId) : null;
+        if (recipe == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return recipe.copy();
+    }
+
+    // Never replaces a cached copy with an older one, e.g. a snapshot that predates an optimistic local save
+    public synchronized void put(RecipeModel recipe) {
+        if (recipe == null || recipe.getFirebaseDocId() == null) {
+            return;
+        }
+        RecipeModel cached = entries.get(recipe.getFirebaseDocId());
+        if (recipe.isSummaryOnly()) {
+            // A list entry is never cached itself (readers expect whole recipes), but it shows the cached copy is stale
+            if (cached != null && cached.getLastModified() < recipe.getLastModified()) {
+                entries.remove(recipe.getFirebaseDocId());
+            }
+            return;
+        }
+        if (cached == null || cached.getLastModified() <= recipe.getLastModified()) {
+            entries.put(recipe.getFirebaseDocId(), recipe.copy());
+        }
+    }
+
+    public synchronized void putAll(Collection<RecipeModel> recipes) {
+        for (RecipeModel recipe : recipes) {
+            put(recipe);
+        }
+    }
+
+    public synchronized void invalidate(String docId) {
+        entries.remove(docId);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHitCount() { return hitCount; }
+    public synchronized long getMissCount() { return missCount; }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hitCount + missCount;
+        int hitPercent = lookups == 0 ? 0 : (int) (100 * hitCount / lookups);
+        return "RecipeCache[size=" + entries.size() + "/" + maxEntries + ", hits=" + hitCount
+                + ", misses=" + missCount + ", hitRate=" + hitPercent + "%]";
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.ingredients.RecipeTextParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The per-user catalog of saved recipes: one small entry per recipe (title, custom title, image URL, last
+ * modified time, tags and diet tags) in the "entries" map of Users/{uid}/RecipeCatalog/{shard}. The list loads
+ * and listens to these few documents instead of one summary document per recipe.
+ *
+ * A shard is filled up to SHARD_LIMIT_BYTES, well below Firestore's 1 MiB document limit, and new entries
+ * then go to a new shard. The headroom absorbs entries added by another device that had not seen the
+ * latest size yet. Such devices can also leave a recipe in two shards; readers merge the copies, newest
+ * last, and the next write of that recipe removes the extras.
+ *
+ * This class holds the shards in memory and plans writes against them. FirestoreRecipeRemoteDataSource
+ * turns each plan into one write per shard in the same batch as the recipe documents, and
+ * SavedRecipesCatalog rebuilds the list from the shards it listens to. Thread-safe.
+ *
+ * A catalog is complete only once SavedRecipesCatalog has built it from the SavedRecipes summaries and
+ * written the BUILT_MARKER document. Saves before then still add their entries, so the shards alone do not
+ * say whether the recipes saved earlier are listed.
+ */
+public class RecipeCatalog {
+
+    public static final String COLLECTION = "RecipeCatalog";
+    public static final String ENTRIES_FIELD = "entries";
+    public static final long SHARD_LIMIT_BYTES = 900 * 1024;
+    // Document in the same collection, written with the shards by the build; not a shard ID
+    public static final String BUILT_MARKER = "built";
+    public static final String BUILT_AT_FIELD = "builtAt";
+
+    // Short field names: each is stored once per recipe
+    static final String TITLE = "t";
+    static final String CUSTOM_TITLE = "c";
+    static final String IMAGE_URL = "i";
+    static final String LAST_MODIFIED = "u";
+    static final String DIET_TAGS = "d";
+    static final String TAGS = "g";
+
+    // The entry field each recipe field maps to (see RecipeModel.toMap)
+    private static final Map<String, String> ENTRY_FIELDS = new LinkedHashMap<>();
+
+    static {
+        ENTRY_FIELDS.put("title", TITLE);
+        ENTRY_FIELDS.put("customTitle", CUSTOM_TITLE);
+        ENTRY_FIELDS.put("imageUrl", IMAGE_URL);
+        ENTRY_FIELDS.put("lastModified", LAST_MODIFIED);
+        ENTRY_FIELDS.put("dietTags", DIET_TAGS);
+        ENTRY_FIELDS.put("tags", TAGS);
+    }
+
+    /** The catalog writes for one shard: entries to replace, fields to merge into entries, entries to drop. */
+    public static class ShardWrite {
+        public final Map<String, Map<String, Object>> replaced = new HashMap<>();
+        public final Map<String, Map<String, Object>> merged = new HashMap<>();
+        public final List<String> removed = new ArrayList<>();
+    }
+
+    private final String shardPathPrefix;
+    // Shard ID -> document ID -> entry, and each shard's stored size; IDs are "0", "1", ... in fill order
+    private final TreeMap<Integer, Map<String, Map<String, Object>>> shards = new TreeMap<>();
+    private final Map<Integer, Long> shardBytes = new HashMap<>();
+    private boolean built = false;
+
+    public RecipeCatalog(String uid) {
+        this.shardPathPrefix = "Users/" + uid + "/" + COLLECTION + "/";
+    }
+
+    // The catalog entry for a recipe's Firestore fields, or the part of it that a partial update touches
+    public static Map<String, Object> entryOf(Map<String, Object> recipeFields) {
+        Map<String, Object> entry = new HashMap<>();
+        for (Map.Entry<String, String> field : ENTRY_FIELDS.entrySet()) {
+            if (recipeFields.containsKey(field.getKey())) {
+                entry.put(field.getValue(), recipeFields.get(field.getKey()));
+            }
+        }
+        return entry;
+    }
+
+    // A summary-only recipe for the list; null for an entry only partly written (see class comment)
+    public static RecipeModel recipeOf(String docId, Map<String, Object> entry) {
+        if (!entry.containsKey(TITLE)) {
+            return null;
+        }
+        Map<String, Object> fields = new HashMap<>();
+        for (Map.Entry<String, String> field : ENTRY_FIELDS.entrySet()) {
+            fields.put(field.getKey(), entry.get(field.getValue()));
+        }
+        if (entry.get(DIET_TAGS) != null) {
+            // Diet tags are only written after parsing, so they are as current as the recipe's last save
+            fields.put("parseVersion", RecipeTextParser.VERSION);
+        }
+        return RecipeModel.summaryFromMap(docId, fields);
+    }
+
+    public static boolean isShardId(String documentId) {
+        return parseShardId(documentId) >= 0;
+    }
+
+    private static int parseShardId(String documentId) {
+        try {
+            return Integer.parseInt(documentId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Replaces a shard with its stored content, the value of the document's "entries" field
+    @SuppressWarnings("unchecked")
+    public synchronized void setShard(String shardId, Object entriesField) {
+        int id = parseShardId(shardId);
+        if (id < 0) {
+            return;
+        }
+        Map<String, Map<String, Object>> entries = new HashMap<>();
+        if (entriesField instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) entriesField).entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    entries.put(entry.getKey(), new HashMap<>((Map<String, Object>) entry.getValue()));
+                }
+            }
+        }
+        shards.put(id, entries);
+        shardBytes.put(id, FirestoreDocumentSize.of(shardPathPrefix + id,
+                Collections.<String, Object>singletonMap(ENTRIES_FIELD, new HashMap<String, Object>(entries))));
+    }
+
+    public synchronized void removeShard(String shardId) {
+        int id = parseShardId(shardId);
+        shards.remove(id);
+        shardBytes.remove(id);
+    }
+
+    public synchronized boolean isBuilt() {
+        return built;
+    }
+
+    public synchronized void setBuilt(boolean built) {
+        this.built = built;
+    }
+
+    // Forgets every shard and the built marker, before the collection is read again
+    public synchronized void clear() {
+        shards.clear();
+        shardBytes.clear();
+        built = false;
+    }
+
+    public synchronized boolean contains(String docId) {
+        return newestShardOf(docId) != null;
+    }
+
+    // True if the recipe is listed, whole, at this version or a newer one, so the build can leave it as it is
+    public synchronized boolean hasCurrentEntry(String docId, long lastModified) {
+        Integer newest = newestShardOf(docId);
+        if (newest == null) {
+            return false;
+        }
+        Map<String, Object> entry = shards.get(newest).get(docId);
+        return entry.containsKey(TITLE) && lastModifiedOf(entry) >= lastModified;
+    }
+
+    // Every recipe with an entry, including entries only partly written
+    public synchronized Set<String> getDocIds() {
+        Set<String> docIds = new HashSet<>();
+        for (Map<String, Map<String, Object>> shard : shards.values()) {
+            docIds.addAll(shard.keySet());
+        }
+        return docIds;
+    }
+
+    public synchronized int getShardCount() {
+        return shards.size();
+    }
+
+    public synchronized long getShardBytes(String shardId) {
+        Long bytes = shardBytes.get(parseShardId(shardId));
+        return bytes != null ? bytes : 0;
+    }
+
+    // Every listed recipe, ordered by document ID; copies of a recipe in several shards are merged, newest last
+    public synchronized List<RecipeModel> getRecipes() {
+        TreeMap<String, Map<String, Object>> merged = new TreeMap<>();
+        for (Map<String, Map<String, Object>> shard : shards.values()) {
+            for (Map.Entry<String, Map<String, Object>> entry : shard.entrySet()) {
+                Map<String, Object> existing = merged.get(entry.getKey());
+                if (existing == null) {
+                    merged.put(entry.getKey(), entry.getValue());
+                } else {
+                    merged.put(entry.getKey(), newestLast(existing, entry.getValue()));
+                }
+            }
+        }
+        List<RecipeModel> recipes = new ArrayList<>(merged.size());
+        for (Map.Entry<String, Map<String, Object>> entry : merged.entrySet()) {
+            RecipeModel recipe = recipeOf(entry.getKey(), entry.getValue());
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * Plans the catalog side of a batch: whole entries for saves, changed entry fields for updates (both keyed
+     * by document ID and holding Firestore fields, as in RecipeRemoteDataSource.commitBatch) and removals for
+     * deletes. Applies the plan to the in-memory shards so that later plans see the new sizes, and returns it
+     * keyed by shard ID.
+     */
+    public synchronized Map<String, ShardWrite> plan(Map<String, Map<String, Object>> saves,
+                                                     Map<String, Map<String, Object>> updates,
+                                                     Collection<String> deletes) {
+        Map<String, ShardWrite> writes = new TreeMap<>();
+        for (Map.Entry<String, Map<String, Object>> save : saves.entrySet()) {
+            String docId = save.getKey();
+            Map<String, Object> entry = entryOf(save.getValue());
+            int target = placeWhole(docId, entry, writes);
+            removeCopies(docId, target, writes);
+        }
+        for (Map.Entry<String, Map<String, Object>> update : updates.entrySet()) {
+            String docId = update.getKey();
+            Map<String, Object> changed = entryOf(update.getValue());
+            if (changed.isEmpty()) {
+                continue;
+            }
+            Integer current = newestShardOf(docId);
+            if (current == null) {
+                // Not listed yet; these fields complete the entry once it is
+                int target = openShard(entrySize(docId, changed));
+                put(target, docId, new HashMap<>(changed));
+                writeFor(writes, target).merged.put(docId, changed);
+                continue;
+            }
+            Map<String, Object> whole = new HashMap<>(shards.get(current).get(docId));
+            whole.putAll(changed);
+            int target;
+            if (fits(current, docId, whole)) {
+                target = current;
+                put(target, docId, whole);
+                writeFor(writes, target).merged.put(docId, changed);
+            } else {
+                target = placeWhole(docId, whole, writes);
+            }
+            removeCopies(docId, target, writes);
+        }
+        for (String docId : deletes) {
+            removeCopies(docId, -1, writes);
+        }
+        return writes;
+    }
+
+    // Replaces the entry where it is if it still fits there, else in the open shard
+    private int placeWhole(String docId, Map<String, Object> entry, Map<String, ShardWrite> writes) {
+        Integer current = newestShardOf(docId);
+        int target = current != null && fits(current, docId, entry) ? current : openShard(entrySize(docId, entry));
+        put(target, docId, entry);
+        writeFor(writes, target).replaced.put(docId, entry);
+        return target;
+    }
+
+    // Drops the recipe from every shard but keep (-1 for all of them)
+    private void removeCopies(String docId, int keep, Map<String, ShardWrite> writes) {
+        for (Map.Entry<Integer, Map<String, Map<String, Object>>> shard : shards.entrySet()) {
+            if (shard.getKey() != keep && shard.getValue().containsKey(docId)) {
+                remove(shard.getKey(), docId);
+                writeFor(writes, shard.getKey()).removed.add(docId);
+            }
+        }
+    }
+
+    private Integer newestShardOf(String docId) {
+        Integer newest = null;
+        long newestModified = Long.MIN_VALUE;
+        for (Map.Entry<Integer, Map<String, Map<String, Object>>> shard : shards.entrySet()) {
+            Map<String, Object> entry = shard.getValue().get(docId);
+            if (entry != null && lastModifiedOf(entry) >= newestModified) {
+                newest = shard.getKey();
+                newestModified = lastModifiedOf(entry);
+            }
+        }
+        return newest;
+    }
+
+    private boolean fits(int shardId, String docId, Map<String, Object> entry) {
+        Map<String, Object> old = shards.get(shardId).get(docId);
+        long oldSize = old != null ? entrySize(docId, old) : 0;
+        return shardBytes.get(shardId) - oldSize + entrySize(docId, entry) <= SHARD_LIMIT_BYTES;
+    }
+
+    // The last shard if the entry fits there, otherwise a new, empty one after it
+    private int openShard(long entrySize) {
+        if (!shards.isEmpty()) {
+            int last = shards.lastKey();
+            if (shardBytes.get(last) + entrySize <= SHARD_LIMIT_BYTES) {
+                return last;
+            }
+        }
+        int id = shards.isEmpty() ? 0 : shards.lastKey() + 1;
+        shards.put(id, new HashMap<>());
+        shardBytes.put(id, FirestoreDocumentSize.of(shardPathPrefix + id,
+                Collections.<String, Object>singletonMap(ENTRIES_FIELD, Collections.emptyMap())));
+        return id;
+    }
+
+    private void put(int shardId, String docId, Map<String, Object> entry) {
+        Map<String, Object> old = shards.get(shardId).put(docId, entry);
+        long delta = entrySize(docId, entry) - (old != null ? entrySize(docId, old) : 0);
+        shardBytes.put(shardId, shardBytes.get(shardId) + delta);
+    }
+
+    private void remove(int shardId, String docId) {
+        Map<String, Object> old = shards.get(shardId).remove(docId);
+        if (old != null) {
+            shardBytes.put(shardId, shardBytes.get(shardId) - entrySize(docId, old));
+        }
+    }
+
+    private static ShardWrite writeFor(Map<String, ShardWrite> writes, int shardId) {
+        String key = String.valueOf(shardId);
+        ShardWrite write = writes.get(key);
+        if (write == null) {
+            write = new ShardWrite();
+            writes.put(key, write);
+        }
+        return write;
+    }
+
+    private static long entrySize(String docId, Map<String, Object> entry) {
+        return FirestoreDocumentSize.fieldsSize(Collections.<String, Object>singletonMap(docId, entry));
+    }
+
+    private static Map<String, Object> newestLast(Map<String, Object> a, Map<String, Object> b) {
+        Map<String, Object> merged;
+        if (lastModifiedOf(a) <= lastModifiedOf(b)) {
+            merged = new HashMap<>(a);
+            merged.putAll(b);
+        } else {
+            merged = new HashMap<>(b);
+            merged.putAll(a);
+        }
+        return merged;
+    }
+
+    private static long lastModifiedOf(Map<String, Object> entry) {
+        Object modified = entry.get(LAST_MODIFIED);
+        return modified instanceof Number ? ((Number) modified).longValue() : 0L;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.recipefinder.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * How a recipe is split across Firestore documents. Users/{uid}/SavedRecipes/{docId} is the summary the list
+ * listens to: titles, image, tags, diet tags and timestamps. Users/{uid}/RecipeBodies/{docId} holds the heavy
+ * text (summary, ingredients, instructions, notes and their parsed form), read only when a recipe is opened,
+ * edited, searched or exported.
+ *
+ * Documents written before the split keep their body fields inline in the summary document until
+ * RecipeLayoutMigration moves them. Readers merge both, with the body document winning field by field, so a
+ * partly migrated recipe still reads back whole.
+ *
+ * Every write also sets the summary's server timestamps, createdAt and updatedAt. A delete replaces the
+ * summary with a deletion record, {deleted: true, updatedAt}, and removes the body; readers skip such records
+ * except when syncing changes.
+ */
+public final class RecipeDocumentLayout {
+
+    public static final String SUMMARY_COLLECTION = "SavedRecipes";
+    public static final String BODY_COLLECTION = "RecipeBodies";
+
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String DELETED = "deleted";
+
+    // Everything else in RecipeModel.toMap() belongs to the summary
+    public static final Set<String> BODY_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "summary", "ingredients", "instructions", "userNotes", "parsedIngredients", "steps")));
+
+    private RecipeDocumentLayout() {
+    }
+
+    public static Map<String, Object> summaryOf(Map<String, Object> fields) {
+        Map<String, Object> summary = new HashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (!BODY_FIELDS.contains(field.getKey())) {
+                summary.put(field.getKey(), field.getValue());
+            }
+        }
+        return summary;
+    }
+
+    public static Map<String, Object> bodyOf(Map<String, Object> fields) {
+        Map<String, Object> body = new HashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (BODY_FIELDS.contains(field.getKey())) {
+                body.put(field.getKey(), field.getValue());
+            }
+        }
+        return body;
+    }
+
+    // The whole recipe from its two documents; body may be null for a document not migrated yet
+    public static Map<String, Object> merge(Map<String, Object> summary, Map<String, Object> body) {
+        Map<String, Object> merged = new HashMap<>(summary);
+        if (body != null) {
+            merged.putAll(bodyOf(body));
+        }
+        return merged;
+    }
+
+    public static boolean isDeleted(Map<String, Object> summary) {
+        return Boolean.TRUE.equals(summary.get(DELETED));
+    }
+
+    // True for a document written before the split, which still carries body fields inline
+    public static boolean hasInlineBody(Map<String, Object> summary) {
+        for (String field : BODY_FIELDS) {
+            if (summary.containsKey(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.recipefinder.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.recipefinder.RecipeModel;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One pass over Users/{uid}/SavedRecipes that moves the body fields of documents written before the
+ * summary/body split (see RecipeDocumentLayout) into RecipeBodies. Each page of up to MAX_BATCH_RECIPES
+ * documents is read, and those that still hold their body inline are rewritten as both documents in one
+ * transaction, keeping their lastModified and createdAt and adding the parsed form if they lack it.
+ *
+ * Progress is kept per user in SharedPreferences, so an interrupted pass resumes after the last page it
+ * finished and a completed one is never repeated.
+ */
+public class RecipeLayoutMigration {
+
+    private static final String TAG = "RecipeLayoutMigration";
+    private static final String PREFS_NAME = "recipe_layout_migration";
+    private static final int PAGE_SIZE = RecipeRemoteDataSource.MAX_BATCH_RECIPES;
+
+    private final SharedPreferences prefs;
+    private final FirebaseFirestore db;
+    private final String uid;
+    private boolean running = false;
+
+    // Stored size of the documents migrated so far in this run, before and after
+    private long bytesBefore = 0;
+    private long bytesAfter = 0;
+    private int migratedCount = 0;
+
+    public RecipeLayoutMigration(Context context, FirebaseFirestore db, String uid) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.db = db;
+        this.uid = uid;
+    }
+
+    public void runIfNeeded() {
+        if (running || prefs.getBoolean(doneKey(), false)) {
+            return;
+        }
+        running = true;
+        migratePage(prefs.getString(cursorKey(), null));
+    }
+
+    private String doneKey() {
+        return uid + ".done";
+    }
+
+    private String cursorKey() {
+        return uid + ".after";
+    }
+
+    private void migratePage(String startAfterDocId) {
+        Query query = db.collection("Users").document(uid).collection(RecipeDocumentLayout.SUMMARY_COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (startAfterDocId != null) {
+            query = query.startAfter(startAfterDocId);
+        }
+        query.get()
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    List<String> legacyIds = new ArrayList<>();
+                    for (DocumentSnapshot doc : docs) {
+                        Map<String, Object> data = doc.getData();
+                        if (data != null && RecipeDocumentLayout.hasInlineBody(data)) {
+                            legacyIds.add(doc.getId());
+                            bytesBefore += FirestoreDocumentSize.of(doc.getReference().getPath(), data);
+                        }
+                    }
+                    String lastDocId = docs.isEmpty() ? null : docs.get(docs.size() - 1).getId();
+                    boolean lastPage = docs.size() < PAGE_SIZE;
+                    if (legacyIds.isEmpty()) {
+                        pageDone(lastDocId, lastPage);
+                    } else {
+                        rewrite(legacyIds, lastDocId, lastPage);
+                    }
+                })
+                .addOnFailureListener(this::fail);
+    }
+
+    // Rewrites a page's legacy recipes in one transaction, so an edit saved meanwhile is read, not overwritten
+    private void rewrite(List<String> legacyIds, String lastDocId, boolean lastPage) {
+        CollectionReference summaries = db.collection("Users").document(uid).collection(RecipeDocumentLayout.SUMMARY_COLLECTION);
+        CollectionReference bodies = db.collection("Users").document(uid).collection(RecipeDocumentLayout.BODY_COLLECTION);
+        db.runTransaction(transaction -> {
+            List<DocumentSnapshot> summaryDocs = new ArrayList<>(legacyIds.size());
+            List<DocumentSnapshot> bodyDocs = new ArrayList<>(legacyIds.size());
+            for (String docId : legacyIds) {
+                summaryDocs.add(transaction.get(summaries.document(docId)));
+                bodyDocs.add(transaction.get(bodies.document(docId)));
+            }
+            long summaryBytes = 0;
+            for (int i = 0; i < legacyIds.size(); i++) {
+                DocumentSnapshot summary = summaryDocs.get(i);
+                if (!summary.exists() || summary.getData() == null || RecipeDocumentLayout.isDeleted(summary.getData())) {
+                    continue; // Deleted since the page was read
+                }
+                Map<String, Object> body = bodyDocs.get(i).exists() ? bodyDocs.get(i).getData() : null;
+                RecipeModel recipe = RecipeModel.fromMap(summary.getId(), RecipeDocumentLayout.merge(summary.getData(), body));
+                recipe.parseForSave(); // Keeps lastModified: the content is unchanged
+                Map<String, Object> fields = recipe.toMap();
+                Map<String, Object> summaryFields = RecipeDocumentLayout.summaryOf(fields);
+                Object createdAt = summary.get(RecipeDocumentLayout.CREATED_AT);
+                summaryFields.put(RecipeDocumentLayout.CREATED_AT, createdAt != null ? createdAt : FieldValue.serverTimestamp());
+                summaryFields.put(RecipeDocumentLayout.UPDATED_AT, FieldValue.serverTimestamp());
+                transaction.set(summary.getReference(), summaryFields);
+                transaction.set(bodies.document(summary.getId()), RecipeDocumentLayout.bodyOf(fields));
+                summaryBytes += FirestoreDocumentSize.of(summary.getReference().getPath(), summaryFields);
+            }
+            return summaryBytes;
+        })
+                .addOnSuccessListener(summaryBytes -> {
+                    bytesAfter += summaryBytes;
+                    migratedCount += legacyIds.size();
+                    pageDone(lastDocId, lastPage);
+                })
+                .addOnFailureListener(this::fail);
+    }
+
+    private void pageDone(String lastDocId, boolean lastPage) {
+        if (lastPage || lastDocId == null) {
+            prefs.edit().putBoolean(doneKey(), true).remove(cursorKey()).apply();
+            running = false;
+            Log.d(TAG, "Done: moved " + migratedCount + " recipe bodies; their list documents went from "
+                    + bytesBefore + " to " + bytesAfter + " bytes.");
+            return;
+        }
+        prefs.edit().putString(cursorKey(), lastDocId).apply();
+        migratePage(lastDocId);
+    }
+
+    // Picked up again after the last finished page the next time the app starts
+    private void fail(Exception e) {
+        running = false;
+        Log.w(TAG, "Stopped after " + migratedCount + " recipes: " + e.getMessage());
+    }
+}
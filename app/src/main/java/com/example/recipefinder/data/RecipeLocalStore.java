@@ -0,0 +1,81 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Local source of truth for a user's recipes. Rows marked dirty are local changes that have not reached
+ * the server yet; together they form the write-behind queue. Deleted rows are kept as dirty tombstones
+ * until the server delete succeeds.
+ *
+ * All methods are blocking and must be called off the main thread.
+ */
+public interface RecipeLocalStore {
+
+    // Returns null for unknown or deleted recipes
+    RecipeModel get(String docId);
+
+    // All non-deleted recipes, ordered by document ID
+    List<RecipeModel> getAll();
+
+    // Streams every non-deleted recipe to the visitor without holding them all in memory
+    void forEachRecipe(Consumer<RecipeModel> visitor);
+
+    void put(RecipeModel recipe, boolean dirty);
+
+    /**
+     * Stores an edit of an existing recipe that only touched the given fields. The fields are added to
+     * whatever is already queued for the row; a row already queued as a whole-document write stays one.
+     */
+    void putChanges(RecipeModel recipe, Set<String> changedFields);
+
+    void markDeleted(String docId, long lastModified);
+
+    void remove(String docId);
+
+    boolean isDirty(String docId);
+
+    // Up to limit local changes waiting to be written to the server, oldest first
+    List<PendingWrite> getPendingWrites(int limit);
+
+    default List<PendingWrite> getPendingWrites() {
+        return getPendingWrites(Integer.MAX_VALUE);
+    }
+
+    // Clears the dirty flag, but only if the row has not been modified again since lastModified
+    void markClean(String docId, long lastModified);
+
+    // Server updatedAt (ms) of the newest change merged from the server; 0 before the first sync
+    long getSyncWatermark();
+
+    void setSyncWatermark(long watermark);
+
+    // Client time of the last purge of old deletion records on the server; 0 if never
+    long getLastPurgeTime();
+
+    void setLastPurgeTime(long time);
+
+    // Runs several writes as one unit, so bulk operations pay for a single commit
+    void runInTransaction(Runnable work);
+
+    // One queued local change
+    class PendingWrite {
+        public final String docId;
+        public final boolean deleted;
+        public final long lastModified;
+        public final RecipeModel recipe; // null for deletes
+        public final Set<String> changedFields; // null: write the whole document
+
+        public PendingWrite(String docId, boolean deleted, long lastModified, RecipeModel recipe,
+                            Set<String> changedFields) {
+            this.docId = docId;
+            this.deleted = deleted;
+            this.lastModified = lastModified;
+            this.recipe = recipe;
+            this.changedFields = changedFields;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The server side of a user's SavedRecipes. Implemented by FirestoreRecipeRemoteDataSource in the app
+ * and by an in-memory fake in JVM tests. Every method deals in whole recipes; how they are split into
+ * documents (see RecipeDocumentLayout) is up to the implementation.
+ *
+ * Deletes leave a deletion record behind for a while (TOMBSTONE_RETENTION_MS), so that fetchChangedSince can
+ * report them to devices that sync later; the fetch methods never return deleted recipes.
+ */
+public interface RecipeRemoteDataSource {
+
+    // Firestore rejects a WriteBatch with more than 500 writes
+    int MAX_BATCH_WRITES = 500;
+    // Writes a batch keeps for the list catalog, one per catalog shard it touches (see RecipeCatalog)
+    int MAX_CATALOG_WRITES = 20;
+    // Each recipe is a summary and a body document, so a batch writes two documents per recipe
+    int MAX_BATCH_RECIPES = (MAX_BATCH_WRITES - MAX_CATALOG_WRITES) / 2;
+
+    // How long deletion records are kept; a device that has not synced for longer must fetch everything
+    long TOMBSTONE_RETENTION_MS = 30L * 24 * 60 * 60 * 1000;
+
+    // Allocates a document ID for a recipe that has not been saved yet
+    String newDocumentId();
+
+    // Every recipe that has not been deleted
+    void fetchAll(RepositoryCallback<List<RecipeModel>> callback);
+
+    // Delivers null if the document does not exist
+    void fetch(String docId, RepositoryCallback<RecipeModel> callback);
+
+    // The recipes among docIds that exist, in no particular order
+    void fetch(Collection<String> docIds, RepositoryCallback<List<RecipeModel>> callback);
+
+    // Up to limit recipes ordered by document ID, starting after startAfterDocId (null for the first page).
+    // A page shorter than limit is the last one.
+    void fetchPage(String startAfterDocId, int limit, RepositoryCallback<List<RecipeModel>> callback);
+
+    /**
+     * In one atomic batch: writes every recipe in saves as a whole document, updates only the given fields of
+     * each document in updates (keyed by document ID; the whole batch fails with MissingDocumentException if
+     * one of them no longer exists),
+     * and deletes every document in deletes. Together they may hold at most MAX_BATCH_RECIPES recipes;
+     * callers split larger sets of changes into several batches. A batch whose recipes are spread over more
+     * than MAX_CATALOG_WRITES catalog shards fails with BatchTooLargeException, and is sent again split up.
+     */
+    void commitBatch(List<RecipeModel> saves, Map<String, Map<String, Object>> updates, List<String> deletes,
+                     RepositoryCallback<Void> callback);
+
+    /**
+     * What changed on the server since a watermark: every recipe written at or after updatedSince (server time,
+     * ms) and every recipe deleted since then. With updatedSince 0 it is every recipe, and deletions are left
+     * out. Recipes come as summaries only (see RecipeModel.isSummaryOnly), so the caller fetches whole ones just
+     * for those it does not hold already. Reads the server, never a local cache, so a watermark is only ever
+     * advanced past what the server holds.
+     */
+    void fetchChangedSince(long updatedSince, RepositoryCallback<Changes> callback);
+
+    // Permanently removes deletion records older than cutoff (server time, ms); delivers how many it removed
+    void purgeDeletedBefore(long cutoff, RepositoryCallback<Integer> callback);
+
+    // Result of fetchChangedSince
+    class Changes {
+        public final List<RecipeModel> changed; // Summary-only
+        public final List<String> deletedDocIds;
+        public final long watermark; // Latest updatedAt seen, or the one asked for if nothing changed
+
+        public Changes(List<RecipeModel> changed, List<String> deletedDocIds, long watermark) {
+            this.changed = changed;
+            this.deletedDocIds = deletedDocIds;
+            this.watermark = watermark;
+        }
+    }
+}
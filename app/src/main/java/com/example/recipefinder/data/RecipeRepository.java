@@ -0,0 +1,749 @@
+package com.example.recipefinder.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.recipefinder.RecipeModel;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Single entry point for reading and writing a user's recipes.
+ *
+ * Reads are served from the local store first, so screens can render without waiting on the network.
+ * Writes go to the local store and are queued as dirty rows, then flushed to the remote side in the
+ * background (write-behind). When both sides changed the same recipe, the one with the newer
+ * lastModified wins.
+ *
+ * The dirty rows are a persistent outbound queue: it survives process death, and repeated edits to the
+ * same recipe coalesce because each recipe has one row, so only its latest state is uploaded. Saves and
+ * deletes are also visible immediately through applyPendingWrites(), so lists can show them before the
+ * upload finishes. A failed upload is retried with exponential backoff.
+ *
+ * Every local store access runs on a single background executor; callbacks are delivered on the
+ * callback executor (the main thread in the app).
+ */
+public class RecipeRepository {
+
+    // Supplies the current time; replaced by a fake clock in tests
+    public interface Clock {
+        long now();
+    }
+
+    // Runs a task after a delay; used to back off failed uploads
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMillis);
+    }
+
+    // Told, on the callback executor, whenever local changes are queued or finish uploading
+    public interface PendingWritesListener {
+        void onPendingWritesChanged();
+    }
+
+    static final long RETRY_BASE_DELAY_MS = 2000;
+    static final long RETRY_MAX_DELAY_MS = 5 * 60 * 1000;
+    // Expired deletion records are looked for at most this often, by whichever device gets there
+    static final long PURGE_INTERVAL_MS = 24 * 60 * 60 * 1000;
+    // Two days short of the deletion-record retention, as room for clock skew between devices
+    static final long FULL_SYNC_AFTER_MS = RecipeRemoteDataSource.TOMBSTONE_RETENTION_MS - 2L * 24 * 60 * 60 * 1000;
+
+    private static RecipeRepository instance;
+    private static String instanceUid;
+
+    private final RecipeLocalStore localStore;
+    private final RecipeRemoteDataSource remote;
+    private final RecipeCache cache;
+    private final Executor ioExecutor;
+    private final Executor callbackExecutor;
+    private final Clock clock;
+    private final Scheduler scheduler;
+
+    // Only touched on ioExecutor
+    private boolean flushing = false;
+    private boolean retryScheduled = false;
+    private boolean purgingDeletionRecords = false;
+    private int failedAttempts = 0;
+    // Recipes per batch; lowered while the queue holds recipes spread over too many catalog shards
+    private int batchLimit = RecipeRemoteDataSource.MAX_BATCH_RECIPES;
+    // Documents whose field update failed (e.g. deleted on the server); sent as whole documents instead
+    private final Set<String> forceWholeDocument = new HashSet<>();
+
+    // Optimistic view of the queue: saved or deleted locally, not yet acknowledged by the server
+    private final Map<String, RecipeModel> pendingSaves = new ConcurrentHashMap<>();
+    private final Map<String, Long> pendingDeletes = new ConcurrentHashMap<>();
+    private final List<PendingWritesListener> pendingWritesListeners = new CopyOnWriteArrayList<>();
+
+    public RecipeRepository(RecipeLocalStore localStore, RecipeRemoteDataSource remote, RecipeCache cache,
+                            Executor ioExecutor, Executor callbackExecutor, Clock clock, Scheduler scheduler) {
+        this.localStore = localStore;
+        this.remote = remote;
+        this.cache = cache;
+        this.ioExecutor = ioExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    // Process-wide repository for the signed-in user; recreated when the user changes
+    public static synchronized RecipeRepository getInstance(Context context, String uid) {
+        if (instance == null || !uid.equals(instanceUid)) {
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            ScheduledExecutorService ioExecutor = Executors.newSingleThreadScheduledExecutor();
+            instance = new RecipeRepository(
+                    new SqliteRecipeLocalStore(context, uid),
+                    new FirestoreRecipeRemoteDataSource(FirebaseFirestore.getInstance(), uid, ioExecutor),
+                    RecipeCache.getInstance(),
+                    ioExecutor,
+                    mainHandler::post,
+                    System::currentTimeMillis,
+                    (task, delayMillis) -> ioExecutor.schedule(task, delayMillis, TimeUnit.MILLISECONDS));
+            instanceUid = uid;
+            // Cached recipes belong to the previous user
+            RecipeCache.getInstance().clear();
+        }
+        return instance;
+    }
+
+    /**
+     * Delivers the cached recipe if there is one and stops there: the cache is kept current by this
+     * repository's own writes, and the MyRecipesFragment snapshot listener evicts copies it shows are stale.
+     *
+     * Otherwise delivers the locally stored recipe right away (if there is one), then refreshes it from
+     * the remote side and delivers it a second time only if the server copy is newer. Delivers null if
+     * the recipe exists on neither side.
+     */
+    public void getRecipe(String docId, RepositoryCallback<RecipeModel> callback) {
+        RecipeModel cached = cache.get(docId);
+        if (cached != null) {
+            deliver(callback, cached);
+            return;
+        }
+        ioExecutor.execute(() -> {
+            RecipeModel local = localStore.get(docId);
+            if (local != null) {
+                migrateParsedForm(local);
+                deliver(callback, local);
+            }
+            remote.fetch(docId, new RepositoryCallback<RecipeModel>() {
+                @Override
+                public void onSuccess(RecipeModel fresh) {
+                    ioExecutor.execute(() -> {
+                        RecipeModel merged = mergeRemote(docId, fresh);
+                        if (merged != null) {
+                            migrateParsedForm(merged);
+                            cache.put(merged);
+                        }
+                        if (local == null || (merged != null && !merged.equals(local))) {
+                            deliver(callback, merged);
+                        }
+                    });
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    // Offline is fine as long as we had a local copy
+                    if (local == null) {
+                        deliverError(callback, e);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * The whole recipe for each of the given list entries, in the same order. Entries that are already whole
+     * are passed through; for summary-only ones the cache or local store is used if it holds the same version,
+     * and the rest are fetched from the remote side in one go. Recipes deleted on the server are left out.
+     */
+    public void getWholeRecipes(List<RecipeModel> recipes, RepositoryCallback<List<RecipeModel>> callback) {
+        ioExecutor.execute(() -> {
+            Map<String, RecipeModel> wholeById = new HashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (RecipeModel recipe : recipes) {
+                RecipeModel whole = recipe.isSummaryOnly() ? localVersion(recipe) : recipe;
+                if (whole != null) {
+                    wholeById.put(recipe.getFirebaseDocId(), whole);
+                } else {
+                    missing.add(recipe.getFirebaseDocId());
+                }
+            }
+            if (missing.isEmpty()) {
+                deliver(callback, inOrder(recipes, wholeById));
+                return;
+            }
+            remote.fetch(missing, new RepositoryCallback<List<RecipeModel>>() {
+                @Override
+                public void onSuccess(List<RecipeModel> fetched) {
+                    ioExecutor.execute(() -> {
+                        for (RecipeModel fresh : fetched) {
+                            RecipeModel merged = mergeRemote(fresh.getFirebaseDocId(), fresh);
+                            if (merged != null) {
+                                wholeById.put(merged.getFirebaseDocId(), merged);
+                            }
+                        }
+                        deliver(callback, inOrder(recipes, wholeById));
+                    });
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    deliverError(callback, e);
+                }
+            });
+        });
+    }
+
+    // A whole copy at least as new as the summary, from the cache or the local store; null if neither has one
+    private RecipeModel localVersion(RecipeModel summary) {
+        RecipeModel cached = cache.get(summary.getFirebaseDocId());
+        if (cached != null && cached.getLastModified() >= summary.getLastModified()) {
+            return cached;
+        }
+        RecipeModel local = localStore.get(summary.getFirebaseDocId());
+        if (local != null && local.getLastModified() >= summary.getLastModified()) {
+            return local;
+        }
+        return null;
+    }
+
+    private static List<RecipeModel> inOrder(List<RecipeModel> recipes, Map<String, RecipeModel> wholeById) {
+        List<RecipeModel> ordered = new ArrayList<>(recipes.size());
+        for (RecipeModel recipe : recipes) {
+            RecipeModel whole = wholeById.get(recipe.getFirebaseDocId());
+            if (whole != null) {
+                ordered.add(whole);
+            }
+        }
+        return ordered;
+    }
+
+    // All locally stored recipes, without touching the network
+    public void getLocalRecipes(RepositoryCallback<List<RecipeModel>> callback) {
+        ioExecutor.execute(() -> deliver(callback, localStore.getAll()));
+    }
+
+    /**
+     * Stores the recipe locally and queues it for upload. The callback fires once the local write is done,
+     * with the recipe's document ID (allocated here for new recipes).
+     */
+    public void saveRecipe(RecipeModel recipe, RepositoryCallback<String> callback) {
+        requireWhole(recipe);
+        RecipeModel toSave = recipe.copy();
+        if (toSave.getFirebaseDocId() == null) {
+            toSave.setFirebaseDocId(remote.newDocumentId());
+        }
+        toSave.setLastModified(clock.now());
+        toSave.parseForSave();
+        cache.put(toSave);
+        trackPendingSave(toSave);
+        ioExecutor.execute(() -> {
+            localStore.put(toSave, true);
+            deliver(callback, toSave.getFirebaseDocId());
+            flushLocked();
+        });
+    }
+
+    /**
+     * Saves an edit of an existing recipe, uploading only the fields that differ from original (the version
+     * the edit started from). Returns false, and writes nothing, if no field changed.
+     */
+    public boolean saveChanges(RecipeModel original, RecipeModel edited, RepositoryCallback<String> callback) {
+        requireWhole(original);
+        requireWhole(edited);
+        Set<String> changedFields = RecipeModel.changedFields(original, edited);
+        if (changedFields.isEmpty()) {
+            return false;
+        }
+        if (original.needsParseMigration()) {
+            // The server copy predates the structured form; send it along with the edit
+            changedFields.addAll(RecipeModel.PARSED_FIELDS);
+        }
+        RecipeModel toSave = edited.copy();
+        toSave.setLastModified(clock.now());
+        toSave.parseForSave();
+        cache.put(toSave);
+        trackPendingSave(toSave);
+        ioExecutor.execute(() -> {
+            localStore.putChanges(toSave, changedFields);
+            deliver(callback, toSave.getFirebaseDocId());
+            flushLocked();
+        });
+        return true;
+    }
+
+    /**
+     * Bulk version of saveRecipe for recipes that already have document IDs (e.g. after bulk tagging).
+     * All local writes share one transaction, and the upload goes out in WriteBatch-sized chunks.
+     */
+    public void saveRecipes(List<RecipeModel> recipes, RepositoryCallback<Void> callback) {
+        long now = clock.now();
+        List<RecipeModel> toSave = new ArrayList<>(recipes.size());
+        for (RecipeModel recipe : recipes) {
+            requireWhole(recipe);
+        }
+        for (RecipeModel recipe : recipes) {
+            RecipeModel copy = recipe.copy();
+            copy.setLastModified(now);
+            copy.parseForSave();
+            toSave.add(copy);
+            cache.put(copy);
+            trackPendingSave(copy);
+        }
+        ioExecutor.execute(() -> {
+            localStore.runInTransaction(() -> {
+                for (RecipeModel recipe : toSave) {
+                    localStore.put(recipe, true);
+                }
+            });
+            deliver(callback, null);
+            flushLocked();
+        });
+    }
+
+    /**
+     * Stores imported recipes (document IDs already assigned) in one local transaction and queues them for
+     * upload. Unlike saveRecipes they skip the cache and are not added to the pending-writes overlay up front,
+     * which would hold a whole large import in memory; the flush tracks one batch of them at a time.
+     */
+    public void importRecipes(List<RecipeModel> recipes, RepositoryCallback<Void> callback) {
+        long now = clock.now();
+        ioExecutor.execute(() -> {
+            localStore.runInTransaction(() -> {
+                for (RecipeModel recipe : recipes) {
+                    recipe.setLastModified(now);
+                    recipe.parseForSave();
+                    localStore.put(recipe, true);
+                }
+            });
+            deliver(callback, null);
+            flushLocked();
+        });
+    }
+
+    // Visits every locally stored recipe on the background executor, then calls back once done
+    public void forEachLocalRecipe(Consumer<RecipeModel> visitor, RepositoryCallback<Void> callback) {
+        ioExecutor.execute(() -> {
+            localStore.forEachRecipe(visitor);
+            deliver(callback, null);
+        });
+    }
+
+    // Marks the recipe deleted locally and queues the server delete
+    public void deleteRecipe(String docId, RepositoryCallback<Void> callback) {
+        long now = clock.now();
+        cache.invalidate(docId);
+        trackPendingDelete(docId, now);
+        ioExecutor.execute(() -> {
+            localStore.markDeleted(docId, now);
+            deliver(callback, null);
+            flushLocked();
+        });
+    }
+
+    // Bulk version of deleteRecipe: one local transaction, then chunked batch deletes on the server
+    public void deleteRecipes(Collection<String> docIds, RepositoryCallback<Void> callback) {
+        long now = clock.now();
+        List<String> toDelete = new ArrayList<>(docIds);
+        for (String docId : toDelete) {
+            cache.invalidate(docId);
+            trackPendingDelete(docId, now);
+        }
+        ioExecutor.execute(() -> {
+            localStore.runInTransaction(() -> {
+                for (String docId : toDelete) {
+                    localStore.markDeleted(docId, now);
+                }
+            });
+            deliver(callback, null);
+            flushLocked();
+        });
+    }
+
+    public void addPendingWritesListener(PendingWritesListener listener) {
+        pendingWritesListeners.add(listener);
+    }
+
+    public void removePendingWritesListener(PendingWritesListener listener) {
+        pendingWritesListeners.remove(listener);
+    }
+
+    /**
+     * Overlays queued local changes on a list that came from the server: newer local versions replace
+     * their rows, pending deletes are dropped, and new recipes that the server has not seen are appended.
+     */
+    public List<RecipeModel> applyPendingWrites(List<RecipeModel> recipes) {
+        if (pendingSaves.isEmpty() && pendingDeletes.isEmpty()) {
+            return recipes;
+        }
+        List<RecipeModel> result = new ArrayList<>(recipes.size() + pendingSaves.size());
+        Set<String> seen = new HashSet<>();
+        for (RecipeModel recipe : recipes) {
+            String docId = recipe.getFirebaseDocId();
+            seen.add(docId);
+            if (pendingDeletes.containsKey(docId)) {
+                continue;
+            }
+            RecipeModel pending = pendingSaves.get(docId);
+            result.add(pending != null && pending.getLastModified() > recipe.getLastModified() ? pending.copy() : recipe);
+        }
+        for (RecipeModel pending : pendingSaves.values()) {
+            if (!seen.contains(pending.getFirebaseDocId())) {
+                result.add(pending.copy());
+            }
+        }
+        return result;
+    }
+
+    // A list entry saved as is would blank the recipe's body on the server; see getWholeRecipes
+    private static void requireWhole(RecipeModel recipe) {
+        if (recipe.isSummaryOnly()) {
+            throw new IllegalArgumentException("Recipe " + recipe.getFirebaseDocId() + " was loaded without its body");
+        }
+    }
+
+    private void trackPendingSave(RecipeModel recipe) {
+        pendingDeletes.remove(recipe.getFirebaseDocId());
+        pendingSaves.put(recipe.getFirebaseDocId(), recipe.copy());
+        notifyPendingWritesChanged();
+    }
+
+    private void trackPendingDelete(String docId, long deletedAt) {
+        pendingSaves.remove(docId);
+        pendingDeletes.put(docId, deletedAt);
+        notifyPendingWritesChanged();
+    }
+
+    private void notifyPendingWritesChanged() {
+        for (PendingWritesListener listener : pendingWritesListeners) {
+            callbackExecutor.execute(listener::onPendingWritesChanged);
+        }
+    }
+
+    // Uploads every pending local change
+    public void flushPendingWrites() {
+        ioExecutor.execute(this::flushLocked);
+    }
+
+    /**
+     * One page of the server's SavedRecipes, ordered by document ID; see RecipeRemoteDataSource.fetchPage.
+     * For exports that walk the whole collection without holding it in memory.
+     */
+    public void fetchRemotePage(String startAfterDocId, int limit, RepositoryCallback<List<RecipeModel>> callback) {
+        remote.fetchPage(startAfterDocId, limit, callback);
+    }
+
+    /**
+     * Brings the local store up to date with the server, resolving conflicts with pending local changes by
+     * lastModified, then flushes whatever local changes won and delivers every recipe.
+     *
+     * Only documents changed since the stored watermark are read, deletions included. Every recipe is listed
+     * on the first sync, and again when the watermark is old enough that the server may have purged deletion
+     * records this device has not seen. Either way only summaries come first, and whole recipes are fetched
+     * just for those that differ from the local copy.
+     */
+    public void syncFromRemote(RepositoryCallback<List<RecipeModel>> callback) {
+        ioExecutor.execute(() -> {
+            long watermark = localStore.getSyncWatermark();
+            boolean full = watermark == 0 || clock.now() - watermark > FULL_SYNC_AFTER_MS;
+            remote.fetchChangedSince(full ? 0 : watermark, new RepositoryCallback<RecipeRemoteDataSource.Changes>() {
+                @Override
+                public void onSuccess(RecipeRemoteDataSource.Changes changes) {
+                    ioExecutor.execute(() -> fetchChangedRecipes(changes, full, callback));
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    deliverError(callback, e);
+                }
+            });
+        });
+    }
+
+    // On ioExecutor. The changes are summaries; whole recipes are fetched only where the server's lastModified
+    // differs from the local row's and the server copy would win, which for our own writes coming back is never.
+    private void fetchChangedRecipes(RecipeRemoteDataSource.Changes changes, boolean full,
+                                     RepositoryCallback<List<RecipeModel>> callback) {
+        List<String> stale = new ArrayList<>();
+        for (RecipeModel summary : changes.changed) {
+            RecipeModel local = localStore.get(summary.getFirebaseDocId());
+            boolean localWins = local != null && (local.getLastModified() == summary.getLastModified()
+                    || localStore.isDirty(local.getFirebaseDocId()) && local.getLastModified() > summary.getLastModified());
+            if (!localWins) {
+                stale.add(summary.getFirebaseDocId());
+            }
+        }
+        if (stale.isEmpty()) {
+            finishSync(changes, Collections.<RecipeModel>emptyList(), full, callback);
+            return;
+        }
+        remote.fetch(stale, new RepositoryCallback<List<RecipeModel>>() {
+            @Override
+            public void onSuccess(List<RecipeModel> whole) {
+                ioExecutor.execute(() -> finishSync(changes, whole, full, callback));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                deliverError(callback, e);
+            }
+        });
+    }
+
+    private void finishSync(RecipeRemoteDataSource.Changes changes, List<RecipeModel> whole, boolean full,
+                            RepositoryCallback<List<RecipeModel>> callback) {
+        applyChanges(changes, whole, full);
+        deliver(callback, localStore.getAll());
+        flushLocked();
+        purgeDeletionRecords();
+    }
+
+    // On ioExecutor. The watermark moves in the same transaction as the rows, so it never runs ahead of them.
+    // A recipe deleted between the summary and the whole fetch is missing from whole; its deletion record
+    // arrives with the next sync.
+    private void applyChanges(RecipeRemoteDataSource.Changes changes, List<RecipeModel> whole, boolean full) {
+        localStore.runInTransaction(() -> {
+            Set<String> fetchedIds = new HashSet<>();
+            for (RecipeModel remoteRecipe : whole) {
+                fetchedIds.add(remoteRecipe.getFirebaseDocId());
+                mergeRemote(remoteRecipe.getFirebaseDocId(), remoteRecipe);
+            }
+            Set<String> changedIds = new HashSet<>();
+            for (RecipeModel summary : changes.changed) {
+                changedIds.add(summary.getFirebaseDocId());
+                if (!fetchedIds.contains(summary.getFirebaseDocId())) {
+                    keepServerTimestamps(summary);
+                }
+            }
+            for (String docId : changes.deletedDocIds) {
+                mergeRemote(docId, null);
+            }
+            if (full) {
+                // Clean local rows the server no longer has were deleted elsewhere, possibly long enough ago
+                // for their deletion record to be gone
+                for (RecipeModel local : localStore.getAll()) {
+                    if (!changedIds.contains(local.getFirebaseDocId())) {
+                        mergeRemote(local.getFirebaseDocId(), null);
+                    }
+                }
+            }
+            localStore.setSyncWatermark(changes.watermark);
+        });
+    }
+
+    // A clean local row the summary matches only needs the server timestamps, which catalog entries lack
+    private void keepServerTimestamps(RecipeModel summary) {
+        if (summary.getUpdatedAt() == 0 || localStore.isDirty(summary.getFirebaseDocId())) {
+            return;
+        }
+        RecipeModel local = localStore.get(summary.getFirebaseDocId());
+        if (local != null && local.getLastModified() == summary.getLastModified()
+                && local.getUpdatedAt() != summary.getUpdatedAt()) {
+            local.setServerTimestamps(summary.getCreatedAt(), summary.getUpdatedAt());
+            localStore.put(local, false);
+        }
+    }
+
+    // Removes deletion records older than the retention period, at most once per PURGE_INTERVAL_MS
+    private void purgeDeletionRecords() {
+        long now = clock.now();
+        long lastPurge = localStore.getLastPurgeTime();
+        if (purgingDeletionRecords || lastPurge > 0 && now - lastPurge < PURGE_INTERVAL_MS) {
+            return;
+        }
+        purgingDeletionRecords = true;
+        remote.purgeDeletedBefore(now - RecipeRemoteDataSource.TOMBSTONE_RETENTION_MS,
+                new RepositoryCallback<Integer>() {
+                    @Override
+                    public void onSuccess(Integer purged) {
+                        ioExecutor.execute(() -> {
+                            localStore.setLastPurgeTime(now);
+                            purgingDeletionRecords = false;
+                        });
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        ioExecutor.execute(() -> purgingDeletionRecords = false); // Tried again on the next sync
+                    }
+                });
+    }
+
+    // Applies a server copy to the local store (on ioExecutor) and returns what the store now holds
+    private RecipeModel mergeRemote(String docId, RecipeModel fresh) {
+        boolean dirty = localStore.isDirty(docId);
+        if (fresh == null) {
+            // Gone on the server: keep it only if we have unsent local edits for it
+            if (!dirty) {
+                localStore.remove(docId);
+                cache.invalidate(docId);
+                return null;
+            }
+            return localStore.get(docId);
+        }
+        if (dirty) {
+            RecipeModel local = localStore.get(docId);
+            long localModified = local != null ? local.getLastModified() : pendingDeleteTime(docId);
+            if (fresh.getLastModified() <= localModified) {
+                // Our pending change is newer; the flush will overwrite the server copy
+                return local;
+            }
+        }
+        localStore.put(fresh, false);
+        cache.put(fresh);
+        return fresh;
+    }
+
+    /**
+     * Lazy migration to the structured ingredient/step form: a stored recipe without it (or parsed by an older
+     * RecipeTextParser) is parsed the first time it is read, and the parsed fields alone are queued for upload.
+     * Documents nobody opens are never rewritten. Runs on ioExecutor.
+     */
+    private void migrateParsedForm(RecipeModel recipe) {
+        if (!recipe.needsParseMigration()) {
+            return;
+        }
+        recipe.parseForSave();
+        localStore.putChanges(recipe, new HashSet<>(RecipeModel.PARSED_FIELDS));
+        flushLocked();
+    }
+
+    private long pendingDeleteTime(String docId) {
+        for (RecipeLocalStore.PendingWrite write : localStore.getPendingWrites()) {
+            if (write.docId.equals(docId)) {
+                return write.lastModified;
+            }
+        }
+        return 0;
+    }
+
+    // Sends pending writes oldest first, one batch of up to MAX_BATCH_RECIPES at a time, so a large queue
+    // (e.g. after an import) is never loaded into memory at once. Runs on ioExecutor.
+    private void flushLocked() {
+        if (flushing) {
+            return;
+        }
+        List<RecipeLocalStore.PendingWrite> chunk = localStore.getPendingWrites(batchLimit);
+        if (chunk.isEmpty()) {
+            batchLimit = RecipeRemoteDataSource.MAX_BATCH_RECIPES;
+            return;
+        }
+        // Rows left dirty by an earlier session are just as pending as this session's writes
+        for (RecipeLocalStore.PendingWrite write : chunk) {
+            if (write.deleted) {
+                pendingDeletes.putIfAbsent(write.docId, write.lastModified);
+            } else {
+                pendingSaves.putIfAbsent(write.docId, write.recipe);
+            }
+        }
+        flushing = true;
+        sendBatch(chunk);
+    }
+
+    private void sendBatch(List<RecipeLocalStore.PendingWrite> chunk) {
+        List<RecipeModel> saves = new ArrayList<>();
+        Map<String, Map<String, Object>> updates = new HashMap<>();
+        List<String> deletes = new ArrayList<>();
+        for (RecipeLocalStore.PendingWrite write : chunk) {
+            if (write.deleted) {
+                deletes.add(write.docId);
+            } else if (write.changedFields != null && !forceWholeDocument.contains(write.docId)) {
+                updates.put(write.docId, write.recipe.toMap(write.changedFields));
+            } else {
+                saves.add(write.recipe);
+            }
+        }
+        remote.commitBatch(saves, updates, deletes, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                ioExecutor.execute(() -> {
+                    localStore.runInTransaction(() -> {
+                        for (RecipeLocalStore.PendingWrite write : chunk) {
+                            if (write.deleted) {
+                                // Only drop the tombstone if the recipe was not saved again in the meantime
+                                if (localStore.get(write.docId) == null) {
+                                    localStore.remove(write.docId);
+                                }
+                                pendingDeletes.remove(write.docId, write.lastModified);
+                            } else {
+                                localStore.markClean(write.docId, write.lastModified);
+                                forceWholeDocument.remove(write.docId);
+                                // An edit made while this one was uploading stays pending
+                                RecipeModel pendingSave = pendingSaves.get(write.docId);
+                                if (pendingSave != null && pendingSave.getLastModified() == write.lastModified) {
+                                    pendingSaves.remove(write.docId, pendingSave);
+                                }
+                            }
+                        }
+                    });
+                    failedAttempts = 0;
+                    flushing = false;
+                    notifyPendingWritesChanged();
+                    // Next batch, including anything queued while this one was in flight
+                    flushLocked();
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                // Leave the rows dirty and try again later
+                ioExecutor.execute(() -> {
+                    flushing = false;
+                    if (e instanceof BatchTooLargeException && chunk.size() > 1) {
+                        // Rejected before anything was sent: halve the batches until the queue is empty
+                        batchLimit = chunk.size() / 2;
+                        flushLocked();
+                        return;
+                    }
+                    if (e instanceof MissingDocumentException) {
+                        // A field update hit a document deleted on the server; like any newer local edit,
+                        // it wins over the delete and is retried as a whole document
+                        forceWholeDocument.addAll(updates.keySet());
+                    }
+                    scheduleRetry();
+                });
+            }
+        });
+    }
+
+    // Exponential backoff: 2s, 4s, 8s, ... capped at 5 minutes. Runs on ioExecutor.
+    private void scheduleRetry() {
+        if (retryScheduled) {
+            return;
+        }
+        long delay = Math.min(RETRY_MAX_DELAY_MS, RETRY_BASE_DELAY_MS << Math.min(failedAttempts, 16));
+        failedAttempts++;
+        retryScheduled = true;
+        scheduler.schedule(() -> ioExecutor.execute(() -> {
+            retryScheduled = false;
+            flushLocked();
+        }), delay);
+    }
+
+    private <T> void deliver(RepositoryCallback<T> callback, T result) {
+        if (callback != null) {
+            callbackExecutor.execute(() -> callback.onSuccess(result));
+        }
+    }
+
+    private <T> void deliverError(RepositoryCallback<T> callback, Exception e) {
+        if (callback != null) {
+            callbackExecutor.execute(() -> callback.onError(e));
+        }
+    }
+}
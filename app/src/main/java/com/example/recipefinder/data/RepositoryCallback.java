@@ -0,0 +1,7 @@
+package com.example.recipefinder.data;
+
+// Result callback for asynchronous repository and remote data source calls
+public interface RepositoryCallback<T> {
+    void onSuccess(T result);
+    void onError(Exception e);
+}
@@ -0,0 +1,381 @@
+package com.example.recipefinder.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.text.TextUtils;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.ingredients.Fraction;
+import com.example.recipefinder.ingredients.IngredientLine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+// RecipeLocalStore backed by one SQLite database per signed-in user
+public class SqliteRecipeLocalStore extends SQLiteOpenHelper implements RecipeLocalStore {
+
+    private static final int DATABASE_VERSION = 6;
+
+    private static final String TABLE_RECIPES = "recipes";
+    private static final String COL_DOC_ID = "doc_id";
+    private static final String COL_SPOONACULAR_ID = "spoonacular_id";
+    private static final String COL_TITLE = "title";
+    private static final String COL_IMAGE_URL = "image_url";
+    private static final String COL_CUSTOM_TITLE = "custom_title";
+    private static final String COL_USER_NOTES = "user_notes";
+    private static final String COL_SUMMARY = "summary";
+    private static final String COL_INGREDIENTS = "ingredients";
+    private static final String COL_INSTRUCTIONS = "instructions";
+    private static final String COL_TAGS = "tags"; // Newline-separated
+    private static final String COL_LAST_MODIFIED = "last_modified";
+    private static final String COL_DIRTY = "dirty";
+    private static final String COL_DELETED = "deleted";
+    private static final String COL_DIRTY_FIELDS = "dirty_fields"; // Comma-separated; NULL means the whole document
+    private static final String COL_PARSED_INGREDIENTS = "parsed_ingredients"; // See encodeLines
+    private static final String COL_STEPS = "steps"; // RECORD_SEPARATOR-separated
+    private static final String COL_PARSE_VERSION = "parse_version";
+    private static final String COL_DIET_FLAGS = "diet_flags"; // Diet bitmask, -1 when not classified
+    private static final String COL_CREATED_AT = "created_at"; // Server timestamps, 0 until read back
+    private static final String COL_UPDATED_AT = "updated_at";
+
+    private static final String TABLE_SYNC_STATE = "sync_state";
+    private static final String COL_KEY = "key";
+    private static final String COL_VALUE = "value";
+    private static final String KEY_SYNC_WATERMARK = "watermark";
+    private static final String KEY_LAST_PURGE = "last_purge";
+
+    // ASCII record and unit separators never occur in recipe text after splitting, so they need no escaping
+    private static final String RECORD_SEPARATOR = "\u001E";
+    private static final String FIELD_SEPARATOR = "\u001F";
+
+    public SqliteRecipeLocalStore(Context context, String uid) {
+        super(context.getApplicationContext(), "recipes_" + uid + ".db", null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_RECIPES + " ("
+                + COL_DOC_ID + " TEXT PRIMARY KEY, "
+                + COL_SPOONACULAR_ID + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_TITLE + " TEXT, "
+                + COL_IMAGE_URL + " TEXT, "
+                + COL_CUSTOM_TITLE + " TEXT, "
+                + COL_USER_NOTES + " TEXT, "
+                + COL_SUMMARY + " TEXT, "
+                + COL_INGREDIENTS + " TEXT, "
+                + COL_INSTRUCTIONS + " TEXT, "
+                + COL_TAGS + " TEXT, "
+                + COL_LAST_MODIFIED + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_DIRTY + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_DELETED + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_DIRTY_FIELDS + " TEXT, "
+                + COL_PARSED_INGREDIENTS + " TEXT, "
+                + COL_STEPS + " TEXT, "
+                + COL_PARSE_VERSION + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_DIET_FLAGS + " INTEGER NOT NULL DEFAULT -1, "
+                + COL_CREATED_AT + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_UPDATED_AT + " INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX idx_recipes_dirty ON " + TABLE_RECIPES + " (" + COL_DIRTY + ", " + COL_LAST_MODIFIED + ")");
+        createSyncState(db);
+    }
+
+    private static void createSyncState(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + COL_KEY + " TEXT PRIMARY KEY, "
+                + COL_VALUE + " INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_TAGS + " TEXT");
+        }
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_DIRTY_FIELDS + " TEXT");
+        }
+        if (oldVersion < 4) {
+            // Existing rows get parse_version 0 and are migrated lazily by RecipeRepository when read
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_PARSED_INGREDIENTS + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_STEPS + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_PARSE_VERSION + " INTEGER NOT NULL DEFAULT 0");
+        }
+        if (oldVersion < 5) {
+            // Rows parsed before diet tags carry parse_version 1 and are reclassified by the same lazy migration
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_DIET_FLAGS + " INTEGER NOT NULL DEFAULT -1");
+        }
+        if (oldVersion < 6) {
+            // No watermark yet, so the first sync after the upgrade is a full one and fills in the timestamps
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_CREATED_AT + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_RECIPES + " ADD COLUMN " + COL_UPDATED_AT + " INTEGER NOT NULL DEFAULT 0");
+            createSyncState(db);
+        }
+    }
+
+    @Override
+    public long getSyncWatermark() {
+        return getSyncState(KEY_SYNC_WATERMARK);
+    }
+
+    @Override
+    public void setSyncWatermark(long watermark) {
+        setSyncState(KEY_SYNC_WATERMARK, watermark);
+    }
+
+    @Override
+    public long getLastPurgeTime() {
+        return getSyncState(KEY_LAST_PURGE);
+    }
+
+    @Override
+    public void setLastPurgeTime(long time) {
+        setSyncState(KEY_LAST_PURGE, time);
+    }
+
+    private long getSyncState(String key) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_SYNC_STATE, new String[]{COL_VALUE},
+                COL_KEY + " = ?", new String[]{key}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        }
+    }
+
+    private void setSyncState(String key, long value) {
+        ContentValues values = new ContentValues();
+        values.put(COL_KEY, key);
+        values.put(COL_VALUE, value);
+        getWritableDatabase().insertWithOnConflict(TABLE_SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Override
+    public void runInTransaction(Runnable work) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            work.run();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public RecipeModel get(String docId) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_RECIPES, null,
+                COL_DOC_ID + " = ? AND " + COL_DELETED + " = 0", new String[]{docId},
+                null, null, null)) {
+            return cursor.moveToFirst() ? readRecipe(cursor) : null;
+        }
+    }
+
+    @Override
+    public List<RecipeModel> getAll() {
+        List<RecipeModel> recipes = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_RECIPES, null,
+                COL_DELETED + " = 0", null, null, null, COL_DOC_ID)) {
+            while (cursor.moveToNext()) {
+                recipes.add(readRecipe(cursor));
+            }
+        }
+        return recipes;
+    }
+
+    @Override
+    public void forEachRecipe(Consumer<RecipeModel> visitor) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_RECIPES, null,
+                COL_DELETED + " = 0", null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                visitor.accept(readRecipe(cursor));
+            }
+        }
+    }
+
+    @Override
+    public void put(RecipeModel recipe, boolean dirty) {
+        ContentValues values = recipeValues(recipe, dirty);
+        values.putNull(COL_DIRTY_FIELDS);
+        getWritableDatabase().insertWithOnConflict(TABLE_RECIPES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Override
+    public void putChanges(RecipeModel recipe, Set<String> changedFields) {
+        Set<String> fields = new TreeSet<>(changedFields);
+        try (Cursor cursor = getReadableDatabase().query(TABLE_RECIPES, new String[]{COL_DIRTY, COL_DIRTY_FIELDS},
+                COL_DOC_ID + " = ?", new String[]{recipe.getFirebaseDocId()}, null, null, null)) {
+            if (cursor.moveToFirst() && cursor.getInt(0) == 1) {
+                String queued = cursor.getString(1);
+                if (queued == null) {
+                    fields = null; // Already a whole-document write
+                } else {
+                    fields.addAll(Arrays.asList(queued.split(",")));
+                }
+            }
+        }
+        ContentValues values = recipeValues(recipe, true);
+        if (fields == null) {
+            values.putNull(COL_DIRTY_FIELDS);
+        } else {
+            values.put(COL_DIRTY_FIELDS, TextUtils.join(",", fields));
+        }
+        getWritableDatabase().insertWithOnConflict(TABLE_RECIPES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static ContentValues recipeValues(RecipeModel recipe, boolean dirty) {
+        ContentValues values = new ContentValues();
+        values.put(COL_DOC_ID, recipe.getFirebaseDocId());
+        values.put(COL_SPOONACULAR_ID, recipe.getId());
+        values.put(COL_TITLE, recipe.getTitle());
+        values.put(COL_IMAGE_URL, recipe.getImageUrl());
+        values.put(COL_CUSTOM_TITLE, recipe.getCustomTitle());
+        values.put(COL_USER_NOTES, recipe.getUserNotes());
+        values.put(COL_SUMMARY, recipe.getSummary());
+        values.put(COL_INGREDIENTS, recipe.getIngredients());
+        values.put(COL_INSTRUCTIONS, recipe.getInstructions());
+        values.put(COL_TAGS, recipe.getTags().isEmpty() ? null : TextUtils.join("\n", recipe.getTags()));
+        values.put(COL_LAST_MODIFIED, recipe.getLastModified());
+        // The structured form is kept only when current; older versions are left for the lazy migration
+        if (recipe.needsParseMigration()) {
+            values.putNull(COL_PARSED_INGREDIENTS);
+            values.putNull(COL_STEPS);
+            values.put(COL_DIET_FLAGS, -1);
+        } else {
+            values.put(COL_PARSED_INGREDIENTS, encodeLines(recipe.getParsedIngredients()));
+            values.put(COL_STEPS, TextUtils.join(RECORD_SEPARATOR, recipe.getSteps()));
+            values.put(COL_DIET_FLAGS, recipe.getDietFlags());
+        }
+        values.put(COL_PARSE_VERSION, recipe.getParseVersion());
+        values.put(COL_CREATED_AT, recipe.getCreatedAt());
+        values.put(COL_UPDATED_AT, recipe.getUpdatedAt());
+        values.put(COL_DIRTY, dirty ? 1 : 0);
+        values.put(COL_DELETED, 0);
+        return values;
+    }
+
+    @Override
+    public void markDeleted(String docId, long lastModified) {
+        ContentValues values = new ContentValues();
+        values.put(COL_DOC_ID, docId);
+        values.put(COL_LAST_MODIFIED, lastModified);
+        values.put(COL_DIRTY, 1);
+        values.put(COL_DELETED, 1);
+        values.putNull(COL_DIRTY_FIELDS);
+        getWritableDatabase().insertWithOnConflict(TABLE_RECIPES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Override
+    public void remove(String docId) {
+        getWritableDatabase().delete(TABLE_RECIPES, COL_DOC_ID + " = ?", new String[]{docId});
+    }
+
+    @Override
+    public boolean isDirty(String docId) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_RECIPES, new String[]{COL_DIRTY},
+                COL_DOC_ID + " = ?", new String[]{docId}, null, null, null)) {
+            return cursor.moveToFirst() && cursor.getInt(0) == 1;
+        }
+    }
+
+    @Override
+    public List<PendingWrite> getPendingWrites(int limit) {
+        List<PendingWrite> pending = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_RECIPES, null,
+                COL_DIRTY + " = 1", null, null, null, COL_LAST_MODIFIED, String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                String docId = cursor.getString(cursor.getColumnIndexOrThrow(COL_DOC_ID));
+                boolean deleted = cursor.getInt(cursor.getColumnIndexOrThrow(COL_DELETED)) == 1;
+                long lastModified = cursor.getLong(cursor.getColumnIndexOrThrow(COL_LAST_MODIFIED));
+                String dirtyFields = cursor.getString(cursor.getColumnIndexOrThrow(COL_DIRTY_FIELDS));
+                Set<String> changedFields = dirtyFields != null ? new HashSet<>(Arrays.asList(dirtyFields.split(","))) : null;
+                pending.add(new PendingWrite(docId, deleted, lastModified, deleted ? null : readRecipe(cursor), changedFields));
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public void markClean(String docId, long lastModified) {
+        ContentValues values = new ContentValues();
+        values.put(COL_DIRTY, 0);
+        values.putNull(COL_DIRTY_FIELDS);
+        getWritableDatabase().update(TABLE_RECIPES, values,
+                COL_DOC_ID + " = ? AND " + COL_LAST_MODIFIED + " = ?",
+                new String[]{docId, String.valueOf(lastModified)});
+    }
+
+    private static RecipeModel readRecipe(Cursor cursor) {
+        RecipeModel recipe = new RecipeModel(
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_DOC_ID)),
+                cursor.getInt(cursor.getColumnIndexOrThrow(COL_SPOONACULAR_ID)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_TITLE)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_IMAGE_URL)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_CUSTOM_TITLE)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_USER_NOTES)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_SUMMARY)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_INGREDIENTS)),
+                cursor.getString(cursor.getColumnIndexOrThrow(COL_INSTRUCTIONS)));
+        recipe.setLastModified(cursor.getLong(cursor.getColumnIndexOrThrow(COL_LAST_MODIFIED)));
+        recipe.setServerTimestamps(cursor.getLong(cursor.getColumnIndexOrThrow(COL_CREATED_AT)),
+                cursor.getLong(cursor.getColumnIndexOrThrow(COL_UPDATED_AT)));
+        String tags = cursor.getString(cursor.getColumnIndexOrThrow(COL_TAGS));
+        if (!TextUtils.isEmpty(tags)) {
+            recipe.setTags(Arrays.asList(tags.split("\n")));
+        }
+        int parseVersion = cursor.getInt(cursor.getColumnIndexOrThrow(COL_PARSE_VERSION));
+        String parsedIngredients = cursor.getString(cursor.getColumnIndexOrThrow(COL_PARSED_INGREDIENTS));
+        String steps = cursor.getString(cursor.getColumnIndexOrThrow(COL_STEPS));
+        if (parsedIngredients != null && steps != null) {
+            recipe.setParsedForm(decodeLines(parsedIngredients), splitRecords(steps), parseVersion);
+            int dietFlags = cursor.getInt(cursor.getColumnIndexOrThrow(COL_DIET_FLAGS));
+            if (dietFlags >= 0) {
+                recipe.setDietFlags(dietFlags);
+            }
+        } else {
+            recipe.setParsedForm(null, null, parseVersion);
+        }
+        return recipe;
+    }
+
+    // One record per ingredient line: text, quantity, quantityMax, unit, description, name (empty = absent)
+    private static String encodeLines(List<IngredientLine> lines) {
+        StringBuilder out = new StringBuilder();
+        for (IngredientLine line : lines) {
+            if (out.length() > 0) {
+                out.append(RECORD_SEPARATOR);
+            }
+            out.append(line.text).append(FIELD_SEPARATOR)
+                    .append(line.quantity != null ? line.quantity.toString() : "").append(FIELD_SEPARATOR)
+                    .append(line.quantityMax != null ? line.quantityMax.toString() : "").append(FIELD_SEPARATOR)
+                    .append(line.unit != null ? line.unit : "").append(FIELD_SEPARATOR)
+                    .append(line.description != null ? line.description : "").append(FIELD_SEPARATOR)
+                    .append(line.name != null ? line.name : "");
+        }
+        return out.toString();
+    }
+
+    private static List<IngredientLine> decodeLines(String encoded) {
+        List<IngredientLine> lines = new ArrayList<>();
+        for (String record : splitRecords(encoded)) {
+            String[] fields = record.split(FIELD_SEPARATOR, -1);
+            if (fields.length != 6) {
+                continue;
+            }
+            lines.add(new IngredientLine(fields[0], Fraction.parse(fields[1]), Fraction.parse(fields[2]),
+                    emptyToNull(fields[3]), emptyToNull(fields[4]), emptyToNull(fields[5])));
+        }
+        return lines;
+    }
+
+    private static List<String> splitRecords(String joined) {
+        return joined.isEmpty() ? new ArrayList<>() : Arrays.asList(joined.split(RECORD_SEPARATOR, -1));
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
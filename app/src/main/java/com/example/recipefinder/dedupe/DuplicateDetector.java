@@ -0,0 +1,164 @@
+package com.example.recipefinder.dedupe;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds groups of near-duplicate recipes without comparing every pair. Each recipe gets a MinHash signature
+ * (see MinHasher); the signature is cut into BANDS bands of ROWS values and recipes that agree on a whole
+ * band land in the same bucket. Only recipes sharing a bucket are compared, by exact Jaccard similarity of
+ * their feature sets, so the cost grows with the number of recipes rather than the number of pairs.
+ *
+ * With 20 bands of 5 rows a pair at similarity 0.7 becomes a candidate with probability 0.97, and a pair at
+ * 0.3 with probability 0.05; candidates below the threshold are then dropped by the exact check.
+ *
+ * Recipes saved from the same Spoonacular recipe (same id > 0) are always grouped, whatever their edits.
+ */
+public class DuplicateDetector {
+
+    public static final double DEFAULT_THRESHOLD = 0.7;
+
+    static final int BANDS = 20;
+    static final int ROWS = MinHasher.NUM_HASHES / BANDS;
+
+    // Larger buckets (many recipes sharing a band, e.g. title-only recipes) are compared against their
+    // first few members only, so one popular bucket cannot make the scan quadratic
+    private static final int MAX_PAIRWISE_BUCKET = 50;
+
+    // Low bits of a band key that hold the recipe's index; the remaining 40 bits of band hash are plenty,
+    // and a rare collision only costs an extra exact comparison
+    private static final int INDEX_BITS = 24;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private final double threshold;
+
+    public DuplicateDetector() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public DuplicateDetector(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("threshold must be in (0, 1]: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    // Groups of two or more duplicates, largest first; recipes with no duplicate are left out
+    public List<DuplicateGroup> findDuplicates(List<RecipeModel> recipes) {
+        int n = recipes.size();
+        if (n > INDEX_MASK) {
+            throw new IllegalArgumentException("Too many recipes: " + n);
+        }
+        long[][] features = new long[n][];
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            features[i] = MinHasher.features(recipes.get(i));
+            parent[i] = i;
+        }
+
+        // Same Spoonacular recipe saved twice
+        Map<Integer, Integer> firstBySpoonacularId = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int id = recipes.get(i).getId();
+            if (id > 0) {
+                Integer first = firstBySpoonacularId.get(id);
+                if (first == null) {
+                    firstBySpoonacularId.put(id, i);
+                } else {
+                    union(parent, first, i);
+                }
+            }
+        }
+
+        // Band keys: the hashed band in the high bits, the recipe's index in the low INDEX_BITS, so sorting a
+        // band's keys lines up each bucket as one run without boxing anything
+        long[][] bandKeys = new long[BANDS][n];
+        int keyed = 0;
+        for (int i = 0; i < n; i++) {
+            if (features[i].length == 0) {
+                continue; // Nothing to compare on
+            }
+            int[] signature = MinHasher.signature(features[i]);
+            for (int band = 0; band < BANDS; band++) {
+                long key = band;
+                for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                    key = MinHasher.mix64(key * 31 + signature[row]);
+                }
+                bandKeys[band][keyed] = (key & ~INDEX_MASK) | i;
+            }
+            keyed++;
+        }
+
+        // Verify candidates; pairs already in one group (e.g. found in an earlier band) are skipped
+        for (long[] keys : bandKeys) {
+            Arrays.sort(keys, 0, keyed);
+            int runStart = 0;
+            for (int k = 1; k <= keyed; k++) {
+                if (k < keyed && (keys[k] & ~INDEX_MASK) == (keys[runStart] & ~INDEX_MASK)) {
+                    continue;
+                }
+                verifyBucket(keys, runStart, k, features, parent);
+                runStart = k;
+            }
+        }
+
+        Map<Integer, List<RecipeModel>> byRoot = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            List<RecipeModel> members = byRoot.get(root);
+            if (members == null) {
+                members = new ArrayList<>(2);
+                byRoot.put(root, members);
+            }
+            members.add(recipes.get(i));
+        }
+        List<DuplicateGroup> groups = new ArrayList<>();
+        for (List<RecipeModel> members : byRoot.values()) {
+            if (members.size() > 1) {
+                groups.add(new DuplicateGroup(members));
+            }
+        }
+        Collections.sort(groups, (a, b) -> {
+            int bySize = Integer.compare(b.size(), a.size());
+            return bySize != 0 ? bySize : a.getTitle().compareToIgnoreCase(b.getTitle());
+        });
+        return groups;
+    }
+
+    // Compares the recipes of one bucket, keys[from..to), and joins those at or above the threshold
+    private void verifyBucket(long[] keys, int from, int to, long[][] features, int[] parent) {
+        int pairwiseEnd = Math.min(to, from + MAX_PAIRWISE_BUCKET);
+        for (int a = from; a < pairwiseEnd; a++) {
+            int i = (int) (keys[a] & INDEX_MASK);
+            for (int b = a + 1; b < to; b++) {
+                int j = (int) (keys[b] & INDEX_MASK);
+                if (find(parent, i) != find(parent, j)
+                        && MinHasher.jaccard(features[i], features[j]) >= threshold) {
+                    union(parent, i, j);
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // Path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.recipefinder.dedupe;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recipes DuplicateDetector judged to be the same dish, most recently modified first. Merging keeps that
+ * newest recipe and folds in what only the others have: their tags, their notes, and an image or summary
+ * the kept recipe lacks.
+ */
+public class DuplicateGroup {
+
+    private final List<RecipeModel> recipes;
+
+    DuplicateGroup(List<RecipeModel> recipes) {
+        List<RecipeModel> sorted = new ArrayList<>(recipes);
+        Collections.sort(sorted, (a, b) -> Long.compare(b.getLastModified(), a.getLastModified()));
+        this.recipes = Collections.unmodifiableList(sorted);
+    }
+
+    public List<RecipeModel> getRecipes() {
+        return recipes;
+    }
+
+    public int size() {
+        return recipes.size();
+    }
+
+    // The recipe a merge keeps
+    public RecipeModel getKeeper() {
+        return recipes.get(0);
+    }
+
+    // Title the kept recipe is shown under
+    public String getTitle() {
+        RecipeModel keeper = getKeeper();
+        String title = keeper.getCustomTitle();
+        if (title == null || title.trim().isEmpty()) {
+            title = keeper.getTitle();
+        }
+        return title != null ? title : "";
+    }
+
+    // Document IDs a merge deletes
+    public List<String> getDuplicateDocIds() {
+        List<String> docIds = new ArrayList<>(recipes.size() - 1);
+        for (int i = 1; i < recipes.size(); i++) {
+            docIds.add(recipes.get(i).getFirebaseDocId());
+        }
+        return docIds;
+    }
+
+    // A copy of the keeper with the others folded in; the caller saves it and deletes getDuplicateDocIds()
+    public RecipeModel merge() {
+        RecipeModel merged = getKeeper().copy();
+        StringBuilder notes = new StringBuilder(nullToEmpty(merged.getUserNotes()).trim());
+        for (int i = 1; i < recipes.size(); i++) {
+            RecipeModel other = recipes.get(i);
+            for (String tag : other.getTags()) {
+                merged.addTag(tag);
+            }
+            String otherNotes = nullToEmpty(other.getUserNotes()).trim();
+            if (!otherNotes.isEmpty() && notes.indexOf(otherNotes) < 0) {
+                if (notes.length() > 0) {
+                    notes.append("\n\n");
+                }
+                notes.append(otherNotes);
+            }
+            if (isEmpty(merged.getImageUrl()) && !isEmpty(other.getImageUrl())) {
+                merged.setImageUrl(other.getImageUrl());
+            }
+            if (isEmpty(merged.getSummary()) && !isEmpty(other.getSummary())) {
+                merged.setSummary(other.getSummary());
+            }
+            if (merged.getId() <= 0 && other.getId() > 0) {
+                merged.setId(other.getId()); // Keep the link back to Spoonacular
+            }
+        }
+        merged.setUserNotes(notes.length() > 0 ? notes.toString() : merged.getUserNotes());
+        return merged;
+    }
+
+    private static boolean isEmpty(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+
+    private static String nullToEmpty(String text) {
+        return text != null ? text : "";
+    }
+}
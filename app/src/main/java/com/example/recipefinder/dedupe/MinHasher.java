@@ -0,0 +1,121 @@
+package com.example.recipefinder.dedupe;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.ingredients.IngredientLine;
+import com.example.recipefinder.search.TextNormalizer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns a recipe into a set of hashed features (folded title words and canonical ingredient names) and a
+ * MinHash signature of that set. Two signatures agree in a given position with probability equal to the
+ * Jaccard similarity of the two feature sets, which is what DuplicateDetector's banding relies on.
+ */
+final class MinHasher {
+
+    static final int NUM_HASHES = 100;
+
+    private MinHasher() {
+    }
+
+    /**
+     * Sorted, distinct feature hashes for the recipe: the words of the title it is shown under (customTitle
+     * if set) and the canonical name of every parsed ingredient line. Empty if the recipe has neither.
+     */
+    static long[] features(RecipeModel recipe) {
+        String title = recipe.getCustomTitle();
+        if (title == null || title.trim().isEmpty()) {
+            title = recipe.getTitle();
+        }
+        List<String> words = TextNormalizer.tokenize(title);
+        List<IngredientLine> lines = recipe.getParsedIngredients();
+        long[] hashes = new long[words.size() + lines.size()];
+        int count = 0;
+        for (int i = 0; i < words.size(); i++) {
+            hashes[count++] = hash('t', words.get(i));
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String name = lines.get(i).name;
+            if (name != null && !name.isEmpty()) {
+                hashes[count++] = hash('i', name);
+            }
+        }
+        Arrays.sort(hashes, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || hashes[i] != hashes[distinct - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return distinct == hashes.length ? hashes : Arrays.copyOf(hashes, distinct);
+    }
+
+    /**
+     * Minimum of each hash function over the features. The functions are h_i(x) = a(x) + i * b(x) for two
+     * independent hashes a and b, which costs one multiply-add per function instead of a full hash, and
+     * only the low 32 bits are kept: plenty for comparing positions.
+     */
+    static int[] signature(long[] features) {
+        long[] min = new long[NUM_HASHES];
+        Arrays.fill(min, Long.MAX_VALUE);
+        for (long feature : features) {
+            long a = mix64(feature);
+            long b = mix64(feature ^ 0x9E3779B97F4A7C15L) | 1; // Odd, so i * b never repeats
+            long h = a;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                if (h < min[i]) {
+                    min[i] = h;
+                }
+                h += b;
+            }
+        }
+        int[] signature = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) {
+            signature[i] = (int) min[i];
+        }
+        return signature;
+    }
+
+    // Exact Jaccard similarity of two sorted, distinct feature sets
+    static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    // FNV-1a over the kind prefix and the text, so a title word and an ingredient of the same name differ
+    private static long hash(char kind, String text) {
+        long h = 0xCBF29CE484222325L;
+        h = (h ^ kind) * 0x100000001B3L;
+        for (int i = 0; i < text.length(); i++) {
+            h = (h ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return mix64(h);
+    }
+
+    // MurmurHash3 finalizer
+    static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.recipefinder.images;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.text.TextUtils;
+import android.util.Log;
+import android.widget.ImageView;
+
+import com.example.recipefinder.R;
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.OkHttp3Downloader;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+
+import java.io.File;
+
+/**
+ * All recipe images go through here instead of Picasso.get().load(url).
+ *
+ * - Decodes are sized for the target: list thumbnails are resized to R.dimen.recipe_thumbnail_size,
+ *   detail images use fit(), so a 1500px Spoonacular photo never lands in a 100dp row at full size.
+ * - The shared Picasso instance gets an explicit memory budget (a share of the app heap) and an on-disk
+ *   HTTP cache, both set in res/values/integers.xml.
+ * - Thumbnail requests carry a tag so a whole list can be paused, resumed or cancelled, and a prefetch
+ *   builds exactly the same request as the bind, so the prefetched bitmap is a memory cache hit.
+ */
+public final class RecipeImageLoader {
+
+    private static final String TAG = "RecipeImageLoader";
+    private static final String DISK_CACHE_DIR = "recipe-images";
+
+    private static Picasso picasso;
+
+    private RecipeImageLoader() {
+    }
+
+    // The shared Picasso instance, built on first use with the configured cache budget
+    public static synchronized Picasso get(Context context) {
+        if (picasso == null) {
+            Context appContext = context.getApplicationContext();
+            Resources resources = appContext.getResources();
+            int memoryPercent = resources.getInteger(R.integer.image_memory_cache_heap_percent);
+            long diskMegabytes = resources.getInteger(R.integer.image_disk_cache_mb);
+
+            int memoryBytes = (int) (Runtime.getRuntime().maxMemory() / 100 * memoryPercent);
+            long diskBytes = diskMegabytes * 1024 * 1024;
+            File diskCacheDir = new File(appContext.getCacheDir(), DISK_CACHE_DIR);
+
+            picasso = new Picasso.Builder(appContext)
+                    .memoryCache(new LruCache(memoryBytes))
+                    .downloader(new OkHttp3Downloader(diskCacheDir, diskBytes))
+                    .build();
+            try {
+                // Keep Picasso.get() callers on the same caches
+                Picasso.setSingletonInstance(picasso);
+            } catch (IllegalStateException e) {
+                Log.w(TAG, "Picasso singleton was already created; using a separate instance.");
+            }
+            Log.d(TAG, "Image caches: memory " + (memoryBytes / 1024) + " KB, disk " + diskMegabytes + " MB.");
+        }
+        return picasso;
+    }
+
+    // Loads a square list thumbnail, cancelling whatever the recycled view was loading before
+    public static void loadThumbnail(ImageView imageView, String imageUrl, Object tag) {
+        Picasso picasso = get(imageView.getContext());
+        picasso.cancelRequest(imageView);
+        if (TextUtils.isEmpty(imageUrl)) {
+            imageView.setImageResource(R.drawable.ic_default_recipe_image);
+            return;
+        }
+        thumbnailRequest(picasso, imageUrl, tag)
+                .placeholder(R.drawable.ic_placeholder_image)
+                .error(R.drawable.ic_error_image)
+                .into(imageView);
+    }
+
+    // Downloads and decodes a thumbnail into the memory cache ahead of its row being bound
+    public static void prefetchThumbnail(Context context, String imageUrl, Object tag) {
+        if (TextUtils.isEmpty(imageUrl)) {
+            return;
+        }
+        thumbnailRequest(get(context), imageUrl, tag)
+                .priority(Picasso.Priority.LOW)
+                .fetch();
+    }
+
+    // Same size, transform and tag as the bind, so the memory cache key matches
+    private static RequestCreator thumbnailRequest(Picasso picasso, String imageUrl, Object tag) {
+        return picasso.load(imageUrl)
+                .resizeDimen(R.dimen.recipe_thumbnail_size, R.dimen.recipe_thumbnail_size)
+                .centerCrop()
+                .onlyScaleDown()
+                .tag(tag);
+    }
+
+    // Loads a full-width image decoded at the view's laid-out size
+    public static void loadDetailImage(ImageView imageView, String imageUrl) {
+        Picasso picasso = get(imageView.getContext());
+        if (TextUtils.isEmpty(imageUrl)) {
+            picasso.cancelRequest(imageView);
+            imageView.setImageResource(R.drawable.ic_default_recipe_image);
+            return;
+        }
+        picasso.load(imageUrl)
+                .fit()
+                .centerCrop()
+                .placeholder(R.drawable.ic_placeholder_image)
+                .error(R.drawable.ic_error_image)
+                .into(imageView);
+    }
+
+    public static void cancel(ImageView imageView) {
+        get(imageView.getContext()).cancelRequest(imageView);
+    }
+
+    public static void pause(Context context, Object tag) {
+        get(context).pauseTag(tag);
+    }
+
+    public static void resume(Context context, Object tag) {
+        get(context).resumeTag(tag);
+    }
+
+    // Drops every pending request for the tag, e.g. when the screen showing the list is destroyed
+    public static void cancelAll(Context context, Object tag) {
+        get(context).cancelTag(tag);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.recipefinder.images;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.recipefinder.RecipeAdapter;
+import com.example.recipefinder.RecipeModel;
+
+import java.util.List;
+
+/**
+ * Scroll listener that warms the image cache for the rows about to come on screen, in the direction the
+ * user is scrolling. While the list is flinging, thumbnail loads are paused so decodes for rows that only
+ * flash past do not compete with the rows the user stops on.
+ */
+public class ThumbnailPrefetcher extends RecyclerView.OnScrollListener {
+
+    // How many rows past the last visible one to fetch
+    private static final int PREFETCH_AHEAD = 6;
+
+    private final Context context;
+    private final RecipeAdapter adapter;
+
+    // Range already prefetched, so each row is requested once per pass
+    private int prefetchedFrom = RecyclerView.NO_POSITION;
+    private int prefetchedTo = RecyclerView.NO_POSITION;
+
+    public ThumbnailPrefetcher(Context context, RecipeAdapter adapter) {
+        this.context = context.getApplicationContext();
+        this.adapter = adapter;
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_SETTLING) {
+            RecipeImageLoader.pause(context, adapter.getImageTag());
+        } else {
+            RecipeImageLoader.resume(context, adapter.getImageTag());
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0) {
+            return;
+        }
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        List<RecipeModel> recipes = adapter.getCurrentList();
+        int from;
+        int to;
+        if (dy > 0) {
+            int lastVisible = linearLayoutManager.findLastVisibleItemPosition();
+            if (lastVisible == RecyclerView.NO_POSITION) {
+                return;
+            }
+            from = lastVisible + 1;
+            to = Math.min(recipes.size() - 1, lastVisible + PREFETCH_AHEAD);
+        } else {
+            int firstVisible = linearLayoutManager.findFirstVisibleItemPosition();
+            if (firstVisible == RecyclerView.NO_POSITION) {
+                return;
+            }
+            from = Math.max(0, firstVisible - PREFETCH_AHEAD);
+            to = firstVisible - 1;
+        }
+        for (int position = from; position <= to; position++) {
+            if (position >= prefetchedFrom && position <= prefetchedTo) {
+                continue;
+            }
+            RecipeImageLoader.prefetchThumbnail(context, recipes.get(position).getImageUrl(), adapter.getImageTag());
+        }
+        if (from <= to) {
+            prefetchedFrom = from;
+            prefetchedTo = to;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.recipefinder.importer;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for CSV imports (RFC 4180: quoted fields may contain commas, newlines and doubled quotes).
+ * The first row names the columns; see RecipeFieldMapper for the names it understands. Tags are one column
+ * separated by ';' or '|'.
+ */
+public class CsvRecipeReader implements RecipeRecordReader {
+
+    private final Reader reader;
+    private List<String> header;
+    private int peeked = -2; // -2: nothing peeked
+
+    public CsvRecipeReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public RecipeModel next() throws IOException {
+        if (header == null) {
+            header = readRow();
+            if (header == null) {
+                return null;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                header.set(i, header.get(i).trim().replace("\uFEFF", "").toLowerCase(Locale.ROOT));
+            }
+        }
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).trim().isEmpty()); // Blank line
+
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < header.size() && i < row.size(); i++) {
+            fields.put(header.get(i), row.get(i));
+        }
+        return RecipeFieldMapper.toRecipe(fields);
+    }
+
+    // One row of fields, or null at the end of the input
+    private List<String> readRow() throws IOException {
+        if (peek() == -1) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted CSV field");
+                } else if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.recipefinder.importer;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for JSON imports: either a top-level array of recipe objects, or an object holding such
+ * an array under any key (Spoonacular's {"recipes": [...]}, {"results": [...]}). Only one recipe object is
+ * held in memory at a time. Object keys are lowercased for RecipeFieldMapper.
+ *
+ * A small hand-written pull parser rather than android.util.JsonReader, so imports also run in JVM tests.
+ */
+public class JsonRecipeReader implements RecipeRecordReader {
+
+    private final Reader reader;
+    private int peeked = -2; // -2: nothing peeked
+    private boolean started = false;
+    private boolean finished = false;
+
+    public JsonRecipeReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public RecipeModel next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            if (!enterRecipeArray()) {
+                finished = true;
+                return null;
+            }
+        }
+        int c = peekNonWhitespace();
+        if (c == ',') {
+            read();
+            c = peekNonWhitespace();
+        }
+        if (c == ']' || c == -1) {
+            finished = true;
+            return null;
+        }
+        Object value = readValue();
+        if (!(value instanceof Map)) {
+            throw new IOException("Expected a recipe object, found " + value);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> fields = (Map<String, Object>) value;
+        return RecipeFieldMapper.toRecipe(fields);
+    }
+
+    // Positions the reader just inside the array of recipes. Returns false if the document has none.
+    private boolean enterRecipeArray() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '[') {
+            read();
+            return true;
+        }
+        if (c != '{') {
+            throw new IOException("Expected a JSON array or object");
+        }
+        read();
+        while (true) {
+            c = peekNonWhitespace();
+            if (c == ',') {
+                read();
+                continue;
+            }
+            if (c == '}' || c == -1) {
+                return false;
+            }
+            readString();
+            expect(':');
+            if (peekNonWhitespace() == '[') {
+                read();
+                return true;
+            }
+            readValue(); // Metadata such as "totalResults"
+        }
+    }
+
+    private Object readValue() throws IOException {
+        int c = peekNonWhitespace();
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            case -1:
+                throw new IOException("Unexpected end of JSON");
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        expect('{');
+        Map<String, Object> object = new HashMap<>();
+        while (true) {
+            int c = peekNonWhitespace();
+            if (c == '}') {
+                read();
+                return object;
+            }
+            if (c == ',') {
+                read();
+                continue;
+            }
+            String key = readString().toLowerCase(Locale.ROOT);
+            expect(':');
+            object.put(key, readValue());
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        expect('[');
+        List<Object> array = new ArrayList<>();
+        while (true) {
+            int c = peekNonWhitespace();
+            if (c == ']') {
+                read();
+                return array;
+            }
+            if (c == ',') {
+                read();
+                continue;
+            }
+            array.add(readValue());
+        }
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated JSON string");
+            }
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case 'n': text.append('\n'); break;
+                case 't': text.append('\t'); break;
+                case 'r': text.append('\r'); break;
+                case 'b': text.append('\b'); break;
+                case 'f': text.append('\f'); break;
+                case 'u':
+                    char[] hex = new char[4];
+                    for (int i = 0; i < 4; i++) {
+                        int h = read();
+                        if (h == -1) {
+                            throw new IOException("Unterminated \\u escape");
+                        }
+                        hex[i] = (char) h;
+                    }
+                    try {
+                        text.append((char) Integer.parseInt(new String(hex), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Bad \\u escape: " + new String(hex));
+                    }
+                    break;
+                case -1:
+                    throw new IOException("Unterminated JSON string");
+                default:
+                    text.append((char) escaped); // \" \\ \/
+            }
+        }
+    }
+
+    private Number readNumber() throws IOException {
+        StringBuilder number = new StringBuilder();
+        int c = peek();
+        while (c != -1 && (Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E')) {
+            number.append((char) read());
+            c = peek();
+        }
+        String text = number.toString();
+        try {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                return Long.parseLong(text);
+            }
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad JSON value near \"" + text + "\"");
+        }
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw new IOException("Expected " + literal);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekNonWhitespace();
+        if (c != expected) {
+            throw new IOException("Expected '" + expected + "' but found " + (c == -1 ? "end of file" : "'" + (char) c + "'"));
+        }
+        read();
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\uFEFF') {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.recipefinder.importer;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps one parsed import record (field name -> value) to a RecipeModel. Understands our own export field
+ * names and the Spoonacular API shape ("image", "extendedIngredients" with "original" lines, ...).
+ * Field names are matched case-insensitively; values may be strings, numbers or lists.
+ */
+final class RecipeFieldMapper {
+
+    private RecipeFieldMapper() {
+    }
+
+    static RecipeModel toRecipe(Map<String, Object> fields) {
+        RecipeModel recipe = new RecipeModel();
+        recipe.setId(toInt(get(fields, "id", "spoonacularId")));
+        recipe.setTitle(blankToNull(toText(get(fields, "title", "name"))));
+        recipe.setCustomTitle(blankToNull(toText(get(fields, "customTitle"))));
+        recipe.setImageUrl(blankToNull(toText(get(fields, "imageUrl", "image"))));
+        recipe.setSummary(blankToNull(toText(get(fields, "summary", "description"))));
+        recipe.setUserNotes(blankToNull(toText(get(fields, "userNotes", "notes"))));
+        recipe.setInstructions(blankToNull(toText(get(fields, "instructions", "method", "directions"))));
+
+        Object ingredients = get(fields, "ingredients", "extendedIngredients");
+        recipe.setIngredients(blankToNull(toText(ingredients)));
+
+        Object tags = get(fields, "tags");
+        if (tags instanceof List) {
+            List<String> tagList = new ArrayList<>();
+            for (Object tag : (List<?>) tags) {
+                String text = toText(tag);
+                if (!text.isEmpty()) {
+                    tagList.add(text);
+                }
+            }
+            recipe.setTags(tagList);
+        } else if (tags instanceof String) {
+            // CSV: "weeknight; vegetarian"
+            List<String> tagList = new ArrayList<>();
+            for (String tag : ((String) tags).split("[;|]")) {
+                if (!tag.trim().isEmpty()) {
+                    tagList.add(tag.trim());
+                }
+            }
+            recipe.setTags(tagList);
+        }
+        return recipe;
+    }
+
+    // First present field among the given names, ignoring case
+    private static Object get(Map<String, Object> fields, String... names) {
+        for (String name : names) {
+            Object value = fields.get(name.toLowerCase(Locale.ROOT));
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // Strings as-is, lists one item per line, Spoonacular ingredient objects by their "original" line
+    @SuppressWarnings("unchecked")
+    private static String toText(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof List) {
+            StringBuilder text = new StringBuilder();
+            for (Object item : (List<?>) value) {
+                String line = toText(item);
+                if (!line.isEmpty()) {
+                    if (text.length() > 0) {
+                        text.append('\n');
+                    }
+                    text.append(line);
+                }
+            }
+            return text.toString();
+        }
+        if (value instanceof Map) {
+            Map<String, Object> object = (Map<String, Object>) value;
+            Object line = get(object, "original", "name", "step", "text");
+            return line != null ? toText(line) : "";
+        }
+        if (value instanceof Double && (Double) value == Math.rint((Double) value)) {
+            return String.valueOf(((Double) value).longValue());
+        }
+        return value.toString().trim();
+    }
+
+    private static int toInt(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return (int) Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static String blankToNull(String text) {
+        return text == null || text.isEmpty() ? null : text;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.recipefinder.importer;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.search.TextNormalizer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a bulk import: reads records one at a time, drops duplicates, and hands new recipes to a sink in
+ * chunks. Memory stays bounded by one chunk plus the set of dedupe keys.
+ *
+ * Duplicates are matched by Spoonacular id when a record has one, otherwise by normalized title, against
+ * both the user's existing recipes and earlier records of the same file. Imported recipes get document IDs
+ * derived from that key, so writing the same record twice overwrites instead of duplicating.
+ *
+ * Resumable: after each chunk is written, the number of records consumed is saved to the checkpoint. A
+ * later run over the same file skips that many records (still collecting their dedupe keys) and continues.
+ */
+public class RecipeImporter {
+
+    // Comfortably under Firestore's 500-write batch limit
+    public static final int CHUNK_SIZE = 400;
+
+    // Receives each chunk of new recipes; returns once they are durably stored
+    public interface Sink {
+        void write(List<RecipeModel> recipes) throws IOException;
+    }
+
+    // Where the number of records already imported from this file is kept between runs
+    public interface Checkpoint {
+        long load();
+        void save(long recordsDone);
+        void clear();
+    }
+
+    public interface ProgressListener {
+        void onProgress(Stats stats);
+    }
+
+    public static class Stats {
+        public long recordsRead;
+        public long imported;
+        public long duplicates;
+        public long invalid; // Records without a title
+        public long resumedFrom;
+        public boolean cancelled;
+
+        @Override
+        public String toString() {
+            return "read " + recordsRead + ", imported " + imported + ", duplicates " + duplicates
+                    + ", invalid " + invalid + (resumedFrom > 0 ? ", resumed after " + resumedFrom : "");
+        }
+    }
+
+    private final int chunkSize;
+
+    public RecipeImporter() {
+        this(CHUNK_SIZE);
+    }
+
+    public RecipeImporter(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports everything the reader yields. existingKeys holds dedupeKey() of every recipe the user already
+     * has and is extended as records are imported. Returns when the file is done or cancelled is set;
+     * a sink failure propagates and leaves the checkpoint at the last completed chunk.
+     */
+    public Stats run(RecipeRecordReader reader, Set<String> existingKeys, Sink sink, Checkpoint checkpoint,
+                     ProgressListener progress, AtomicBoolean cancelled) throws IOException {
+        Stats stats = new Stats();
+        long skipUntil = checkpoint.load();
+        stats.resumedFrom = skipUntil;
+        Set<String> seenKeys = new HashSet<>(existingKeys);
+        List<RecipeModel> chunk = new ArrayList<>(chunkSize);
+
+        RecipeModel recipe;
+        while ((recipe = reader.next()) != null) {
+            stats.recordsRead++;
+            if (recipe.getTitle() == null) {
+                stats.invalid++;
+                continue;
+            }
+            String key = dedupeKey(recipe);
+            boolean isNew = seenKeys.add(key);
+            if (stats.recordsRead <= skipUntil) {
+                continue; // Written by an earlier run; only its key was needed
+            }
+            if (!isNew) {
+                stats.duplicates++;
+                continue;
+            }
+            recipe.setFirebaseDocId(documentIdFor(key));
+            chunk.add(recipe);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, sink, checkpoint, stats);
+                progress.onProgress(stats);
+                if (cancelled.get()) {
+                    stats.cancelled = true;
+                    return stats;
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, sink, checkpoint, stats);
+        }
+        checkpoint.clear();
+        progress.onProgress(stats);
+        return stats;
+    }
+
+    private static void writeChunk(List<RecipeModel> chunk, Sink sink, Checkpoint checkpoint, Stats stats) throws IOException {
+        sink.write(new ArrayList<>(chunk));
+        stats.imported += chunk.size();
+        chunk.clear();
+        checkpoint.save(stats.recordsRead);
+    }
+
+    // "id:716429" for Spoonacular recipes, "title:spaghetti carbonara" otherwise
+    public static String dedupeKey(RecipeModel recipe) {
+        if (recipe.getId() > 0) {
+            return "id:" + recipe.getId();
+        }
+        String title = recipe.getTitle() != null ? recipe.getTitle() : "";
+        return "title:" + TextNormalizer.fold(title).replaceAll("\\s+", " ").trim();
+    }
+
+    // Stable document ID for an import key (FNV-1a 64-bit of the key for title keys)
+    static String documentIdFor(String key) {
+        if (key.startsWith("id:")) {
+            return "spoonacular-" + key.substring(3);
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return "import-" + Long.toHexString(hash);
+    }
+}
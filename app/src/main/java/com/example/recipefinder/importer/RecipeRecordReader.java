@@ -0,0 +1,16 @@
+package com.example.recipefinder.importer;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Pulls recipes out of an import file one record at a time, so files of any size stream in constant memory
+public interface RecipeRecordReader extends Closeable {
+
+    /**
+     * The next record, or null at the end of the file. Records that cannot become a recipe (no title) come
+     * back as a RecipeModel with a null title, so callers can count them without losing their position.
+     */
+    RecipeModel next() throws IOException;
+}
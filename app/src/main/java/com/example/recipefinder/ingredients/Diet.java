@@ -0,0 +1,112 @@
+package com.example.recipefinder.ingredients;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dietary tags a recipe can carry. A set of diets is an int bitmask (see bit()); recipes store theirs
+ * as RecipeModel.getDietFlags() and in the "dietTags" document field by key.
+ */
+public enum Diet {
+    VEGETARIAN("vegetarian", "Vegetarian"),
+    VEGAN("vegan", "Vegan"),
+    PESCATARIAN("pescatarian", "Pescatarian"),
+    GLUTEN_FREE("gluten-free", "Gluten-free"),
+    DAIRY_FREE("dairy-free", "Dairy-free"),
+    NUT_FREE("nut-free", "Nut-free"),
+    EGG_FREE("egg-free", "Egg-free");
+
+    public static final int ALL = (1 << values().length) - 1;
+
+    public final String key;   // Stored in documents; never change once shipped
+    public final String label;
+
+    Diet(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int flagsOf(Iterable<?> keys) {
+        int flags = 0;
+        for (Object key : keys) {
+            for (Diet diet : values()) {
+                if (diet.key.equals(key)) {
+                    flags |= diet.bit();
+                }
+            }
+        }
+        return flags;
+    }
+
+    public static List<String> keysOf(int flags) {
+        List<String> keys = new ArrayList<>();
+        for (Diet diet : values()) {
+            if ((flags & diet.bit()) != 0) {
+                keys.add(diet.key);
+            }
+        }
+        return keys;
+    }
+
+    // "Vegetarian, Nut-free"
+    public static String labelsOf(int flags) {
+        StringBuilder labels = new StringBuilder();
+        for (Diet diet : values()) {
+            if ((flags & diet.bit()) != 0) {
+                if (labels.length() > 0) {
+                    labels.append(", ");
+                }
+                labels.append(diet.label);
+            }
+        }
+        return labels.toString();
+    }
+
+    /**
+     * The diets a free-text preference asks for, as typed into ProfileFragment: "vegetarian",
+     * "Vegan & gluten free", "no nuts", "coeliac". Naming an allergen means avoiding it. 0 if nothing is
+     * recognised.
+     */
+    public static int parsePreference(String preference) {
+        if (preference == null) {
+            return 0;
+        }
+        String text = " " + preference.toLowerCase().replaceAll("[^a-z]+", " ").trim() + " ";
+        int flags = 0;
+        if (containsAny(text, "vegetarian", "veggie", "veg")) {
+            flags |= VEGETARIAN.bit();
+        }
+        if (containsAny(text, "vegan", "plant based")) {
+            flags |= VEGAN.bit();
+        }
+        if (containsAny(text, "pescatarian", "pescetarian")) {
+            flags |= PESCATARIAN.bit();
+        }
+        if (containsAny(text, "gluten", "coeliac", "celiac", "gf", "wheat")) {
+            flags |= GLUTEN_FREE.bit();
+        }
+        if (containsAny(text, "dairy", "lactose", "milk")) {
+            flags |= DAIRY_FREE.bit();
+        }
+        if (containsAny(text, "nut", "nuts", "peanut", "peanuts")) {
+            flags |= NUT_FREE.bit();
+        }
+        if (containsAny(text, "egg", "eggs")) {
+            flags |= EGG_FREE.bit();
+        }
+        return flags;
+    }
+
+    private static boolean containsAny(String paddedText, String... words) {
+        for (String word : words) {
+            if (paddedText.contains(" " + word + " ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
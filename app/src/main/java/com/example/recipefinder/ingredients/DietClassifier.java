@@ -0,0 +1,112 @@
+package com.example.recipefinder.ingredients;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Works out which Diets a recipe fits from its parsed ingredient names: every diet holds until an
+ * ingredient rules it out. Part of the parse stage, so it runs once at save time and the result is stored
+ * with the recipe; bump RecipeTextParser.VERSION when these tables change so stored recipes are reclassified.
+ *
+ * Best effort over canonical names: an ingredient the tables do not know rules nothing out, so a tag is a
+ * filter aid, not an allergy guarantee.
+ */
+public final class DietClassifier {
+
+    private static final int MEAT = Diet.VEGETARIAN.bit() | Diet.VEGAN.bit() | Diet.PESCATARIAN.bit();
+    private static final int SEAFOOD = Diet.VEGETARIAN.bit() | Diet.VEGAN.bit();
+    private static final int DAIRY = Diet.VEGAN.bit() | Diet.DAIRY_FREE.bit();
+    private static final int EGG = Diet.VEGAN.bit() | Diet.EGG_FREE.bit();
+    private static final int ANIMAL = Diet.VEGAN.bit();
+    private static final int GLUTEN = Diet.GLUTEN_FREE.bit();
+    private static final int NUT = Diet.NUT_FREE.bit();
+
+    // Any word of a canonical name ("chicken breast" -> "chicken") to the diets it rules out
+    private static final Map<String, Integer> WORDS = new HashMap<>();
+    // Whole names that the word rule gets wrong ("coconut milk", "peanut butter"); checked first
+    private static final Map<String, Integer> NAMES = new HashMap<>();
+    static {
+        words(MEAT, "chicken", "beef", "pork", "lamb", "mutton", "veal", "turkey", "duck", "goose", "venison",
+                "bacon", "pancetta", "ham", "sausage", "chorizo", "salami", "pepperoni", "prosciutto", "steak",
+                "mince", "meat", "meatball", "lard", "gelatin", "gelatine", "bone", "broth");
+        words(SEAFOOD, "fish", "salmon", "tuna", "cod", "haddock", "halibut", "trout", "tilapia", "mackerel",
+                "sardine", "anchovy", "shrimp", "prawn", "crab", "lobster", "mussel", "clam", "oyster", "scallop",
+                "squid", "calamari", "octopus");
+        words(DAIRY, "milk", "cream", "butter", "buttermilk", "cheese", "cheddar", "parmesan", "mozzarella",
+                "feta", "ricotta", "mascarpone", "gruyere", "brie", "halloumi", "paneer", "yogurt", "yoghurt",
+                "ghee", "whey", "custard");
+        words(EGG, "egg", "mayonnaise", "mayo", "meringue", "aioli");
+        words(ANIMAL, "honey");
+        words(GLUTEN, "flour", "bread", "breadcrumb", "panko", "pasta", "spaghetti", "macaroni", "penne",
+                "fettuccine", "lasagna", "noodle", "couscous", "barley", "rye", "wheat", "semolina", "bulgur",
+                "farro", "spelt", "seitan", "cracker", "pita", "naan", "baguette", "bun", "croissant", "beer");
+        words(NUT, "nut", "almond", "walnut", "pecan", "cashew", "pistachio", "hazelnut", "macadamia", "peanut",
+                "praline", "marzipan");
+
+        // Dairy-free milks and butters, and the flours and noodles that are not wheat
+        names(0, "coconut milk", "coconut cream", "oat milk", "soy milk", "rice milk", "cocoa butter",
+                "apple butter", "cream tartar", "rice flour", "corn flour", "cornflour", "coconut flour",
+                "chickpea flour", "tapioca flour", "potato flour", "buckwheat flour", "rice noodle",
+                "nutritional yeast", "vegetable broth", "mushroom broth", "corn tortilla");
+        names(NUT, "almond milk", "cashew milk", "almond butter", "cashew butter", "almond flour",
+                "peanut butter", "nut butter");
+        names(SEAFOOD, "fish sauce", "oyster sauce", "worcestershire sauce");
+        names(GLUTEN, "soy sauce");
+    }
+
+    private static void words(int excluded, String... words) {
+        for (String word : words) {
+            WORDS.put(word, excluded);
+        }
+    }
+
+    private static void names(int excluded, String... names) {
+        for (String name : names) {
+            NAMES.put(name, excluded);
+        }
+    }
+
+    private DietClassifier() {
+    }
+
+    // Diet bitmask for the whole recipe: Diet.ALL minus everything any ingredient rules out
+    public static int classify(List<IngredientLine> lines) {
+        int excluded = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String name = lines.get(i).name;
+            if (name != null) {
+                excluded |= excludedBy(name);
+            }
+        }
+        return Diet.ALL & ~excluded;
+    }
+
+    // Diets one canonical ingredient name rules out
+    static int excludedBy(String name) {
+        Integer exact = NAMES.get(name);
+        if (exact != null) {
+            return exact;
+        }
+        int excluded = 0;
+        boolean glutenFree = false;
+        int start = 0;
+        while (start < name.length()) {
+            int end = name.indexOf(' ', start);
+            if (end < 0) {
+                end = name.length();
+            }
+            String word = name.substring(start, end);
+            if (word.equals("vegan")) {
+                return 0; // "vegan butter", "vegan mayo"
+            }
+            glutenFree |= word.equals("gluten"); // "gluten free pasta"
+            Integer rule = WORDS.get(word);
+            if (rule != null) {
+                excluded |= rule;
+            }
+            start = end + 1;
+        }
+        return glutenFree ? excluded & ~GLUTEN : excluded;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diet flags of every known recipe by document id. Built from the tags stored with each recipe, so
+ * filtering never looks at ingredient text: a filter pass is one map lookup per recipe. A recipe edited since it was indexed (a newer lastModified) is judged by its own tags.
+ *
+ * Updated on a background executor while the UI filters, so every method is synchronized.
+ */
+public class DietTagIndex {
+
+    private static final class Entry {
+        final int flags;
+        final long lastModified;
+
+        Entry(int flags, long lastModified) {
+            this.flags = flags;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public synchronized void put(RecipeModel recipe) {
+        entries.put(recipe.getFirebaseDocId(), new Entry(recipe.getDietFlags(), recipe.getLastModified()));
+    }
+
+    public synchronized void putAll(Collection<RecipeModel> recipes) {
+        for (RecipeModel recipe : recipes) {
+            put(recipe);
+        }
+    }
+
+    public synchronized void remove(String docId) {
+        entries.remove(docId);
+    }
+
+    // True if the recipe fits every diet in required
+    public synchronized boolean matches(RecipeModel recipe, int required) {
+        Entry entry = entries.get(recipe.getFirebaseDocId());
+        int flags = entry != null && entry.lastModified == recipe.getLastModified()
+                ? entry.flags
+                : recipe.getDietFlags(); // Not indexed yet, or a local edit still uploading
+        return (flags & required) == required;
+    }
+
+    // The recipes that fit every diet in required, in their original order
+    public synchronized List<RecipeModel> filter(List<RecipeModel> recipes, int required) {
+        if (required == 0) {
+            return recipes;
+        }
+        List<RecipeModel> matching = new ArrayList<>();
+        for (RecipeModel recipe : recipes) {
+            if (matches(recipe, required)) {
+                matching.add(recipe);
+            }
+        }
+        return matching;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.recipefinder.ingredients;
+
+/**
+ * An exact ingredient quantity, kept as a reduced fraction so "1/3 cup" stays a third instead of 0.333...
+ * Parses the forms recipes use: "2", "1.5", "3/4", "1 1/2", and Unicode vulgar fractions alone or after a
+ * whole number.
+ */
+public final class Fraction {
+
+    public final long numerator;
+    public final long denominator; // Always > 0
+
+    private Fraction(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public static Fraction of(long numerator, long denominator) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Zero denominator");
+        }
+        if (denominator < 0) {
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        return new Fraction(numerator / gcd, denominator / gcd);
+    }
+
+    public static Fraction of(long whole) {
+        return new Fraction(whole, 1);
+    }
+
+    /**
+     * Parses one quantity token, or a whole number and a fraction separated by a space.
+     * Returns null if the text is not a quantity.
+     */
+    public static Fraction parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        int space = trimmed.indexOf(' ');
+        if (space > 0) {
+            Fraction whole = parseToken(trimmed.substring(0, space));
+            Fraction part = parseToken(trimmed.substring(space + 1).trim());
+            if (whole == null || part == null || whole.denominator != 1 || part.numerator >= part.denominator) {
+                return null;
+            }
+            return of(whole.numerator * part.denominator + part.numerator, part.denominator);
+        }
+        return parseToken(trimmed);
+    }
+
+    private static Fraction parseToken(String token) {
+        int length = token.length();
+        if (length == 0) {
+            return null;
+        }
+        // Trailing vulgar fraction, alone or glued to a whole number
+        Fraction vulgar = vulgarFraction(token.charAt(length - 1));
+        if (vulgar != null) {
+            if (length == 1) {
+                return vulgar;
+            }
+            Fraction whole = parseToken(token.substring(0, length - 1));
+            if (whole == null || whole.denominator != 1) {
+                return null;
+            }
+            return of(whole.numerator * vulgar.denominator + vulgar.numerator, vulgar.denominator);
+        }
+        int slash = token.indexOf('/');
+        if (slash >= 0) {
+            Long top = parseDigits(token, 0, slash);
+            Long bottom = parseDigits(token, slash + 1, length);
+            if (top == null || bottom == null || bottom == 0) {
+                return null;
+            }
+            return of(top, bottom);
+        }
+        int dot = token.indexOf('.');
+        if (dot >= 0) {
+            Long whole = dot == 0 ? Long.valueOf(0) : parseDigits(token, 0, dot);
+            Long decimals = parseDigits(token, dot + 1, length);
+            int places = length - dot - 1;
+            if (whole == null || decimals == null || places > 6) {
+                return null;
+            }
+            long scale = 1;
+            for (int i = 0; i < places; i++) {
+                scale *= 10;
+            }
+            return of(whole * scale + decimals, scale);
+        }
+        Long whole = parseDigits(token, 0, length);
+        return whole != null ? of(whole) : null;
+    }
+
+    // Up to 9 ASCII digits, or null
+    private static Long parseDigits(String text, int start, int end) {
+        if (start >= end || end - start > 9) {
+            return null;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    static Fraction vulgarFraction(char c) {
+        switch (c) {
+            case '\u00BC': return of(1, 4);
+            case '\u00BD': return of(1, 2);
+            case '\u00BE': return of(3, 4);
+            case '\u2150': return of(1, 7);
+            case '\u2151': return of(1, 9);
+            case '\u2152': return of(1, 10);
+            case '\u2153': return of(1, 3);
+            case '\u2154': return of(2, 3);
+            case '\u2155': return of(1, 5);
+            case '\u2156': return of(2, 5);
+            case '\u2157': return of(3, 5);
+            case '\u2158': return of(4, 5);
+            case '\u2159': return of(1, 6);
+            case '\u215A': return of(5, 6);
+            case '\u215B': return of(1, 8);
+            case '\u215C': return of(3, 8);
+            case '\u215D': return of(5, 8);
+            case '\u215E': return of(7, 8);
+            default: return null;
+        }
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+
+    public double doubleValue() {
+        return (double) numerator / denominator;
+    }
+
+    // "3", "3/4" or "1 1/2", the form parse() reads back
+    @Override
+    public String toString() {
+        long whole = numerator / denominator;
+        long remainder = Math.abs(numerator % denominator);
+        if (remainder == 0) {
+            return Long.toString(whole);
+        }
+        if (whole == 0) {
+            return numerator + "/" + denominator;
+        }
+        return whole + " " + remainder + "/" + denominator;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Fraction)) return false;
+        Fraction that = (Fraction) o;
+        return numerator == that.numerator && denominator == that.denominator;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(numerator) * 31 + Long.hashCode(denominator);
+    }
+}
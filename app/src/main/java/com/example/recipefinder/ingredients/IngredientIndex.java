@@ -0,0 +1,218 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable ingredient index over a set of recipes, built once per recipe list and queried many times.
+ *
+ * Every canonical ingredient name gets a small integer ID. Each recipe is stored as the sorted array of
+ * its ingredient IDs, and each ingredient ID has a posting list of the recipes that use it. A pantry
+ * query walks only the posting lists of the pantry's ingredients, counting covered ingredients per recipe,
+ * so its cost depends on how many recipes use those ingredients rather than on the collection size.
+ *
+ * A pantry item also covers more specific ingredients that end with it: "flour" covers
+ * "whole wheat flour" and "oil" covers "olive oil".
+ */
+public class IngredientIndex {
+
+    // One ranked recipe for a pantry query
+    public static class Match {
+        public final String docId;
+        public final int matchedCount;
+        public final int ingredientCount;
+        public final List<String> missingIngredients;
+
+        Match(String docId, int matchedCount, int ingredientCount, List<String> missingIngredients) {
+            this.docId = docId;
+            this.matchedCount = matchedCount;
+            this.ingredientCount = ingredientCount;
+            this.missingIngredients = missingIngredients;
+        }
+
+        public float getCoverage() {
+            return ingredientCount == 0 ? 0f : (float) matchedCount / ingredientCount;
+        }
+    }
+
+    private static final int COVERAGE_BITS = 19;
+    private static final int MISSING_BITS = 12;
+    private static final int ORDINAL_BITS = 31;
+    private static final int MAX_MISSING = (1 << MISSING_BITS) - 1;
+    private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+
+    private final List<String> ingredientNames = new ArrayList<>();
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    // Match key (a full name or one of its trailing phrases) -> ingredient IDs it covers
+    private final Map<String, int[]> idsByMatchKey = new HashMap<>();
+    private int[][] postings; // ingredient ID -> recipe ordinals, ascending
+
+    private final String[] recipeDocIds;
+    private final int[][] recipeIngredients; // recipe ordinal -> sorted ingredient IDs
+
+    private IngredientIndex(int recipeCount) {
+        recipeDocIds = new String[recipeCount];
+        recipeIngredients = new int[recipeCount][];
+    }
+
+    // Distinct canonical names from the ingredient lines parsed when the recipe was saved
+    static List<String> ingredientNames(RecipeModel recipe) {
+        List<IngredientLine> lines = recipe.getParsedIngredients();
+        List<String> names = new ArrayList<>(lines.size());
+        Set<String> seen = new HashSet<>();
+        for (IngredientLine line : lines) {
+            if (line.name != null && seen.add(line.name)) {
+                names.add(line.name);
+            }
+        }
+        return names;
+    }
+
+    public static IngredientIndex build(Collection<RecipeModel> recipes) {
+        IngredientIndex index = new IngredientIndex(recipes.size());
+        List<int[]> postingBuilders = new ArrayList<>(); // [0] = size, then ordinals
+        int ordinal = 0;
+        for (RecipeModel recipe : recipes) {
+            List<String> names = ingredientNames(recipe);
+            int[] ids = new int[names.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = index.idFor(names.get(i), postingBuilders);
+            }
+            Arrays.sort(ids);
+            index.recipeDocIds[ordinal] = recipe.getFirebaseDocId();
+            index.recipeIngredients[ordinal] = ids;
+            for (int id : ids) {
+                int[] builder = postingBuilders.get(id);
+                if (builder[0] + 1 == builder.length) {
+                    builder = Arrays.copyOf(builder, builder.length * 2);
+                    postingBuilders.set(id, builder);
+                }
+                builder[++builder[0]] = ordinal;
+            }
+            ordinal++;
+        }
+
+        index.postings = new int[postingBuilders.size()][];
+        for (int id = 0; id < postingBuilders.size(); id++) {
+            int[] builder = postingBuilders.get(id);
+            index.postings[id] = Arrays.copyOfRange(builder, 1, builder[0] + 1);
+        }
+        index.buildMatchKeys();
+        return index;
+    }
+
+    private int idFor(String name, List<int[]> postingBuilders) {
+        Integer id = ingredientIds.get(name);
+        if (id == null) {
+            id = ingredientNames.size();
+            ingredientIds.put(name, id);
+            ingredientNames.add(name);
+            postingBuilders.add(new int[4]);
+        }
+        return id;
+    }
+
+    private void buildMatchKeys() {
+        Map<String, List<Integer>> keys = new HashMap<>();
+        for (int id = 0; id < ingredientNames.size(); id++) {
+            String name = ingredientNames.get(id);
+            // "whole wheat flour" is reachable from "whole wheat flour", "wheat flour" and "flour"
+            int start = 0;
+            while (start >= 0) {
+                String key = name.substring(start);
+                List<Integer> ids = keys.get(key);
+                if (ids == null) {
+                    ids = new ArrayList<>(1);
+                    keys.put(key, ids);
+                }
+                ids.add(id);
+                int space = name.indexOf(' ', start);
+                start = space >= 0 ? space + 1 : -1;
+            }
+        }
+        for (Map.Entry<String, List<Integer>> key : keys.entrySet()) {
+            List<Integer> ids = key.getValue();
+            int[] array = new int[ids.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ids.get(i);
+            }
+            idsByMatchKey.put(key.getKey(), array);
+        }
+    }
+
+    public int getRecipeCount() { return recipeDocIds.length; }
+    public int getIngredientCount() { return ingredientNames.size(); }
+
+    // Ingredient IDs covered by the given canonical pantry items
+    public BitSet resolvePantry(Collection<String> canonicalPantryItems) {
+        BitSet pantry = new BitSet(ingredientNames.size());
+        for (String item : canonicalPantryItems) {
+            int[] ids = idsByMatchKey.get(item);
+            if (ids != null) {
+                for (int id : ids) {
+                    pantry.set(id);
+                }
+            }
+        }
+        return pantry;
+    }
+
+    /**
+     * Ranks every recipe that uses at least one pantry ingredient: highest coverage first, then fewest
+     * missing ingredients. Missing ingredient names are only materialized for the returned results.
+     */
+    public List<Match> rank(BitSet pantry, int maxResults) {
+        if (pantry.isEmpty() || recipeDocIds.length == 0) {
+            return Collections.emptyList();
+        }
+        int[] matchedCounts = new int[recipeDocIds.length];
+        int[] touched = new int[recipeDocIds.length];
+        int touchedCount = 0;
+        for (int id = pantry.nextSetBit(0); id >= 0; id = pantry.nextSetBit(id + 1)) {
+            for (int recipe : postings[id]) {
+                if (matchedCounts[recipe]++ == 0) {
+                    touched[touchedCount++] = recipe;
+                }
+            }
+        }
+
+        // Pack each touched recipe's rank into one long and sort primitives: the high bits hold the uncovered
+        // fraction (quantized), then the missing count, then the ordinal as a stable tie-breaker
+        long[] keys = new long[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            int recipe = touched[i];
+            int total = recipeIngredients[recipe].length;
+            int missing = total - matchedCounts[recipe];
+            long uncovered = ((long) missing << COVERAGE_BITS) / total;
+            keys[i] = (uncovered << (MISSING_BITS + ORDINAL_BITS))
+                    | ((long) Math.min(missing, MAX_MISSING) << ORDINAL_BITS)
+                    | recipe;
+        }
+        Arrays.sort(keys);
+
+        int resultCount = Math.min(maxResults, touchedCount);
+        List<Match> matches = new ArrayList<>(resultCount);
+        for (int i = 0; i < resultCount; i++) {
+            int recipe = (int) (keys[i] & ORDINAL_MASK);
+            List<String> missing = new ArrayList<>();
+            for (int id : recipeIngredients[recipe]) {
+                if (!pantry.get(id)) {
+                    missing.add(ingredientNames.get(id));
+                }
+            }
+            matches.add(new Match(recipeDocIds[recipe], matchedCounts[recipe],
+                    recipeIngredients[recipe].length, missing));
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.recipefinder.ingredients;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One parsed ingredient line: "1 1/2 cups all-purpose flour, sifted" becomes quantity 3/2, unit "cup",
+ * description "all-purpose flour, sifted" and canonical name "flour". Immutable.
+ */
+public final class IngredientLine {
+
+    public final String text;          // The line as written, HTML stripped
+    public final Fraction quantity;    // Null when the line has no amount ("salt to taste")
+    public final Fraction quantityMax; // Upper end of a range ("2-3 cloves"), otherwise null
+    public final String unit;          // Canonical unit ("cup", "tbsp", "g", "clove"...), or null
+    public final String description;   // What follows the amount and unit, as written
+    public final String name;          // Canonical ingredient name from IngredientNormalizer, or null
+
+    public IngredientLine(String text, Fraction quantity, Fraction quantityMax, String unit,
+                          String description, String name) {
+        this.text = text;
+        this.quantity = quantity;
+        this.quantityMax = quantityMax;
+        this.unit = unit;
+        this.description = description;
+        this.name = name;
+    }
+
+    // Stored in the recipe document's "parsedIngredients" array; absent values are left out
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("text", text);
+        if (quantity != null) {
+            map.put("quantity", quantity.toString());
+        }
+        if (quantityMax != null) {
+            map.put("quantityMax", quantityMax.toString());
+        }
+        if (unit != null) {
+            map.put("unit", unit);
+        }
+        if (description != null) {
+            map.put("description", description);
+        }
+        if (name != null) {
+            map.put("name", name);
+        }
+        return map;
+    }
+
+    public static IngredientLine fromMap(Map<?, ?> map) {
+        Object text = map.get("text");
+        Object quantity = map.get("quantity");
+        Object quantityMax = map.get("quantityMax");
+        Object unit = map.get("unit");
+        Object description = map.get("description");
+        Object name = map.get("name");
+        return new IngredientLine(
+                text instanceof String ? (String) text : "",
+                quantity instanceof String ? Fraction.parse((String) quantity) : null,
+                quantityMax instanceof String ? Fraction.parse((String) quantityMax) : null,
+                unit instanceof String ? (String) unit : null,
+                description instanceof String ? (String) description : null,
+                name instanceof String ? (String) name : null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IngredientLine)) return false;
+        IngredientLine that = (IngredientLine) o;
+        return text.equals(that.text)
+                && Objects.equals(quantity, that.quantity)
+                && Objects.equals(quantityMax, that.quantityMax)
+                && Objects.equals(unit, that.unit)
+                && Objects.equals(description, that.description)
+                && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, quantity, quantityMax, unit, description, name);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.search.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns the free-form RecipeModel.ingredients string into canonical ingredient names:
+ * "2 cups all-purpose flour, sifted" -> "flour", "3 Large EGGS" -> "egg", "1 bunch scallions" -> "green onion".
+ *
+ * Pipeline: split into lines, strip HTML and accents, drop notes after the first comma and anything in
+ * parentheses, drop quantities, units and preparation words, singularize the last word, apply synonyms.
+ */
+public final class IngredientNormalizer {
+
+    private static final Set<String> UNITS = new HashSet<>(Arrays.asList(
+            "cup", "cups", "c", "tablespoon", "tablespoons", "tbsp", "tbs", "tbl", "teaspoon", "teaspoons",
+            "tsp", "g", "gram", "grams", "gr", "kg", "kilogram", "kilograms", "mg", "ml", "milliliter",
+            "milliliters", "millilitre", "millilitres", "l", "liter", "liters", "litre", "litres", "dl", "cl",
+            "oz", "ounce", "ounces", "fl", "lb", "lbs", "pound", "pounds", "pint", "pints", "pt", "quart",
+            "quarts", "qt", "gallon", "gallons", "pinch", "pinches", "dash", "dashes", "clove", "cloves",
+            "can", "cans", "jar", "jars", "package", "packages", "pkg", "packet", "packets", "slice", "slices",
+            "piece", "pieces", "stick", "sticks", "bunch", "bunches", "handful", "handfuls", "sprig", "sprigs",
+            "head", "heads", "bag", "bags", "box", "boxes", "bottle", "bottles", "container", "containers",
+            "drop", "drops", "scoop", "scoops", "cube", "cubes", "sheet", "sheets"));
+
+    // Preparation, size and quality words that do not change what the ingredient is
+    private static final Set<String> DESCRIPTORS = new HashSet<>(Arrays.asList(
+            "chopped", "diced", "minced", "sliced", "grated", "shredded", "crushed", "ground", "peeled",
+            "cubed", "halved", "quartered", "julienned", "mashed", "beaten", "whisked", "sifted", "melted",
+            "softened", "cooked", "uncooked", "raw", "dried", "dry", "fresh", "freshly", "frozen", "thawed",
+            "canned", "large", "small", "medium", "big", "extra", "virgin", "all", "purpose", "boneless",
+            "skinless", "unsalted", "salted", "lean", "finely", "roughly", "coarsely", "thinly", "thickly",
+            "lightly", "about", "approximately", "optional", "taste", "to", "of", "for", "a", "an", "the",
+            "and", "or", "plus", "more", "some", "few", "heaping", "level", "packed", "whole", "room",
+            "temperature", "cold", "warm", "ripe", "organic", "new", "divided", "needed", "serving",
+            "garnish", "x"));
+
+    private static final Map<String, String> SYNONYMS = new HashMap<>();
+    static {
+        SYNONYMS.put("scallion", "green onion");
+        SYNONYMS.put("spring onion", "green onion");
+        SYNONYMS.put("garbanzo bean", "chickpea");
+        SYNONYMS.put("garbanzo", "chickpea");
+        SYNONYMS.put("coriander leaf", "cilantro");
+        SYNONYMS.put("aubergine", "eggplant");
+        SYNONYMS.put("courgette", "zucchini");
+        SYNONYMS.put("caster sugar", "sugar");
+        SYNONYMS.put("granulated sugar", "sugar");
+        SYNONYMS.put("white sugar", "sugar");
+        SYNONYMS.put("plain flour", "flour");
+        SYNONYMS.put("wheat flour", "flour");
+        SYNONYMS.put("bicarbonate soda", "baking soda");
+        SYNONYMS.put("confectioner sugar", "powdered sugar");
+        SYNONYMS.put("icing sugar", "powdered sugar");
+        SYNONYMS.put("capsicum", "bell pepper");
+        SYNONYMS.put("prawn", "shrimp");
+        SYNONYMS.put("minced meat", "beef");
+        SYNONYMS.put("egg white", "egg");
+        SYNONYMS.put("egg yolk", "egg");
+    }
+
+    // Words that end in "s" but are not plurals
+    private static final Set<String> NOT_PLURAL = new HashSet<>(Arrays.asList(
+            "asparagus", "hummus", "couscous", "molasses", "swiss", "citrus", "hibiscus", "bass", "grass",
+            "lemongrass", "watercress", "cress", "octopus", "quinoa", "harissa", "anise", "brussels", "oats",
+            "grits", "greens", "lentils"));
+
+    private IngredientNormalizer() {
+    }
+
+    // Splits the raw ingredients text into one string per ingredient line, HTML stripped
+    public static List<String> splitLines(String ingredientsText) {
+        List<String> lines = new ArrayList<>();
+        if (ingredientsText == null || ingredientsText.trim().isEmpty()) {
+            return lines;
+        }
+        // List items and line breaks separate lines; mark them before the tags are stripped
+        String marked = ingredientsText
+                .replaceAll("(?i)<\\s*(br|/?li|/?p|/?div)[^>]*>", "\n");
+        String text = TextNormalizer.stripHtml(marked);
+        boolean multiLine = text.indexOf('\n') >= 0 || text.indexOf(';') >= 0;
+        // A single line like "eggs, flour, milk" is a comma-separated list; in multi-line text commas
+        // introduce preparation notes instead ("1 onion, chopped")
+        String[] parts = text.split(multiLine ? "[\\n;]" : ",");
+        for (String part : parts) {
+            String line = part.trim();
+            if (line.startsWith("-") || line.startsWith("*") || line.startsWith("\u2022")) {
+                line = line.substring(1).trim();
+            }
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    // Canonical names for every ingredient in the text, in order, without duplicates
+    public static List<String> parseIngredientNames(String ingredientsText) {
+        List<String> names = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String line : splitLines(ingredientsText)) {
+            String name = canonicalize(line);
+            if (name != null && seen.add(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // Canonical ingredient name for one line, or null if nothing but quantities and units is left
+    public static String canonicalize(String line) {
+        if (line == null) {
+            return null;
+        }
+        String text = TextNormalizer.fold(line);
+        int comma = text.indexOf(',');
+        if (comma >= 0) {
+            text = text.substring(0, comma);
+        }
+        text = text.replaceAll("\\([^)]*\\)", " ");
+
+        StringBuilder name = new StringBuilder();
+        for (String word : text.split("[^a-z0-9\\u00BC-\\u00BE\\u2150-\\u215E/.]+")) {
+            if (word.isEmpty() || isQuantity(word) || UNITS.contains(word) || DESCRIPTORS.contains(word)) {
+                continue;
+            }
+            // "500g", "2tbsp": a number glued to a unit
+            String withoutNumber = word.replaceFirst("^[0-9./]+", "");
+            if (!withoutNumber.equals(word) && (withoutNumber.isEmpty() || UNITS.contains(withoutNumber))) {
+                continue;
+            }
+            String cleaned = word.replace(".", "").replace("/", "");
+            if (cleaned.isEmpty()) {
+                continue;
+            }
+            if (name.length() > 0) {
+                name.append(' ');
+            }
+            name.append(cleaned);
+        }
+        if (name.length() == 0) {
+            return null;
+        }
+
+        String canonical = singularizeLastWord(name.toString());
+        String synonym = SYNONYMS.get(canonical);
+        return synonym != null ? synonym : canonical;
+    }
+
+    // Digits, decimals, fractions ("1/2", "\u00BD") and ranges ("2-3" arrives here as two numbers)
+    static boolean isQuantity(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            boolean vulgarFraction = (c >= '\u00BC' && c <= '\u00BE') || (c >= '\u2150' && c <= '\u215E');
+            if (!Character.isDigit(c) && c != '.' && c != '/' && !vulgarFraction) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String singularizeLastWord(String name) {
+        int space = name.lastIndexOf(' ');
+        String head = space >= 0 ? name.substring(0, space + 1) : "";
+        String last = space >= 0 ? name.substring(space + 1) : name;
+        return head + singularize(last);
+    }
+
+    static String singularize(String word) {
+        if (word.length() <= 3 || NOT_PLURAL.contains(word)) {
+            return word;
+        }
+        if (word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y"; // berries -> berry
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("xes") || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2); // tomatoes -> tomato, peaches -> peach
+        }
+        if (word.endsWith("ves")) {
+            return word.substring(0, word.length() - 3) + "f"; // halves -> half
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
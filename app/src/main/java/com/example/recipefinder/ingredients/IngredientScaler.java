@@ -0,0 +1,207 @@
+package com.example.recipefinder.ingredients;
+
+import java.util.List;
+
+/**
+ * Renders a recipe's parsed ingredient lines scaled by a factor and, optionally, converted to metric or
+ * imperial units. Built once per recipe; render() then only does primitive arithmetic into the caller's
+ * StringBuilder, so re-rendering on every tick of a servings slider allocates nothing per line.
+ *
+ * Scaling and conversion are exact (rational numbers on longs, conversion factors from Units); rounding
+ * happens only when a quantity is written out: kitchen fractions for imperial and unitless amounts,
+ * short decimals for metric.
+ */
+public final class IngredientScaler {
+
+    public enum UnitSystem { AS_WRITTEN, METRIC, IMPERIAL }
+
+    // Kitchen fractions offered when an amount is not exact: eighths and thirds
+    private static final long[] NICE_NUM = {0, 1, 1, 1, 3, 1, 5, 2, 3, 7, 1};
+    private static final long[] NICE_DEN = {1, 8, 4, 3, 8, 2, 8, 3, 4, 8, 1};
+
+    private final int lineCount;
+    private final boolean[] hasQuantity;
+    private final long[] quantityNum, quantityDen;
+    private final long[] maxNum, maxDen; // maxDen == 0: not a range
+    private final int[] unit;            // Units id or Units.NONE
+    private final String[] description; // Null when the line is only an amount and unit
+    private final String[] text;        // Rendered as is when the line has no quantity
+
+    // Result of the last multiply(); render runs on one thread, so these save allocating a pair per call
+    private long resultNum, resultDen;
+
+    public IngredientScaler(List<IngredientLine> lines) {
+        lineCount = lines.size();
+        hasQuantity = new boolean[lineCount];
+        quantityNum = new long[lineCount];
+        quantityDen = new long[lineCount];
+        maxNum = new long[lineCount];
+        maxDen = new long[lineCount];
+        unit = new int[lineCount];
+        description = new String[lineCount];
+        text = new String[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            IngredientLine line = lines.get(i);
+            text[i] = line.text;
+            description[i] = line.description;
+            unit[i] = Units.idOf(line.unit);
+            if (line.quantity != null) {
+                hasQuantity[i] = true;
+                quantityNum[i] = line.quantity.numerator;
+                quantityDen[i] = line.quantity.denominator;
+                if (line.quantityMax != null) {
+                    maxNum[i] = line.quantityMax.numerator;
+                    maxDen[i] = line.quantityMax.denominator;
+                }
+            }
+        }
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Replaces out's contents with every ingredient line, one per line, multiplied by scaleNum/scaleDen and
+     * shown in the given unit system, in whichever of its units reads best for the amount. Units with no
+     * counterpart (cloves, cans, pinches) are only scaled; AS_WRITTEN keeps every unit.
+     */
+    public void render(long scaleNum, long scaleDen, UnitSystem system, StringBuilder out) {
+        out.setLength(0);
+        for (int i = 0; i < lineCount; i++) {
+            if (i > 0) {
+                out.append('\n');
+            }
+            renderLine(i, scaleNum, scaleDen, system, out);
+        }
+    }
+
+    private void renderLine(int i, long scaleNum, long scaleDen, UnitSystem system, StringBuilder out) {
+        if (!hasQuantity[i]) {
+            out.append(text[i]);
+            return;
+        }
+        int fromUnit = unit[i];
+        int toUnit = fromUnit;
+        int targetSystem = system == UnitSystem.METRIC ? Units.SYSTEM_METRIC
+                : system == UnitSystem.IMPERIAL ? Units.SYSTEM_IMPERIAL : Units.SYSTEM_NEUTRAL;
+
+        multiply(quantityNum[i], quantityDen[i], scaleNum, scaleDen);
+        long num = resultNum;
+        long den = resultDen;
+        // Converted across systems, and re-picked within one so 24 tsp reads as 1/2 cup
+        if (targetSystem != Units.SYSTEM_NEUTRAL && Units.isConvertible(fromUnit)
+                && (Units.SYSTEM[fromUnit] != targetSystem || Units.isDisplayUnit(fromUnit))) {
+            double baseAmount = (double) num / den * Units.BASE_SIZE[fromUnit];
+            toUnit = Units.displayUnit(Units.KIND[fromUnit], targetSystem, baseAmount);
+            multiply(num, den, Units.CONVERT_NUM[fromUnit][toUnit], Units.CONVERT_DEN[fromUnit][toUnit]);
+            num = resultNum;
+            den = resultDen;
+        }
+        boolean plural = appendQuantity(out, num, den, toUnit);
+        if (maxDen[i] != 0) {
+            multiply(maxNum[i], maxDen[i], scaleNum, scaleDen);
+            if (toUnit != fromUnit) {
+                multiply(resultNum, resultDen, Units.CONVERT_NUM[fromUnit][toUnit], Units.CONVERT_DEN[fromUnit][toUnit]);
+            }
+            out.append('-');
+            appendQuantity(out, resultNum, resultDen, toUnit);
+            plural = true;
+        }
+        if (toUnit != Units.NONE) {
+            out.append(' ').append(plural ? Units.PLURAL[toUnit] : Units.SINGULAR[toUnit]);
+        }
+        if (description[i] != null) {
+            out.append(' ').append(description[i]);
+        }
+    }
+
+    // a/b * c/d, cross-reduced first so intermediate products stay small; result in resultNum/resultDen
+    private void multiply(long a, long b, long c, long d) {
+        long g1 = Fraction.gcd(Math.abs(a), d);
+        long g2 = Fraction.gcd(Math.abs(c), b);
+        resultNum = (a / g1) * (c / g2);
+        resultDen = (b / g2) * (d / g1);
+    }
+
+    // Returns whether the amount as written reads as more than one, for "cup" vs "cups"; also used by ShoppingList
+    static boolean appendQuantity(StringBuilder out, long num, long den, int unitId) {
+        if (unitId != Units.NONE && Units.SYSTEM[unitId] == Units.SYSTEM_METRIC) {
+            appendMetric(out, (double) num / den, unitId);
+            return num > den;
+        }
+        return appendFraction(out, num, den);
+    }
+
+    // Litres and kilograms to two decimals; ml and g whole above 10, to the nearest 5 from 100 up
+    private static void appendMetric(StringBuilder out, double value, int unitId) {
+        if (unitId == Units.L || unitId == Units.KG) {
+            appendDecimal(out, value, 2);
+        } else if (value < 10) {
+            appendDecimal(out, value, 1);
+        } else if (value < 100 || (unitId != Units.ML && unitId != Units.G)) {
+            out.append(Math.round(value));
+        } else {
+            out.append(Math.round(value / 5) * 5);
+        }
+    }
+
+    private static void appendDecimal(StringBuilder out, double value, int decimals) {
+        long scale = decimals == 1 ? 10 : 100;
+        long scaled = Math.round(value * scale);
+        if (scaled == 0 && value > 0) {
+            scaled = 1; // Never round a real amount down to nothing
+        }
+        out.append(scaled / scale);
+        long fraction = scaled % scale;
+        if (fraction != 0) {
+            out.append('.');
+            if (decimals == 2) {
+                if (fraction < 10) {
+                    out.append('0');
+                } else if (fraction % 10 == 0) {
+                    fraction /= 10;
+                }
+            }
+            out.append(fraction);
+        }
+    }
+
+    // Exact when it is already a kitchen fraction, otherwise the nearest eighth or third ("1 1/3", "3/4")
+    private static boolean appendFraction(StringBuilder out, long num, long den) {
+        long whole = num / den;
+        long remNum = num % den;
+        long remDen = den;
+        if (remNum != 0 && den != 2 && den != 3 && den != 4 && den != 8) {
+            double remainder = (double) remNum / den;
+            int best = 0;
+            double bestError = Double.MAX_VALUE;
+            for (int k = 0; k < NICE_NUM.length; k++) {
+                double error = Math.abs(remainder - (double) NICE_NUM[k] / NICE_DEN[k]);
+                if (error < bestError) {
+                    bestError = error;
+                    best = k;
+                }
+            }
+            if (whole == 0 && best == 0) {
+                best = 1; // Less than 1/16: still show a small amount
+            }
+            remNum = NICE_NUM[best];
+            remDen = NICE_DEN[best];
+            if (remNum == remDen) {
+                whole++;
+                remNum = 0;
+            }
+        }
+        if (whole > 0 || remNum == 0) {
+            out.append(whole);
+            if (remNum != 0) {
+                out.append(' ');
+            }
+        }
+        if (remNum != 0) {
+            out.append(remNum).append('/').append(remDen);
+        }
+        return whole > 1 || (whole == 1 && remNum != 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * "What can I cook?": ranks recipes by how much of their ingredient list a pantry covers.
+ *
+ * Call rebuild() whenever the recipe list changes (off the main thread for large lists); queries then only
+ * touch the prebuilt IngredientIndex and are safe to run on the main thread.
+ */
+public class PantryMatchService {
+
+    private volatile IngredientIndex index = IngredientIndex.build(Collections.<RecipeModel>emptyList());
+
+    public void rebuild(Collection<RecipeModel> recipes) {
+        index = IngredientIndex.build(recipes);
+    }
+
+    public IngredientIndex getIndex() {
+        return index;
+    }
+
+    // Pantry as typed by the user: one item per line or comma-separated, quantities allowed
+    public List<IngredientIndex.Match> findRecipes(String pantryText, int maxResults) {
+        return findRecipes(IngredientNormalizer.parseIngredientNames(pantryText), maxResults);
+    }
+
+    public List<IngredientIndex.Match> findRecipes(List<String> canonicalPantryItems, int maxResults) {
+        IngredientIndex current = index;
+        return current.rank(current.resolvePantry(canonicalPantryItems), maxResults);
+    }
+
+    // Convenience for callers holding raw pantry entries ("2 eggs", "Milk")
+    public static List<String> canonicalizeAll(Collection<String> pantryItems) {
+        List<String> canonical = new ArrayList<>(pantryItems.size());
+        for (String item : pantryItems) {
+            String name = IngredientNormalizer.canonicalize(item);
+            if (name != null) {
+                canonical.add(name);
+            }
+        }
+        return canonical;
+    }
+}
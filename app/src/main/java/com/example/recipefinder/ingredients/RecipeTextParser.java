@@ -0,0 +1,163 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.search.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses RecipeModel's free-form ingredients and instructions into IngredientLines and numbered steps.
+ * Runs once when a recipe is saved; the result is stored next to the raw text (see RecipeModel).
+ *
+ * Bump VERSION whenever parsing changes in a way that should reach already-stored recipes: documents
+ * carrying an older version are reparsed the next time they are read.
+ */
+public final class RecipeTextParser {
+
+    // 2: diet tags from DietClassifier stored with the parse
+    public static final int VERSION = 2;
+
+    private static final String NUMBER = "\\d+\\s+\\d+/\\d+|\\d+[\\u00BC-\\u00BE\\u2150-\\u215E]|\\d+/\\d+"
+            + "|\\d*\\.\\d+|\\d+|[\\u00BC-\\u00BE\\u2150-\\u215E]";
+
+    // Leading amount, an optional range ("2-3", "2 to 3"), then the rest of the line
+    private static final Pattern AMOUNT = Pattern.compile(
+            "^\\s*(" + NUMBER + ")(?:\\s*(?:-|\\u2013|to)\\s*(" + NUMBER + "))?\\s*(.*)$", Pattern.DOTALL);
+
+    // First word of what follows the amount; a unit if it is in UNIT_ALIASES
+    private static final Pattern LEADING_WORD = Pattern.compile("^([A-Za-z]+)\\.?(?:\\s+|$)(.*)$", Pattern.DOTALL);
+
+    // "1. ", "2) ", "Step 3: " at the start of an instruction line
+    private static final Pattern STEP_NUMBER = Pattern.compile("^(?i:step\\s*)?\\d+\\s*[.):\\-]\\s*");
+
+    private static final Pattern BLOCK_TAGS = Pattern.compile("(?i)<\\s*(br|/?li|/?p|/?div|/?ol|/?ul)[^>]*>");
+
+    // Every spelling we accept, lowercased without a trailing period, to its canonical unit
+    private static final Map<String, String> UNIT_ALIASES = new HashMap<>();
+    static {
+        alias("cup", "cup", "cups", "c");
+        alias("tbsp", "tbsp", "tbsps", "tablespoon", "tablespoons", "tbs", "tbl");
+        alias("tsp", "tsp", "tsps", "teaspoon", "teaspoons");
+        alias("g", "g", "gram", "grams", "gr");
+        alias("kg", "kg", "kgs", "kilogram", "kilograms");
+        alias("mg", "mg", "milligram", "milligrams");
+        alias("ml", "ml", "milliliter", "milliliters", "millilitre", "millilitres");
+        alias("l", "l", "liter", "liters", "litre", "litres");
+        alias("dl", "dl", "deciliter", "deciliters");
+        alias("cl", "cl", "centiliter", "centiliters");
+        alias("oz", "oz", "ounce", "ounces");
+        alias("lb", "lb", "lbs", "pound", "pounds");
+        alias("pint", "pint", "pints", "pt");
+        alias("quart", "quart", "quarts", "qt");
+        alias("gallon", "gallon", "gallons", "gal");
+        alias("pinch", "pinch", "pinches");
+        alias("dash", "dash", "dashes");
+        alias("clove", "clove", "cloves");
+        alias("can", "can", "cans");
+        alias("jar", "jar", "jars");
+        alias("package", "package", "packages", "pkg", "packet", "packets");
+        alias("slice", "slice", "slices");
+        alias("piece", "piece", "pieces");
+        alias("stick", "stick", "sticks");
+        alias("bunch", "bunch", "bunches");
+        alias("handful", "handful", "handfuls");
+        alias("sprig", "sprig", "sprigs");
+        alias("head", "head", "heads");
+        alias("bag", "bag", "bags");
+        alias("box", "box", "boxes");
+        alias("bottle", "bottle", "bottles");
+        alias("container", "container", "containers");
+        alias("drop", "drop", "drops");
+        alias("scoop", "scoop", "scoops");
+        alias("cube", "cube", "cubes");
+        alias("sheet", "sheet", "sheets");
+    }
+
+    private static void alias(String canonical, String... spellings) {
+        for (String spelling : spellings) {
+            UNIT_ALIASES.put(spelling, canonical);
+        }
+    }
+
+    private RecipeTextParser() {
+    }
+
+    public static List<IngredientLine> parseIngredients(String ingredientsText) {
+        List<IngredientLine> lines = new ArrayList<>();
+        for (String line : IngredientNormalizer.splitLines(ingredientsText)) {
+            lines.add(parseIngredientLine(line));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    // One line with HTML already stripped, as IngredientNormalizer.splitLines returns it
+    public static IngredientLine parseIngredientLine(String line) {
+        String text = line.trim();
+        String name = IngredientNormalizer.canonicalize(text);
+        Matcher amount = AMOUNT.matcher(text);
+        if (!amount.matches()) {
+            return new IngredientLine(text, null, null, null, text, name);
+        }
+        Fraction quantity = Fraction.parse(amount.group(1));
+        Fraction quantityMax = amount.group(2) != null ? Fraction.parse(amount.group(2)) : null;
+        String rest = amount.group(3);
+
+        String unit = null;
+        Matcher word = LEADING_WORD.matcher(rest);
+        if (word.matches()) {
+            String first = word.group(1);
+            unit = unitFor(first);
+            if (unit != null) {
+                rest = word.group(2);
+            } else if (first.equalsIgnoreCase("fl") || first.equalsIgnoreCase("fluid")) {
+                // "fl oz" and "fluid ounces" are one unit
+                Matcher next = LEADING_WORD.matcher(word.group(2));
+                if (next.matches() && "oz".equals(unitFor(next.group(1)))) {
+                    unit = "fl oz";
+                    rest = next.group(2);
+                }
+            }
+        }
+        rest = rest.trim();
+        if (rest.regionMatches(true, 0, "of ", 0, 3)) {
+            rest = rest.substring(3).trim(); // "2 cups of flour"
+        }
+        return new IngredientLine(text, quantity, quantityMax, unit, rest.isEmpty() ? null : rest, name);
+    }
+
+    // Canonical unit for a word, or null; "T" is a tablespoon and "t" a teaspoon, so case matters there
+    static String unitFor(String word) {
+        if (word.equals("T") || word.equals("Tbsp") || word.equals("TB")) {
+            return "tbsp";
+        }
+        if (word.equals("t")) {
+            return "tsp";
+        }
+        return UNIT_ALIASES.get(word.toLowerCase());
+    }
+
+    // Instruction text split into steps, with any "1." or "Step 1:" numbering removed
+    public static List<String> parseSteps(String instructionsText) {
+        List<String> steps = new ArrayList<>();
+        if (instructionsText == null || instructionsText.trim().isEmpty()) {
+            return Collections.unmodifiableList(steps);
+        }
+        String text = TextNormalizer.stripHtml(BLOCK_TAGS.matcher(instructionsText).replaceAll("\n"));
+        for (String part : text.split("\n")) {
+            String step = part.trim();
+            if (step.startsWith("-") || step.startsWith("*") || step.startsWith("\u2022")) {
+                step = step.substring(1).trim();
+            }
+            step = STEP_NUMBER.matcher(step).replaceFirst("").trim();
+            if (!step.isEmpty()) {
+                steps.add(step);
+            }
+        }
+        return Collections.unmodifiableList(steps);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.recipefinder.ingredients;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A merged shopping list, grouped by aisle in store-walk order. Built by ShoppingListBuilder; immutable.
+ */
+public final class ShoppingList {
+
+    public enum Aisle {
+        PRODUCE("Produce"),
+        MEAT_SEAFOOD("Meat & seafood"),
+        DAIRY_EGGS("Dairy & eggs"),
+        BAKERY("Bakery"),
+        PANTRY("Pantry"),
+        BAKING("Baking"),
+        SPICES("Spices & seasonings"),
+        CONDIMENTS("Oils, sauces & condiments"),
+        FROZEN("Frozen"),
+        OTHER("Other");
+
+        public final String label;
+
+        Aisle(String label) {
+            this.label = label;
+        }
+    }
+
+    public static final class Item {
+        public final String name;     // Canonical ingredient name ("flour", "egg")
+        public final String amount;   // "3 1/4 cups", "2 cloves", "6"; null when no recipe gave an amount
+        public final int recipeCount; // How many of the recipes use it
+
+        Item(String name, String amount, int recipeCount) {
+            this.name = name;
+            this.amount = amount;
+            this.recipeCount = recipeCount;
+        }
+
+        @Override
+        public String toString() {
+            return amount != null ? name + ": " + amount : name;
+        }
+    }
+
+    private final Map<Aisle, List<Item>> itemsByAisle;
+    private final int itemCount;
+
+    ShoppingList(EnumMap<Aisle, List<Item>> itemsByAisle, int itemCount) {
+        this.itemsByAisle = Collections.unmodifiableMap(itemsByAisle);
+        this.itemCount = itemCount;
+    }
+
+    // Only aisles with items, in Aisle order; items in the order they first appeared in the recipes
+    public Map<Aisle, List<Item>> getItemsByAisle() {
+        return itemsByAisle;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    // Plain text for sharing: an aisle heading, then one item per line
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Aisle, List<Item>> aisle : itemsByAisle.entrySet()) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(aisle.getKey().label).append('\n');
+            for (Item item : aisle.getValue()) {
+                text.append("- ").append(item).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the ingredients of many recipes into one ShoppingList, one item per canonical ingredient name. Each
+ * parsed line is one hash lookup on that name, so building is linear in the total number of lines.
+ *
+ * Amounts of the same ingredient add up across units of one kind: 1 cup + 2 tbsp of flour, or 200 ml and a
+ * cup of milk, become one exact sum shown in a readable unit of the system the ingredient was first
+ * written in. Counted units (cloves, cans) and bare counts (3 eggs) add up per unit, and an ingredient
+ * bought in more than one way lists each total ("2 cloves + 1 tbsp"). Ranges count at their upper end,
+ * since the list is for buying enough. Lines with no amount ("salt to taste") only add the ingredient.
+ */
+public final class ShoppingListBuilder {
+
+    // Canonical names, or their last word ("cheddar cheese" -> "cheese"), to the aisle they are shelved in
+    private static final Map<String, ShoppingList.Aisle> AISLES = new HashMap<>();
+    static {
+        aisle(ShoppingList.Aisle.PRODUCE, "onion", "green onion", "garlic", "shallot", "tomato", "potato",
+                "carrot", "celery", "lettuce", "spinach", "kale", "cabbage", "broccoli", "cauliflower", "zucchini",
+                "eggplant", "cucumber", "bell pepper", "chili", "jalapeno", "mushroom", "lemon", "lime",
+                "orange", "apple", "banana", "berry", "strawberry", "blueberry", "avocado", "ginger", "basil",
+                "cilantro", "parsley", "mint", "thyme", "rosemary", "dill", "leek", "corn", "pea", "squash",
+                "pumpkin", "sweet potato", "asparagus", "greens", "arugula", "radish", "beet", "fruit", "herb");
+        aisle(ShoppingList.Aisle.MEAT_SEAFOOD, "chicken", "beef", "pork", "lamb", "turkey", "bacon", "sausage",
+                "ham", "steak", "breast", "thigh", "mince", "shrimp", "salmon", "tuna", "cod", "fish", "bass",
+                "crab", "mussel", "clam", "scallop", "anchovy", "chorizo", "prosciutto");
+        aisle(ShoppingList.Aisle.DAIRY_EGGS, "egg", "milk", "cream", "heavy cream", "sour cream", "butter",
+                "cheese", "cheddar", "parmesan", "mozzarella", "feta", "ricotta", "yogurt", "buttermilk",
+                "creme fraiche", "tofu");
+        aisle(ShoppingList.Aisle.BAKERY, "bread", "baguette", "bun", "roll", "tortilla", "pita", "naan",
+                "breadcrumb", "panko");
+        aisle(ShoppingList.Aisle.PANTRY, "rice", "basmati rice", "pasta", "spaghetti", "noodle", "quinoa", "oats",
+                "couscous", "lentils", "bean", "chickpea", "stock", "broth", "coconut milk", "tomato paste",
+                "tomato sauce", "canned tomato", "nut", "almond", "walnut", "peanut", "raisin", "cereal");
+        aisle(ShoppingList.Aisle.BAKING, "flour", "sugar", "brown sugar", "powdered sugar", "baking powder",
+                "baking soda", "yeast", "vanilla", "vanilla extract", "cocoa", "chocolate", "cornstarch",
+                "honey", "maple syrup", "molasses", "gelatin");
+        aisle(ShoppingList.Aisle.SPICES, "salt", "pepper", "black pepper", "cumin", "paprika", "cinnamon", "nutmeg",
+                "oregano", "turmeric", "chili powder", "curry powder", "garam masala", "cayenne", "clove",
+                "bay leaf", "coriander", "spice", "seasoning");
+        aisle(ShoppingList.Aisle.CONDIMENTS, "oil", "olive oil", "vinegar", "soy sauce", "fish sauce", "mustard",
+                "ketchup", "mayonnaise", "sauce", "sriracha", "tahini", "salsa", "pesto", "harissa", "miso");
+        aisle(ShoppingList.Aisle.FROZEN, "ice cream", "sorbet", "puff pastry");
+    }
+
+    private static void aisle(ShoppingList.Aisle aisle, String... names) {
+        for (String name : names) {
+            AISLES.put(name, aisle);
+        }
+    }
+
+    // One ingredient's running total: a sum per kind of measure, since "2 cloves garlic" and "1 tbsp garlic"
+    // do not add up. Rarely more than one or two sums, so finding the right one is a short scan
+    private static final class Entry {
+        final String name;
+        final List<Sum> sums = new ArrayList<>(1);
+        int recipeCount;
+        int lastRecipe = -1;
+
+        Entry(String name) {
+            this.name = name;
+        }
+
+        Sum sumFor(int unit) {
+            boolean measured = Units.isConvertible(unit);
+            for (int i = 0; i < sums.size(); i++) {
+                Sum sum = sums.get(i);
+                if (measured ? Units.isConvertible(sum.unit) && Units.KIND[sum.unit] == Units.KIND[unit]
+                        : sum.unit == unit) {
+                    return sum;
+                }
+            }
+            // Measured amounts add up in the smallest whole unit of the first system seen, so sums stay exact
+            Sum sum = new Sum(measured ? accumulatingUnit(unit) : unit);
+            sums.add(sum);
+            return sum;
+        }
+    }
+
+    private static final class Sum {
+        final int unit; // tsp/ml/oz/g for measured amounts, a count unit, or Units.NONE for a bare count
+        long num;
+        long den = 1;
+
+        Sum(int unit) {
+            this.unit = unit;
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private int recipeIndex;
+
+    public ShoppingListBuilder addRecipe(RecipeModel recipe) {
+        for (IngredientLine line : recipe.getParsedIngredients()) {
+            addLine(line);
+        }
+        recipeIndex++;
+        return this;
+    }
+
+    public ShoppingListBuilder addRecipes(Iterable<RecipeModel> recipes) {
+        for (RecipeModel recipe : recipes) {
+            addRecipe(recipe);
+        }
+        return this;
+    }
+
+    void addLine(IngredientLine line) {
+        if (line.name == null) {
+            return;
+        }
+        Entry entry = entries.get(line.name);
+        if (entry == null) {
+            entry = new Entry(line.name);
+            entries.put(line.name, entry);
+        }
+        if (entry.lastRecipe != recipeIndex) {
+            entry.lastRecipe = recipeIndex;
+            entry.recipeCount++;
+        }
+        Fraction amount = line.quantityMax != null ? line.quantityMax : line.quantity;
+        if (amount == null) {
+            return; // "Salt to taste": listed without an amount unless another line gives one
+        }
+        int unit = Units.idOf(line.unit);
+        Sum sum = entry.sumFor(unit);
+        if (Units.isConvertible(unit)) {
+            add(sum, amount, Units.CONVERT_NUM[unit][sum.unit], Units.CONVERT_DEN[unit][sum.unit]);
+        } else {
+            add(sum, amount, 1, 1);
+        }
+    }
+
+    private static int accumulatingUnit(int unit) {
+        boolean metric = Units.SYSTEM[unit] == Units.SYSTEM_METRIC;
+        if (Units.KIND[unit] == Units.KIND_VOLUME) {
+            return metric ? Units.ML : Units.TSP;
+        }
+        return metric ? Units.G : Units.OZ;
+    }
+
+    // sum += amount * factorNum/factorDen, exactly while it fits in a long; past that, to the nearest millionth
+    private static void add(Sum sum, Fraction amount, long factorNum, long factorDen) {
+        try {
+            long num = Math.multiplyExact(amount.numerator, factorNum);
+            long den = Math.multiplyExact(amount.denominator, factorDen);
+            long gcd = Fraction.gcd(sum.den, den);
+            long sumNum = Math.addExact(Math.multiplyExact(sum.num, den / gcd),
+                    Math.multiplyExact(num, sum.den / gcd));
+            long sumDen = Math.multiplyExact(sum.den / gcd, den);
+            long reduce = Fraction.gcd(Math.abs(sumNum), sumDen);
+            sum.num = sumNum / reduce;
+            sum.den = sumDen / reduce;
+        } catch (ArithmeticException overflow) {
+            double total = (double) sum.num / sum.den + amount.doubleValue() * factorNum / factorDen;
+            sum.num = Math.round(total * 1_000_000);
+            sum.den = 1_000_000;
+        }
+    }
+
+    public ShoppingList build() {
+        EnumMap<ShoppingList.Aisle, List<ShoppingList.Item>> itemsByAisle = new EnumMap<>(ShoppingList.Aisle.class);
+        StringBuilder amount = new StringBuilder();
+        for (Entry entry : entries.values()) {
+            String formatted = null;
+            if (!entry.sums.isEmpty()) {
+                amount.setLength(0);
+                for (int i = 0; i < entry.sums.size(); i++) {
+                    if (i > 0) {
+                        amount.append(" + ");
+                    }
+                    appendAmount(amount, entry.sums.get(i));
+                }
+                formatted = amount.toString();
+            }
+            ShoppingList.Aisle aisle = aisleOf(entry.name);
+            List<ShoppingList.Item> items = itemsByAisle.get(aisle);
+            if (items == null) {
+                items = new ArrayList<>();
+                itemsByAisle.put(aisle, items);
+            }
+            items.add(new ShoppingList.Item(entry.name, formatted, entry.recipeCount));
+        }
+        return new ShoppingList(itemsByAisle, entries.size());
+    }
+
+    private static void appendAmount(StringBuilder out, Sum sum) {
+        long num = sum.num;
+        long den = sum.den;
+        int unit = sum.unit;
+        if (Units.isConvertible(unit)) {
+            // Shown in whichever unit of the same system reads best: 54 tsp -> 1 1/8 cups
+            double baseAmount = (double) num / den * Units.BASE_SIZE[unit];
+            int display = Units.displayUnit(Units.KIND[unit], Units.SYSTEM[unit], baseAmount);
+            try {
+                long convertedNum = Math.multiplyExact(num, Units.CONVERT_NUM[unit][display]);
+                long convertedDen = Math.multiplyExact(den, Units.CONVERT_DEN[unit][display]);
+                long gcd = Fraction.gcd(Math.abs(convertedNum), convertedDen);
+                num = convertedNum / gcd;
+                den = convertedDen / gcd;
+            } catch (ArithmeticException overflow) {
+                num = Math.round((double) num / den * Units.CONVERT_NUM[unit][display]
+                        / Units.CONVERT_DEN[unit][display] * 1_000_000);
+                den = 1_000_000;
+            }
+            unit = display;
+        }
+        boolean plural = IngredientScaler.appendQuantity(out, num, den, unit);
+        if (unit != Units.NONE) {
+            out.append(' ').append(plural ? Units.PLURAL[unit] : Units.SINGULAR[unit]);
+        }
+    }
+
+    static ShoppingList.Aisle aisleOf(String name) {
+        ShoppingList.Aisle aisle = AISLES.get(name);
+        if (aisle == null) {
+            int space = name.lastIndexOf(' ');
+            if (space >= 0) {
+                aisle = AISLES.get(name.substring(space + 1));
+            }
+        }
+        return aisle != null ? aisle : ShoppingList.Aisle.OTHER;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.recipefinder.ingredients;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed unit tables for IngredientScaler: the canonical units RecipeTextParser produces, what they
+ * measure, their display names, and an exact rational conversion factor between every pair of units of the
+ * same kind. US customary volumes and avoirdupois weights, from their exact metric definitions
+ * (1 gallon = 3785.411784 ml, 1 lb = 453.59237 g).
+ */
+final class Units {
+
+    static final int NONE = -1;
+
+    static final int KIND_COUNT = 0;  // clove, can, pinch... never converted
+    static final int KIND_VOLUME = 1;
+    static final int KIND_MASS = 2;
+
+    static final int SYSTEM_NEUTRAL = 0;
+    static final int SYSTEM_METRIC = 1;
+    static final int SYSTEM_IMPERIAL = 2;
+
+    // Unit ids index every table below
+    static final int ML = 0, CL = 1, DL = 2, L = 3, TSP = 4, TBSP = 5, FL_OZ = 6, CUP = 7, PINT = 8, QUART = 9,
+            GALLON = 10, MG = 11, G = 12, KG = 13, OZ = 14, LB = 15;
+    private static final int MEASURED_UNITS = 16;
+
+    // Canonical name, display singular, display plural, kind, system, size in ml or g as numerator/denominator
+    private static final Object[][] DEFINITIONS = {
+            {"ml", "ml", "ml", KIND_VOLUME, SYSTEM_METRIC, 1L, 1L},
+            {"cl", "cl", "cl", KIND_VOLUME, SYSTEM_METRIC, 10L, 1L},
+            {"dl", "dl", "dl", KIND_VOLUME, SYSTEM_METRIC, 100L, 1L},
+            {"l", "l", "l", KIND_VOLUME, SYSTEM_METRIC, 1000L, 1L},
+            {"tsp", "tsp", "tsp", KIND_VOLUME, SYSTEM_IMPERIAL, 157725491L, 32000000L},
+            {"tbsp", "tbsp", "tbsp", KIND_VOLUME, SYSTEM_IMPERIAL, 473176473L, 32000000L},
+            {"fl oz", "fl oz", "fl oz", KIND_VOLUME, SYSTEM_IMPERIAL, 473176473L, 16000000L},
+            {"cup", "cup", "cups", KIND_VOLUME, SYSTEM_IMPERIAL, 473176473L, 2000000L},
+            {"pint", "pint", "pints", KIND_VOLUME, SYSTEM_IMPERIAL, 473176473L, 1000000L},
+            {"quart", "quart", "quarts", KIND_VOLUME, SYSTEM_IMPERIAL, 473176473L, 500000L},
+            {"gallon", "gallon", "gallons", KIND_VOLUME, SYSTEM_IMPERIAL, 473176473L, 125000L},
+            {"mg", "mg", "mg", KIND_MASS, SYSTEM_METRIC, 1L, 1000L},
+            {"g", "g", "g", KIND_MASS, SYSTEM_METRIC, 1L, 1L},
+            {"kg", "kg", "kg", KIND_MASS, SYSTEM_METRIC, 1000L, 1L},
+            {"oz", "oz", "oz", KIND_MASS, SYSTEM_IMPERIAL, 45359237L, 1600000L},
+            {"lb", "lb", "lb", KIND_MASS, SYSTEM_IMPERIAL, 45359237L, 100000L},
+    };
+
+    // Countable units after the measured ones: kind COUNT, never converted
+    private static final String[][] COUNT_UNITS = {
+            {"pinch", "pinches"}, {"dash", "dashes"}, {"clove", "cloves"}, {"can", "cans"}, {"jar", "jars"},
+            {"package", "packages"}, {"slice", "slices"}, {"piece", "pieces"}, {"stick", "sticks"},
+            {"bunch", "bunches"}, {"handful", "handfuls"}, {"sprig", "sprigs"}, {"head", "heads"},
+            {"bag", "bags"}, {"box", "boxes"}, {"bottle", "bottles"}, {"container", "containers"},
+            {"drop", "drops"}, {"scoop", "scoops"}, {"cube", "cubes"}, {"sheet", "sheets"}};
+
+    static final int COUNT = MEASURED_UNITS + COUNT_UNITS.length;
+
+    static final String[] SINGULAR = new String[COUNT];
+    static final String[] PLURAL = new String[COUNT];
+    static final int[] KIND = new int[COUNT];
+    static final int[] SYSTEM = new int[COUNT];
+    // Size of one unit in ml (volume) or g (mass), as a double for choosing a display unit
+    static final double[] BASE_SIZE = new double[COUNT];
+    // CONVERT_NUM[a][b] / CONVERT_DEN[a][b] = how many b are in one a; 0/0 between different kinds
+    static final long[][] CONVERT_NUM = new long[MEASURED_UNITS][MEASURED_UNITS];
+    static final long[][] CONVERT_DEN = new long[MEASURED_UNITS][MEASURED_UNITS];
+
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    static {
+        long[] sizeNum = new long[MEASURED_UNITS];
+        long[] sizeDen = new long[MEASURED_UNITS];
+        for (int id = 0; id < MEASURED_UNITS; id++) {
+            Object[] definition = DEFINITIONS[id];
+            IDS.put((String) definition[0], id);
+            SINGULAR[id] = (String) definition[1];
+            PLURAL[id] = (String) definition[2];
+            KIND[id] = (Integer) definition[3];
+            SYSTEM[id] = (Integer) definition[4];
+            sizeNum[id] = (Long) definition[5];
+            sizeDen[id] = (Long) definition[6];
+            BASE_SIZE[id] = (double) sizeNum[id] / sizeDen[id];
+        }
+        for (int i = 0; i < COUNT_UNITS.length; i++) {
+            int id = MEASURED_UNITS + i;
+            IDS.put(COUNT_UNITS[i][0], id);
+            SINGULAR[id] = COUNT_UNITS[i][0];
+            PLURAL[id] = COUNT_UNITS[i][1];
+            KIND[id] = KIND_COUNT;
+            SYSTEM[id] = SYSTEM_NEUTRAL;
+        }
+        // One a = sizeA / sizeB of b, reduced once here so scaling never has to
+        for (int a = 0; a < MEASURED_UNITS; a++) {
+            for (int b = 0; b < MEASURED_UNITS; b++) {
+                if (KIND[a] != KIND[b]) {
+                    continue;
+                }
+                long num = sizeNum[a] * sizeDen[b];
+                long den = sizeDen[a] * sizeNum[b];
+                long gcd = Fraction.gcd(num, den);
+                CONVERT_NUM[a][b] = num / gcd;
+                CONVERT_DEN[a][b] = den / gcd;
+            }
+        }
+    }
+
+    private Units() {
+    }
+
+    // Id for a canonical unit name from RecipeTextParser, or NONE
+    static int idOf(String unit) {
+        if (unit == null) {
+            return NONE;
+        }
+        Integer id = IDS.get(unit);
+        return id != null ? id : NONE;
+    }
+
+    static boolean isConvertible(int id) {
+        return id != NONE && KIND[id] != KIND_COUNT;
+    }
+
+    // Units displayUnit() chooses between; pints, fluid ounces and the like are left as written within a system
+    static boolean isDisplayUnit(int id) {
+        return id == ML || id == L || id == TSP || id == TBSP || id == CUP || id == G || id == KG || id == OZ || id == LB;
+    }
+
+    /**
+     * The unit a quantity of the given size (in ml or g) reads best in for a unit system:
+     * ml/l and g/kg in metric; tsp/tbsp/cup and oz/lb in imperial.
+     */
+    static int displayUnit(int kind, int system, double baseAmount) {
+        if (kind == KIND_VOLUME) {
+            if (system == SYSTEM_METRIC) {
+                return baseAmount >= 1000 ? L : ML;
+            }
+            if (baseAmount >= BASE_SIZE[CUP] / 4) {
+                return CUP;
+            }
+            return baseAmount >= BASE_SIZE[TBSP] ? TBSP : TSP;
+        }
+        if (system == SYSTEM_METRIC) {
+            return baseAmount >= 1000 ? KG : G;
+        }
+        return baseAmount >= BASE_SIZE[LB] ? LB : OZ;
+    }
+}
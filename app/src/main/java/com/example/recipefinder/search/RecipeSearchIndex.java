@@ -0,0 +1,274 @@
+package com.example.recipefinder.search;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * On-device inverted index over a user's recipes.
+ *
+ * Every field is tokenized once (HTML stripped, accents folded) into weighted terms. Terms live in a sorted
+ * map, so a query token matches every indexed term it is a prefix of ("chick" finds "chicken"). A recipe
+ * must match every query token; results are ranked by field-weighted term frequency times inverse
+ * document frequency, with exact term matches ranked above prefix matches.
+ *
+ * The index is updated one recipe at a time and can be written to and read back from a stream, so a cold
+ * start only re-tokenizes recipes whose content changed. A summary-only recipe from the list is indexed by
+ * its titles and tags until its whole version is added; hasBody() tells which recipes still lack their body
+ * terms. All methods are thread-safe.
+ */
+public class RecipeSearchIndex {
+
+    // Field boosts: a hit in the title says much more about a recipe than a hit in its notes
+    private static final float WEIGHT_TITLE = 4f;
+    private static final float WEIGHT_INGREDIENTS = 2f;
+    private static final float WEIGHT_SUMMARY = 1f;
+    private static final float WEIGHT_INSTRUCTIONS = 1f;
+    private static final float WEIGHT_NOTES = 1f;
+    private static final float WEIGHT_TAGS = 2f;
+    private static final float PREFIX_MATCH_FACTOR = 0.6f;
+
+    private static final int FILE_MAGIC = 0x52534958; // "RSIX"
+    private static final int FILE_VERSION = 3;
+
+    // One ranked search result
+    public static class Result {
+        public final String docId;
+        public final float score;
+
+        Result(String docId, float score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+
+    // Forward entry per recipe: what it was indexed with, so it can be removed or skipped if unchanged
+    private static class Entry {
+        final int fingerprint;
+        final long lastModified; // Lets a summary-only list entry, which has no fingerprint, be checked too
+        final boolean wholeRecipe; // False when indexed from a summary, without body terms
+        final Map<String, Float> termWeights;
+
+        Entry(int fingerprint, long lastModified, boolean wholeRecipe, Map<String, Float> termWeights) {
+            this.fingerprint = fingerprint;
+            this.lastModified = lastModified;
+            this.wholeRecipe = wholeRecipe;
+            this.termWeights = termWeights;
+        }
+    }
+
+    // term -> (docId -> weight of that term in that recipe)
+    private final TreeMap<String, Map<String, Float>> postings = new TreeMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean contains(String docId) {
+        return entries.containsKey(docId);
+    }
+
+    // A copy, so callers can remove recipes while going through it
+    public synchronized Set<String> getDocIds() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    // True if the recipe is indexed with exactly this content (for a summary-only recipe, this version of it),
+    // so re-indexing it can be skipped
+    public synchronized boolean isCurrent(RecipeModel recipe) {
+        Entry entry = entries.get(recipe.getFirebaseDocId());
+        if (entry == null) {
+            return false;
+        }
+        return recipe.isSummaryOnly()
+                ? entry.lastModified == recipe.getLastModified()
+                : entry.wholeRecipe && entry.fingerprint == recipe.hashCode();
+    }
+
+    // True if this version of the recipe is indexed with its body, not just its summary
+    public synchronized boolean hasBody(RecipeModel recipe) {
+        Entry entry = entries.get(recipe.getFirebaseDocId());
+        return entry != null && entry.wholeRecipe && entry.lastModified == recipe.getLastModified();
+    }
+
+    // A summary-only recipe replaces only an entry for another version, so body terms already indexed are kept
+    public synchronized void addOrUpdate(RecipeModel recipe) {
+        String docId = recipe.getFirebaseDocId();
+        if (docId == null || isCurrent(recipe)) {
+            return;
+        }
+        remove(docId);
+        Map<String, Float> termWeights = new HashMap<>();
+        addField(termWeights, recipe.getTitle(), WEIGHT_TITLE);
+        addField(termWeights, recipe.getCustomTitle(), WEIGHT_TITLE);
+        addField(termWeights, String.join(" ", recipe.getTags()), WEIGHT_TAGS);
+        if (recipe.isSummaryOnly()) {
+            insert(docId, new Entry(0, recipe.getLastModified(), false, termWeights));
+            return;
+        }
+        addField(termWeights, recipe.getIngredients(), WEIGHT_INGREDIENTS);
+        addField(termWeights, recipe.getSummary(), WEIGHT_SUMMARY);
+        addField(termWeights, recipe.getInstructions(), WEIGHT_INSTRUCTIONS);
+        addField(termWeights, recipe.getUserNotes(), WEIGHT_NOTES);
+        insert(docId, new Entry(recipe.hashCode(), recipe.getLastModified(), true, termWeights));
+    }
+
+    public synchronized void remove(String docId) {
+        Entry entry = entries.remove(docId);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.termWeights.keySet()) {
+            Map<String, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(docId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        entries.clear();
+    }
+
+    private static void addField(Map<String, Float> termWeights, String text, float weight) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            Float current = termWeights.get(token);
+            termWeights.put(token, current == null ? weight : current + weight);
+        }
+    }
+
+    private void insert(String docId, Entry entry) {
+        entries.put(docId, entry);
+        for (Map.Entry<String, Float> termWeight : entry.termWeights.entrySet()) {
+            Map<String, Float> docs = postings.get(termWeight.getKey());
+            if (docs == null) {
+                docs = new HashMap<>();
+                postings.put(termWeight.getKey(), docs);
+            }
+            docs.put(docId, termWeight.getValue());
+        }
+    }
+
+    // Returns up to maxResults recipes matching every token of the query, best first
+    public synchronized List<Result> search(String query, int maxResults) {
+        List<String> queryTokens = TextNormalizer.tokenize(query);
+        if (queryTokens.isEmpty() || entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Float> scores = null;
+        for (String token : queryTokens) {
+            Map<String, Float> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // AND semantics: keep only recipes that also matched this token
+                Map<String, Float> intersection = new HashMap<>();
+                Map<String, Float> smaller = scores.size() <= tokenScores.size() ? scores : tokenScores;
+                Map<String, Float> larger = smaller == scores ? tokenScores : scores;
+                for (Map.Entry<String, Float> hit : smaller.entrySet()) {
+                    Float other = larger.get(hit.getKey());
+                    if (other != null) {
+                        intersection.put(hit.getKey(), hit.getValue() + other);
+                    }
+                }
+                scores = intersection;
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Result> results = new ArrayList<>(scores.size());
+        for (Map.Entry<String, Float> hit : scores.entrySet()) {
+            results.add(new Result(hit.getKey(), hit.getValue()));
+        }
+        Collections.sort(results, (a, b) -> {
+            int byScore = Float.compare(b.score, a.score);
+            return byScore != 0 ? byScore : a.docId.compareTo(b.docId);
+        });
+        return results.size() > maxResults ? new ArrayList<>(results.subList(0, maxResults)) : results;
+    }
+
+    // Scores every recipe containing a term that starts with the token
+    private Map<String, Float> scoreToken(String token) {
+        Map<String, Float> tokenScores = new HashMap<>();
+        SortedMap<String, Map<String, Float>> matches = postings.subMap(token, token + Character.MAX_VALUE);
+        int totalDocs = entries.size();
+        for (Map.Entry<String, Map<String, Float>> match : matches.entrySet()) {
+            Map<String, Float> docs = match.getValue();
+            float idf = (float) Math.log(1.0 + (double) totalDocs / docs.size());
+            float factor = match.getKey().length() == token.length() ? 1f : PREFIX_MATCH_FACTOR;
+            for (Map.Entry<String, Float> doc : docs.entrySet()) {
+                float score = doc.getValue() * idf * factor;
+                Float best = tokenScores.get(doc.getKey());
+                // One recipe can match several expansions of a prefix; count its best one
+                if (best == null || score > best) {
+                    tokenScores.put(doc.getKey(), score);
+                }
+            }
+        }
+        return tokenScores;
+    }
+
+    // Writes the forward index; the inverted side is rebuilt on load, which is far cheaper than re-tokenizing
+    public synchronized void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(FILE_VERSION);
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Entry> docEntry : entries.entrySet()) {
+            Entry entry = docEntry.getValue();
+            out.writeUTF(docEntry.getKey());
+            out.writeInt(entry.fingerprint);
+            out.writeLong(entry.lastModified);
+            out.writeBoolean(entry.wholeRecipe);
+            out.writeInt(entry.termWeights.size());
+            for (Map.Entry<String, Float> termWeight : entry.termWeights.entrySet()) {
+                out.writeUTF(termWeight.getKey());
+                out.writeFloat(termWeight.getValue());
+            }
+        }
+        out.flush();
+    }
+
+    // Replaces the current contents with an index previously written by writeTo()
+    public synchronized void readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+            throw new IOException("Not a recipe search index, or an older format");
+        }
+        clear();
+        int docCount = in.readInt();
+        for (int d = 0; d < docCount; d++) {
+            String docId = in.readUTF();
+            int fingerprint = in.readInt();
+            long lastModified = in.readLong();
+            boolean wholeRecipe = in.readBoolean();
+            int termCount = in.readInt();
+            Map<String, Float> termWeights = new HashMap<>(termCount * 2);
+            for (int t = 0; t < termCount; t++) {
+                termWeights.put(in.readUTF(), in.readFloat());
+            }
+            insert(docId, new Entry(fingerprint, lastModified, wholeRecipe, termWeights));
+        }
+    }
+}
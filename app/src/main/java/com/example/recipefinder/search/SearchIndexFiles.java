@@ -0,0 +1,58 @@
+package com.example.recipefinder.search;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Loads and saves a user's RecipeSearchIndex in the app's private files directory
+public final class SearchIndexFiles {
+
+    private static final String TAG = "SearchIndexFiles";
+
+    private SearchIndexFiles() {
+    }
+
+    private static File indexFile(Context context, String uid) {
+        return new File(context.getFilesDir(), "search_index_" + uid + ".bin");
+    }
+
+    // Fills the index from the saved file; leaves it empty if there is none or it cannot be read
+    public static void load(Context context, String uid, RecipeSearchIndex index) {
+        File file = indexFile(context, uid);
+        if (!file.exists()) {
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            index.readFrom(in);
+            Log.d(TAG, "load: Restored index with " + index.size() + " recipes.");
+        } catch (IOException e) {
+            Log.w(TAG, "load: Discarding unreadable index: " + e.getMessage());
+            index.clear();
+        }
+    }
+
+    // Writes to a temporary file first, so a crash mid-write never leaves a truncated index behind
+    public static void save(Context context, String uid, RecipeSearchIndex index) {
+        File file = indexFile(context, uid);
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+            index.writeTo(out);
+        } catch (IOException e) {
+            Log.e(TAG, "save: Failed to write index: " + e.getMessage(), e);
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.e(TAG, "save: Failed to replace index file.");
+            tmp.delete();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.recipefinder.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns recipe text (often Spoonacular HTML) into plain text and search tokens. Pure Java, so it runs in
+ * JVM tests and benchmarks without android.text.Html.
+ */
+public final class TextNormalizer {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "as", "at", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "the", "to", "with"));
+
+    private TextNormalizer() {
+    }
+
+    // Removes tags and decodes the common entities; block-level tags become spaces so words don't merge
+    public static String stripHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(html.length());
+        int i = 0;
+        int length = html.length();
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int close = html.indexOf('>', i);
+                if (close < 0) {
+                    break; // Unterminated tag: drop the rest
+                }
+                out.append(' ');
+                i = close + 1;
+            } else if (c == '&') {
+                int semicolon = html.indexOf(';', i);
+                if (semicolon > i && semicolon - i <= 8) {
+                    out.append(decodeEntity(html.substring(i + 1, semicolon)));
+                    i = semicolon + 1;
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private static String decodeEntity(String entity) {
+        switch (entity) {
+            case "amp": return "&";
+            case "lt": return "<";
+            case "gt": return ">";
+            case "quot": return "\"";
+            case "apos": return "'";
+            case "nbsp": return " ";
+            case "frac12": return "1/2";
+            case "frac14": return "1/4";
+            case "frac34": return "3/4";
+            case "deg": return "\u00B0";
+            default:
+                if (entity.startsWith("#")) {
+                    try {
+                        int codePoint = entity.startsWith("#x") || entity.startsWith("#X")
+                                ? Integer.parseInt(entity.substring(2), 16)
+                                : Integer.parseInt(entity.substring(1));
+                        return new String(Character.toChars(codePoint));
+                    } catch (IllegalArgumentException e) {
+                        return " ";
+                    }
+                }
+                // Accented letters: the base letter is all we keep after folding anyway
+                if (entity.length() > 1 && (entity.endsWith("acute") || entity.endsWith("grave")
+                        || entity.endsWith("circ") || entity.endsWith("uml")
+                        || entity.endsWith("tilde") || entity.endsWith("cedil"))) {
+                    return entity.substring(0, 1);
+                }
+                return " ";
+        }
+    }
+
+    // Lowercase, accent-free form used for both indexing and queries ("Crème" -> "creme")
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    // Splits HTML or plain text into folded alphanumeric tokens, dropping stop words and single letters
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = fold(stripHtml(text));
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, i);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
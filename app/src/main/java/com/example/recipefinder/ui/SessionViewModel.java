@@ -0,0 +1,121 @@
+package com.example.recipefinder.ui;
+
+import android.app.Application;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.recipefinder.data.RecipeLayoutMigration;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State every destination of MainActivity shares, scoped to the activity: the signed-in user, their
+ * RecipeRepository and the profile document (Users/{uid}). Fragments get it with
+ * new ViewModelProvider(requireActivity()).get(SessionViewModel.class), so switching tabs reuses what was
+ * loaded instead of looking up Firebase handles and refetching the profile.
+ */
+public class SessionViewModel extends AndroidViewModel {
+
+    private static final String TAG = "SessionViewModel";
+
+    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final String uid;
+    private final String email;
+    private final RecipeRepository repository;
+
+    // Users/{uid}.diet, null until the profile document has loaded ("" if it has none)
+    private final MutableLiveData<String> dietPreference = new MutableLiveData<>();
+    private boolean profileRequested = false;
+
+    public SessionViewModel(@NonNull Application application) {
+        super(application);
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser != null) {
+            uid = currentUser.getUid();
+            email = currentUser.getEmail();
+            repository = RecipeRepository.getInstance(application, uid);
+            // Upload anything left in the write-behind queue from a previous session
+            repository.flushPendingWrites();
+            // Split recipes saved before list summaries and bodies were separate documents; once per user
+            new RecipeLayoutMigration(application, db, uid).runIfNeeded();
+        } else {
+            uid = null;
+            email = null;
+            repository = null;
+        }
+    }
+
+    // False once the user has signed out; MainActivity then sends them to LoginActivity
+    public boolean isLoggedIn() {
+        return uid != null;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public RecipeRepository getRepository() {
+        return repository;
+    }
+
+    public FirebaseFirestore getFirestore() {
+        return db;
+    }
+
+    // Fetched once per activity; later observers get the value already loaded
+    public LiveData<String> getDietPreference() {
+        if (!profileRequested && uid != null) {
+            profileRequested = true;
+            loadProfile();
+        }
+        return dietPreference;
+    }
+
+    private void loadProfile() {
+        db.collection("Users").document(uid).get()
+                .addOnSuccessListener(documentSnapshot -> {
+                    if (documentSnapshot.exists()) {
+                        String pref = documentSnapshot.getString("diet");
+                        dietPreference.setValue(pref != null ? pref : "");
+                    } else {
+                        Log.d(TAG, "User document for " + uid + " does not exist. Creating it.");
+                        db.collection("Users").document(uid).set(new HashMap<>())
+                                .addOnSuccessListener(aVoid -> Log.d(TAG, "User document created."))
+                                .addOnFailureListener(e -> Log.e(TAG, "Error creating user document: " + e.getMessage()));
+                        dietPreference.setValue("");
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error fetching user document: " + e.getMessage());
+                    profileRequested = false; // Try again on the next observer
+                });
+    }
+
+    // Writes Users/{uid}.diet; every observer of getDietPreference sees the new value once it is stored
+    public void saveDietPreference(String pref, RepositoryCallback<Void> callback) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("diet", pref);
+        db.collection("Users").document(uid)
+                .set(userData, SetOptions.merge())
+                .addOnSuccessListener(aVoid -> {
+                    dietPreference.setValue(pref);
+                    callback.onSuccess(null);
+                })
+                .addOnFailureListener(callback::onError);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.recipefinder.ui.detail;
+
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.ImageView;
+import android.widget.ProgressBar;
+import android.widget.RadioGroup;
+import android.widget.SeekBar;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.navigation.fragment.NavHostFragment;
+
+import com.example.recipefinder.HtmlRenderCache;
+import com.example.recipefinder.R;
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.data.RecipeCache;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.images.RecipeImageLoader;
+import com.example.recipefinder.ingredients.Fraction;
+import com.example.recipefinder.ingredients.IngredientScaler;
+import com.example.recipefinder.ui.SessionViewModel;
+import com.example.recipefinder.ui.editor.EditRecipeFragment;
+
+import java.util.List;
+
+public class RecipeDetailFragment extends Fragment {
+
+    public static final String ARG_DOC_ID = "firebaseDocId";
+
+    private TextView recipeDetailTitle, recipeSummary, recipeIngredients, recipeInstructions, recipeUserNotes;
+    private ImageView recipeDetailImage;
+    private ProgressBar detailProgressBar;
+    private Button editCustomRecipeButton;
+    private TextView userNotesLabel;
+    private TextView scaleLabel;
+    private SeekBar scaleSeekBar;
+    private RadioGroup unitSystemGroup;
+
+    private RecipeRepository repository;
+    private String firebaseDocId;
+
+    private static final String TAG = "RecipeDetailFragment";
+
+    // Slider stops as numerator/denominator pairs; the recipe as written is SCALE_DEFAULT
+    private static final long[] SCALE_NUM = {1, 1, 1, 2, 3, 1, 5, 3, 2, 5, 3, 4};
+    private static final long[] SCALE_DEN = {4, 3, 2, 3, 4, 1, 4, 2, 1, 2, 1, 1};
+    private static final int SCALE_DEFAULT = 5;
+
+    // Built once per displayed recipe and re-rendered into the same builder on every slider tick
+    private IngredientScaler ingredientScaler;
+    private final StringBuilder scaledIngredients = new StringBuilder();
+    private RecipeModel displayedRecipe;
+    private String displayedDocId;
+    private int scaleIndex = SCALE_DEFAULT;
+    private IngredientScaler.UnitSystem unitSystem = IngredientScaler.UnitSystem.AS_WRITTEN;
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_recipe_detail, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        repository = new ViewModelProvider(requireActivity()).get(SessionViewModel.class).getRepository();
+
+        recipeDetailTitle = view.findViewById(R.id.recipeDetailTitle);
+        recipeDetailImage = view.findViewById(R.id.recipeDetailImage);
+        recipeSummary = view.findViewById(R.id.recipeSummary);
+        recipeIngredients = view.findViewById(R.id.recipeIngredients);
+        recipeInstructions = view.findViewById(R.id.recipeInstructions);
+        recipeUserNotes = view.findViewById(R.id.recipeUserNotes);
+        userNotesLabel = view.findViewById(R.id.recipeUserNotesLabel);
+        detailProgressBar = view.findViewById(R.id.detailProgressBar);
+        editCustomRecipeButton = view.findViewById(R.id.editCustomRecipeButton);
+        scaleLabel = view.findViewById(R.id.scaleLabel);
+        scaleSeekBar = view.findViewById(R.id.scaleSeekBar);
+        unitSystemGroup = view.findViewById(R.id.unitSystemGroup);
+
+        displayedRecipe = null; // From the previous view, if this one replaces it after a trip to the editor
+        scaleSeekBar.setMax(SCALE_NUM.length - 1);
+        scaleSeekBar.setProgress(scaleIndex);
+        scaleSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                scaleIndex = progress;
+                renderIngredients();
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+                Log.d(TAG, "Scale set to " + SCALE_NUM[scaleIndex] + "/" + SCALE_DEN[scaleIndex]);
+            }
+        });
+        unitSystemGroup.setOnCheckedChangeListener((group, checkedId) -> {
+            if (checkedId == R.id.unitsMetric) {
+                unitSystem = IngredientScaler.UnitSystem.METRIC;
+            } else if (checkedId == R.id.unitsImperial) {
+                unitSystem = IngredientScaler.UnitSystem.IMPERIAL;
+            } else {
+                unitSystem = IngredientScaler.UnitSystem.AS_WRITTEN;
+            }
+            Log.d(TAG, "Unit system set to " + unitSystem);
+            renderIngredients();
+        });
+
+        Bundle args = getArguments();
+        firebaseDocId = args != null ? args.getString(ARG_DOC_ID) : null;
+        if (firebaseDocId == null) {
+            Toast.makeText(requireContext(), "No recipe ID provided.", Toast.LENGTH_SHORT).show();
+            close();
+            return;
+        }
+        // Loaded in onResume, which always follows view creation
+
+        editCustomRecipeButton.setOnClickListener(v -> {
+            Bundle editArgs = new Bundle();
+            editArgs.putString(EditRecipeFragment.ARG_DOC_ID, firebaseDocId);
+            // Popping back here runs onResume, which picks up the edit from the cache
+            NavHostFragment.findNavController(this).navigate(R.id.edit_recipe, editArgs);
+        });
+    }
+
+    private void close() {
+        NavHostFragment.findNavController(this).popBackStack();
+    }
+
+    private void loadRecipeDetails(String docId) {
+        detailProgressBar.setVisibility(View.VISIBLE);
+        // The local copy arrives first; a newer server copy (if any) arrives as a second callback
+        repository.getRecipe(docId, new RepositoryCallback<RecipeModel>() {
+            @Override
+            public void onSuccess(RecipeModel recipe) {
+                if (getView() == null) {
+                    return;
+                }
+                detailProgressBar.setVisibility(View.GONE);
+                Log.d(TAG, "loadRecipeDetails: " + RecipeCache.getInstance());
+                if (recipe != null) {
+                    displayRecipeDetails(recipe);
+                    editCustomRecipeButton.setVisibility(View.VISIBLE);
+                } else {
+                    Toast.makeText(requireContext(), "Recipe not found or deleted.", Toast.LENGTH_SHORT).show();
+                    Log.d(TAG, "Recipe not found for docId: " + docId);
+                    close();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error loading recipe details for docId: " + docId, e);
+                if (getView() == null) {
+                    return;
+                }
+                detailProgressBar.setVisibility(View.GONE);
+                Toast.makeText(requireContext(), "Error loading recipe details: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    // Instructions split into steps at save time render as a numbered list; a single step keeps the original HTML
+    private static String instructionsHtml(RecipeModel recipe) {
+        List<String> steps = recipe.getSteps();
+        if (steps.size() < 2) {
+            return recipe.getInstructions();
+        }
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < steps.size(); i++) {
+            if (i > 0) {
+                html.append("<br><br>");
+            }
+            html.append("<b>").append(i + 1).append(".</b> ").append(TextUtils.htmlEncode(steps.get(i)));
+        }
+        return html.toString();
+    }
+
+    private void displayRecipeDetails(RecipeModel recipe) {
+        if (!TextUtils.isEmpty(recipe.getCustomTitle())) {
+            recipeDetailTitle.setText(recipe.getCustomTitle());
+        } else {
+            recipeDetailTitle.setText(recipe.getTitle());
+        }
+
+        // Decoded at the laid-out size of the header image rather than at full resolution
+        RecipeImageLoader.loadDetailImage(recipeDetailImage, recipe.getImageUrl());
+
+        // Parsed off the main thread and cached, so resumes and repeat views skip Html.fromHtml
+        String docId = recipe.getFirebaseDocId() != null ? recipe.getFirebaseDocId() : firebaseDocId;
+        HtmlRenderCache.bind(recipeSummary, docId, "summary", recipe.getSummary());
+        displayedRecipe = recipe;
+        displayedDocId = docId;
+        ingredientScaler = new IngredientScaler(recipe.getParsedIngredients());
+        renderIngredients();
+        HtmlRenderCache.bind(recipeInstructions, docId, "instructions", instructionsHtml(recipe));
+
+        if (userNotesLabel != null && recipeUserNotes != null) {
+            if (!TextUtils.isEmpty(recipe.getUserNotes())) {
+                userNotesLabel.setVisibility(View.VISIBLE);
+                HtmlRenderCache.bind(recipeUserNotes, docId, "userNotes", recipe.getUserNotes());
+                recipeUserNotes.setVisibility(View.VISIBLE);
+            } else {
+                userNotesLabel.setVisibility(View.GONE);
+                recipeUserNotes.setVisibility(View.GONE);
+            }
+        }
+    }
+
+    // As written, the original HTML is shown through the render cache; any other scale or unit system is
+    // rendered from the parsed lines as plain text
+    private void renderIngredients() {
+        scaleLabel.setText("Scale: \u00D7" + Fraction.of(SCALE_NUM[scaleIndex], SCALE_DEN[scaleIndex]));
+        if (displayedRecipe == null) {
+            return;
+        }
+        if (scaleIndex == SCALE_DEFAULT && unitSystem == IngredientScaler.UnitSystem.AS_WRITTEN) {
+            HtmlRenderCache.bind(recipeIngredients, displayedDocId, "ingredients", displayedRecipe.getIngredients());
+            return;
+        }
+        ingredientScaler.render(SCALE_NUM[scaleIndex], SCALE_DEN[scaleIndex], unitSystem, scaledIngredients);
+        recipeIngredients.setTag(R.id.html_render_key, null); // Drop any HTML render still in flight
+        recipeIngredients.setText(scaledIngredients);
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (firebaseDocId != null) {
+            loadRecipeDetails(firebaseDocId);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.recipefinder.ui.editor;
+
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.navigation.fragment.NavHostFragment;
+
+import com.example.recipefinder.R;
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.ui.SessionViewModel;
+
+/**
+ * Add Recipe tab, and the edit screen for an existing recipe when opened with a "firebaseDocId" argument.
+ * Leaves by popping the back stack, which returns to the screen it was opened from.
+ */
+public class EditRecipeFragment extends Fragment {
+
+    public static final String ARG_DOC_ID = "firebaseDocId";
+
+    private EditText editRecipeTitle, editRecipeSummary, editRecipeIngredients,
+            editRecipeInstructions, editRecipeUserNotes, editRecipeImageUrl;
+    private Button saveRecipeButton;
+    private TextView screenTitleTextView;
+
+    private RecipeRepository repository;
+    private String firebaseDocId = null;
+    private RecipeModel currentRecipe;
+    private RecipeModel loadedRecipe; // Untouched copy of what was loaded, to find the fields the user changed
+
+    private static final String TAG = "EditRecipeFragment";
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_edit_recipe, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        repository = new ViewModelProvider(requireActivity()).get(SessionViewModel.class).getRepository();
+
+        // Initialize UI elements
+        screenTitleTextView = view.findViewById(R.id.screenTitle);
+        editRecipeTitle = view.findViewById(R.id.editRecipeTitle);
+        editRecipeSummary = view.findViewById(R.id.editRecipeSummary);
+        editRecipeIngredients = view.findViewById(R.id.editRecipeIngredients);
+        editRecipeInstructions = view.findViewById(R.id.editRecipeInstructions);
+        editRecipeUserNotes = view.findViewById(R.id.editRecipeUserNotes);
+        editRecipeImageUrl = view.findViewById(R.id.editRecipeImageUrl);
+        saveRecipeButton = view.findViewById(R.id.saveRecipeButton);
+
+        // Check if we are editing an existing recipe or adding a new one
+        Bundle args = getArguments();
+        if (args != null && args.getString(ARG_DOC_ID) != null) {
+            firebaseDocId = args.getString(ARG_DOC_ID);
+            screenTitleTextView.setText("Edit Your Saved Recipe");
+            // Coming back to a restored tab, the fields already hold the user's edits
+            loadRecipeData(savedInstanceState == null);
+        } else {
+            screenTitleTextView.setText("Add New Recipe");
+            saveRecipeButton.setText("Add Recipe"); // Change button text for adding
+            currentRecipe = new RecipeModel(); // Initialize an empty model for new recipe
+        }
+
+        saveRecipeButton.setOnClickListener(v -> saveRecipe());
+    }
+
+    private void loadRecipeData(boolean fillForm) {
+        repository.getRecipe(firebaseDocId, new RepositoryCallback<RecipeModel>() {
+            @Override
+            public void onSuccess(RecipeModel recipe) {
+                if (getView() == null) {
+                    return;
+                }
+                if (recipe == null) {
+                    Toast.makeText(requireContext(), "Recipe not found.", Toast.LENGTH_SHORT).show();
+                    close();
+                    return;
+                }
+                if (currentRecipe != null) {
+                    // A newer server copy arrived after the local one; don't overwrite what the user is typing
+                    Log.d(TAG, "loadRecipeData: Ignoring refreshed copy, form already filled.");
+                    return;
+                }
+                currentRecipe = recipe;
+                loadedRecipe = recipe.copy();
+                if (fillForm) {
+                    // Pre-fill fields with existing data
+                    editRecipeTitle.setText(currentRecipe.getTitle());
+                    editRecipeSummary.setText(currentRecipe.getSummary());
+                    editRecipeIngredients.setText(currentRecipe.getIngredients());
+                    editRecipeInstructions.setText(currentRecipe.getInstructions());
+                    editRecipeUserNotes.setText(currentRecipe.getUserNotes());
+                    editRecipeImageUrl.setText(currentRecipe.getImageUrl());
+                }
+                saveRecipeButton.setText("Save All Changes");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error loading recipe data", e);
+                if (getView() == null) {
+                    return;
+                }
+                Toast.makeText(requireContext(), "Failed to load recipe: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                close();
+            }
+        });
+    }
+
+    private void saveRecipe() {
+        String title = editRecipeTitle.getText().toString().trim();
+        String summary = editRecipeSummary.getText().toString().trim();
+        String ingredients = editRecipeIngredients.getText().toString().trim();
+        String instructions = editRecipeInstructions.getText().toString().trim();
+        String userNotes = editRecipeUserNotes.getText().toString().trim();
+        String imageUrl = editRecipeImageUrl.getText().toString().trim();
+
+        if (TextUtils.isEmpty(title)) {
+            editRecipeTitle.setError("Recipe title is required!");
+            return;
+        }
+
+        if (currentRecipe == null) {
+            currentRecipe = new RecipeModel();
+            currentRecipe.setId(0); // Mark as custom recipe
+        }
+
+        currentRecipe.setTitle(title);
+        currentRecipe.setCustomTitle(title);
+        currentRecipe.setSummary(summary);
+        currentRecipe.setIngredients(ingredients);
+        currentRecipe.setInstructions(instructions);
+        currentRecipe.setUserNotes(userNotes);
+        currentRecipe.setImageUrl(imageUrl);
+
+        // Optimistic save: the repository updates the cache and lists right away and queues the upload
+        // (retried with backoff if it fails), so there is no network round-trip to wait for here
+        RepositoryCallback<String> onQueued = new RepositoryCallback<String>() {
+            @Override
+            public void onSuccess(String docId) {
+                Log.d(TAG, "saveRecipe: Stored locally and queued for upload: " + docId);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Error saving recipe", e);
+            }
+        };
+        if (loadedRecipe != null) {
+            // Editing: upload only the fields that changed, or nothing at all
+            if (!repository.saveChanges(loadedRecipe, currentRecipe, onQueued)) {
+                Log.d(TAG, "saveRecipe: No fields changed, skipping the write.");
+                Toast.makeText(requireContext(), "No changes to save.", Toast.LENGTH_SHORT).show();
+                close();
+                return;
+            }
+        } else {
+            repository.saveRecipe(currentRecipe, onQueued);
+        }
+        if (firebaseDocId == null) {
+            Toast.makeText(requireContext(), "Recipe added successfully!", Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(requireContext(), "Changes saved successfully!", Toast.LENGTH_SHORT).show();
+        }
+        close();
+    }
+
+    // Back to the screen this was opened from; from the Add Recipe tab that is the recipe list
+    private void close() {
+        NavHostFragment.findNavController(this).popBackStack();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.recipefinder.ui.pantry;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.navigation.fragment.NavHostFragment;
+
+import com.example.recipefinder.R;
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.ingredients.IngredientIndex;
+import com.example.recipefinder.ingredients.PantryMatchService;
+import com.example.recipefinder.ui.SessionViewModel;
+import com.example.recipefinder.ui.detail.RecipeDetailFragment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// "What can I cook?": ranks the user's recipes by how much of each ingredient list the pantry covers
+public class PantrySearchFragment extends Fragment {
+
+    private static final String TAG = "PantrySearchFragment";
+    private static final int MAX_RESULTS = 100;
+
+    private EditText editPantry;
+    private TextView txtPantryStatus;
+    private ArrayAdapter<String> resultsAdapter;
+
+    // Kept with the fragment instance, so coming back from a recipe's detail screen does not re-index
+    private final PantryMatchService pantryMatchService = new PantryMatchService();
+    private final Map<String, RecipeModel> recipesById = new HashMap<>();
+    private final List<String> resultDocIds = new ArrayList<>();
+    private ExecutorService indexExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        RecipeRepository repository = new ViewModelProvider(requireActivity()).get(SessionViewModel.class).getRepository();
+        indexExecutor = Executors.newSingleThreadExecutor();
+        // Index what is stored locally right away, then again once the full collection has synced
+        repository.getLocalRecipes(new IndexingCallback());
+        repository.syncFromRemote(new IndexingCallback());
+    }
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_pantry_search, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        editPantry = view.findViewById(R.id.editPantry);
+        txtPantryStatus = view.findViewById(R.id.txtPantryStatus);
+        Button btnFindRecipes = view.findViewById(R.id.btnFindRecipes);
+        ListView listResults = view.findViewById(R.id.listPantryResults);
+
+        resultsAdapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_list_item_1, new ArrayList<>());
+        listResults.setAdapter(resultsAdapter);
+        listResults.setOnItemClickListener((parent, itemView, position, id) -> {
+            Bundle args = new Bundle();
+            args.putString(RecipeDetailFragment.ARG_DOC_ID, resultDocIds.get(position));
+            NavHostFragment.findNavController(this).navigate(R.id.recipe_detail, args);
+        });
+        btnFindRecipes.setOnClickListener(v -> runSearch());
+
+        if (recipesById.isEmpty()) {
+            txtPantryStatus.setText("Loading recipes...");
+        } else {
+            txtPantryStatus.setText(recipesById.size() + " recipes ready to search.");
+        }
+    }
+
+    @Override
+    public void onViewStateRestored(@Nullable Bundle savedInstanceState) {
+        super.onViewStateRestored(savedInstanceState);
+        // The pantry text is back now; show its results again
+        if (!recipesById.isEmpty() && !TextUtils.isEmpty(editPantry.getText())) {
+            runSearch();
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if (indexExecutor != null) {
+            indexExecutor.shutdownNow();
+        }
+    }
+
+    // Rebuilds the ingredient index off the main thread whenever a recipe list arrives
+    private class IndexingCallback implements RepositoryCallback<List<RecipeModel>> {
+        @Override
+        public void onSuccess(List<RecipeModel> recipes) {
+            indexExecutor.execute(() -> {
+                pantryMatchService.rebuild(recipes);
+                mainHandler.post(() -> {
+                    recipesById.clear();
+                    for (RecipeModel recipe : recipes) {
+                        recipesById.put(recipe.getFirebaseDocId(), recipe);
+                    }
+                    IngredientIndex index = pantryMatchService.getIndex();
+                    Log.d(TAG, "Indexed " + index.getRecipeCount() + " recipes, " + index.getIngredientCount() + " distinct ingredients.");
+                    if (getView() == null) {
+                        return;
+                    }
+                    txtPantryStatus.setText(index.getRecipeCount() + " recipes ready to search.");
+                    if (!TextUtils.isEmpty(editPantry.getText())) {
+                        runSearch();
+                    }
+                });
+            });
+        }
+
+        @Override
+        public void onError(Exception e) {
+            Log.w(TAG, "Could not load recipes: " + e.getMessage());
+        }
+    }
+
+    private void runSearch() {
+        String pantryText = editPantry.getText().toString();
+        long start = System.nanoTime();
+        List<IngredientIndex.Match> matches = pantryMatchService.findRecipes(pantryText, MAX_RESULTS);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        resultDocIds.clear();
+        List<String> rows = new ArrayList<>(matches.size());
+        for (IngredientIndex.Match match : matches) {
+            RecipeModel recipe = recipesById.get(match.docId);
+            if (recipe == null) {
+                continue;
+            }
+            String title = !TextUtils.isEmpty(recipe.getCustomTitle()) ? recipe.getCustomTitle() : recipe.getTitle();
+            String row = title + "  (" + match.matchedCount + "/" + match.ingredientCount + ")";
+            if (!match.missingIngredients.isEmpty()) {
+                row += "\nMissing: " + TextUtils.join(", ", match.missingIngredients);
+            }
+            rows.add(row);
+            resultDocIds.add(match.docId);
+        }
+        resultsAdapter.clear();
+        resultsAdapter.addAll(rows);
+        txtPantryStatus.setText(rows.isEmpty() ? "No recipes use those ingredients." : rows.size() + " recipes found.");
+        Log.d(TAG, "runSearch: " + rows.size() + " matches in " + elapsedMicros + " us.");
+    }
+}
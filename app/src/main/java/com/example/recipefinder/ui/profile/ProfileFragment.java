@@ -0,0 +1,109 @@
+package com.example.recipefinder.ui.profile;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.example.recipefinder.BackupActivity;
+import com.example.recipefinder.LoginActivity;
+import com.example.recipefinder.R;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.ingredients.Diet;
+import com.example.recipefinder.ui.SessionViewModel;
+import com.google.firebase.auth.FirebaseAuth;
+
+public class ProfileFragment extends Fragment {
+
+    private static final String TAG = "ProfileFragment";
+
+    private TextView txtEmail, txtPreference;
+    private Button btnLogout;
+    private EditText editPreference;
+    private Button btnSavePref;
+
+    private SessionViewModel session;
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_profile, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        session = new ViewModelProvider(requireActivity()).get(SessionViewModel.class);
+
+        txtEmail = view.findViewById(R.id.txtEmail);
+        txtPreference = view.findViewById(R.id.txtPreference);
+        btnLogout = view.findViewById(R.id.btnLogout);
+        editPreference = view.findViewById(R.id.editPreference);
+        btnSavePref = view.findViewById(R.id.btnSavePref);
+
+        txtEmail.setText("Email: " + session.getEmail());
+
+        // Loaded once for the whole activity; coming back to this tab shows it without a read
+        session.getDietPreference().observe(getViewLifecycleOwner(), pref -> {
+            txtPreference.setText("Dietary Preference: " + (pref != null && !pref.isEmpty() ? pref : "None"));
+            // Don't overwrite what the user is typing (or a draft restored with the tab)
+            if (pref != null && editPreference.getText().length() == 0) {
+                editPreference.setText(pref);
+            }
+        });
+
+        btnLogout.setOnClickListener(v -> {
+            FirebaseAuth.getInstance().signOut();
+            Toast.makeText(requireContext(), "Logged out successfully!", Toast.LENGTH_SHORT).show();
+
+            Intent intent = new Intent(requireContext(), LoginActivity.class);
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            startActivity(intent);
+            requireActivity().finish();
+        });
+
+        view.findViewById(R.id.btnBackup).setOnClickListener(v ->
+                startActivity(new Intent(requireContext(), BackupActivity.class)));
+
+        btnSavePref.setOnClickListener(v -> {
+            String pref = editPreference.getText().toString().trim();
+            if (pref.isEmpty()) {
+                Toast.makeText(requireContext(), "Preference cannot be empty", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            session.saveDietPreference(pref, new RepositoryCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    if (getContext() == null) {
+                        return;
+                    }
+                    // The Recipes tab filters by the diets it recognises in the preference; say which
+                    int diets = Diet.parsePreference(pref);
+                    Toast.makeText(getContext(), diets != 0
+                            ? "Preference updated! My Recipes can now show only " + Diet.labelsOf(diets) + " recipes."
+                            : "Preference updated!", Toast.LENGTH_SHORT).show();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Failed to update preference: " + e.getMessage(), e);
+                    if (getContext() != null) {
+                        Toast.makeText(getContext(), "Update failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    }
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,728 @@
+package com.example.recipefinder.ui.recipes;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog; // Ensure this is androidx.appcompat.app.AlertDialog
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.navigation.fragment.NavHostFragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.recipefinder.ImportRecipesActivity;
+import com.example.recipefinder.R;
+import com.example.recipefinder.RecipeAdapter;
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.dedupe.DuplicateDetector;
+import com.example.recipefinder.dedupe.DuplicateGroup;
+import com.example.recipefinder.images.RecipeImageLoader;
+import com.example.recipefinder.images.ThumbnailPrefetcher;
+import com.example.recipefinder.ingredients.Diet;
+import com.example.recipefinder.ingredients.DietTagIndex;
+import com.example.recipefinder.ingredients.ShoppingList;
+import com.example.recipefinder.ingredients.ShoppingListBuilder;
+import com.example.recipefinder.search.RecipeSearchIndex;
+import com.example.recipefinder.ui.SessionViewModel;
+import com.example.recipefinder.ui.detail.RecipeDetailFragment;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * The Recipes tab. The loaded list, its loading and error state and the indexes built from it live in
+ * RecipesViewModel; this fragment renders them through the search box, the diet filter and the
+ * write-behind queue's pending changes.
+ */
+public class MyRecipesFragment extends Fragment implements RecipeAdapter.OnItemClickListener,
+        RecipeRepository.PendingWritesListener {
+
+    private RecyclerView recyclerView;
+    private RecipeAdapter adapter;
+    private TextView emptyView;
+    private ProgressBar progressBar;
+    private List<RecipeModel> savedRecipes = new ArrayList<>(); // Latest list from the view model, never mutated
+    private String uid;
+    private RecipeRepository repository;
+    private SessionViewModel session;
+    private RecipesViewModel recipesViewModel;
+
+    // Search runs on the main thread against the view model's index
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private String searchQuery = "";
+    private int shownVersion = 0; // Bumped each time showRecipes() submits a new list
+
+    // Shopping lists and duplicate scans run here, off the main thread
+    private ExecutorService workExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Diet filter from the profile's "diet" preference; the view model's index holds each recipe's diet tags
+    private int dietPreference; // Diet bitmask parsed from Users/{uid}.diet, 0 if none recognised
+    private CheckBox dietFilterToggle;
+
+    private ActionMode selectionActionMode; // Non-null while multi-select is active
+
+    private static final String TAG = "MyRecipesFragment";
+
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        Log.d(TAG, "LIFECYCLE: onCreate() called.");
+        ViewModelProvider activityViewModels = new ViewModelProvider(requireActivity());
+        session = activityViewModels.get(SessionViewModel.class);
+        recipesViewModel = activityViewModels.get(RecipesViewModel.class);
+        uid = session.getUid();
+        repository = session.getRepository();
+        workExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_my_recipes, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        Log.d(TAG, "LIFECYCLE: onViewCreated() called.");
+
+        // Initialize UI
+        recyclerView = view.findViewById(R.id.recyclerViewFavorites);
+        adapter = new RecipeAdapter(requireContext(), this, true);
+        recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        recyclerView.setAdapter(adapter);
+        recyclerView.setHasFixedSize(true);
+        // Warm thumbnails for the rows about to scroll into view
+        recyclerView.addOnScrollListener(new ThumbnailPrefetcher(requireContext(), adapter));
+        emptyView = view.findViewById(R.id.txtRecipesEmpty);
+        progressBar = view.findViewById(R.id.recipesProgressBar);
+
+        // The list comes from the recipe catalog, listened to between onStart and onStop. It outlives this
+        // view, so a recreated screen renders it again without a single read.
+        recipesViewModel.getRecipes().observe(getViewLifecycleOwner(), recipes -> {
+            savedRecipes = recipes;
+            showRecipes();
+            updateEmptyView();
+        });
+        recipesViewModel.isLoading().observe(getViewLifecycleOwner(), loading ->
+                progressBar.setVisibility(Boolean.TRUE.equals(loading) ? View.VISIBLE : View.GONE));
+        recipesViewModel.isLoaded().observe(getViewLifecycleOwner(), loaded -> updateEmptyView());
+        recipesViewModel.getError().observe(getViewLifecycleOwner(), message -> {
+            if (message != null) {
+                Toast.makeText(requireContext(), "Failed to load recipes: " + message, Toast.LENGTH_SHORT).show();
+                recipesViewModel.onErrorShown();
+            }
+        });
+        // Results computed against the old indexes are refreshed once they catch up
+        recipesViewModel.getIndexVersion().observe(getViewLifecycleOwner(), version -> {
+            if (!searchQuery.isEmpty() || activeDietFilter() != 0) {
+                showRecipes();
+            }
+        });
+
+        // Show saves and deletes from any screen before their upload completes
+        repository.addPendingWritesListener(this);
+
+        view.findViewById(R.id.btnWhatCanICook).setOnClickListener(v ->
+                NavHostFragment.findNavController(this).navigate(R.id.pantry_search));
+        view.findViewById(R.id.btnImportRecipes).setOnClickListener(v ->
+                startActivity(new Intent(requireContext(), ImportRecipesActivity.class)));
+        view.findViewById(R.id.btnFindDuplicates).setOnClickListener(v -> findDuplicates());
+
+        dietFilterToggle = view.findViewById(R.id.dietFilterToggle);
+        dietFilterToggle.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            Log.d(TAG, "Diet filter " + (isChecked ? "on" : "off"));
+            showRecipes();
+        });
+        // Shared with the Profile tab, so a preference saved there applies here straight away
+        session.getDietPreference().observe(getViewLifecycleOwner(), this::applyDietPreference);
+
+        EditText searchBox = view.findViewById(R.id.searchRecipes);
+        searchBox.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) { }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchQuery = s.toString().trim();
+                showRecipes();
+            }
+        });
+    }
+
+    private void applyDietPreference(String diet) {
+        int preference = Diet.parsePreference(diet);
+        Log.d(TAG, "applyDietPreference: \"" + diet + "\" -> " + Diet.labelsOf(preference));
+        dietPreference = preference;
+        if (preference != 0) {
+            dietFilterToggle.setText("Only " + Diet.labelsOf(preference) + " recipes");
+            dietFilterToggle.setVisibility(View.VISIBLE);
+        } else {
+            dietFilterToggle.setVisibility(View.GONE);
+        }
+        showRecipes();
+    }
+
+    private void updateEmptyView() {
+        boolean empty = savedRecipes.isEmpty() && Boolean.TRUE.equals(recipesViewModel.isLoaded().getValue());
+        emptyView.setVisibility(empty ? View.VISIBLE : View.GONE);
+    }
+
+    private int activeDietFilter() {
+        return dietPreference != 0 && dietFilterToggle.isChecked() ? dietPreference : 0;
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        Log.d(TAG, "LIFECYCLE: onStart() called.");
+        recipesViewModel.start();
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        Log.d(TAG, "LIFECYCLE: onStop() called.");
+        recipesViewModel.stop(requireActivity().isChangingConfigurations());
+        recipesViewModel.saveSearchIndex();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        Log.d(TAG, "LIFECYCLE: onDestroyView() called.");
+        repository.removePendingWritesListener(this);
+        if (selectionActionMode != null) {
+            selectionActionMode.finish();
+        }
+        RecipeImageLoader.cancelAll(requireContext(), adapter.getImageTag());
+        recyclerView = null;
+        adapter = null;
+        emptyView = null;
+        progressBar = null;
+        dietFilterToggle = null;
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        Log.d(TAG, "LIFECYCLE: onDestroy() called.");
+        workExecutor.shutdownNow();
+    }
+
+    // Views are gone between onDestroyView and the next onViewCreated; late callbacks have nothing to update
+    private boolean hasView() {
+        return adapter != null && getContext() != null;
+    }
+
+    @Override
+    public void onPendingWritesChanged() {
+        Log.d(TAG, "onPendingWritesChanged: Re-applying queued local changes to the list.");
+        showRecipes();
+    }
+
+    // Shows either the whole list or the ranked search results for the current query
+    private void showRecipes() {
+        if (!hasView()) {
+            return;
+        }
+        final int version = ++shownVersion;
+        final int dietFilter = activeDietFilter();
+        final DietTagIndex dietIndex = recipesViewModel.getDietIndex();
+        // Local saves and deletes that are still uploading replace what the snapshot listeners last saw
+        List<RecipeModel> listedRecipes = repository.applyPendingWrites(savedRecipes);
+        List<RecipeModel> visibleRecipes = dietIndex.filter(listedRecipes, dietFilter);
+        if (searchQuery.isEmpty()) {
+            // Submit a copy: ListAdapter diffs against the previous list instance, so it must not be mutated in place
+            adapter.submitList(new ArrayList<>(visibleRecipes));
+            return;
+        }
+
+        // Hits are looked up in the whole list, so one the diet filter hides is dropped rather than fetched
+        Map<String, RecipeModel> listedById = new HashMap<>();
+        for (RecipeModel recipe : listedRecipes) {
+            listedById.put(recipe.getFirebaseDocId(), recipe);
+        }
+        boolean catalogLoading = !Boolean.TRUE.equals(recipesViewModel.isLoaded().getValue());
+        List<RecipeModel> results = new ArrayList<>();
+        final String query = searchQuery;
+        for (RecipeSearchIndex.Result result : recipesViewModel.search(query, MAX_SEARCH_RESULTS)) {
+            RecipeModel recipe = listedById.get(result.docId);
+            if (recipe != null) {
+                if (dietIndex.matches(recipe, dietFilter)) {
+                    results.add(recipe);
+                }
+            } else if (catalogLoading) {
+                // In the index saved by an earlier session, but the catalog has not been read yet: fetch it and append if still relevant
+                repository.getRecipe(result.docId, new RepositoryCallback<RecipeModel>() {
+                    @Override
+                    public void onSuccess(RecipeModel fetched) {
+                        // Only onto the results this fetch was started for; a later showRecipes() replaced them
+                        if (!hasView() || fetched == null || version != shownVersion || !dietIndex.matches(fetched, dietFilter)) {
+                            return;
+                        }
+                        List<RecipeModel> updated = new ArrayList<>(adapter.getCurrentList());
+                        for (RecipeModel shown : updated) {
+                            if (shown.getFirebaseDocId().equals(fetched.getFirebaseDocId())) {
+                                return; // Delivered again (cached copy, then the server's); one row per recipe
+                            }
+                        }
+                        updated.add(fetched);
+                        adapter.submitList(updated);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "showRecipes: Could not load search hit " + result.docId + ": " + e.getMessage());
+                    }
+                });
+            }
+            // A hit missing from a loaded catalog was deleted; it is left out
+        }
+        Log.d(TAG, "showRecipes: " + results.size() + " loaded results for \"" + query + "\"");
+        adapter.submitList(results);
+    }
+
+    @Override
+    public void onItemClick(RecipeModel recipe) {
+        Log.d(TAG, "onItemClick: Saved Recipe clicked. Firebase ID: " + recipe.getFirebaseDocId());
+        Bundle args = new Bundle();
+        args.putString(RecipeDetailFragment.ARG_DOC_ID, recipe.getFirebaseDocId());
+        // Edits made from the detail screen show up here through the write-behind queue
+        NavHostFragment.findNavController(this).navigate(R.id.recipe_detail, args);
+    }
+
+    @Override
+    public void onRecipeLongClick(RecipeModel recipe) {
+        Log.d(TAG, "onRecipeLongClick: Recipe long-clicked for deletion. Firebase ID: " + recipe.getFirebaseDocId());
+        showDeleteConfirmationDialog(recipe);
+    }
+
+    @Override
+    public void onSelectionChanged(int selectedCount) {
+        if (!adapter.isSelectionMode()) {
+            if (selectionActionMode != null) {
+                selectionActionMode.finish();
+            }
+            return;
+        }
+        if (selectedCount == 0 && selectionActionMode != null) {
+            // Last row deselected: leave multi-select
+            selectionActionMode.finish();
+            return;
+        }
+        if (selectionActionMode == null) {
+            selectionActionMode = ((AppCompatActivity) requireActivity()).startSupportActionMode(selectionCallback);
+        }
+        if (selectionActionMode != null) {
+            selectionActionMode.setTitle(selectedCount + " selected");
+        }
+    }
+
+    // Contextual action bar shown while recipes are selected
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_recipe_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            List<RecipeModel> selected = adapter.getSelectedRecipes();
+            int itemId = item.getItemId();
+            if (itemId == R.id.action_select_all) {
+                adapter.selectAll();
+                return true;
+            } else if (selected.isEmpty()) {
+                return true;
+            } else if (itemId == R.id.action_delete) {
+                showBulkDeleteConfirmationDialog(selected);
+                return true;
+            } else if (itemId == R.id.action_tag) {
+                showBulkTagDialog(selected);
+                return true;
+            } else if (itemId == R.id.action_shopping_list) {
+                withWholeRecipes(selected, MyRecipesFragment.this::showShoppingList);
+                return true;
+            } else if (itemId == R.id.action_export) {
+                withWholeRecipes(selected, MyRecipesFragment.this::exportRecipes);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionActionMode = null;
+            if (adapter != null) {
+                adapter.setSelectionMode(false);
+            }
+        }
+    };
+
+    // List rows are summary-only; actions that read or rewrite a recipe's body get the whole recipes first
+    private void withWholeRecipes(List<RecipeModel> recipes, Consumer<List<RecipeModel>> action) {
+        repository.getWholeRecipes(recipes, new RepositoryCallback<List<RecipeModel>>() {
+            @Override
+            public void onSuccess(List<RecipeModel> whole) {
+                if (hasView()) {
+                    action.accept(whole);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "withWholeRecipes: " + e.getMessage(), e);
+                if (getContext() != null) {
+                    Toast.makeText(requireContext(), "Could not load recipes: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                }
+            }
+        });
+    }
+
+    private void showBulkDeleteConfirmationDialog(List<RecipeModel> recipesToDelete) {
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Remove Recipes")
+                .setMessage("Are you sure you want to remove " + recipesToDelete.size() + " recipes from your saved recipes?")
+                .setPositiveButton("Remove", (dialog, which) -> deleteSavedRecipes(recipesToDelete))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    // One local transaction and a few WriteBatch commits instead of a delete per recipe
+    private void deleteSavedRecipes(List<RecipeModel> recipesToDelete) {
+        final Set<String> docIds = new HashSet<>();
+        for (RecipeModel recipe : recipesToDelete) {
+            docIds.add(recipe.getFirebaseDocId());
+        }
+        deleteSavedRecipes(docIds, () -> Toast.makeText(requireContext(),
+                docIds.size() + " recipes removed.", Toast.LENGTH_SHORT).show());
+    }
+
+    private void deleteSavedRecipes(Set<String> docIds, Runnable onDeleted) {
+        Log.d(TAG, "deleteSavedRecipes: Deleting " + docIds.size() + " recipes.");
+        repository.deleteRecipes(docIds, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                // Single list update for the whole selection; the snapshot listeners confirm it later
+                recipesViewModel.removeRecipes(docIds);
+                if (!hasView()) {
+                    return;
+                }
+                if (selectionActionMode != null) {
+                    selectionActionMode.finish();
+                }
+                onDeleted.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (getContext() != null) {
+                    Toast.makeText(requireContext(), "Error removing recipes: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                }
+                Log.e(TAG, "deleteSavedRecipes: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private void showBulkTagDialog(List<RecipeModel> recipesToTag) {
+        EditText tagInput = new EditText(requireContext());
+        tagInput.setHint("Tag, e.g. weeknight");
+        tagInput.setSingleLine(true);
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Tag " + recipesToTag.size() + " recipes")
+                .setView(tagInput)
+                .setPositiveButton("Tag", (dialog, which) -> {
+                    String tag = tagInput.getText().toString().trim();
+                    if (!tag.isEmpty()) {
+                        tagSavedRecipes(recipesToTag, tag);
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    // Tagging rewrites whole documents, so it starts from the whole recipes rather than the list's summaries
+    private void tagSavedRecipes(List<RecipeModel> recipesToTag, String tag) {
+        withWholeRecipes(recipesToTag, whole -> tagWholeRecipes(whole, tag));
+    }
+
+    private void tagWholeRecipes(List<RecipeModel> recipesToTag, String tag) {
+        List<RecipeModel> changed = new ArrayList<>();
+        for (RecipeModel recipe : recipesToTag) {
+            RecipeModel copy = recipe.copy();
+            if (copy.addTag(tag)) {
+                changed.add(copy);
+            }
+        }
+        Log.d(TAG, "tagSavedRecipes: Tagging " + changed.size() + " recipes with \"" + tag + "\".");
+        if (changed.isEmpty()) {
+            if (selectionActionMode != null) {
+                selectionActionMode.finish();
+            }
+            return;
+        }
+        repository.saveRecipes(changed, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                recipesViewModel.replaceRecipes(changed);
+                if (!hasView()) {
+                    return;
+                }
+                if (selectionActionMode != null) {
+                    selectionActionMode.finish();
+                }
+                Toast.makeText(requireContext(), changed.size() + " recipes tagged \"" + tag + "\".", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (getContext() != null) {
+                    Toast.makeText(requireContext(), "Error tagging recipes: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                }
+                Log.e(TAG, "tagSavedRecipes: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    // One merged list for the selected recipes, built off the main thread since older recipes may need parsing
+    private void showShoppingList(List<RecipeModel> recipesToShop) {
+        final List<RecipeModel> snapshot = new ArrayList<>(recipesToShop);
+        Log.d(TAG, "showShoppingList: Building a list for " + snapshot.size() + " recipes.");
+        workExecutor.execute(() -> {
+            ShoppingList shoppingList = new ShoppingListBuilder().addRecipes(snapshot).build();
+            final String text = shoppingList.toText();
+            final int itemCount = shoppingList.getItemCount();
+            mainHandler.post(() -> {
+                if (!hasView()) {
+                    return;
+                }
+                new AlertDialog.Builder(requireContext())
+                        .setTitle("Shopping list (" + itemCount + " items)")
+                        .setMessage(text.isEmpty() ? "No ingredients found in the selected recipes." : text)
+                        .setPositiveButton("Share", (dialog, which) -> {
+                            Intent shareIntent = new Intent(Intent.ACTION_SEND);
+                            shareIntent.setType("text/plain");
+                            shareIntent.putExtra(Intent.EXTRA_SUBJECT, "Shopping list");
+                            shareIntent.putExtra(Intent.EXTRA_TEXT, text);
+                            startActivity(Intent.createChooser(shareIntent, "Share shopping list"));
+                        })
+                        .setNegativeButton("Close", null)
+                        .show();
+                if (selectionActionMode != null) {
+                    selectionActionMode.finish();
+                }
+            });
+        });
+    }
+
+    // Comparing needs whole recipes, which the catalog's list does not hold: synced ones if online, else local
+    private void findDuplicates() {
+        Log.d(TAG, "findDuplicates: Loading all recipes.");
+        Toast.makeText(requireContext(), "Looking for duplicates...", Toast.LENGTH_SHORT).show();
+        repository.syncFromRemote(new RepositoryCallback<List<RecipeModel>>() {
+            @Override
+            public void onSuccess(List<RecipeModel> recipes) {
+                if (hasView()) {
+                    detectDuplicates(recipes);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "findDuplicates: Sync failed, using local recipes: " + e.getMessage());
+                repository.getLocalRecipes(new RepositoryCallback<List<RecipeModel>>() {
+                    @Override
+                    public void onSuccess(List<RecipeModel> recipes) {
+                        if (hasView()) {
+                            detectDuplicates(recipes);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception localError) {
+                        if (getContext() != null) {
+                            Toast.makeText(requireContext(), "Could not load recipes: " + localError.getMessage(), Toast.LENGTH_LONG).show();
+                        }
+                        Log.e(TAG, "findDuplicates: " + localError.getMessage(), localError);
+                    }
+                });
+            }
+        });
+    }
+
+    private void detectDuplicates(List<RecipeModel> recipes) {
+        final List<RecipeModel> snapshot = new ArrayList<>(repository.applyPendingWrites(recipes));
+        workExecutor.execute(() -> {
+            long start = System.nanoTime();
+            final List<DuplicateGroup> groups = new DuplicateDetector().findDuplicates(snapshot);
+            Log.d(TAG, "detectDuplicates: " + groups.size() + " groups among " + snapshot.size() + " recipes in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            mainHandler.post(() -> {
+                if (hasView()) {
+                    showDuplicatesDialog(groups);
+                }
+            });
+        });
+    }
+
+    // One row per group, all ticked; merging keeps the newest recipe of each ticked group
+    private void showDuplicatesDialog(List<DuplicateGroup> groups) {
+        if (groups.isEmpty()) {
+            Toast.makeText(requireContext(), "No duplicate recipes found.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String[] labels = new String[groups.size()];
+        final boolean[] checked = new boolean[groups.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            labels[i] = groups.get(i).getTitle() + " (" + groups.get(i).size() + " copies)";
+            checked[i] = true;
+        }
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Merge duplicates")
+                .setMultiChoiceItems(labels, checked, (dialog, which, isChecked) -> checked[which] = isChecked)
+                .setPositiveButton("Merge", (dialog, which) -> {
+                    List<DuplicateGroup> toMerge = new ArrayList<>();
+                    for (int i = 0; i < groups.size(); i++) {
+                        if (checked[i]) {
+                            toMerge.add(groups.get(i));
+                        }
+                    }
+                    mergeDuplicates(toMerge);
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    // Saves each merged recipe and deletes the copies it absorbed, as one bulk save and one bulk delete
+    private void mergeDuplicates(List<DuplicateGroup> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        final List<RecipeModel> merged = new ArrayList<>(groups.size());
+        final Set<String> duplicateIds = new HashSet<>();
+        for (DuplicateGroup group : groups) {
+            merged.add(group.merge());
+            duplicateIds.addAll(group.getDuplicateDocIds());
+        }
+        Log.d(TAG, "mergeDuplicates: Merging " + groups.size() + " groups, removing " + duplicateIds.size() + " recipes.");
+        repository.saveRecipes(merged, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                deleteSavedRecipes(duplicateIds, () -> Toast.makeText(requireContext(),
+                        "Merged " + duplicateIds.size() + " duplicate recipes.", Toast.LENGTH_SHORT).show());
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (getContext() != null) {
+                    Toast.makeText(requireContext(), "Error merging recipes: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                }
+                Log.e(TAG, "mergeDuplicates: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    // Shares the selected recipes as a JSON array; read-only, so nothing is written to Firestore
+    private void exportRecipes(List<RecipeModel> recipesToExport) {
+        JSONArray exported = new JSONArray();
+        for (RecipeModel recipe : recipesToExport) {
+            exported.put(new JSONObject(recipe.toMap()));
+        }
+        Intent shareIntent = new Intent(Intent.ACTION_SEND);
+        shareIntent.setType("application/json");
+        shareIntent.putExtra(Intent.EXTRA_SUBJECT, recipesToExport.size() + " recipes from RecipeFinder");
+        shareIntent.putExtra(Intent.EXTRA_TEXT, exported.toString());
+        startActivity(Intent.createChooser(shareIntent, "Export recipes"));
+        Log.d(TAG, "exportRecipes: Exported " + recipesToExport.size() + " recipes.");
+        if (selectionActionMode != null) {
+            selectionActionMode.finish();
+        }
+    }
+
+    private void showDeleteConfirmationDialog(RecipeModel recipeToDelete) {
+        String displayTitle = recipeToDelete.getCustomTitle();
+        if (displayTitle == null || displayTitle.isEmpty()) {
+            displayTitle = recipeToDelete.getTitle();
+        }
+        Log.d(TAG, "showDeleteConfirmationDialog: Confirming deletion for: " + displayTitle);
+
+        // Reverted to original AlertDialog.Builder call
+        new AlertDialog.Builder(requireContext()) // <--- THIS LINE IS REVERTED
+                .setTitle("Remove Recipe")
+                .setMessage("Are you sure you want to remove \"" + displayTitle + "\" from your saved recipes?")
+                .setPositiveButton("Remove", (dialog, which) -> deleteSavedRecipe(recipeToDelete.getFirebaseDocId()))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void deleteSavedRecipe(String docId) {
+        Log.d(TAG, "deleteSavedRecipe: Attempting to delete Firebase ID: " + docId);
+        if (uid == null || docId == null) {
+            Toast.makeText(requireContext(), "Error: Cannot delete recipe (missing user/doc ID).", Toast.LENGTH_SHORT).show();
+            Log.e(TAG, "deleteSavedRecipe: UID or Doc ID is null.");
+            return;
+        }
+
+        // Removed locally right away; the repository deletes it from Firestore in the background
+        // and the snapshot listener then drops the row
+        repository.deleteRecipe(docId, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                if (getContext() != null) {
+                    Toast.makeText(requireContext(), "Recipe removed successfully!", Toast.LENGTH_SHORT).show();
+                }
+                Log.d(TAG, "deleteSavedRecipe: Queued delete for Firebase ID: " + docId);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (getContext() != null) {
+                    Toast.makeText(requireContext(), "Error removing recipe: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                }
+                Log.e(TAG, "Error deleting recipe Firebase ID " + docId + ": " + e.getMessage(), e);
+            }
+        });
+    }
+}
\ No newline at end of file
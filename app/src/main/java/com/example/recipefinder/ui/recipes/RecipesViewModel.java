@@ -0,0 +1,325 @@
+package com.example.recipefinder.ui.recipes;
+
+import android.app.Application;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.SavedRecipesCatalog;
+import com.example.recipefinder.data.RecipeCache;
+import com.example.recipefinder.data.RecipeRepository;
+import com.example.recipefinder.data.RepositoryCallback;
+import com.example.recipefinder.ingredients.DietTagIndex;
+import com.example.recipefinder.search.RecipeSearchIndex;
+import com.example.recipefinder.search.SearchIndexFiles;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The Recipes tab's list state: the recipes in the user's catalog, whether it is loading, the last load
+ * error, and the search and diet indexes built from them. Scoped to MainActivity, so a rotation, a theme
+ * or window-size change, or a trip to another tab re-attaches MyRecipesFragment to what is already in
+ * memory instead of reloading the collection.
+ */
+public class RecipesViewModel extends AndroidViewModel implements SavedRecipesCatalog.Listener {
+
+    private static final String TAG = "RecipesViewModel";
+    // Recipe bodies loaded for each new search at most. A body is about 2.7 KB stored (274,535 bytes for 100
+    // recipes in the list-load benchmark), so a page costs about 140 KB and 50 document reads.
+    private static final int BODY_PAGE_SIZE = 50;
+
+    private final String uid;
+    private final RecipeRepository repository;
+    private final SavedRecipesCatalog catalog;
+
+    private final MutableLiveData<List<RecipeModel>> recipes = new MutableLiveData<>(Collections.emptyList());
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<Boolean> loaded = new MutableLiveData<>(false);
+    private final MutableLiveData<String> error = new MutableLiveData<>(); // null once shown
+    // Bumped each time the indexes catch up with the list, so filtered views can refresh
+    private final MutableLiveData<Integer> indexVersion = new MutableLiveData<>(0);
+
+    // The index is loaded, updated and saved on indexExecutor; queries run on the main thread
+    private final RecipeSearchIndex searchIndex = new RecipeSearchIndex();
+    private final DietTagIndex dietIndex = new DietTagIndex();
+    private final Set<String> indexedDocIds = new HashSet<>();
+    private boolean indexPruned = false; // Recipes deleted since the index was saved were dropped from it
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
+    private int indexUpdates = 0; // Only touched on indexExecutor
+    private final Map<String, Long> bodiesRequested = new HashMap<>(); // docId -> version loaded; indexExecutor only
+    private boolean loadingBodies = false; // indexExecutor only
+    private String bodiesQuery = null; // The search the last page of bodies was loaded for; main thread only
+    private volatile List<RecipeModel> listed = Collections.emptyList(); // The last published list
+
+    public RecipesViewModel(@NonNull Application application) {
+        super(application);
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        uid = currentUser != null ? currentUser.getUid() : null;
+        if (uid == null) {
+            repository = null;
+            catalog = null;
+            return;
+        }
+        repository = RecipeRepository.getInstance(application, uid);
+        catalog = new SavedRecipesCatalog(FirebaseFirestore.getInstance(), uid, this);
+        // Restore the persisted search index in the background; updates queue up behind the load
+        indexExecutor.execute(() -> SearchIndexFiles.load(application, uid, searchIndex));
+    }
+
+    public LiveData<List<RecipeModel>> getRecipes() {
+        return recipes;
+    }
+
+    public LiveData<Boolean> isLoading() {
+        return loading;
+    }
+
+    // True once the catalog has been read, so an empty list means there are no recipes
+    public LiveData<Boolean> isLoaded() {
+        return loaded;
+    }
+
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    public LiveData<Integer> getIndexVersion() {
+        return indexVersion;
+    }
+
+    // So the same error is not shown again when the screen re-attaches
+    public void onErrorShown() {
+        error.setValue(null);
+    }
+
+    // Attaches the catalog listener; a no-op if it stayed attached through a configuration change
+    public void start() {
+        if (catalog != null) {
+            catalog.start();
+        }
+    }
+
+    // The listener is kept through a configuration change: the recreated screen comes straight back and
+    // would otherwise re-attach it
+    public void stop(boolean changingConfigurations) {
+        if (catalog != null && !changingConfigurations) {
+            catalog.stop();
+        }
+    }
+
+    // Titles match straight away. Each new search also loads one page of bodies not indexed yet, and
+    // getIndexVersion() changes once they are; the same search refreshed or typed further loads nothing more,
+    // so body text becomes searchable a page per search rather than the whole collection on one keystroke
+    public List<RecipeSearchIndex.Result> search(String query, int maxResults) {
+        if (bodiesQuery == null || !query.startsWith(bodiesQuery)) {
+            bodiesQuery = query;
+            indexExecutor.execute(this::indexNextBodies);
+        }
+        return searchIndex.search(query, maxResults);
+    }
+
+    public DietTagIndex getDietIndex() {
+        return dietIndex;
+    }
+
+    public void saveSearchIndex() {
+        if (uid == null) {
+            return;
+        }
+        final Application application = getApplication();
+        indexExecutor.execute(() -> SearchIndexFiles.save(application, uid, searchIndex));
+    }
+
+    @Override
+    public void onRecipesChanged(List<RecipeModel> changed) {
+        Log.d(TAG, "onRecipesChanged: " + changed.size() + " recipes.");
+        // The list's summaries evict cached recipes that changed elsewhere
+        RecipeCache.getInstance().putAll(changed);
+        loading.setValue(false);
+        loaded.setValue(true);
+        setRecipes(changed);
+        if (!indexPruned && catalog.isComplete()) {
+            indexPruned = true;
+            pruneIndexes(indexedDocIds);
+        }
+    }
+
+    @Override
+    public void onCatalogError(Exception e) {
+        Log.e(TAG, "onCatalogError: " + e.getMessage(), e);
+        loading.setValue(false);
+        error.setValue(e.getMessage());
+    }
+
+    @Override
+    public void onCatalogLoading() {
+        loading.setValue(!catalog.isLoaded());
+    }
+
+    // Drops deleted recipes right away; the snapshot listeners confirm it later
+    public void removeRecipes(Set<String> docIds) {
+        List<RecipeModel> current = recipes.getValue();
+        List<RecipeModel> remaining = new ArrayList<>(current.size());
+        for (RecipeModel recipe : current) {
+            if (!docIds.contains(recipe.getFirebaseDocId())) {
+                remaining.add(recipe);
+            }
+        }
+        setRecipes(remaining);
+    }
+
+    // Swaps updated copies into the list in one pass
+    public void replaceRecipes(List<RecipeModel> updated) {
+        Map<String, RecipeModel> updatedById = new HashMap<>();
+        for (RecipeModel recipe : updated) {
+            updatedById.put(recipe.getFirebaseDocId(), recipe);
+        }
+        List<RecipeModel> current = recipes.getValue();
+        List<RecipeModel> merged = new ArrayList<>(current.size());
+        for (RecipeModel recipe : current) {
+            RecipeModel replacement = updatedById.get(recipe.getFirebaseDocId());
+            merged.add(replacement != null ? replacement : recipe);
+        }
+        setRecipes(merged);
+    }
+
+    // Each published list is a new instance that is never mutated, so observers can hand it to a ListAdapter
+    private void setRecipes(List<RecipeModel> list) {
+        List<RecipeModel> snapshot = Collections.unmodifiableList(new ArrayList<>(list));
+        listed = snapshot;
+        updateIndexes(snapshot);
+        recipes.setValue(snapshot);
+    }
+
+    // Re-indexes only recipes whose content changed, and drops recipes that disappeared from the list
+    private void updateIndexes(List<RecipeModel> snapshot) {
+        Set<String> currentIds = new HashSet<>();
+        for (RecipeModel recipe : snapshot) {
+            currentIds.add(recipe.getFirebaseDocId());
+        }
+        final List<String> removedIds = new ArrayList<>();
+        for (String docId : indexedDocIds) {
+            if (!currentIds.contains(docId)) {
+                removedIds.add(docId);
+            }
+        }
+        indexedDocIds.clear();
+        indexedDocIds.addAll(currentIds);
+
+        indexExecutor.execute(() -> {
+            // The list holds summaries, indexed by title and tags; bodies are only loaded once the user searches
+            for (RecipeModel recipe : snapshot) {
+                searchIndex.addOrUpdate(recipe);
+            }
+            for (String docId : removedIds) {
+                searchIndex.remove(docId);
+                dietIndex.remove(docId);
+            }
+            // Diet tags come with the summary documents
+            dietIndex.putAll(snapshot);
+            indexVersion.postValue(++indexUpdates);
+        });
+    }
+
+    // The index saved by an earlier session can hold recipes deleted since, which no list this session
+    // ever showed; drops every indexed recipe the complete list does not have
+    private void pruneIndexes(Set<String> listedIds) {
+        final Set<String> keep = new HashSet<>(listedIds);
+        indexExecutor.execute(() -> {
+            int removed = 0;
+            for (String docId : searchIndex.getDocIds()) {
+                if (!keep.contains(docId)) {
+                    searchIndex.remove(docId);
+                    dietIndex.remove(docId);
+                    removed++;
+                }
+            }
+            Log.d(TAG, "pruneIndexes: removed " + removed + " deleted recipes.");
+            if (removed > 0) {
+                indexVersion.postValue(++indexUpdates);
+            }
+        });
+    }
+
+    // Runs on indexExecutor. Loads the next page of listed recipes whose body is not indexed (from the device
+    // when it has them, else in one remote fetch) and indexes them; a search made while a page is loading adds
+    // none. Once indexed, a recipe is not loaded again until it changes, since the index is saved across sessions.
+    private void indexNextBodies() {
+        if (loadingBodies || repository == null) {
+            return;
+        }
+        final List<RecipeModel> page = new ArrayList<>(BODY_PAGE_SIZE);
+        for (RecipeModel recipe : listed) {
+            if (!searchIndex.hasBody(recipe)
+                    && !Long.valueOf(recipe.getLastModified()).equals(bodiesRequested.get(recipe.getFirebaseDocId()))) {
+                bodiesRequested.put(recipe.getFirebaseDocId(), recipe.getLastModified());
+                page.add(recipe);
+                if (page.size() == BODY_PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+        if (page.isEmpty()) {
+            return;
+        }
+        loadingBodies = true;
+        Log.d(TAG, "indexNextBodies: Loading " + page.size() + " recipes to index.");
+        repository.getWholeRecipes(page, new RepositoryCallback<List<RecipeModel>>() {
+            @Override
+            public void onSuccess(List<RecipeModel> whole) {
+                // Drop any that left the list while they were loading
+                final List<RecipeModel> stillListed = new ArrayList<>(whole.size());
+                for (RecipeModel recipe : whole) {
+                    if (indexedDocIds.contains(recipe.getFirebaseDocId())) {
+                        stillListed.add(recipe);
+                    }
+                }
+                indexExecutor.execute(() -> {
+                    for (RecipeModel recipe : stillListed) {
+                        searchIndex.addOrUpdate(recipe);
+                    }
+                    loadingBodies = false;
+                    indexVersion.postValue(++indexUpdates);
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "indexNextBodies: " + e.getMessage());
+                // Asked for again with the next search
+                indexExecutor.execute(() -> {
+                    for (RecipeModel recipe : page) {
+                        bodiesRequested.remove(recipe.getFirebaseDocId());
+                    }
+                    loadingBodies = false;
+                });
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        Log.d(TAG, "onCleared: Detaching listeners.");
+        if (catalog != null) {
+            catalog.stop();
+        }
+        saveSearchIndex();
+        indexExecutor.shutdown(); // Lets the pending save finish
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.recipefinder.backup;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class RecipeBackupTest {
+
+    private static RecipeModel recipe(int i) {
+        RecipeModel recipe = new RecipeModel(String.format("doc-%05d", i), i, "Recipe " + i,
+                "https://img/" + i + ".jpg", null, "Notes é中 " + i, "<b>Summary</b>",
+                "1 cup flour\n2 eggs", "Mix.\nBake.");
+        recipe.setLastModified(1_700_000_000_000L + i);
+        if (i % 2 == 0) {
+            recipe.setTags(Arrays.asList("quick", "veg"));
+        }
+        return recipe;
+    }
+
+    private static List<RecipeModel> recipes(int count) {
+        List<RecipeModel> recipes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            recipes.add(recipe(i));
+        }
+        return recipes;
+    }
+
+    // Pages through a sorted list the way the Firestore query does
+    private static RecipeBackup.PageSource pagesOf(List<RecipeModel> recipes, List<Integer> pageSizes) {
+        return (startAfter, limit) -> {
+            List<RecipeModel> page = new ArrayList<>();
+            for (RecipeModel recipe : recipes) {
+                if (page.size() == limit) break;
+                if (startAfter == null || recipe.getFirebaseDocId().compareTo(startAfter) > 0) {
+                    page.add(recipe);
+                }
+            }
+            pageSizes.add(page.size());
+            return page;
+        };
+    }
+
+    private static byte[] export(List<RecipeModel> recipes) throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        long written = RecipeBackup.export(pagesOf(recipes, new ArrayList<>()), file, done -> { }, new AtomicBoolean());
+        assertEquals(recipes.size(), written);
+        return file.toByteArray();
+    }
+
+    private static List<RecipeModel> restore(byte[] file) throws IOException {
+        List<RecipeModel> restored = new ArrayList<>();
+        RecipeBackup.restore(new ByteArrayInputStream(file), restored::addAll, done -> { }, new AtomicBoolean());
+        return restored;
+    }
+
+    @Test
+    public void roundTrip_keepsEveryField() throws IOException {
+        List<RecipeModel> original = recipes(3);
+        original.get(1).setInstructions(null);
+        original.get(2).setSummary(new String(new char[70_000]).replace('\0', 'x')); // Longer than writeUTF allows
+
+        assertEquals(original, restore(export(original)));
+    }
+
+    @Test
+    public void export_pagesThroughCollection() throws IOException {
+        List<Integer> pageSizes = new ArrayList<>();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+
+        long written = RecipeBackup.export(pagesOf(recipes(450), pageSizes), file, done -> { }, new AtomicBoolean());
+
+        assertEquals(450, written);
+        assertEquals(Arrays.asList(200, 200, 50), pageSizes);
+        assertEquals(450, restore(file.toByteArray()).size());
+    }
+
+    @Test
+    public void restore_deliversChunks() throws IOException {
+        byte[] file = export(recipes(1000));
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        long restored = RecipeBackup.restore(new ByteArrayInputStream(file),
+                chunk -> chunkSizes.add(chunk.size()), done -> { }, new AtomicBoolean());
+
+        assertEquals(1000, restored);
+        assertEquals(Arrays.asList(400, 400, 200), chunkSizes);
+    }
+
+    @Test
+    public void restore_rejectsTruncatedFile() throws IOException {
+        byte[] full = export(recipes(450));
+        byte[] cut = Arrays.copyOf(full, full.length / 2);
+        try {
+            restore(cut);
+            fail("Truncated backup restored");
+        } catch (IOException expected) {
+            // GZIP or the record reader notices the missing end
+        }
+    }
+
+    @Test
+    public void cancelledExport_isNotARestorableBackup() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+
+        long written = RecipeBackup.export(pagesOf(recipes(450), new ArrayList<>()), file, done -> { },
+                new AtomicBoolean(true));
+
+        assertEquals(-1, written);
+        try {
+            restore(file.toByteArray());
+            fail("Cancelled backup restored");
+        } catch (IOException expected) {
+            // No trailer
+        }
+    }
+
+    @Test
+    public void restore_rejectsOtherFiles() {
+        try {
+            restore("{\"recipes\": []}".getBytes());
+            fail("Non-backup file accepted");
+        } catch (IOException expected) {
+            // Not gzip at all
+        }
+    }
+
+    @Test
+    public void compressesRepetitiveText() throws IOException {
+        List<RecipeModel> many = recipes(500);
+        long rawChars = 0;
+        for (RecipeModel recipe : many) {
+            rawChars += recipe.getSummary().length() + recipe.getIngredients().length() + recipe.getInstructions().length()
+                    + recipe.getTitle().length() + recipe.getImageUrl().length() + recipe.getUserNotes().length();
+        }
+        assertTrue(export(many).length < rawChars / 3);
+    }
+}
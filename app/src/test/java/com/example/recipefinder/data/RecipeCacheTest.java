@@ -0,0 +1,71 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecipeCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedEntry() {
+        RecipeCache cache = new RecipeCache(2);
+        cache.put(recipe("a"));
+        cache.put(recipe("b"));
+        cache.get("a"); // "b" is now the least recently used
+        cache.put(recipe("c"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        RecipeCache cache = new RecipeCache(4);
+        cache.put(recipe("a"));
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void returnsCopiesSoCallersCannotMutateEntries() {
+        RecipeCache cache = new RecipeCache(4);
+        cache.put(recipe("a"));
+        cache.get("a").setTitle("Changed");
+
+        assertEquals("a", cache.get("a").getTitle());
+    }
+
+    @Test
+    public void summaryOnlyRecipeEvictsOlderEntryWithoutReplacingIt() {
+        RecipeCache cache = new RecipeCache(4);
+        RecipeModel cached = recipe("a");
+        cached.setLastModified(100);
+        cache.put(cached);
+        cache.put(summary(cached, 100));
+        assertNotNull(cache.get("a"));
+        assertFalse(cache.get("a").isSummaryOnly());
+
+        cache.put(summary(cached, 200));
+        assertNull(cache.get("a"));
+        cache.put(summary(cached, 300));
+        assertNull(cache.get("a"));
+    }
+
+    private static RecipeModel summary(RecipeModel recipe, long lastModified) {
+        RecipeModel changed = recipe.copy();
+        changed.setLastModified(lastModified);
+        return RecipeModel.summaryFromMap(changed.getFirebaseDocId(), RecipeDocumentLayout.summaryOf(changed.toMap()));
+    }
+
+    private static RecipeModel recipe(String docId) {
+        return new RecipeModel(docId, 0, docId, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RecipeCatalogTest {
+
+    @Test
+    public void plan_savesWholeEntriesAndListsThemInDocumentIdOrder() {
+        RecipeCatalog catalog = new RecipeCatalog("user");
+        Map<String, RecipeCatalog.ShardWrite> plan = catalog.plan(saves(recipe("b", "Soup"), recipe("a", "Curry")),
+                noUpdates(), Collections.<String>emptyList());
+
+        assertEquals(Collections.singleton("0"), plan.keySet());
+        Map<String, Object> entry = plan.get("0").replaced.get("a");
+        assertEquals("Curry", entry.get(RecipeCatalog.TITLE));
+        assertEquals(100L, entry.get(RecipeCatalog.LAST_MODIFIED));
+        assertFalse(entry.containsKey("ingredients"));
+
+        List<RecipeModel> listed = catalog.getRecipes();
+        assertEquals(2, listed.size());
+        assertEquals("a", listed.get(0).getFirebaseDocId());
+        assertEquals("Curry", listed.get(0).getTitle());
+        assertTrue(listed.get(0).isSummaryOnly());
+    }
+
+    @Test
+    public void plan_mergesUpdatedFieldsIntoTheShardHoldingTheRecipe() {
+        RecipeCatalog catalog = new RecipeCatalog("user");
+        catalog.setShard("0", shardOf(recipe("a", "Curry")));
+        catalog.setShard("1", Collections.emptyMap());
+
+        Map<String, Object> changed = new HashMap<>();
+        changed.put("customTitle", "Friday curry");
+        changed.put("lastModified", 200L);
+        Map<String, RecipeCatalog.ShardWrite> plan = catalog.plan(noUpdates(),
+                Collections.singletonMap("a", changed), Collections.<String>emptyList());
+
+        assertEquals(Collections.singleton("0"), plan.keySet());
+        assertEquals(2, plan.get("0").merged.get("a").size());
+        RecipeModel listed = catalog.getRecipes().get(0);
+        assertEquals("Curry", listed.getTitle());
+        assertEquals("Friday curry", listed.getCustomTitle());
+        assertEquals(200L, listed.getLastModified());
+    }
+
+    @Test
+    public void plan_startsNewShardWhenTheLastOneIsFull() {
+        RecipeCatalog catalog = new RecipeCatalog("user");
+        int perShard = 0;
+        while (!catalog.plan(saves(recipe("r" + perShard, longTitle(perShard))), noUpdates(),
+                Collections.<String>emptyList()).containsKey("1")) {
+            perShard++;
+        }
+
+        assertEquals(2, catalog.getShardCount());
+        assertTrue(perShard > 100);
+        assertTrue(catalog.getShardBytes("0") <= RecipeCatalog.SHARD_LIMIT_BYTES);
+        assertEquals(perShard + 1, catalog.getRecipes().size());
+    }
+
+    @Test
+    public void plan_deleteRemovesEveryCopyAndReadersKeepTheNewest() {
+        RecipeCatalog catalog = new RecipeCatalog("user");
+        RecipeModel older = recipe("a", "Old title");
+        RecipeModel newer = recipe("a", "New title");
+        newer.setLastModified(300);
+        catalog.setShard("0", shardOf(newer));
+        catalog.setShard("1", shardOf(older));
+
+        assertEquals("New title", catalog.getRecipes().get(0).getTitle());
+        assertTrue(catalog.contains("a"));
+
+        Map<String, RecipeCatalog.ShardWrite> plan = catalog.plan(noUpdates(), noUpdates(),
+                Collections.singletonList("a"));
+        assertEquals(Arrays.asList("0", "1"), new ArrayList<>(plan.keySet()));
+        assertEquals(Collections.singletonList("a"), plan.get("1").removed);
+        assertTrue(catalog.getRecipes().isEmpty());
+        assertFalse(catalog.contains("a"));
+    }
+
+    @Test
+    public void saveBeforeBuild_leavesCatalogUnbuiltUntilTheBuildMergesEveryRecipe() {
+        // A save before the build writes a shard that lists only itself
+        RecipeCatalog writer = new RecipeCatalog("user");
+        Map<String, RecipeCatalog.ShardWrite> early = writer.plan(saves(recipe("new", "Stew")), noUpdates(),
+                Collections.<String>emptyList());
+        Map<String, Object> stored = new HashMap<String, Object>(early.get("0").replaced);
+        RecipeCatalog listed = new RecipeCatalog("user");
+        listed.setShard("0", stored);
+        assertEquals(1, listed.getShardCount());
+        assertFalse(listed.isBuilt());
+
+        // The build plans every summary from scratch and is merged into the stored shard
+        Map<String, RecipeCatalog.ShardWrite> build = new RecipeCatalog("user").plan(
+                saves(recipe("old", "Curry"), recipe("new", "Stew")), noUpdates(), Collections.<String>emptyList());
+        stored.putAll(build.get("0").replaced);
+        listed.setShard("0", stored);
+        listed.setBuilt(true);
+
+        assertTrue(listed.isBuilt());
+        assertEquals(Arrays.asList("new", "old"), docIdsOf(listed.getRecipes()));
+
+        listed.clear();
+        assertFalse(listed.isBuilt());
+        assertEquals(0, listed.getShardCount());
+    }
+
+    @Test
+    public void plan_keepsTagsAndCountsThemInTheShardSize() {
+        RecipeCatalog catalog = new RecipeCatalog("user");
+        catalog.plan(saves(recipe("a", "Curry")), noUpdates(), Collections.<String>emptyList());
+        long untagged = catalog.getShardBytes("0");
+
+        RecipeModel tagged = recipe("a", "Curry");
+        tagged.setTags(Arrays.asList("weeknight", "freezer friendly"));
+        Map<String, RecipeCatalog.ShardWrite> plan = catalog.plan(saves(tagged), noUpdates(),
+                Collections.<String>emptyList());
+
+        assertEquals(Arrays.asList("weeknight", "freezer friendly"), plan.get("0").replaced.get("a").get(RecipeCatalog.TAGS));
+        assertEquals(Arrays.asList("weeknight", "freezer friendly"), catalog.getRecipes().get(0).getTags());
+        assertTrue(catalog.getShardBytes("0") > untagged);
+    }
+
+    @Test
+    public void hasCurrentEntry_onlyForWholeEntriesAtLeastThatNew() {
+        RecipeCatalog catalog = new RecipeCatalog("user");
+        catalog.setShard("0", shardOf(recipe("a", "Curry")));
+        Map<String, Object> partial = new HashMap<>();
+        partial.put(RecipeCatalog.LAST_MODIFIED, 300L);
+        catalog.setShard("1", Collections.singletonMap("b", partial));
+
+        assertTrue(catalog.hasCurrentEntry("a", 100L));
+        assertFalse(catalog.hasCurrentEntry("a", 200L));
+        assertFalse(catalog.hasCurrentEntry("b", 100L));
+        assertFalse(catalog.hasCurrentEntry("c", 0L));
+    }
+
+    @Test
+    public void recipeOf_skipsPartlyWrittenEntry() {
+        Map<String, Object> partial = new HashMap<>();
+        partial.put(RecipeCatalog.LAST_MODIFIED, 100L);
+        assertNull(RecipeCatalog.recipeOf("a", partial));
+    }
+
+    private static Map<String, Object> shardOf(RecipeModel... recipes) {
+        Map<String, Object> entries = new HashMap<>();
+        for (RecipeModel recipe : recipes) {
+            entries.put(recipe.getFirebaseDocId(), RecipeCatalog.entryOf(recipe.toMap()));
+        }
+        return entries;
+    }
+
+    private static Map<String, Map<String, Object>> saves(RecipeModel... recipes) {
+        Map<String, Map<String, Object>> saves = new HashMap<>();
+        for (RecipeModel recipe : recipes) {
+            saves.put(recipe.getFirebaseDocId(), recipe.toMap());
+        }
+        return saves;
+    }
+
+    private static List<String> docIdsOf(List<RecipeModel> recipes) {
+        List<String> docIds = new ArrayList<>();
+        for (RecipeModel recipe : recipes) {
+            docIds.add(recipe.getFirebaseDocId());
+        }
+        return docIds;
+    }
+
+    private static Map<String, Map<String, Object>> noUpdates() {
+        return Collections.emptyMap();
+    }
+
+    private static String longTitle(int i) {
+        StringBuilder title = new StringBuilder("Recipe " + i);
+        while (title.length() < 2000) {
+            title.append(" with a very long name");
+        }
+        return title.toString();
+    }
+
+    private static RecipeModel recipe(String docId, String title) {
+        RecipeModel recipe = new RecipeModel(docId, 0, title, "https://img.example.com/" + docId + ".jpg", null,
+                null, null, "1 cup rice", "Simmer.");
+        recipe.setLastModified(100);
+        recipe.parseForSave();
+        return recipe;
+    }
+}
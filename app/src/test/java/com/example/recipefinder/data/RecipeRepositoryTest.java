@@ -0,0 +1,842 @@
+package com.example.recipefinder.data;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests for RecipeRepository, using an in-memory local store and an in-memory fake of Firestore.
+ * Both executors run tasks inline, so every call completes before it returns.
+ */
+public class RecipeRepositoryTest {
+
+    private InMemoryLocalStore localStore;
+    private FakeRemote remote;
+    private RecipeCache cache;
+    private long now;
+    private RecipeRepository repository;
+    private List<Long> scheduledDelays;
+    private List<Runnable> scheduledTasks;
+
+    @Before
+    public void setUp() {
+        localStore = new InMemoryLocalStore();
+        remote = new FakeRemote();
+        cache = new RecipeCache(16);
+        now = 1000;
+        scheduledDelays = new ArrayList<>();
+        scheduledTasks = new ArrayList<>();
+        repository = new RecipeRepository(localStore, remote, cache, Runnable::run, Runnable::run, () -> now,
+                (task, delayMillis) -> {
+                    scheduledDelays.add(delayMillis);
+                    scheduledTasks.add(task);
+                });
+    }
+
+    @Test
+    public void saveRecipe_writesLocallyAndFlushesToRemote() {
+        String[] savedId = new String[1];
+        repository.saveRecipe(recipe(null, "Pancakes"), callback(id -> savedId[0] = id));
+
+        assertNotNull(savedId[0]);
+        assertEquals("Pancakes", localStore.get(savedId[0]).getTitle());
+        assertEquals("Pancakes", remote.docs.get(savedId[0]).getTitle());
+        assertFalse(localStore.isDirty(savedId[0]));
+    }
+
+    @Test
+    public void saveRecipe_staysQueuedWhileOfflineAndFlushesLater() {
+        remote.offline = true;
+        String[] savedId = new String[1];
+        repository.saveRecipe(recipe(null, "Soup"), callback(id -> savedId[0] = id));
+
+        assertTrue(localStore.isDirty(savedId[0]));
+        assertFalse(remote.docs.containsKey(savedId[0]));
+
+        remote.offline = false;
+        repository.flushPendingWrites();
+
+        assertFalse(localStore.isDirty(savedId[0]));
+        assertEquals("Soup", remote.docs.get(savedId[0]).getTitle());
+    }
+
+    @Test
+    public void getRecipe_servesLocalCopyWhenOffline() {
+        localStore.put(recipe("a", "Local"), false);
+        remote.offline = true;
+
+        List<RecipeModel> delivered = new ArrayList<>();
+        repository.getRecipe("a", callback(delivered::add));
+
+        assertEquals(1, delivered.size());
+        assertEquals("Local", delivered.get(0).getTitle());
+    }
+
+    @Test
+    public void getRecipe_deliversNewerServerCopyAfterLocalCopy() {
+        RecipeModel stale = recipe("a", "Old");
+        stale.setLastModified(100);
+        localStore.put(stale, false);
+        RecipeModel fresh = recipe("a", "New");
+        fresh.setLastModified(200);
+        remote.docs.put("a", fresh);
+
+        List<RecipeModel> delivered = new ArrayList<>();
+        repository.getRecipe("a", callback(delivered::add));
+
+        assertEquals(2, delivered.size());
+        assertEquals("Old", delivered.get(0).getTitle());
+        assertEquals("New", delivered.get(1).getTitle());
+        assertEquals("New", localStore.get("a").getTitle());
+    }
+
+    @Test
+    public void getRecipe_cacheHitSkipsLocalAndRemote() {
+        cache.put(recipe("a", "Cached"));
+        remote.offline = true; // Any remote call would fail the callback
+
+        List<RecipeModel> delivered = new ArrayList<>();
+        repository.getRecipe("a", callback(delivered::add));
+
+        assertEquals(1, delivered.size());
+        assertEquals("Cached", delivered.get(0).getTitle());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void saveAndDelete_keepCacheCurrent() {
+        String[] savedId = new String[1];
+        repository.saveRecipe(recipe(null, "Fresh"), callback(id -> savedId[0] = id));
+        assertEquals("Fresh", cache.get(savedId[0]).getTitle());
+
+        repository.deleteRecipe(savedId[0], null);
+        assertNull(cache.get(savedId[0]));
+    }
+
+    @Test
+    public void syncFromRemote_newerLocalEditWins() {
+        remote.offline = true;
+        now = 500;
+        RecipeModel local = recipe("a", "Local edit");
+        repository.saveRecipe(local, null);
+
+        RecipeModel server = recipe("a", "Server edit");
+        server.setLastModified(400);
+        remote.docs.put("a", server);
+        remote.offline = false;
+
+        repository.syncFromRemote(null);
+
+        assertEquals("Local edit", localStore.get("a").getTitle());
+        assertEquals("Local edit", remote.docs.get("a").getTitle());
+    }
+
+    @Test
+    public void syncFromRemote_newerServerEditWins() {
+        remote.offline = true;
+        now = 300;
+        repository.saveRecipe(recipe("a", "Local edit"), null);
+
+        RecipeModel server = recipe("a", "Server edit");
+        server.setLastModified(400);
+        remote.docs.put("a", server);
+        remote.offline = false;
+
+        repository.syncFromRemote(null);
+
+        assertEquals("Server edit", localStore.get("a").getTitle());
+        assertFalse(localStore.isDirty("a"));
+    }
+
+    @Test
+    public void syncFromRemote_dropsCleanRowsDeletedOnServer() {
+        localStore.put(recipe("gone", "Deleted elsewhere"), false);
+        remote.docs.put("kept", recipe("kept", "Still here"));
+
+        repository.syncFromRemote(null);
+
+        assertNull(localStore.get("gone"));
+        assertNotNull(localStore.get("kept"));
+    }
+
+    @Test
+    public void syncFromRemote_readsOnlyChangesSinceTheWatermark() {
+        remote.write(recipe("a", "Curry"));
+        remote.write(recipe("b", "Soup"));
+        repository.syncFromRemote(null);
+        assertEquals(0, remote.lastChangedSince);
+        assertEquals(2, localStore.getSyncWatermark());
+
+        remote.write(recipe("c", "Stew"));
+        remote.fetchedIds.clear();
+        repository.syncFromRemote(null);
+
+        assertEquals(2, remote.lastChangedSince);
+        assertEquals(2, remote.lastChangedCount); // "b" again, since the watermark is inclusive, and "c"
+        assertEquals(Collections.singletonList("c"), remote.fetchedIds); // "b" is unchanged locally
+        assertEquals(3, localStore.getSyncWatermark());
+        assertEquals(3, localStore.getAll().size());
+    }
+
+    @Test
+    public void syncFromRemote_appliesDeletionRecordsButKeepsUnsentLocalEdits() {
+        remote.write(recipe("a", "Curry"));
+        remote.write(recipe("b", "Soup"));
+        repository.syncFromRemote(null);
+
+        remote.offline = true;
+        now = 2000;
+        repository.saveRecipe(recipe("b", "Soup, edited offline"), null);
+        remote.offline = false;
+        remote.delete("a");
+        remote.delete("b");
+        repository.syncFromRemote(null);
+
+        assertTrue(remote.lastChangedSince > 0);
+        assertNull(localStore.get("a"));
+        assertEquals("Soup, edited offline", localStore.get("b").getTitle());
+        assertEquals("Soup, edited offline", remote.docs.get("b").getTitle());
+    }
+
+    @Test
+    public void syncFromRemote_readsEverythingOnceTheWatermarkOutlivesDeletionRecords() {
+        remote.write(recipe("a", "Curry"));
+        remote.write(recipe("b", "Soup"));
+        repository.syncFromRemote(null);
+        assertEquals(now - RecipeRemoteDataSource.TOMBSTONE_RETENTION_MS, remote.lastPurgeCutoff);
+
+        // Deleted, and its deletion record purged, while this device was away
+        remote.docs.remove("a");
+        remote.updatedAt.remove("a");
+        now = localStore.getSyncWatermark() + RecipeRepository.FULL_SYNC_AFTER_MS + 1;
+        repository.syncFromRemote(null);
+
+        assertEquals(0, remote.lastChangedSince);
+        assertNull(localStore.get("a"));
+        assertNotNull(localStore.get("b"));
+    }
+
+    @Test
+    public void syncFromRemote_fullSyncFetchesOnlyRecipesThatDifferLocally() {
+        RecipeModel same = recipe("same", "Curry");
+        same.setLastModified(100);
+        localStore.put(same, false);
+        remote.write(same);
+        RecipeModel older = recipe("edited", "Soup");
+        older.setLastModified(100);
+        localStore.put(older, false);
+        RecipeModel edited = recipe("edited", "Soup, edited elsewhere");
+        edited.setLastModified(200);
+        remote.write(edited);
+        remote.write(recipe("new", "Stew"));
+
+        repository.syncFromRemote(null);
+
+        assertEquals(0, remote.lastChangedSince);
+        assertEquals(new HashSet<>(Arrays.asList("edited", "new")), new HashSet<>(remote.fetchedIds));
+        assertEquals("Soup, edited elsewhere", localStore.get("edited").getTitle());
+        assertNotNull(localStore.get("new"));
+        assertEquals(1, localStore.get("same").getUpdatedAt());
+    }
+
+    @Test
+    public void syncFromRemote_purgesDeletionRecordsAtMostOnceADay() {
+        remote.write(recipe("a", "Curry"));
+        remote.delete("a");
+        now = 5000;
+        repository.syncFromRemote(null);
+        repository.syncFromRemote(null);
+        assertEquals(1, remote.purgeCount);
+
+        now += RecipeRepository.PURGE_INTERVAL_MS;
+        repository.syncFromRemote(null);
+        assertEquals(2, remote.purgeCount);
+        assertEquals(now - RecipeRemoteDataSource.TOMBSTONE_RETENTION_MS, remote.lastPurgeCutoff);
+    }
+
+    @Test
+    public void deleteRecipe_removesLocallyAndRemotely() {
+        remote.docs.put("a", recipe("a", "Doomed"));
+        localStore.put(recipe("a", "Doomed"), false);
+
+        repository.deleteRecipe("a", null);
+
+        assertNull(localStore.get("a"));
+        assertFalse(remote.docs.containsKey("a"));
+        assertTrue(localStore.getPendingWrites().isEmpty());
+    }
+
+    @Test
+    public void deleteRecipes_sendsChunkedBatches() {
+        List<String> docIds = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            String docId = String.format("r%04d", i);
+            docIds.add(docId);
+            remote.docs.put(docId, recipe(docId, "Recipe " + i));
+            localStore.put(recipe(docId, "Recipe " + i), false);
+        }
+
+        repository.deleteRecipes(docIds.subList(0, 1100), null);
+
+        assertEquals(5, remote.batchCount); // 4 x 240 + 140
+        assertEquals(100, remote.docs.size());
+        assertEquals(100, localStore.getAll().size());
+        assertTrue(localStore.getPendingWrites().isEmpty());
+    }
+
+    @Test
+    public void importRecipes_uploadsInBatchesWithoutOverlay() {
+        List<RecipeModel> imported = new ArrayList<>();
+        for (int i = 0; i < 750; i++) {
+            imported.add(recipe(String.format("import-%04d", i), "Imported " + i));
+        }
+
+        repository.importRecipes(imported, null);
+
+        assertEquals(4, remote.batchCount); // 3 x 240 + 30
+        assertEquals(750, remote.docs.size());
+        assertTrue(localStore.getPendingWrites().isEmpty());
+        assertSame(Collections.<RecipeModel>emptyList(), repository.applyPendingWrites(Collections.<RecipeModel>emptyList()));
+    }
+
+    @Test
+    public void batchOverTooManyCatalogShards_isSplitAndSentRightAway() {
+        remote.maxCatalogRecipes = 30;
+        List<RecipeModel> imported = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            imported.add(recipe(String.format("import-%04d", i), "Imported " + i));
+        }
+
+        repository.importRecipes(imported, null);
+
+        assertEquals(2, remote.rejectedBatches); // 100, then 50
+        assertEquals(4, remote.batchCount); // 4 x 25
+        assertEquals(100, remote.docs.size());
+        assertTrue(localStore.getPendingWrites().isEmpty());
+        assertTrue(scheduledDelays.isEmpty());
+    }
+
+    @Test
+    public void saveRecipes_tagsReachRemoteInOneBatch() {
+        List<RecipeModel> tagged = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecipeModel recipe = recipe("t" + i, "Tagged " + i);
+            localStore.put(recipe, false);
+            recipe.addTag("weeknight");
+            tagged.add(recipe);
+        }
+
+        repository.saveRecipes(tagged, null);
+
+        assertEquals(1, remote.batchCount);
+        assertEquals(Collections.singletonList("weeknight"), remote.docs.get("t2").getTags());
+        assertEquals(Collections.singletonList("weeknight"), cache.get("t0").getTags());
+        assertFalse(localStore.isDirty("t1"));
+    }
+
+    @Test
+    public void failedUpload_retriesWithBackoff() {
+        remote.offline = true;
+        String[] savedId = new String[1];
+        repository.saveRecipe(recipe(null, "Stew"), callback(id -> savedId[0] = id));
+        assertEquals(Collections.singletonList(RecipeRepository.RETRY_BASE_DELAY_MS), scheduledDelays);
+
+        scheduledTasks.get(0).run(); // Still offline: the next retry waits twice as long
+        assertEquals(2 * RecipeRepository.RETRY_BASE_DELAY_MS, (long) scheduledDelays.get(1));
+
+        remote.offline = false;
+        scheduledTasks.get(1).run();
+        assertEquals("Stew", remote.docs.get(savedId[0]).getTitle());
+        assertFalse(localStore.isDirty(savedId[0]));
+        assertEquals(2, scheduledDelays.size());
+    }
+
+    @Test
+    public void repeatedEdits_coalesceIntoOneUpload() {
+        remote.offline = true;
+        String[] savedId = new String[1];
+        repository.saveRecipe(recipe(null, "Draft 1"), callback(id -> savedId[0] = id));
+        for (int i = 2; i <= 5; i++) {
+            now += 10;
+            repository.saveRecipe(recipe(savedId[0], "Draft " + i), null);
+        }
+        assertEquals(1, localStore.getPendingWrites().size());
+
+        remote.offline = false;
+        repository.flushPendingWrites();
+
+        assertEquals(1, remote.batchCount);
+        assertEquals("Draft 5", remote.docs.get(savedId[0]).getTitle());
+    }
+
+    @Test
+    public void applyPendingWrites_overlaysQueuedChangesUntilUploaded() {
+        RecipeModel serverCopy = recipe("a", "Server");
+        serverCopy.setLastModified(100);
+        RecipeModel doomed = recipe("b", "Doomed");
+        List<RecipeModel> serverList = new ArrayList<>();
+        serverList.add(serverCopy);
+        serverList.add(doomed);
+
+        remote.offline = true;
+        repository.saveRecipe(recipe("a", "Edited"), null);
+        repository.deleteRecipe("b", null);
+        String[] newId = new String[1];
+        repository.saveRecipe(recipe(null, "Brand new"), callback(id -> newId[0] = id));
+
+        List<RecipeModel> shown = repository.applyPendingWrites(serverList);
+        assertEquals(2, shown.size());
+        assertEquals("Edited", shown.get(0).getTitle());
+        assertEquals(newId[0], shown.get(1).getFirebaseDocId());
+
+        remote.offline = false;
+        repository.flushPendingWrites();
+        assertSame(serverList, repository.applyPendingWrites(serverList));
+    }
+
+    @Test
+    public void saveChanges_uploadsOnlyChangedFields() {
+        RecipeModel original = recipe("a", "Curry");
+        original.setInstructions("A very long method...");
+        remote.docs.put("a", original.copy());
+        localStore.put(original, false);
+
+        RecipeModel edited = original.copy();
+        edited.setUserNotes("Less chili");
+        now = 2000;
+        assertTrue(repository.saveChanges(original, edited, null));
+
+        Map<String, Object> sent = remote.lastUpdates.get("a");
+        assertEquals(2, sent.size());
+        assertEquals("Less chili", sent.get("userNotes"));
+        assertEquals(2000L, sent.get("lastModified"));
+        assertEquals("A very long method...", remote.docs.get("a").getInstructions());
+        assertFalse(localStore.isDirty("a"));
+    }
+
+    @Test
+    public void getRecipe_migratesLegacyRecipeOnce() {
+        RecipeModel legacy = legacyRecipe("a", "Curry");
+        localStore.put(legacy, false);
+        remote.docs.put("a", legacy.copy());
+
+        repository.getRecipe("a", callback(recipe -> { }));
+
+        assertEquals(new HashSet<>(Arrays.asList("parsedIngredients", "steps", "dietTags", "parseVersion", "lastModified")),
+                remote.lastUpdates.get("a").keySet());
+        RecipeModel migrated = remote.docs.get("a");
+        assertFalse(migrated.needsParseMigration());
+        assertEquals("tbsp", migrated.getParsedIngredients().get(1).unit);
+        assertFalse(localStore.isDirty("a"));
+        assertFalse(localStore.get("a").needsParseMigration());
+
+        int batches = remote.batchCount;
+        cache.invalidate("a");
+        repository.getRecipe("a", callback(recipe -> { }));
+        assertEquals(batches, remote.batchCount);
+    }
+
+    @Test
+    public void saveChanges_sendsParsedFormWithEditOfLegacyRecipe() {
+        RecipeModel original = legacyRecipe("a", "Curry");
+        remote.docs.put("a", original.copy());
+        localStore.put(original, false);
+
+        RecipeModel edited = original.copy();
+        edited.setUserNotes("Less chili");
+        assertTrue(repository.saveChanges(original, edited, null));
+
+        assertEquals(new HashSet<>(Arrays.asList("userNotes", "parsedIngredients", "steps", "dietTags", "parseVersion", "lastModified")),
+                remote.lastUpdates.get("a").keySet());
+    }
+
+    @Test
+    public void saveChanges_skipsWriteWhenNothingChanged() {
+        RecipeModel original = recipe("a", "Curry");
+        assertFalse(repository.saveChanges(original, original.copy(), null));
+        assertEquals(0, remote.batchCount);
+        assertNull(localStore.get("a"));
+    }
+
+    @Test
+    public void saveChanges_coalescesFieldsAndFallsBackToWholeDocumentWhenGone() {
+        RecipeModel original = recipe("a", "Curry");
+        localStore.put(original, false);
+        remote.offline = true;
+
+        RecipeModel notes = original.copy();
+        notes.setUserNotes("Less chili");
+        repository.saveChanges(original, notes, null);
+        RecipeModel summary = notes.copy();
+        summary.setSummary("Weeknight curry");
+        repository.saveChanges(notes, summary, null);
+        assertEquals(new HashSet<>(Arrays.asList("userNotes", "summary")),
+                localStore.getPendingWrites().get(0).changedFields);
+
+        // Deleted on the server meanwhile: the field update fails, the retry writes the whole recipe
+        remote.offline = false;
+        scheduledTasks.get(0).run();
+        assertFalse(remote.docs.containsKey("a"));
+        scheduledTasks.get(1).run();
+        assertEquals("Weeknight curry", remote.docs.get("a").getSummary());
+        assertEquals("Less chili", remote.docs.get("a").getUserNotes());
+    }
+
+    @Test
+    public void getWholeRecipes_usesLocalCopiesAndFetchesTheRestInListOrder() {
+        RecipeModel local = recipe("a", "Local");
+        local.setLastModified(100);
+        localStore.put(local, false);
+        RecipeModel staleLocal = recipe("b", "Stale");
+        staleLocal.setLastModified(100);
+        localStore.put(staleLocal, false);
+        RecipeModel server = recipe("b", "Server");
+        server.setLastModified(200);
+        remote.docs.put("b", server);
+        RecipeModel whole = recipe("c", "Whole");
+
+        List<RecipeModel> delivered = new ArrayList<>();
+        repository.getWholeRecipes(Arrays.asList(summaryOf(server), whole, summaryOf(local)),
+                callback(delivered::addAll));
+
+        assertEquals(Collections.singletonList("b"), remote.fetchedIds);
+        assertEquals(3, delivered.size());
+        assertEquals("Server", delivered.get(0).getTitle());
+        assertEquals("1 cup rice\n2 tbsp curry paste", delivered.get(0).getIngredients());
+        assertEquals("Whole", delivered.get(1).getTitle());
+        assertEquals("Local", delivered.get(2).getTitle());
+        assertFalse(delivered.get(2).isSummaryOnly());
+        assertEquals("Server", localStore.get("b").getTitle());
+    }
+
+    @Test
+    public void saveRecipe_rejectsSummaryOnlyRecipe() {
+        try {
+            repository.saveRecipe(summaryOf(recipe("a", "Listed")), null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertNull(localStore.get("a"));
+        }
+    }
+
+    @Test
+    public void saveChanges_rejectsSummaryOnlyRecipeBeforeWriting() {
+        RecipeModel listed = summaryOf(recipe("a", "Listed"));
+        RecipeModel edited = listed.copy();
+        edited.addTag("weeknight");
+        try {
+            repository.saveChanges(listed, edited, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, remote.batchCount);
+            assertTrue(localStore.getPendingWrites().isEmpty());
+        }
+    }
+
+    // What the list loads: the summary document alone
+    private static RecipeModel summaryOf(RecipeModel recipe) {
+        return RecipeModel.summaryFromMap(recipe.getFirebaseDocId(), RecipeDocumentLayout.summaryOf(recipe.toMap()));
+    }
+
+    // As stored by the current version, structured form included
+    private static RecipeModel recipe(String docId, String title) {
+        RecipeModel recipe = legacyRecipe(docId, title);
+        recipe.parseForSave();
+        return recipe;
+    }
+
+    // As stored before ingredients and steps were parsed at save time
+    private static RecipeModel legacyRecipe(String docId, String title) {
+        return new RecipeModel(docId, 0, title, null, title, null, null, "1 cup rice\n2 tbsp curry paste", "Simmer.");
+    }
+
+    private static <T> RepositoryCallback<T> callback(Consumer<T> onSuccess) {
+        return new RepositoryCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                onSuccess.accept(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail("Unexpected error: " + e);
+            }
+        };
+    }
+
+    // Firestore stand-in: synchronous, with a switch to simulate being offline
+    private static class FakeRemote implements RecipeRemoteDataSource {
+        final Map<String, RecipeModel> docs = new HashMap<>();
+        boolean offline = false;
+        int nextId = 0;
+        int batchCount = 0;
+        int rejectedBatches = 0;
+        // Larger batches fail as if their recipes were spread over too many catalog shards
+        int maxCatalogRecipes = Integer.MAX_VALUE;
+        final Map<String, Map<String, Object>> lastUpdates = new HashMap<>();
+        final List<String> fetchedIds = new ArrayList<>();
+        // Server-side updatedAt per document and deletion records, stamped from a counter
+        final Map<String, Long> updatedAt = new HashMap<>();
+        final Map<String, Long> tombstones = new HashMap<>();
+        long serverTime = 0;
+        long lastChangedSince = -1;
+        int lastChangedCount = -1;
+        long lastPurgeCutoff = -1;
+        int purgeCount = 0;
+
+        // A write by another device
+        void write(RecipeModel recipe) {
+            docs.put(recipe.getFirebaseDocId(), recipe.copy());
+            tombstones.remove(recipe.getFirebaseDocId());
+            updatedAt.put(recipe.getFirebaseDocId(), ++serverTime);
+        }
+
+        void delete(String docId) {
+            docs.remove(docId);
+            updatedAt.remove(docId);
+            tombstones.put(docId, ++serverTime);
+        }
+
+        @Override
+        public String newDocumentId() {
+            return "doc" + (nextId++);
+        }
+
+        @Override
+        public void fetchAll(RepositoryCallback<List<RecipeModel>> callback) {
+            if (offline) { callback.onError(new Exception("offline")); return; }
+            List<RecipeModel> copies = new ArrayList<>();
+            for (RecipeModel recipe : docs.values()) copies.add(recipe.copy());
+            callback.onSuccess(copies);
+        }
+
+        @Override
+        public void fetchPage(String startAfterDocId, int limit, RepositoryCallback<List<RecipeModel>> callback) {
+            if (offline) { callback.onError(new Exception("offline")); return; }
+            TreeMap<String, RecipeModel> ordered = new TreeMap<>(docs);
+            List<RecipeModel> page = new ArrayList<>();
+            for (RecipeModel recipe : (startAfterDocId == null ? ordered : ordered.tailMap(startAfterDocId, false)).values()) {
+                if (page.size() == limit) break;
+                page.add(recipe.copy());
+            }
+            callback.onSuccess(page);
+        }
+
+        @Override
+        public void fetch(String docId, RepositoryCallback<RecipeModel> callback) {
+            if (offline) { callback.onError(new Exception("offline")); return; }
+            RecipeModel recipe = docs.get(docId);
+            callback.onSuccess(recipe != null ? recipe.copy() : null);
+        }
+
+        @Override
+        public void fetch(Collection<String> docIds, RepositoryCallback<List<RecipeModel>> callback) {
+            if (offline) { callback.onError(new Exception("offline")); return; }
+            fetchedIds.addAll(docIds);
+            List<RecipeModel> found = new ArrayList<>();
+            for (String docId : docIds) {
+                if (docs.containsKey(docId)) found.add(docs.get(docId).copy());
+            }
+            callback.onSuccess(found);
+        }
+
+        @Override
+        public void fetchChangedSince(long updatedSince, RepositoryCallback<Changes> callback) {
+            if (offline) { callback.onError(new Exception("offline")); return; }
+            lastChangedSince = updatedSince;
+            List<RecipeModel> changed = new ArrayList<>();
+            List<String> deleted = new ArrayList<>();
+            long watermark = updatedSince;
+            for (RecipeModel recipe : docs.values()) {
+                long stamp = updatedAt.containsKey(recipe.getFirebaseDocId()) ? updatedAt.get(recipe.getFirebaseDocId()) : 0;
+                if (updatedSince == 0 || stamp >= updatedSince) {
+                    RecipeModel summary = summaryOf(recipe);
+                    summary.setServerTimestamps(stamp, stamp);
+                    changed.add(summary);
+                    watermark = Math.max(watermark, stamp);
+                }
+            }
+            for (Map.Entry<String, Long> tombstone : tombstones.entrySet()) {
+                if (updatedSince > 0 && tombstone.getValue() >= updatedSince) {
+                    deleted.add(tombstone.getKey());
+                    watermark = Math.max(watermark, tombstone.getValue());
+                }
+            }
+            lastChangedCount = changed.size() + deleted.size();
+            callback.onSuccess(new Changes(changed, deleted, watermark));
+        }
+
+        @Override
+        public void purgeDeletedBefore(long cutoff, RepositoryCallback<Integer> callback) {
+            lastPurgeCutoff = cutoff;
+            purgeCount++;
+            int before = tombstones.size();
+            tombstones.values().removeIf(stamp -> stamp < cutoff);
+            callback.onSuccess(before - tombstones.size());
+        }
+
+        @Override
+        public void commitBatch(List<RecipeModel> saves, Map<String, Map<String, Object>> updates, List<String> deletes,
+                                RepositoryCallback<Void> callback) {
+            if (offline) { callback.onError(new Exception("offline")); return; }
+            assertTrue(saves.size() + updates.size() + deletes.size() <= MAX_BATCH_RECIPES);
+            if (saves.size() + updates.size() + deletes.size() > maxCatalogRecipes) {
+                rejectedBatches++;
+                callback.onError(new BatchTooLargeException("too many shards"));
+                return;
+            }
+            for (String docId : updates.keySet()) {
+                if (!docs.containsKey(docId)) { callback.onError(new MissingDocumentException(docId, null)); return; }
+            }
+            batchCount++;
+            for (RecipeModel recipe : saves) write(recipe);
+            for (Map.Entry<String, Map<String, Object>> update : updates.entrySet()) {
+                Map<String, Object> fields = docs.get(update.getKey()).toMap();
+                fields.putAll(update.getValue());
+                docs.put(update.getKey(), RecipeModel.fromMap(update.getKey(), fields));
+                updatedAt.put(update.getKey(), ++serverTime);
+                lastUpdates.put(update.getKey(), update.getValue());
+            }
+            for (String docId : deletes) delete(docId);
+            callback.onSuccess(null);
+        }
+    }
+
+    private static class InMemoryLocalStore implements RecipeLocalStore {
+        private static class Row {
+            RecipeModel recipe;
+            boolean dirty;
+            boolean deleted;
+            long lastModified;
+            Set<String> changedFields;
+        }
+
+        private final TreeMap<String, Row> rows = new TreeMap<>();
+        private long watermark = 0;
+        private long lastPurgeTime = 0;
+
+        @Override
+        public RecipeModel get(String docId) {
+            Row row = rows.get(docId);
+            return row == null || row.deleted ? null : row.recipe.copy();
+        }
+
+        @Override
+        public List<RecipeModel> getAll() {
+            List<RecipeModel> all = new ArrayList<>();
+            for (Row row : rows.values()) {
+                if (!row.deleted) all.add(row.recipe.copy());
+            }
+            return all;
+        }
+
+        @Override
+        public void put(RecipeModel recipe, boolean dirty) {
+            Row row = new Row();
+            row.recipe = recipe.copy();
+            row.dirty = dirty;
+            row.lastModified = recipe.getLastModified();
+            rows.put(recipe.getFirebaseDocId(), row);
+        }
+
+        @Override
+        public void putChanges(RecipeModel recipe, Set<String> changedFields) {
+            Row existing = rows.get(recipe.getFirebaseDocId());
+            Set<String> fields = new HashSet<>(changedFields);
+            if (existing != null && existing.dirty) {
+                if (existing.changedFields == null) fields = null;
+                else fields.addAll(existing.changedFields);
+            }
+            put(recipe, true);
+            rows.get(recipe.getFirebaseDocId()).changedFields = fields;
+        }
+
+        @Override
+        public void markDeleted(String docId, long lastModified) {
+            Row row = new Row();
+            row.dirty = true;
+            row.deleted = true;
+            row.lastModified = lastModified;
+            rows.put(docId, row);
+        }
+
+        @Override
+        public void remove(String docId) {
+            rows.remove(docId);
+        }
+
+        @Override
+        public boolean isDirty(String docId) {
+            Row row = rows.get(docId);
+            return row != null && row.dirty;
+        }
+
+        @Override
+        public void forEachRecipe(Consumer<RecipeModel> visitor) {
+            for (RecipeModel recipe : getAll()) visitor.accept(recipe);
+        }
+
+        @Override
+        public List<PendingWrite> getPendingWrites(int limit) {
+            List<PendingWrite> pending = new ArrayList<>();
+            for (Map.Entry<String, Row> entry : rows.entrySet()) {
+                Row row = entry.getValue();
+                if (row.dirty) {
+                    pending.add(new PendingWrite(entry.getKey(), row.deleted, row.lastModified,
+                            row.deleted ? null : row.recipe.copy(), row.changedFields));
+                }
+            }
+            pending.sort((a, b) -> Long.compare(a.lastModified, b.lastModified));
+            return pending.size() > limit ? new ArrayList<>(pending.subList(0, limit)) : pending;
+        }
+
+        @Override
+        public void runInTransaction(Runnable work) {
+            work.run();
+        }
+
+        @Override
+        public long getSyncWatermark() {
+            return watermark;
+        }
+
+        @Override
+        public void setSyncWatermark(long watermark) {
+            this.watermark = watermark;
+        }
+
+        @Override
+        public long getLastPurgeTime() {
+            return lastPurgeTime;
+        }
+
+        @Override
+        public void setLastPurgeTime(long time) {
+            lastPurgeTime = time;
+        }
+
+        @Override
+        public void markClean(String docId, long lastModified) {
+            Row row = rows.get(docId);
+            if (row != null && row.lastModified == lastModified) {
+                row.dirty = false;
+                row.changedFields = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.recipefinder.dedupe;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DuplicateDetectorTest {
+
+    private static final String CURRY = "1 tbsp vegetable oil\n1 onion\n2 cloves garlic\n500 g chicken thighs\n"
+            + "2 tbsp curry powder\n400 ml coconut milk\n1 cup rice\nfresh coriander";
+
+    private static RecipeModel recipe(String docId, int id, String title, String customTitle, String ingredients,
+                                      long lastModified) {
+        RecipeModel recipe = new RecipeModel(docId, id, title, null, customTitle, null, null, ingredients, null);
+        recipe.setLastModified(lastModified);
+        return recipe;
+    }
+
+    @Test
+    public void customCopiesWithEditedTitlesAreGrouped() {
+        RecipeModel original = recipe("a", 0, "Chicken curry", null, CURRY, 1);
+        RecipeModel renamed = recipe("b", 0, "Chicken curry", "Chicken curry (weeknight)",
+                CURRY.replace("500 g", "600 g"), 2);
+        RecipeModel other = recipe("c", 0, "Lentil soup", null, "1 cup red lentils\n1 onion\n1 carrot\n1 l stock", 3);
+
+        List<DuplicateGroup> groups = new DuplicateDetector().findDuplicates(Arrays.asList(original, other, renamed));
+        assertEquals(1, groups.size());
+        assertEquals(Arrays.asList(renamed, original), groups.get(0).getRecipes()); // Newest first
+        assertEquals(Collections.singletonList("a"), groups.get(0).getDuplicateDocIds());
+    }
+
+    @Test
+    public void sameSpoonacularIdIsAlwaysADuplicate() {
+        RecipeModel saved = recipe("a", 716429, "Pasta with garlic", null, "200 g pasta\n2 cloves garlic", 1);
+        RecipeModel edited = recipe("b", 716429, "Pasta with garlic", "Dad's pasta", "200 g pasta\n1 chilli\n"
+                + "2 tbsp olive oil\n50 g parmesan\n1 lemon", 2);
+
+        List<DuplicateGroup> groups = new DuplicateDetector().findDuplicates(Arrays.asList(saved, edited));
+        assertEquals(1, groups.size());
+        assertEquals(2, groups.get(0).size());
+    }
+
+    @Test
+    public void differentDishesSharingStaplesAreNotGrouped() {
+        RecipeModel curry = recipe("a", 0, "Chicken curry", null, CURRY, 1);
+        RecipeModel stirFry = recipe("b", 0, "Chicken stir fry", null, "1 tbsp vegetable oil\n1 onion\n"
+                + "2 cloves garlic\n500 g chicken breast\n2 tbsp soy sauce\n1 red pepper\n200 g noodles", 2);
+        RecipeModel empty = recipe("c", 0, null, null, null, 3);
+        RecipeModel alsoEmpty = recipe("d", 0, null, null, null, 4);
+
+        assertTrue(new DuplicateDetector().findDuplicates(Arrays.asList(curry, stirFry, empty, alsoEmpty)).isEmpty());
+    }
+
+    @Test
+    public void mergeKeepsNewestAndFoldsInTheRest() {
+        RecipeModel older = recipe("a", 0, "Chicken curry", null, CURRY, 1);
+        older.setTags(Arrays.asList("weeknight", "spicy"));
+        older.setUserNotes("Add chilli flakes.");
+        older.setImageUrl("https://example.com/curry.jpg");
+        RecipeModel newer = recipe("b", 0, "Chicken curry", null, CURRY, 2);
+        newer.setTags(Collections.singletonList("spicy"));
+        newer.setUserNotes("Double the garlic.");
+
+        RecipeModel merged = new DuplicateDetector().findDuplicates(Arrays.asList(older, newer)).get(0).merge();
+        assertEquals("b", merged.getFirebaseDocId());
+        assertEquals(Arrays.asList("spicy", "weeknight"), merged.getTags());
+        assertEquals("Double the garlic.\n\nAdd chilli flakes.", merged.getUserNotes());
+        assertEquals("https://example.com/curry.jpg", merged.getImageUrl());
+        assertEquals("Double the garlic.", newer.getUserNotes()); // The group's recipes are left untouched
+    }
+
+    @Test
+    public void findsPlantedDuplicatesInALargeCollection() {
+        String[] dishes = {"curry", "stew", "salad", "soup", "pie", "tart", "bake", "roast", "pilaf", "risotto"};
+        String[] ingredients = {"chicken", "beef", "lentils", "tofu", "salmon", "potato", "carrot", "onion",
+                "garlic", "ginger", "spinach", "tomato", "rice", "pasta", "butter", "cream", "lemon", "basil",
+                "cumin", "paprika", "mushroom", "pepper", "leek", "peas", "beans", "feta", "honey", "thyme"};
+        Random random = new Random(42);
+        List<RecipeModel> recipes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder lines = new StringBuilder();
+            for (int k = 0; k < 8; k++) {
+                lines.append(1 + random.nextInt(3)).append(' ')
+                        .append(ingredients[random.nextInt(ingredients.length)]).append('\n');
+            }
+            recipes.add(recipe("r" + i, 0, ingredients[random.nextInt(ingredients.length)] + " "
+                    + dishes[random.nextInt(dishes.length)] + " " + i, null, lines.toString(), i));
+        }
+        // Every 100th recipe saved again with a tweaked title
+        for (int i = 0; i < 2000; i += 100) {
+            RecipeModel source = recipes.get(i);
+            recipes.add(recipe("copy" + i, 0, source.getTitle(), source.getTitle() + " again",
+                    source.getIngredients(), 5000 + i));
+        }
+
+        List<DuplicateGroup> groups = new DuplicateDetector().findDuplicates(recipes);
+        int planted = 0;
+        for (DuplicateGroup group : groups) {
+            String copyId = group.getKeeper().getFirebaseDocId();
+            if (copyId.startsWith("copy") && group.size() == 2
+                    && group.getRecipes().get(1).getFirebaseDocId().equals("r" + copyId.substring(4))) {
+                planted++;
+            }
+        }
+        assertEquals(20, planted);
+    }
+}
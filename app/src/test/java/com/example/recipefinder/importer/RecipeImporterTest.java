@@ -0,0 +1,128 @@
+package com.example.recipefinder.importer;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class RecipeImporterTest {
+
+    @Test
+    public void json_readsSpoonacularShape() throws IOException {
+        String json = "{\"totalResults\": 2, \"recipes\": ["
+                + "{\"id\": 716429, \"title\": \"Pasta with Garlic\", \"image\": \"https://img/1.jpg\","
+                + " \"extendedIngredients\": [{\"original\": \"1 lb pasta\"}, {\"original\": \"4 cloves garlic\"}],"
+                + " \"instructions\": \"Boil.\\nToss.\", \"vegan\": true, \"healthScore\": 19.5},"
+                + "{\"title\": \"Caf\\u00e9 Soup\", \"ingredients\": \"water\", \"tags\": [\"quick\"]}"
+                + "]}";
+        JsonRecipeReader reader = new JsonRecipeReader(new StringReader(json));
+
+        RecipeModel first = reader.next();
+        assertEquals(716429, first.getId());
+        assertEquals("Pasta with Garlic", first.getTitle());
+        assertEquals("https://img/1.jpg", first.getImageUrl());
+        assertEquals("1 lb pasta\n4 cloves garlic", first.getIngredients());
+        assertEquals("Boil.\nToss.", first.getInstructions());
+
+        RecipeModel second = reader.next();
+        assertEquals("Café Soup", second.getTitle());
+        assertEquals(Arrays.asList("quick"), second.getTags());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void csv_handlesQuotedCommasNewlinesAndQuotes() throws IOException {
+        String csv = "id,title,ingredients,notes,tags\r\n"
+                + "12,\"Eggs, Scrambled\",\"2 eggs\n1 tbsp butter\",\"Say \"\"yum\"\"\",breakfast;quick\r\n"
+                + "\n"
+                + ",Toast,bread,,\n";
+        CsvRecipeReader reader = new CsvRecipeReader(new StringReader(csv));
+
+        RecipeModel eggs = reader.next();
+        assertEquals(12, eggs.getId());
+        assertEquals("Eggs, Scrambled", eggs.getTitle());
+        assertEquals("2 eggs\n1 tbsp butter", eggs.getIngredients());
+        assertEquals("Say \"yum\"", eggs.getUserNotes());
+        assertEquals(Arrays.asList("breakfast", "quick"), eggs.getTags());
+
+        RecipeModel toast = reader.next();
+        assertEquals(0, toast.getId());
+        assertEquals("Toast", toast.getTitle());
+        assertNull(toast.getUserNotes());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void run_dedupesBySpoonacularIdAndTitle() throws IOException {
+        String csv = "id,title\n"
+                + "1,Pancakes\n"
+                + "1,Pancakes (copy)\n"      // Same Spoonacular id
+                + ",Banana Bread\n"
+                + ",  banana   BREAD \n"     // Same normalized title
+                + ",Existing Stew\n"         // Already in the user's collection
+                + ",\n";                     // No title
+        Set<String> existing = new HashSet<>();
+        existing.add("title:existing stew");
+        List<RecipeModel> written = new ArrayList<>();
+
+        RecipeImporter.Stats stats = new RecipeImporter(2).run(new CsvRecipeReader(new StringReader(csv)),
+                existing, written::addAll, new MemoryCheckpoint(), s -> { }, new AtomicBoolean());
+
+        assertEquals(2, stats.imported);
+        assertEquals(3, stats.duplicates);
+        assertEquals(1, stats.invalid);
+        assertEquals("spoonacular-1", written.get(0).getFirebaseDocId());
+        assertTrue(written.get(1).getFirebaseDocId().startsWith("import-"));
+    }
+
+    @Test
+    public void run_resumesAfterInterruptionWithoutDuplicates() throws IOException {
+        StringBuilder csv = new StringBuilder("title\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("Recipe ").append(i).append('\n');
+        }
+        MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+        List<RecipeModel> written = new ArrayList<>();
+        RecipeImporter.Sink failingSink = recipes -> {
+            if (written.size() >= 6) {
+                throw new IOException("process killed");
+            }
+            written.addAll(recipes);
+        };
+
+        try {
+            new RecipeImporter(3).run(new CsvRecipeReader(new StringReader(csv.toString())),
+                    new HashSet<>(), failingSink, checkpoint, s -> { }, new AtomicBoolean());
+            fail("Expected the sink failure to propagate");
+        } catch (IOException expected) {
+            assertEquals(6, checkpoint.recordsDone);
+        }
+
+        RecipeImporter.Stats stats = new RecipeImporter(3).run(new CsvRecipeReader(new StringReader(csv.toString())),
+                new HashSet<>(), written::addAll, checkpoint, s -> { }, new AtomicBoolean());
+
+        assertEquals(6, stats.resumedFrom);
+        assertEquals(4, stats.imported);
+        assertEquals(10, written.size());
+        assertEquals("Recipe 9", written.get(9).getTitle());
+        assertEquals(0, checkpoint.recordsDone); // Cleared once the file is done
+    }
+
+    private static class MemoryCheckpoint implements RecipeImporter.Checkpoint {
+        long recordsDone;
+
+        @Override public long load() { return recordsDone; }
+        @Override public void save(long recordsDone) { this.recordsDone = recordsDone; }
+        @Override public void clear() { recordsDone = 0; }
+    }
+}
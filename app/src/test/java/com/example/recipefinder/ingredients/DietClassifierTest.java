@@ -0,0 +1,96 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DietClassifierTest {
+
+    private static int classify(String ingredients) {
+        return DietClassifier.classify(RecipeTextParser.parseIngredients(ingredients));
+    }
+
+    private static boolean fits(int flags, Diet diet) {
+        return (flags & diet.bit()) != 0;
+    }
+
+    @Test
+    public void ingredientsRuleOutDiets() {
+        int stirFry = classify("200 g firm tofu\n2 tbsp soy sauce\n1 cup rice\n2 cloves garlic");
+        assertTrue(fits(stirFry, Diet.VEGAN));
+        assertTrue(fits(stirFry, Diet.VEGETARIAN));
+        assertFalse(fits(stirFry, Diet.GLUTEN_FREE)); // Soy sauce is brewed with wheat
+
+        int carbonara = classify("200 g spaghetti\n100 g pancetta\n2 large eggs\n50 g parmesan");
+        assertFalse(fits(carbonara, Diet.VEGETARIAN));
+        assertFalse(fits(carbonara, Diet.PESCATARIAN));
+        assertFalse(fits(carbonara, Diet.EGG_FREE));
+        assertFalse(fits(carbonara, Diet.DAIRY_FREE));
+        assertTrue(fits(carbonara, Diet.NUT_FREE));
+
+        int salmon = classify("2 salmon fillets\n1 lemon\n1 tbsp olive oil");
+        assertTrue(fits(salmon, Diet.PESCATARIAN));
+        assertFalse(fits(salmon, Diet.VEGETARIAN));
+        assertTrue(fits(salmon, Diet.GLUTEN_FREE));
+    }
+
+    @Test
+    public void wholeNamesOverrideTheirWords() {
+        int curry = classify("1 can coconut milk\n1 cup chickpeas\n1 tbsp peanut butter\n1/2 cup rice flour");
+        assertTrue(fits(curry, Diet.VEGAN));
+        assertTrue(fits(curry, Diet.DAIRY_FREE));
+        assertTrue(fits(curry, Diet.GLUTEN_FREE));
+        assertFalse(fits(curry, Diet.NUT_FREE));
+
+        assertTrue(fits(classify("2 tbsp vegan butter"), Diet.VEGAN));
+        assertTrue(fits(classify("1 small eggplant"), Diet.EGG_FREE));
+        assertTrue(fits(classify("250 g gluten-free pasta"), Diet.GLUTEN_FREE));
+    }
+
+    @Test
+    public void preferenceTextNamesDiets() {
+        assertEquals(Diet.VEGETARIAN.bit(), Diet.parsePreference("Vegetarian"));
+        assertEquals(Diet.VEGAN.bit() | Diet.GLUTEN_FREE.bit(), Diet.parsePreference("vegan & gluten-free"));
+        assertEquals(Diet.NUT_FREE.bit(), Diet.parsePreference("No nuts please"));
+        assertEquals(Diet.GLUTEN_FREE.bit(), Diet.parsePreference("coeliac"));
+        assertEquals(0, Diet.parsePreference("whatever's in season"));
+        assertEquals(0, Diet.parsePreference(null));
+    }
+
+    @Test
+    public void tagsAreStoredWithTheParse() {
+        RecipeModel recipe = new RecipeModel("doc1", 0, "Dal", null, null, null, null,
+                "1 cup red lentils\n1 can coconut milk\n1 onion", "Simmer.");
+        recipe.parseForSave();
+        Map<String, Object> document = recipe.toMap();
+        List<?> tags = (List<?>) document.get("dietTags");
+        assertTrue(tags.containsAll(Arrays.asList("vegan", "vegetarian", "gluten-free", "nut-free")));
+        assertEquals(recipe.getDietFlags(), RecipeModel.fromMap("doc1", document).getDietFlags());
+
+        recipe.setIngredients("1 cup red lentils\n2 tbsp butter");
+        assertFalse(fits(recipe.getDietFlags(), Diet.VEGAN)); // Reclassified after the edit
+    }
+
+    @Test
+    public void indexFiltersByStoredTags() {
+        RecipeModel dal = new RecipeModel("dal", 0, "Dal", null, null, null, null, "1 cup lentils", null);
+        RecipeModel stew = new RecipeModel("stew", 0, "Stew", null, null, null, null, "500 g beef", null);
+        DietTagIndex index = new DietTagIndex();
+        index.putAll(Arrays.asList(dal, stew));
+
+        assertEquals(Arrays.asList(dal), index.filter(Arrays.asList(dal, stew), Diet.VEGETARIAN.bit()));
+        assertEquals(Arrays.asList(dal, stew), index.filter(Arrays.asList(dal, stew), 0));
+
+        // A newer local edit is judged by its own tags, not the indexed ones
+        RecipeModel edited = stew.copy();
+        edited.setIngredients("500 g mushrooms");
+        edited.setLastModified(stew.getLastModified() + 1);
+        assertTrue(index.matches(edited, Diet.VEGETARIAN.bit()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.recipefinder.ingredients;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IngredientScalerTest {
+
+    private static String render(String ingredients, long num, long den, IngredientScaler.UnitSystem system) {
+        IngredientScaler scaler = new IngredientScaler(RecipeTextParser.parseIngredients(ingredients));
+        StringBuilder out = new StringBuilder();
+        scaler.render(num, den, system, out);
+        return out.toString();
+    }
+
+    @Test
+    public void scalesQuantitiesExactly() {
+        String ingredients = "1 1/2 cups flour\n2-3 cloves garlic\n3 large eggs\nSalt to taste";
+        assertEquals("1 1/2 cups flour\n2-3 cloves garlic\n3 large eggs\nSalt to taste",
+                render(ingredients, 1, 1, IngredientScaler.UnitSystem.AS_WRITTEN));
+        assertEquals("3 cups flour\n4-6 cloves garlic\n6 large eggs\nSalt to taste",
+                render(ingredients, 2, 1, IngredientScaler.UnitSystem.AS_WRITTEN));
+        assertEquals("1/2 cup flour\n2/3-1 cloves garlic\n1 large eggs\nSalt to taste",
+                render(ingredients, 1, 3, IngredientScaler.UnitSystem.AS_WRITTEN));
+    }
+
+    @Test
+    public void roundsToKitchenFractions() {
+        assertEquals("1/8 tsp salt", render("1/4 tsp salt", 1, 2, IngredientScaler.UnitSystem.AS_WRITTEN));
+        assertEquals("1/3 cup milk", render("1/2 cup milk", 2, 3, IngredientScaler.UnitSystem.AS_WRITTEN));
+        // 5/12 is not a kitchen fraction; 3/8 is the nearest
+        assertEquals("3/8 cup milk", render("5/8 cup milk", 2, 3, IngredientScaler.UnitSystem.AS_WRITTEN));
+        assertEquals("1/2 pinch pepper", render("1 pinch pepper", 1, 2, IngredientScaler.UnitSystem.AS_WRITTEN));
+        assertEquals("1 1/3 cups oats", render("1 cup oats", 4, 3, IngredientScaler.UnitSystem.AS_WRITTEN));
+    }
+
+    @Test
+    public void convertsToMetric() {
+        assertEquals("235 ml milk", render("1 cup milk", 1, 1, IngredientScaler.UnitSystem.METRIC));
+        assertEquals("4.9 ml vanilla", render("1 tsp vanilla", 1, 1, IngredientScaler.UnitSystem.METRIC));
+        assertEquals("1.89 l stock", render("2 quarts stock", 1, 1, IngredientScaler.UnitSystem.METRIC));
+        assertEquals("1.36 kg pork shoulder", render("3 lb pork shoulder", 1, 1, IngredientScaler.UnitSystem.METRIC));
+        assertEquals("2 cloves garlic", render("2 cloves garlic", 1, 1, IngredientScaler.UnitSystem.METRIC));
+        assertEquals("500 g beef", render("500g beef", 1, 1, IngredientScaler.UnitSystem.METRIC));
+    }
+
+    @Test
+    public void convertsToImperialInAReadableUnit() {
+        assertEquals("1 1/8 lb beef", render("500g beef", 1, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("3 1/2 oz butter", render("100 g butter", 1, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("1 tbsp oil", render("15 ml oil", 1, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("1 cup water", render("250 ml water", 1, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("2 1/8 cups water", render("250 ml water", 2, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("3 tbsp sugar", render("3 tbsp sugar", 1, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("1/2 cup sugar", render("24 tsp sugar", 1, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("2 pints cream", render("1 pint cream", 2, 1, IngredientScaler.UnitSystem.IMPERIAL));
+        assertEquals("2 l stock", render("500 ml stock", 4, 1, IngredientScaler.UnitSystem.METRIC));
+    }
+
+    @Test
+    public void reusesTheCallersBuilder() {
+        IngredientScaler scaler = new IngredientScaler(RecipeTextParser.parseIngredients("2 cups rice\n1 onion"));
+        StringBuilder out = new StringBuilder("stale");
+        scaler.render(1, 2, IngredientScaler.UnitSystem.AS_WRITTEN, out);
+        assertEquals("1 cup rice\n1/2 onion", out.toString());
+        assertEquals(2, scaler.getLineCount());
+    }
+}
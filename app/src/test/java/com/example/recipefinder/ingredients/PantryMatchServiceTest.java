@@ -0,0 +1,89 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PantryMatchServiceTest {
+
+    @Test
+    public void canonicalize_stripsQuantitiesUnitsAndPreparation() {
+        assertEquals("flour", IngredientNormalizer.canonicalize("2 cups all-purpose flour, sifted"));
+        assertEquals("egg", IngredientNormalizer.canonicalize("3 Large EGGS"));
+        assertEquals("green onion", IngredientNormalizer.canonicalize("1 bunch scallions"));
+        assertEquals("tomato", IngredientNormalizer.canonicalize("500g tomatoes (about 4)"));
+        assertEquals("olive oil", IngredientNormalizer.canonicalize("½ tbsp extra-virgin olive oil"));
+        assertNull(IngredientNormalizer.canonicalize("2 cups"));
+    }
+
+    @Test
+    public void parseIngredientNames_handlesHtmlListsAndCommaLists() {
+        assertEquals(Arrays.asList("milk", "butter"),
+                IngredientNormalizer.parseIngredientNames("<ul><li>1 cup milk</li><li>2 tbsp butter, melted</li></ul>"));
+        assertEquals(Arrays.asList("egg", "flour", "milk"),
+                IngredientNormalizer.parseIngredientNames("eggs, flour, milk"));
+    }
+
+    @Test
+    public void findRecipes_ranksByCoverage() {
+        PantryMatchService service = new PantryMatchService();
+        service.rebuild(Arrays.asList(
+                recipe("pancakes", "2 eggs\n1 cup flour\n1 cup milk"),
+                recipe("omelette", "3 eggs\n1 tbsp butter\nsalt"),
+                recipe("salad", "1 head lettuce\n2 tomatoes")));
+
+        List<IngredientIndex.Match> matches = service.findRecipes("eggs, flour, milk", 10);
+
+        assertEquals(2, matches.size());
+        assertEquals("pancakes", matches.get(0).docId);
+        assertEquals(1f, matches.get(0).getCoverage(), 0.0001);
+        assertEquals("omelette", matches.get(1).docId);
+        assertEquals(Arrays.asList("butter", "salt"), matches.get(1).missingIngredients);
+    }
+
+    @Test
+    public void findRecipes_genericPantryItemCoversSpecificIngredient() {
+        PantryMatchService service = new PantryMatchService();
+        service.rebuild(Arrays.asList(recipe("bread", "3 cups whole wheat flour\n1 tbsp olive oil")));
+
+        List<IngredientIndex.Match> matches = service.findRecipes("flour\noil", 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).matchedCount);
+    }
+
+    @Test
+    public void findRecipes_isFastOverTensOfThousandsOfRecipes() {
+        String[] pool = {"egg", "flour", "milk", "butter", "sugar", "salt", "onion", "garlic", "tomato", "rice",
+                "chicken", "beef", "carrot", "potato", "cheese", "basil", "lemon", "pepper", "oil", "cream"};
+        List<RecipeModel> recipes = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            StringBuilder ingredients = new StringBuilder();
+            for (int j = 0; j < 8; j++) {
+                ingredients.append("1 cup ").append(pool[(i * 7 + j * 13) % pool.length]).append('\n');
+            }
+            recipes.add(recipe("doc" + i, ingredients.toString()));
+        }
+        PantryMatchService service = new PantryMatchService();
+        service.rebuild(recipes);
+        List<String> pantry = PantryMatchService.canonicalizeAll(Arrays.asList("eggs", "flour", "milk"));
+        service.findRecipes(pantry, 50); // Warm up
+
+        long start = System.nanoTime();
+        List<IngredientIndex.Match> matches = service.findRecipes(pantry, 50);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(50, matches.size());
+        assertTrue("Pantry query took " + elapsedMs + " ms", elapsedMs < 20);
+    }
+
+    private static RecipeModel recipe(String docId, String ingredients) {
+        return new RecipeModel(docId, 0, docId, null, null, null, null, ingredients, null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RecipeTextParserTest {
+
+    @Test
+    public void fraction_parsesRecipeQuantities() {
+        assertEquals(Fraction.of(2), Fraction.parse("2"));
+        assertEquals(Fraction.of(3, 2), Fraction.parse("1.5"));
+        assertEquals(Fraction.of(3, 4), Fraction.parse("3/4"));
+        assertEquals(Fraction.of(3, 2), Fraction.parse("1 1/2"));
+        assertEquals(Fraction.of(1, 2), Fraction.parse("½"));
+        assertEquals(Fraction.of(5, 3), Fraction.parse("1⅔"));
+        assertNull(Fraction.parse("a few"));
+        assertNull(Fraction.parse("1/0"));
+        assertEquals("1 1/2", Fraction.of(3, 2).toString());
+        assertEquals("2/3", Fraction.of(4, 6).toString());
+    }
+
+    @Test
+    public void ingredientLine_splitsAmountUnitAndName() {
+        IngredientLine flour = RecipeTextParser.parseIngredientLine("1 1/2 cups all-purpose flour, sifted");
+        assertEquals(Fraction.of(3, 2), flour.quantity);
+        assertEquals("cup", flour.unit);
+        assertEquals("all-purpose flour, sifted", flour.description);
+        assertEquals("flour", flour.name);
+
+        IngredientLine butter = RecipeTextParser.parseIngredientLine("2 Tbsp. of butter");
+        assertEquals("tbsp", butter.unit);
+        assertEquals("butter", butter.description);
+
+        IngredientLine beef = RecipeTextParser.parseIngredientLine("500g minced beef");
+        assertEquals(Fraction.of(500), beef.quantity);
+        assertEquals("g", beef.unit);
+
+        IngredientLine milk = RecipeTextParser.parseIngredientLine("8 fl oz milk");
+        assertEquals("fl oz", milk.unit);
+        assertEquals("milk", milk.description);
+
+        IngredientLine garlic = RecipeTextParser.parseIngredientLine("2-3 cloves garlic");
+        assertEquals(Fraction.of(2), garlic.quantity);
+        assertEquals(Fraction.of(3), garlic.quantityMax);
+        assertEquals("clove", garlic.unit);
+
+        IngredientLine eggs = RecipeTextParser.parseIngredientLine("3 large eggs");
+        assertNull(eggs.unit);
+        assertEquals("large eggs", eggs.description);
+        assertEquals("egg", eggs.name);
+
+        IngredientLine salt = RecipeTextParser.parseIngredientLine("Salt to taste");
+        assertNull(salt.quantity);
+        assertEquals("Salt to taste", salt.description);
+    }
+
+    @Test
+    public void steps_dropNumberingAndHtml() {
+        List<String> steps = RecipeTextParser.parseSteps(
+                "<ol><li>1. Preheat the oven.</li><li>Step 2: Mix &amp; pour.</li><li></li><li>Bake 20 min.</li></ol>");
+        assertEquals(Arrays.asList("Preheat the oven.", "Mix & pour.", "Bake 20 min."), steps);
+
+        assertEquals(Arrays.asList("Boil.", "Toss."), RecipeTextParser.parseSteps("Boil.\nToss."));
+        assertTrue(RecipeTextParser.parseSteps(null).isEmpty());
+    }
+
+    @Test
+    public void recipeModel_storesParsedFormWithDocument() {
+        RecipeModel recipe = new RecipeModel("doc1", 0, "Pancakes", null, null, null, null,
+                "1 cup flour\n2 eggs", "Mix.\nFry.");
+        recipe.parseForSave();
+        Map<String, Object> document = recipe.toMap();
+        assertEquals(RecipeTextParser.VERSION, document.get("parseVersion"));
+        assertEquals(Arrays.asList("Mix.", "Fry."), document.get("steps"));
+
+        RecipeModel loaded = RecipeModel.fromMap("doc1", document);
+        assertFalse(loaded.needsParseMigration());
+        assertEquals(recipe.getParsedIngredients(), loaded.getParsedIngredients());
+        assertEquals(recipe, loaded);
+    }
+
+    @Test
+    public void recipeModel_oldDocumentsParseLazily() {
+        RecipeModel recipe = new RecipeModel("doc1", 0, "Pancakes", null, null, null, null, "1 cup flour", "Mix.");
+        Map<String, Object> legacy = recipe.toMap();
+        legacy.remove("parsedIngredients");
+        legacy.remove("steps");
+        legacy.remove("parseVersion");
+
+        RecipeModel loaded = RecipeModel.fromMap("doc1", legacy);
+        assertTrue(loaded.needsParseMigration());
+        assertEquals("cup", loaded.getParsedIngredients().get(0).unit);
+
+        loaded.setIngredients("2 tbsp sugar");
+        assertEquals("tbsp", loaded.getParsedIngredients().get(0).unit); // Reparsed after the edit
+    }
+}
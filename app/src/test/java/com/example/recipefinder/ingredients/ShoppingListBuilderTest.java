@@ -0,0 +1,99 @@
+package com.example.recipefinder.ingredients;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ShoppingListBuilderTest {
+
+    private static RecipeModel recipe(String docId, String ingredients) {
+        return new RecipeModel(docId, 0, docId, null, null, null, null, ingredients, null);
+    }
+
+    private static ShoppingList.Item find(ShoppingList list, String name) {
+        for (List<ShoppingList.Item> items : list.getItemsByAisle().values()) {
+            for (ShoppingList.Item item : items) {
+                if (item.name.equals(name)) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void mergesSameIngredientAcrossUnitsAndRecipes() {
+        ShoppingList list = new ShoppingListBuilder().addRecipes(Arrays.asList(
+                recipe("pancakes", "1 cup all-purpose flour\n2 eggs\n1 cup milk\n2 tbsp butter"),
+                recipe("crepes", "2 tbsp flour\n3 large eggs\n200 ml whole milk\n1 tbsp unsalted butter, melted"),
+                recipe("bread", "2 1/4 cups plain flour\n1 tsp salt")))
+                .build();
+
+        ShoppingList.Item flour = find(list, "flour");
+        assertEquals("3 3/8 cups", flour.amount); // 1 cup + 2 tbsp + 2 1/4 cups
+        assertEquals(3, flour.recipeCount);
+        assertEquals("5", find(list, "egg").amount);
+        assertEquals("3 tbsp", find(list, "butter").amount);
+        // A cup plus 200 ml, summed in the system the milk was first written in
+        assertEquals("1 7/8 cups", find(list, "milk").amount);
+        assertEquals(5, list.getItemCount());
+    }
+
+    @Test
+    public void keepsCountedUnitsApartFromMeasuredOnes() {
+        ShoppingList list = new ShoppingListBuilder().addRecipes(Arrays.asList(
+                recipe("a", "2-3 cloves garlic\n1 can chickpeas\n400 g tomatoes"),
+                recipe("b", "4 cloves garlic\n2 cans chickpeas\n1 kg tomatoes\n1 tsp garlic, minced")))
+                .build();
+
+        // Ranges count at their upper end; cloves and spoonfuls are listed side by side
+        assertEquals("7 cloves + 1 tsp", find(list, "garlic").amount);
+        assertEquals("3 cans", find(list, "chickpea").amount);
+        assertEquals("1.4 kg", find(list, "tomato").amount);
+    }
+
+    @Test
+    public void unmeasuredLinesOnlyWhenNothingElseGivesAnAmount() {
+        ShoppingList list = new ShoppingListBuilder().addRecipes(Arrays.asList(
+                recipe("a", "Salt to taste\nBlack pepper\nFresh basil"),
+                recipe("b", "1/2 tsp salt\nPepper")))
+                .build();
+
+        assertEquals("1/2 tsp", find(list, "salt").amount);
+        assertNull(find(list, "basil").amount);
+        assertEquals(1, count(list, "salt"));
+    }
+
+    @Test
+    public void groupsByAisleInStoreOrder() {
+        ShoppingList list = new ShoppingListBuilder().addRecipes(Arrays.asList(
+                recipe("a", "1 tbsp olive oil\n2 chicken breasts\n1 onion\n100 g cheddar cheese\n1 cup rice\n1 widget")))
+                .build();
+
+        Map<ShoppingList.Aisle, List<ShoppingList.Item>> byAisle = list.getItemsByAisle();
+        assertEquals(Arrays.asList(ShoppingList.Aisle.PRODUCE, ShoppingList.Aisle.MEAT_SEAFOOD,
+                ShoppingList.Aisle.DAIRY_EGGS, ShoppingList.Aisle.PANTRY, ShoppingList.Aisle.CONDIMENTS,
+                ShoppingList.Aisle.OTHER), new ArrayList<>(byAisle.keySet()));
+        assertEquals("onion", byAisle.get(ShoppingList.Aisle.PRODUCE).get(0).name);
+        assertTrue(list.toText().startsWith("Produce\n- onion: 1\n"));
+    }
+
+    private static int count(ShoppingList list, String name) {
+        int count = 0;
+        for (List<ShoppingList.Item> items : list.getItemsByAisle().values()) {
+            for (ShoppingList.Item item : items) {
+                if (item.name.equals(name)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
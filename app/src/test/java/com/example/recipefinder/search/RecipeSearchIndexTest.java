@@ -0,0 +1,172 @@
+package com.example.recipefinder.search;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RecipeSearchIndexTest {
+
+    @Test
+    public void tokenize_stripsHtmlAndFoldsAccents() {
+        List<String> tokens = TextNormalizer.tokenize("<b>Crème</b> br&ucirc;l&eacute;e &amp; <i>Berries</i>");
+        assertTrue(tokens.contains("creme"));
+        assertTrue(tokens.contains("berries"));
+        assertFalse(tokens.contains("b"));
+    }
+
+    @Test
+    public void search_matchesPrefixesAndRanksTitleHitsFirst() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.addOrUpdate(recipe("a", "Chicken curry", "rice, onion", "Serve hot."));
+        index.addOrUpdate(recipe("b", "Vegetable soup", "carrot, chicken stock", "Simmer."));
+        index.addOrUpdate(recipe("c", "Pancakes", "flour, milk, eggs", "Fry."));
+
+        List<RecipeSearchIndex.Result> results = index.search("chick", 10);
+
+        assertEquals(2, results.size());
+        assertEquals("a", results.get(0).docId);
+        assertEquals("b", results.get(1).docId);
+    }
+
+    @Test
+    public void search_requiresEveryQueryToken() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.addOrUpdate(recipe("a", "Chicken curry", "rice", ""));
+        index.addOrUpdate(recipe("b", "Chicken soup", "carrot", ""));
+
+        List<RecipeSearchIndex.Result> results = index.search("chicken rice", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("a", results.get(0).docId);
+    }
+
+    @Test
+    public void addOrUpdate_replacesOldTermsAndRemoveDropsRecipe() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        RecipeModel recipe = recipe("a", "Tomato pasta", "", "");
+        index.addOrUpdate(recipe);
+        recipe.setTitle("Pesto pasta");
+        recipe.setCustomTitle("Pesto pasta");
+        index.addOrUpdate(recipe);
+
+        assertTrue(index.search("tomato", 10).isEmpty());
+        assertEquals(1, index.search("pesto", 10).size());
+
+        index.remove("a");
+        assertTrue(index.search("pasta", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void writeAndRead_roundTripsTheIndex() throws Exception {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        RecipeModel recipe = recipe("a", "Lemon tart", "lemons, butter", "Bake.");
+        index.addOrUpdate(recipe);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out);
+        RecipeSearchIndex restored = new RecipeSearchIndex();
+        restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(1, restored.search("lemon", 10).size());
+        assertTrue(restored.isCurrent(recipe));
+    }
+
+    @Test
+    public void summaryOnlyRecipe_keepsIndexedBodyAndIsCurrentUntilModified() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        RecipeModel recipe = recipe("a", "Lemon tart", "lemons, butter", "Bake.");
+        recipe.setLastModified(100);
+        index.addOrUpdate(recipe);
+
+        RecipeModel listed = RecipeModel.summaryFromMap("a", recipe.toMap());
+        assertTrue(index.isCurrent(listed));
+        index.addOrUpdate(listed);
+        assertEquals(1, index.search("butter", 10).size());
+        assertTrue(index.hasBody(listed));
+
+        RecipeModel edited = recipe.copy();
+        edited.setLastModified(200);
+        assertFalse(index.isCurrent(RecipeModel.summaryFromMap("a", edited.toMap())));
+    }
+
+    @Test
+    public void summaryOnlyRecipe_isFoundByTitleUntilItsBodyIsIndexed() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        RecipeModel recipe = recipe("a", "Lemon tart", "lemons, butter", "Bake.");
+        recipe.setLastModified(100);
+        RecipeModel listed = RecipeModel.summaryFromMap("a", recipe.toMap());
+        index.addOrUpdate(listed);
+
+        assertEquals(1, index.search("tart", 10).size());
+        assertTrue(index.search("butter", 10).isEmpty());
+        assertTrue(index.isCurrent(listed));
+        assertFalse(index.hasBody(listed));
+
+        index.addOrUpdate(recipe);
+        assertEquals(1, index.search("butter", 10).size());
+        assertTrue(index.hasBody(listed));
+    }
+
+    @Test
+    public void getDocIds_listsIndexedRecipesAndIsACopy() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.addOrUpdate(recipe("a", "Lemon tart", "lemons", "Bake."));
+        index.addOrUpdate(recipe("b", "Tomato soup", "tomatoes", "Simmer."));
+
+        Set<String> docIds = index.getDocIds();
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), docIds);
+
+        for (String docId : docIds) {
+            index.remove(docId);
+        }
+        assertEquals(0, index.size());
+        assertEquals(2, docIds.size());
+    }
+
+    @Test
+    public void writeAndRead_keepsWhetherBodiesAreIndexed() throws Exception {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        RecipeModel listed = RecipeModel.summaryFromMap("a", recipe("a", "Lemon tart", "lemons", "Bake.").toMap());
+        index.addOrUpdate(listed);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out);
+        RecipeSearchIndex restored = new RecipeSearchIndex();
+        restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertTrue(restored.isCurrent(listed));
+        assertFalse(restored.hasBody(listed));
+    }
+
+    @Test
+    public void search_overTenThousandRecipesIsFast() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        String[] words = {"chicken", "beef", "tofu", "rice", "noodle", "tomato", "garlic", "basil", "lemon", "curry"};
+        for (int i = 0; i < 10000; i++) {
+            index.addOrUpdate(recipe("doc" + i, words[i % 10] + " " + words[(i / 10) % 10] + " dish " + i,
+                    words[(i / 100) % 10] + ", salt, pepper", "Cook well."));
+        }
+        index.search("chick gar", 20); // Warm up
+
+        long start = System.nanoTime();
+        List<RecipeSearchIndex.Result> results = index.search("chick gar", 20);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(results.isEmpty());
+        assertTrue("Search took " + elapsedMs + " ms", elapsedMs < 50);
+    }
+
+    private static RecipeModel recipe(String docId, String title, String ingredients, String instructions) {
+        return new RecipeModel(docId, 0, title, null, title, null, null, ingredients, instructions);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.backup.RecipeBackup;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Backup export and restore throughput: encode + gzip of the whole collection, and the reverse.
+// Divide recipeCount by the reported time for recipes/s; the aux counters give the compressed size.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class BackupBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int recipeCount;
+
+    private List<RecipeModel> recipes;
+    private byte[] backupFile;
+    private final AtomicBoolean notCancelled = new AtomicBoolean(false);
+
+    // Reported next to each export result
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileSize {
+        public long compressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            compressedBytes = 0;
+        }
+    }
+
+    // Discards output while counting it, so the export itself is measured in constant memory
+    private static final class CountingSink extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        recipes = RecipeDatasets.generate(recipeCount);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        RecipeBackup.export(this::page, file, done -> { }, notCancelled);
+        backupFile = file.toByteArray();
+    }
+
+    // RecipeDatasets IDs are "doc" + the zero-padded index, so the recipe after a cursor is its index + 1
+    private List<RecipeModel> page(String startAfterDocId, int limit) {
+        int from = startAfterDocId == null ? 0 : Integer.parseInt(startAfterDocId.substring(3)) + 1;
+        return recipes.subList(from, Math.min(recipes.size(), from + limit));
+    }
+
+    @Benchmark
+    public long export(FileSize fileSize) throws IOException {
+        CountingSink sink = new CountingSink();
+        long written = RecipeBackup.export(this::page, sink, done -> { }, notCancelled);
+        fileSize.compressedBytes += sink.count;
+        return written;
+    }
+
+    @Benchmark
+    public long restore() throws IOException {
+        long[] checksum = {0};
+        RecipeBackup.restore(new ByteArrayInputStream(backupFile),
+                chunk -> checksum[0] += chunk.size(), done -> { }, notCancelled);
+        return checksum[0];
+    }
+}
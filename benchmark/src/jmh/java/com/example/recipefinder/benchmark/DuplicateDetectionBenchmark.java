@@ -0,0 +1,46 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.dedupe.DuplicateDetector;
+import com.example.recipefinder.dedupe.DuplicateGroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// Whole-collection duplicate scan; with LSH bucketing time should grow roughly linearly, not with the pair count
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class DuplicateDetectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int recipeCount;
+
+    private List<RecipeModel> recipes;
+
+    @Setup
+    public void setUp() {
+        recipes = RecipeDatasets.generate(recipeCount);
+        // One recipe in a hundred saved a second time under a new title
+        for (int i = 0; i < recipeCount; i += 100) {
+            RecipeModel copy = recipes.get(i).copy();
+            copy.setFirebaseDocId("copy" + i);
+            copy.setCustomTitle(copy.getTitle() + " (again)");
+            recipes.add(copy);
+        }
+        for (RecipeModel recipe : recipes) {
+            recipe.parseForSave(); // As loaded from storage: the parsed lines come with the document
+        }
+    }
+
+    @Benchmark
+    public List<DuplicateGroup> findDuplicates() {
+        return new DuplicateDetector().findDuplicates(recipes);
+    }
+}
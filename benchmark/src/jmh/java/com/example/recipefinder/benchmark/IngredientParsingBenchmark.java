@@ -0,0 +1,54 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.ingredients.IngredientNormalizer;
+import com.example.recipefinder.search.TextNormalizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+// Ingredient-string parsing and HTML-to-text stripping over whole collections
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class IngredientParsingBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int recipeCount;
+
+    private List<RecipeModel> recipes;
+
+    @Setup
+    public void setUp() {
+        recipes = RecipeDatasets.generate(recipeCount);
+    }
+
+    @Benchmark
+    public void parseIngredientNames(Blackhole blackhole) {
+        for (RecipeModel recipe : recipes) {
+            blackhole.consume(IngredientNormalizer.parseIngredientNames(recipe.getIngredients()));
+        }
+    }
+
+    @Benchmark
+    public void stripHtml(Blackhole blackhole) {
+        for (RecipeModel recipe : recipes) {
+            blackhole.consume(TextNormalizer.stripHtml(recipe.getSummary()));
+            blackhole.consume(TextNormalizer.stripHtml(recipe.getInstructions()));
+        }
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        for (RecipeModel recipe : recipes) {
+            blackhole.consume(TextNormalizer.tokenize(recipe.getInstructions()));
+        }
+    }
+}
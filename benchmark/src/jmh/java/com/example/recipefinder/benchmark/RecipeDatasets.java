@@ -0,0 +1,114 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic recipes shaped like imported Spoonacular data: HTML summaries and ingredient lists
+public final class RecipeDatasets {
+
+    private static final String[] INGREDIENTS = {
+            "all-purpose flour", "eggs", "whole milk", "unsalted butter", "granulated sugar", "salt",
+            "yellow onion", "garlic cloves", "tomatoes", "basmati rice", "chicken breast", "ground beef",
+            "carrots", "potatoes", "cheddar cheese", "fresh basil", "lemons", "black pepper",
+            "extra-virgin olive oil", "heavy cream", "scallions", "chickpeas", "spinach", "mushrooms",
+            "soy sauce", "ginger", "cumin", "paprika", "honey", "baking powder", "vanilla extract",
+            "parmesan", "zucchini", "bell peppers", "coconut milk", "shrimp", "tofu", "quinoa", "oats"};
+    private static final String[] UNITS = {"cup", "cups", "tbsp", "tsp", "g", "oz", "lb", "", "pinch of"};
+    private static final String[] QUANTITIES = {"1", "2", "1/2", "3/4", "1 1/2", "250", "½", "2-3", "4"};
+    private static final String[] DISHES = {"Curry", "Stew", "Salad", "Pancakes", "Soup", "Pasta", "Tart",
+            "Stir-Fry", "Casserole", "Risotto", "Tacos", "Bowl"};
+
+    private RecipeDatasets() {
+    }
+
+    public static List<RecipeModel> generate(int count) {
+        Random random = new Random(42);
+        List<RecipeModel> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recipes.add(generateRecipe(random, i));
+        }
+        return recipes;
+    }
+
+    static RecipeModel generateRecipe(Random random, int i) {
+        String main = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+        String title = capitalize(main) + " " + DISHES[random.nextInt(DISHES.length)] + " #" + i;
+
+        StringBuilder ingredients = new StringBuilder("<ul>");
+        int ingredientCount = 5 + random.nextInt(10);
+        for (int j = 0; j < ingredientCount; j++) {
+            ingredients.append("<li>")
+                    .append(QUANTITIES[random.nextInt(QUANTITIES.length)]).append(' ')
+                    .append(UNITS[random.nextInt(UNITS.length)]).append(' ')
+                    .append(INGREDIENTS[random.nextInt(INGREDIENTS.length)])
+                    .append(random.nextBoolean() ? ", chopped" : "")
+                    .append("</li>");
+        }
+        ingredients.append("</ul>");
+
+        StringBuilder instructions = new StringBuilder("<ol>");
+        int steps = 3 + random.nextInt(8);
+        for (int j = 0; j < steps; j++) {
+            instructions.append("<li>Step ").append(j + 1).append(": combine the ")
+                    .append(INGREDIENTS[random.nextInt(INGREDIENTS.length)])
+                    .append(" and cook over medium heat for ").append(5 + random.nextInt(20))
+                    .append(" minutes, stirring &amp; tasting.</li>");
+        }
+        instructions.append("</ol>");
+
+        String summary = "<p>This <b>" + title + "</b> is a crowd-pleaser with <a href=\"https://example.com/"
+                + i + "\">" + main + "</a>. It serves " + (2 + random.nextInt(6))
+                + " and takes about " + (15 + random.nextInt(90)) + " minutes &mdash; perfect for weeknights.</p>";
+
+        RecipeModel recipe = new RecipeModel("doc" + String.format("%08d", i), random.nextInt(700000), title,
+                "https://img.example.com/recipes/" + i + "-556x370.jpg", random.nextInt(4) == 0 ? title + " (mine)" : null,
+                random.nextInt(3) == 0 ? "Less salt next time." : null,
+                summary, ingredients.toString(), instructions.toString());
+        recipe.setLastModified(1_700_000_000_000L + i);
+        return recipe;
+    }
+
+    // Plain-text ingredient list, one line per ingredient, with the same quantities and units as generate()
+    public static String ingredientLines(int count, long seed) {
+        Random random = new Random(seed);
+        StringBuilder lines = new StringBuilder();
+        for (int j = 0; j < count; j++) {
+            if (j > 0) {
+                lines.append('\n');
+            }
+            lines.append(QUANTITIES[random.nextInt(QUANTITIES.length)]).append(' ')
+                    .append(UNITS[random.nextInt(UNITS.length)]).append(' ')
+                    .append(INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+        }
+        return lines.toString();
+    }
+
+    // A copy of the list where roughly one recipe in a hundred was edited, one removed and one inserted
+    public static List<RecipeModel> mutate(List<RecipeModel> recipes, long seed) {
+        Random random = new Random(seed);
+        List<RecipeModel> mutated = new ArrayList<>(recipes.size() + 1);
+        for (RecipeModel recipe : recipes) {
+            int roll = random.nextInt(100);
+            if (roll == 0) {
+                RecipeModel edited = recipe.copy();
+                edited.setUserNotes("Edited " + random.nextInt());
+                mutated.add(edited);
+            } else if (roll == 1) {
+                continue;
+            } else {
+                mutated.add(recipe);
+                if (roll == 2) {
+                    mutated.add(generateRecipe(random, recipes.size() + random.nextInt(1_000_000)));
+                }
+            }
+        }
+        return mutated;
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
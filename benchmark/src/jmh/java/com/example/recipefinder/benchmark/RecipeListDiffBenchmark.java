@@ -0,0 +1,77 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The comparison work RecipeAdapter's DiffUtil callback does when MyRecipesFragment submits a new list:
+ * match rows by firebaseDocId (areItemsTheSame) and compare matched rows with RecipeModel.equals
+ * (areContentsTheSame). DiffUtil itself ships in an Android AAR and cannot run here, so this measures
+ * the per-item callback cost with an equivalent keyed diff.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class RecipeListDiffBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int recipeCount;
+
+    private List<RecipeModel> oldList;
+    private List<RecipeModel> newList;
+    private List<RecipeModel> copiedList;
+
+    @Setup
+    public void setUp() {
+        oldList = RecipeDatasets.generate(recipeCount);
+        newList = RecipeDatasets.mutate(oldList, 7);
+        // Every row a distinct but equal instance, like a fresh snapshot that changed nothing
+        copiedList = new ArrayList<>(oldList.size());
+        for (RecipeModel recipe : oldList) {
+            copiedList.add(recipe.copy());
+        }
+    }
+
+    @Benchmark
+    public int diffOnePercentChanged() {
+        return diff(oldList, newList);
+    }
+
+    @Benchmark
+    public int diffUnchangedCopies() {
+        return diff(oldList, copiedList);
+    }
+
+    // Returns the number of inserted, removed and changed rows
+    static int diff(List<RecipeModel> oldItems, List<RecipeModel> newItems) {
+        Map<String, RecipeModel> oldById = new HashMap<>(oldItems.size() * 2);
+        for (RecipeModel recipe : oldItems) {
+            oldById.put(recipe.getFirebaseDocId(), recipe);
+        }
+        int changes = 0;
+        int matched = 0;
+        for (RecipeModel recipe : newItems) {
+            RecipeModel old = oldById.get(recipe.getFirebaseDocId());
+            if (old == null) {
+                changes++; // Inserted
+            } else {
+                matched++;
+                if (!old.equals(recipe)) {
+                    changes++; // Rebound
+                }
+            }
+        }
+        return changes + (oldItems.size() - matched); // Plus removed
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.data.FirestoreDocumentSize;
+import com.example.recipefinder.data.RecipeCatalog;
+import com.example.recipefinder.data.RecipeDocumentLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A page of the saved-recipes list decoded from whole documents (the layout before RecipeBodies), from summary
+// documents, and from one catalog shard holding the same recipes. Bytes per page, by Firestore's storage size,
+// are printed at setup, with the body documents a list load would add if it also fetched every body.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class RecipeListPageBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private List<String> docIds;
+    private List<Map<String, Object>> wholeDocuments;
+    private List<Map<String, Object>> summaryDocuments;
+    private Map<String, Object> catalogEntries;
+
+    @Setup
+    public void setUp() {
+        docIds = new ArrayList<>(pageSize);
+        wholeDocuments = new ArrayList<>(pageSize);
+        summaryDocuments = new ArrayList<>(pageSize);
+        long wholeBytes = 0;
+        long summaryBytes = 0;
+        long bodyBytes = 0;
+        Map<String, Map<String, Object>> saves = new HashMap<>();
+        for (RecipeModel recipe : RecipeDatasets.generate(pageSize)) {
+            recipe.parseForSave(); // Stored documents carry the parsed form
+            Map<String, Object> fields = recipe.toMap();
+            Map<String, Object> summary = RecipeDocumentLayout.summaryOf(fields);
+            String path = "Users/0123456789abcdefghijklmnopqr/SavedRecipes/" + recipe.getFirebaseDocId();
+            docIds.add(recipe.getFirebaseDocId());
+            wholeDocuments.add(fields);
+            summaryDocuments.add(summary);
+            wholeBytes += FirestoreDocumentSize.of(path, fields);
+            summaryBytes += FirestoreDocumentSize.of(path, summary);
+            bodyBytes += FirestoreDocumentSize.of("Users/0123456789abcdefghijklmnopqr/RecipeBodies/"
+                    + recipe.getFirebaseDocId(), RecipeDocumentLayout.bodyOf(fields));
+            saves.put(recipe.getFirebaseDocId(), fields);
+        }
+        RecipeCatalog.ShardWrite shard = new RecipeCatalog("0123456789abcdefghijklmnopqr")
+                .plan(saves, Collections.emptyMap(), Collections.emptyList()).get("0");
+        catalogEntries = new HashMap<String, Object>(shard.replaced);
+        long catalogBytes = FirestoreDocumentSize.of("Users/0123456789abcdefghijklmnopqr/RecipeCatalog/0",
+                Collections.<String, Object>singletonMap(RecipeCatalog.ENTRIES_FIELD, catalogEntries));
+        System.out.println("Page of " + pageSize + ": whole documents " + wholeBytes + " bytes, summaries "
+                + summaryBytes + " bytes, catalog shard " + catalogBytes + " bytes, bodies " + bodyBytes + " bytes");
+    }
+
+    @Benchmark
+    public void decodeWholePage(Blackhole blackhole) {
+        for (int i = 0; i < pageSize; i++) {
+            blackhole.consume(RecipeModel.fromMap(docIds.get(i), wholeDocuments.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void decodeSummaryPage(Blackhole blackhole) {
+        for (int i = 0; i < pageSize; i++) {
+            blackhole.consume(RecipeModel.summaryFromMap(docIds.get(i), summaryDocuments.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void decodeCatalogShard(Blackhole blackhole) {
+        RecipeCatalog catalog = new RecipeCatalog("0123456789abcdefghijklmnopqr");
+        catalog.setShard("0", catalogEntries);
+        blackhole.consume(catalog.getRecipes());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// RecipeModel <-> Firestore field map, the path every fetched or saved recipe goes through
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class RecipeModelBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int recipeCount;
+
+    private List<RecipeModel> recipes;
+    private List<Map<String, Object>> documents;
+
+    @Setup
+    public void setUp() {
+        recipes = RecipeDatasets.generate(recipeCount);
+        documents = new ArrayList<>(recipeCount);
+        for (RecipeModel recipe : recipes) {
+            documents.add(recipe.toMap());
+        }
+    }
+
+    @Benchmark
+    public void serializeToMap(Blackhole blackhole) {
+        for (RecipeModel recipe : recipes) {
+            blackhole.consume(recipe.toMap());
+        }
+    }
+
+    @Benchmark
+    public void deserializeFromMap(Blackhole blackhole) {
+        for (int i = 0; i < documents.size(); i++) {
+            blackhole.consume(RecipeModel.fromMap(recipes.get(i).getFirebaseDocId(), documents.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void copyAndHash(Blackhole blackhole) {
+        for (RecipeModel recipe : recipes) {
+            blackhole.consume(recipe.copy().hashCode());
+        }
+    }
+}
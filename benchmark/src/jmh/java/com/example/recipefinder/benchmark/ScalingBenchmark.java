@@ -0,0 +1,68 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.ingredients.IngredientLine;
+import com.example.recipefinder.ingredients.IngredientScaler;
+import com.example.recipefinder.ingredients.RecipeTextParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// One slider tick on the detail screen: re-render a long ingredient list at a new scale
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class ScalingBenchmark {
+
+    private static final long[] SCALE_NUM = {1, 1, 1, 2, 3, 1, 5, 3, 2, 5, 3, 4};
+    private static final long[] SCALE_DEN = {4, 3, 2, 3, 4, 1, 4, 2, 1, 2, 1, 1};
+
+    @Param({"40"})
+    public int lineCount;
+
+    @Param({"AS_WRITTEN", "METRIC", "IMPERIAL"})
+    public IngredientScaler.UnitSystem unitSystem;
+
+    private String ingredients;
+    private List<IngredientLine> parsed;
+    private IngredientScaler scaler;
+    private final StringBuilder out = new StringBuilder();
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        ingredients = RecipeDatasets.ingredientLines(lineCount, 42);
+        parsed = RecipeTextParser.parseIngredients(ingredients);
+        scaler = new IngredientScaler(parsed);
+    }
+
+    // What the activity does per tick: the scaler was built when the recipe was shown
+    @Benchmark
+    public StringBuilder renderTick() {
+        int stop = tick++ % SCALE_NUM.length;
+        scaler.render(SCALE_NUM[stop], SCALE_DEN[stop], unitSystem, out);
+        return out;
+    }
+
+    // Building the scaler from the stored parse on every tick instead
+    @Benchmark
+    public StringBuilder buildAndRenderTick() {
+        int stop = tick++ % SCALE_NUM.length;
+        new IngredientScaler(parsed).render(SCALE_NUM[stop], SCALE_DEN[stop], unitSystem, out);
+        return out;
+    }
+
+    // Reparsing the raw text on every tick, as if nothing had been stored at save time
+    @Benchmark
+    public StringBuilder parseAndRenderTick() {
+        int stop = tick++ % SCALE_NUM.length;
+        new IngredientScaler(RecipeTextParser.parseIngredients(ingredients))
+                .render(SCALE_NUM[stop], SCALE_DEN[stop], unitSystem, out);
+        return out;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.ingredients.IngredientIndex;
+import com.example.recipefinder.ingredients.PantryMatchService;
+import com.example.recipefinder.search.RecipeSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Query latency of the full-text search index and the pantry ingredient index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class SearchBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int recipeCount;
+
+    private List<RecipeModel> recipes;
+    private RecipeSearchIndex searchIndex;
+    private PantryMatchService pantryMatchService;
+    private List<String> pantry;
+
+    @Setup
+    public void setUp() {
+        recipes = RecipeDatasets.generate(recipeCount);
+        searchIndex = new RecipeSearchIndex();
+        for (RecipeModel recipe : recipes) {
+            searchIndex.addOrUpdate(recipe);
+        }
+        pantryMatchService = new PantryMatchService();
+        pantryMatchService.rebuild(recipes);
+        pantry = PantryMatchService.canonicalizeAll(Arrays.asList("eggs", "flour", "milk", "butter", "sugar"));
+    }
+
+    @Benchmark
+    public List<RecipeSearchIndex.Result> searchSingleTerm() {
+        return searchIndex.search("chicken", 50);
+    }
+
+    @Benchmark
+    public List<RecipeSearchIndex.Result> searchPrefixes() {
+        return searchIndex.search("gar tom", 50);
+    }
+
+    @Benchmark
+    public List<IngredientIndex.Match> pantryMatch() {
+        return pantryMatchService.findRecipes(pantry, 50);
+    }
+
+    @Benchmark
+    public RecipeSearchIndex buildSearchIndex() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        for (RecipeModel recipe : recipes) {
+            index.addOrUpdate(recipe);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public IngredientIndex buildIngredientIndex() {
+        return IngredientIndex.build(recipes);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.recipefinder.benchmark;
+
+import com.example.recipefinder.RecipeModel;
+import com.example.recipefinder.ingredients.ShoppingList;
+import com.example.recipefinder.ingredients.ShoppingListBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Merged shopping list for a meal plan; time should grow linearly with the number of recipes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class ShoppingListBenchmark {
+
+    @Param({"30", "1000"})
+    public int recipeCount;
+
+    private List<RecipeModel> recipes;
+    private List<RecipeModel> unparsed;
+
+    @Setup
+    public void setUp() {
+        recipes = RecipeDatasets.generate(recipeCount);
+        for (RecipeModel recipe : recipes) {
+            recipe.parseForSave(); // As loaded from storage: the parsed lines come with the document
+        }
+        unparsed = RecipeDatasets.generate(recipeCount);
+    }
+
+    @Benchmark
+    public ShoppingList build() {
+        return new ShoppingListBuilder().addRecipes(recipes).build();
+    }
+
+    // Legacy recipes without a stored parse: every line is parsed first
+    @Benchmark
+    public ShoppingList parseAndBuild() {
+        List<RecipeModel> copies = new ArrayList<>(unparsed.size());
+        for (RecipeModel recipe : unparsed) {
+            copies.add(recipe.copy());
+        }
+        return new ShoppingListBuilder().addRecipes(copies).build();
+    }
+}